@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.internal.concurrent;
+
+/**
+ * Determines how many threads to use for work which can run concurrently, from the parallel thread count of the build, as returned by
+ * {@code StartParameter.getParallelThreadCount()}. A negative count means one thread per processor, and 0 means that the build does
+ * not run in parallel.
+ */
+public class ParallelThreads {
+    private ParallelThreads() {
+    }
+
+    /**
+     * Returns the number of threads to use for work which runs concurrently only when the build runs in parallel. This is 1 when the
+     * build does not run in parallel.
+     */
+    public static int getThreadCount(int parallelThreadCount) {
+        if (parallelThreadCount < 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return Math.max(1, parallelThreadCount);
+    }
+
+    /**
+     * Returns the number of threads to use for work which has been enabled to run concurrently on its own. This is the same as
+     * {@link #getThreadCount(int)}, except that one thread per processor is used when the build does not run in parallel.
+     */
+    public static int getThreadCountWhenEnabled(int parallelThreadCount) {
+        if (parallelThreadCount == 0) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        return getThreadCount(parallelThreadCount);
+    }
+}
@@ -26,6 +26,10 @@ import org.gradle.internal.reflect.JavaReflectionUtil;
 import java.io.Closeable;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * A hierarchical {@link ServiceRegistry} implementation.
@@ -54,14 +58,23 @@ import java.util.*;
  * reverse dependency order.</p>
  *
  * <p>Service registries are arranged in a hierarchy. If a service of a given type cannot be located, the registry uses its parent registry, if any, to locate the service.</p>
+ *
+ * <p>Once a service or factory of a given type has been located by this registry, later lookups for that type are served without acquiring the lock of the registry,
+ * until another service is added to the registry or the registry starts to close. Services and factories located by a parent registry are not kept, so they are
+ * always requested from the parent, which stops serving them once it starts to close.</p>
  */
 public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
-    private final Object lock = new Object();
+    private static final AtomicLong LOCKED_LOOKUPS = new AtomicLong();
+    private static final AtomicLong CONTENDED_LOOKUPS = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentMap<Type, Object> resolvedServices = new ConcurrentHashMap<Type, Object>();
+    private final ConcurrentMap<Class<?>, Factory<?>> resolvedFactories = new ConcurrentHashMap<Class<?>, Factory<?>>();
     private final CompositeProvider allServices = new CompositeProvider();
     private final OwnServices ownServices;
     private final CompositeProvider parentServices;
     private final String displayName;
-    private boolean closed;
+    private volatile boolean closing;
+    private volatile boolean closed;
 
     public DefaultServiceRegistry() {
         this(null, Collections.<ServiceRegistry>emptyList());
@@ -105,6 +118,14 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         return registry;
     }
 
+    /**
+     * Returns the number of lookups, across all registries, which acquired the lock of a registry since the previous call to this method, and how many of
+     * these had to wait for another thread.
+     */
+    public static LookupStatistics takeLookupStatistics() {
+        return new LookupStatistics(LOCKED_LOOKUPS.getAndSet(0), CONTENDED_LOOKUPS.getAndSet(0));
+    }
+
     @Override
     public String toString() {
         return displayName;
@@ -232,12 +253,18 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
      * Closes all services for this registry. For each service, if the service has a public void close() or stop() method, that method is called to close the service.
      */
     public void close() {
-        synchronized (lock) {
-            try {
-                CompositeStoppable.stoppable(allServices).stop();
-            } finally {
-                closed = true;
-            }
+        lock.lock();
+        try {
+            // Stop serving lookups without the lock before any service is stopped
+            closing = true;
+            resolvedServices.clear();
+            resolvedFactories.clear();
+            CompositeStoppable.stoppable(allServices).stop();
+        } finally {
+            closed = true;
+            resolvedServices.clear();
+            resolvedFactories.clear();
+            lock.unlock();
         }
     }
 
@@ -269,7 +296,8 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     public <T> List<T> getAll(Class<T> serviceType) throws ServiceLookupException {
-        synchronized (lock) {
+        lockForLookup();
+        try {
             if (closed) {
                 throw new IllegalStateException(String.format("Cannot locate service of type %s, as %s has been closed.", format(serviceType), displayName));
             }
@@ -277,6 +305,8 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             DefaultLookupContext context = new DefaultLookupContext();
             allServices.getAll(context, serviceType, result);
             return result;
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -289,7 +319,13 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     private Object doGet(Type serviceType) throws IllegalArgumentException {
-        synchronized (lock) {
+        Object service = resolvedServices.get(serviceType);
+        if (service != null && !closing) {
+            return service;
+        }
+
+        lockForLookup();
+        try {
             if (closed) {
                 throw new IllegalStateException(String.format("Cannot locate service of type %s, as %s has been closed.", format(serviceType), displayName));
             }
@@ -297,29 +333,55 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             DefaultLookupContext context = new DefaultLookupContext();
             ServiceProvider provider = context.find(serviceType, allServices);
             if (provider != null) {
-                return provider.get();
+                service = provider.get();
+                if (!(provider instanceof ParentServiceProvider)) {
+                    resolvedServices.put(serviceType, service);
+                }
+                return service;
             }
 
             throw new UnknownServiceException(serviceType, String.format("No service of type %s available in %s.", format(serviceType), displayName));
+        } finally {
+            lock.unlock();
         }
     }
 
     public <T> Factory<T> getFactory(Class<T> type) {
-        synchronized (lock) {
+        Factory<?> factory = resolvedFactories.get(type);
+        if (factory != null && !closing) {
+            return (Factory<T>) factory;
+        }
+
+        lockForLookup();
+        try {
             if (closed) {
                 throw new IllegalStateException(String.format("Cannot locate factory for objects of type %s, as %s has been closed.", format(type), displayName));
             }
 
             DefaultLookupContext context = new DefaultLookupContext();
-            ServiceProvider factory = allServices.getFactory(context, type);
-            if (factory != null) {
-                return (Factory<T>) factory.get();
+            ServiceProvider provider = allServices.getFactory(context, type);
+            if (provider != null) {
+                factory = (Factory<?>) provider.get();
+                if (!(provider instanceof ParentServiceProvider)) {
+                    resolvedFactories.put(type, factory);
+                }
+                return (Factory<T>) factory;
             }
 
             throw new UnknownServiceException(type, String.format("No factory for objects of type %s available in %s.", format(type), displayName));
+        } finally {
+            lock.unlock();
         }
     }
 
+    private void lockForLookup() {
+        if (!lock.tryLock()) {
+            CONTENDED_LOOKUPS.incrementAndGet();
+            lock.lock();
+        }
+        LOCKED_LOOKUPS.incrementAndGet();
+    }
+
     public <T> T newInstance(Class<T> type) {
         return getFactory(type).create();
     }
@@ -328,6 +390,30 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         return JavaReflectionUtil.method(target, Object.class, method).invoke(target, args);
     }
 
+    public static class LookupStatistics {
+        private final long locked;
+        private final long contended;
+
+        public LookupStatistics(long locked, long contended) {
+            this.locked = locked;
+            this.contended = contended;
+        }
+
+        /**
+         * The number of lookups which acquired the lock of a registry.
+         */
+        public long getLocked() {
+            return locked;
+        }
+
+        /**
+         * The number of lookups which waited for another thread to release the lock of a registry.
+         */
+        public long getContended() {
+            return contended;
+        }
+    }
+
     interface ServiceProvider {
         String getDisplayName();
 
@@ -423,6 +509,9 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
         public void add(Provider provider) {
             this.providers.add(provider);
+            // The new provider may change the result of a lookup
+            resolvedServices.clear();
+            resolvedFactories.clear();
         }
     }
 
@@ -859,20 +948,8 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             return null;
         }
 
-        private ServiceProvider wrap(final Object instance) {
-            return new ServiceProvider() {
-                public String getDisplayName() {
-                    return String.format("ServiceRegistry %s", parent);
-                }
-
-                public Object get() {
-                    return instance;
-                }
-
-                public void requiredBy(Provider provider) {
-                    // Ignore
-                }
-            };
+        private ServiceProvider wrap(Object instance) {
+            return new ParentServiceProvider(parent, instance);
         }
 
         public <T> void getAll(LookupContext context, Class<T> serviceType, List<T> result) {
@@ -885,6 +962,28 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
         }
     }
 
+    private static class ParentServiceProvider implements ServiceProvider {
+        private final ServiceRegistry parent;
+        private final Object instance;
+
+        private ParentServiceProvider(ServiceRegistry parent, Object instance) {
+            this.parent = parent;
+            this.instance = instance;
+        }
+
+        public String getDisplayName() {
+            return String.format("ServiceRegistry %s", parent);
+        }
+
+        public Object get() {
+            return instance;
+        }
+
+        public void requiredBy(Provider provider) {
+            // Ignore
+        }
+    }
+
     interface LookupContext {
         @Nullable
         ServiceProvider find(Type type, Provider provider);
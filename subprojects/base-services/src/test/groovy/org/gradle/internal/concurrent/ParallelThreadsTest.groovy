@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.internal.concurrent
+
+import spock.lang.Specification
+
+class ParallelThreadsTest extends Specification {
+    def processors = Runtime.runtime.availableProcessors()
+
+    def "uses the parallel thread count when the build runs in parallel"() {
+        expect:
+        ParallelThreads.getThreadCount(3) == 3
+        ParallelThreads.getThreadCount(-1) == processors
+        ParallelThreads.getThreadCountWhenEnabled(3) == 3
+        ParallelThreads.getThreadCountWhenEnabled(-1) == processors
+    }
+
+    def "uses a single thread when the build does not run in parallel, unless the work is enabled to run concurrently on its own"() {
+        expect:
+        ParallelThreads.getThreadCount(0) == 1
+        ParallelThreads.getThreadCountWhenEnabled(0) == processors
+    }
+}
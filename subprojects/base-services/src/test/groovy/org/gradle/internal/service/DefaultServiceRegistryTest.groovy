@@ -24,6 +24,7 @@ import spock.lang.Specification
 
 import java.lang.reflect.Type
 import java.util.concurrent.Callable
+import java.util.concurrent.atomic.AtomicReference
 
 class DefaultServiceRegistryTest extends Specification {
     def TestRegistry registry = new TestRegistry()
@@ -979,6 +980,82 @@ class DefaultServiceRegistryTest extends Specification {
         e.message == "Cannot locate factory for objects of type BigDecimal, as TestRegistry has been closed."
     }
 
+    def "does not serve located services to other threads once closing"() {
+        given:
+        def registry = new DefaultServiceRegistry()
+        def failure = new AtomicReference<Throwable>()
+        def lookup = new Thread({
+            try {
+                registry.get(String)
+            } catch (Throwable e) {
+                failure.set(e)
+            }
+        })
+        registry.add(Stoppable, { lookup.start(); lookup.join(100) } as Stoppable)
+        registry.add(String, "value")
+        registry.get(String)
+
+        when:
+        registry.close()
+        lookup.join()
+
+        then:
+        failure.get() instanceof IllegalStateException
+    }
+
+    def "serves repeated lookups without acquiring lock"() {
+        given:
+        def registry = new DefaultServiceRegistry()
+        registry.addProvider(new TestProvider())
+        DefaultServiceRegistry.takeLookupStatistics()
+
+        when:
+        def first = registry.get(String)
+        def second = registry.get(String)
+        registry.getFactory(BigDecimal)
+        registry.getFactory(BigDecimal)
+
+        then:
+        second.is(first)
+        def statistics = DefaultServiceRegistry.takeLookupStatistics()
+        statistics.locked == 2
+        statistics.contended == 0
+    }
+
+    def "does not serve service located by parent once parent is closed"() {
+        given:
+        def parent = new DefaultServiceRegistry()
+        parent.add(String, "value")
+        def registry = new DefaultServiceRegistry(parent)
+
+        expect:
+        registry.get(String) == "value"
+
+        when:
+        parent.close()
+        registry.get(String)
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == "Cannot locate service of type String, as DefaultServiceRegistry has been closed."
+    }
+
+    def "locates service again after service is added"() {
+        def registry = new DefaultServiceRegistry()
+        registry.add(Integer, 12)
+
+        expect:
+        registry.get(Number) == 12
+
+        when:
+        registry.add(Long, 2L)
+        registry.get(Number)
+
+        then:
+        ServiceLookupException e = thrown()
+        e.message.startsWith("Multiple services of type Number available in DefaultServiceRegistry:")
+    }
+
     private Factory<Number> numberFactory
     private Factory<String> stringFactory
     private Factory<? super BigDecimal> superBigDecimalFactory
@@ -74,6 +74,7 @@ public class StartParameter extends LoggingConfiguration implements Serializable
     private boolean recompileScripts;
     private int parallelThreadCount;
     private boolean configureOnDemand;
+    private boolean parallelProjectConfiguration;
 
     /**
      * Sets the project's cache location. Set to null to use the default location.
@@ -156,6 +157,7 @@ public class StartParameter extends LoggingConfiguration implements Serializable
         p.refreshDependencies = refreshDependencies;
         p.parallelThreadCount = parallelThreadCount;
         p.configureOnDemand = configureOnDemand;
+        p.parallelProjectConfiguration = parallelProjectConfiguration;
         return p;
     }
 
@@ -606,6 +608,7 @@ public class StartParameter extends LoggingConfiguration implements Serializable
                 + ", refreshDependencies=" + refreshDependencies
                 + ", parallelThreadCount=" + parallelThreadCount
                 + ", configureOnDemand=" + configureOnDemand
+                + ", parallelProjectConfiguration=" + parallelProjectConfiguration
                 + '}';
     }
 
@@ -620,4 +623,18 @@ public class StartParameter extends LoggingConfiguration implements Serializable
     public void setConfigureOnDemand(boolean configureOnDemand) {
         this.configureOnDemand = configureOnDemand;
     }
+
+    /**
+     * If projects without child projects should be configured in parallel. Such projects must only reach other projects
+     * through project dependencies, task paths or {@link org.gradle.api.Project#evaluationDependsOn(String)}.
+     */
+    @Incubating
+    public boolean isParallelProjectConfiguration() {
+        return parallelProjectConfiguration;
+    }
+
+    @Incubating
+    public void setParallelProjectConfiguration(boolean parallelProjectConfiguration) {
+        this.parallelProjectConfiguration = parallelProjectConfiguration;
+    }
 }
\ No newline at end of file
@@ -49,6 +49,11 @@ public interface GradleInternal extends Gradle {
      */
     ProjectEvaluationListener getProjectEvaluationBroadcaster();
 
+    /**
+     * Returns true when build logic has registered any project evaluation listeners with this build, for example using {@link #beforeProject(groovy.lang.Closure)}.
+     */
+    boolean hasProjectEvaluationListeners();
+
     /**
      * Called by the BuildLoader after the default project is determined.  Until the BuildLoader
      * is executed, {@link #getDefaultProject()} will return null.
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.cache;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.internal.concurrent.Stoppable;
+
+/**
+ * Base class for a process-wide cache which is retained across builds in the daemon, and which each build uses through its own session.
+ *
+ * <p>A session should be stopped when the build that uses it is finished. When the last active session is stopped, the cache is asked to
+ * {@link #evictUnused() evict} the entries which no build has used since the previous time this happened.</p>
+ */
+@ThreadSafe
+public abstract class AbstractCrossBuildCache {
+    protected final Object lock = new Object();
+    private int activeSessions;
+
+    /**
+     * Discards the entries which have not been used since the previous call to this method, and marks the remaining entries as unused.
+     * Called with the lock held.
+     */
+    protected abstract void evictUnused();
+
+    /**
+     * The view of the cache used by a single build. Stopping a session more than once has no effect.
+     */
+    protected abstract class AbstractSession implements Stoppable {
+        private boolean stopped;
+
+        protected AbstractSession() {
+            synchronized (lock) {
+                activeSessions++;
+            }
+        }
+
+        /**
+         * Must be called with the lock held.
+         */
+        protected boolean isStopped() {
+            return stopped;
+        }
+
+        /**
+         * Releases the entries held by this session. Called once, with the lock held, before any entries are evicted.
+         */
+        protected void release() {
+        }
+
+        public void stop() {
+            synchronized (lock) {
+                if (stopped) {
+                    return;
+                }
+                stopped = true;
+                release();
+                activeSessions--;
+                if (activeSessions == 0) {
+                    evictUnused();
+                }
+            }
+        }
+    }
+}
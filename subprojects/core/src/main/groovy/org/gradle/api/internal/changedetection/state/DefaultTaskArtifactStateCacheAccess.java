@@ -67,4 +67,8 @@ public class DefaultTaskArtifactStateCacheAccess implements TaskArtifactStateCac
     public void longRunningOperation(String operationDisplayName, Runnable action) {
         cache.longRunningOperation(operationDisplayName, action);
     }
+
+    public <T> T writeToCache(Factory<? extends T> action) {
+        return cache.writeToCache(action);
+    }
 }
\ No newline at end of file
@@ -24,8 +24,12 @@ import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.util.GFileUtils;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 
 public abstract class AbstractFileTreeElement implements FileTreeElement {
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
     private final Chmod chmod;
 
     public abstract String getDisplayName();
@@ -55,7 +59,11 @@ public abstract class AbstractFileTreeElement implements FileTreeElement {
         try {
             InputStream inputStream = open();
             try {
-                IOUtils.copyLarge(inputStream, outstr);
+                if (outstr instanceof FileOutputStream) {
+                    transfer(inputStream, ((FileOutputStream) outstr).getChannel());
+                } else {
+                    IOUtils.copyLarge(inputStream, outstr);
+                }
             } finally {
                 inputStream.close();
             }
@@ -64,6 +72,36 @@ public abstract class AbstractFileTreeElement implements FileTreeElement {
         }
     }
 
+    /**
+     * Writes the content straight into the target file channel, in chunks, rather than through an intermediate copy buffer.
+     * Content read from a file is transferred from channel to channel, which allows the operating system to copy it directly.
+     */
+    private static void transfer(InputStream inputStream, FileChannel target) throws IOException {
+        if (inputStream instanceof FileInputStream) {
+            FileChannel source = ((FileInputStream) inputStream).getChannel();
+            long position = source.position();
+            long size = source.size();
+            while (position < size) {
+                long count = source.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), target);
+                if (count <= 0) {
+                    break;
+                }
+                position += count;
+            }
+            source.position(position);
+        }
+        ReadableByteChannel source = Channels.newChannel(inputStream);
+        long position = target.position();
+        while (true) {
+            long count = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE);
+            if (count <= 0) {
+                break;
+            }
+            position += count;
+        }
+        target.position(position);
+    }
+
     public boolean copyTo(File target) {
         validateTimeStamps();
         try {
@@ -32,6 +32,7 @@ import org.gradle.api.internal.resources.DefaultResourceHandler;
 import org.gradle.api.internal.tasks.TaskResolver;
 import org.gradle.api.resources.ReadableResource;
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.process.ExecResult;
@@ -55,13 +56,23 @@ public class DefaultFileOperations implements FileOperations, ProcessOperations,
     private final FileSystem fileSystem;
 
     public DefaultFileOperations(FileResolver fileResolver, TaskResolver taskResolver, TemporaryFileProvider temporaryFileProvider, Instantiator instantiator, FileLookup fileLookup) {
+        this(fileResolver, taskResolver, temporaryFileProvider, instantiator, fileLookup, null, 0);
+    }
+
+    /**
+     * Creates file operations which copy files using the given executor factory, when the build runs in parallel.
+     *
+     * @param parallelThreads The number of threads to use to copy files, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public DefaultFileOperations(FileResolver fileResolver, TaskResolver taskResolver, TemporaryFileProvider temporaryFileProvider, Instantiator instantiator, FileLookup fileLookup,
+                                 ExecutorFactory executorFactory, int parallelThreads) {
         this.fileResolver = fileResolver;
         this.taskResolver = taskResolver;
         this.temporaryFileProvider = temporaryFileProvider;
         this.instantiator = instantiator;
         this.deleteAction = new DeleteActionImpl(fileResolver);
         this.resourceHandler = new DefaultResourceHandler(fileResolver);
-        fileCopier = new FileCopier(this.instantiator, this.fileResolver, fileLookup);
+        fileCopier = new FileCopier(this.instantiator, this.fileResolver, fileLookup, executorFactory, parallelThreads);
         fileSystem = fileLookup.getFileSystem();
     }
 
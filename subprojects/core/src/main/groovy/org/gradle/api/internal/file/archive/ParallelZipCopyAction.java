@@ -0,0 +1,456 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.tools.zip.Zip64RequiredException;
+import org.apache.tools.zip.ZipOutputStream;
+import org.gradle.api.GradleException;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.file.FileCopyDetails;
+import org.gradle.api.internal.DocumentationRegistry;
+import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
+import org.gradle.api.internal.file.copy.CopyAction;
+import org.gradle.api.internal.file.copy.CopyActionProcessingStream;
+import org.gradle.api.internal.file.copy.FileCopyDetailsInternal;
+import org.gradle.api.internal.tasks.SimpleWorkResult;
+import org.gradle.api.tasks.WorkResult;
+import org.gradle.api.tasks.bundling.Zip;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.gradle.util.GFileUtils;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A {@link CopyAction} which creates a ZIP archive, compressing the entries concurrently.
+ *
+ * <p>The content of each entry is read on the calling thread, in order, into memory. It is then compressed by a bounded pool of
+ * worker threads, and the compressed entries are written to the archive on the calling thread in the order in which they were received.
+ * The content of an entry which is larger than the spill threshold is instead compressed on the calling thread into a temporary file,
+ * so that the memory used is bounded. The archive written is the same for the same entries, regardless of the number of threads.</p>
+ *
+ * <p>When given a {@link ZipArchiveIndex}, the compressed content of entries whose source file has not changed is copied unchanged from
+ * the previous archive, rather than being read and compressed again. The new archive is written to a temporary file, which then replaces
+ * the previous archive.</p>
+ */
+public class ParallelZipCopyAction implements CopyAction {
+    private static final int DEFAULT_SPILL_THRESHOLD = 4 * 1024 * 1024;
+
+    private final File zipFile;
+    private final int entryCompressionMethod;
+    private final boolean allowZip64;
+    private final DocumentationRegistry documentationRegistry;
+    private final ExecutorFactory executorFactory;
+    private final File temporaryDir;
+    private final int maxThreads;
+    private final int spillThreshold;
+    private final ZipArchiveIndex index;
+
+    /**
+     * @param index the index of the previous archive, or null if the previous archive should not be reused.
+     */
+    public ParallelZipCopyAction(File zipFile, int entryCompressionMethod, boolean allowZip64, DocumentationRegistry documentationRegistry, ExecutorFactory executorFactory, File temporaryDir, int maxThreads, ZipArchiveIndex index) {
+        this(zipFile, entryCompressionMethod, allowZip64, documentationRegistry, executorFactory, temporaryDir, maxThreads, DEFAULT_SPILL_THRESHOLD, index);
+    }
+
+    ParallelZipCopyAction(File zipFile, int entryCompressionMethod, boolean allowZip64, DocumentationRegistry documentationRegistry, ExecutorFactory executorFactory, File temporaryDir, int maxThreads, int spillThreshold, ZipArchiveIndex index) {
+        this.zipFile = zipFile;
+        this.entryCompressionMethod = entryCompressionMethod;
+        this.allowZip64 = allowZip64;
+        this.documentationRegistry = documentationRegistry;
+        this.executorFactory = executorFactory;
+        this.temporaryDir = temporaryDir;
+        this.maxThreads = maxThreads;
+        this.spillThreshold = spillThreshold;
+        this.index = index;
+    }
+
+    public WorkResult execute(CopyActionProcessingStream stream) {
+        boolean reusePrevious = index != null && index.load(zipFile, entryCompressionMethod);
+        File outputFile = reusePrevious ? new File(temporaryDir, zipFile.getName()) : zipFile;
+
+        final RawZipOutputStream zipOutStr;
+        final RandomAccessFile previousArchive;
+        try {
+            if (reusePrevious) {
+                GFileUtils.mkdirs(temporaryDir);
+            }
+            zipOutStr = new RawZipOutputStream(outputFile, allowZip64);
+        } catch (Exception e) {
+            throw new GradleException(String.format("Could not create ZIP '%s'.", zipFile), e);
+        }
+        try {
+            previousArchive = reusePrevious ? new RandomAccessFile(zipFile, "r") : null;
+        } catch (IOException e) {
+            CompositeStoppable.stoppable(zipOutStr).stop();
+            throw new UncheckedIOException(e);
+        }
+
+        StoppableExecutor executor = maxThreads > 1 ? executorFactory.create(String.format("compress %s", zipFile.getName())) : null;
+        StreamAction action = new StreamAction(zipOutStr, executor, previousArchive);
+        try {
+            try {
+                stream.process(action);
+                action.writeAll();
+                zipOutStr.finish();
+            } finally {
+                CompositeStoppable.stoppable(executor).add(action, zipOutStr, previousArchive).stop();
+            }
+        } catch (Zip64RequiredException e) {
+            throw zip64Required(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (reusePrevious) {
+            GFileUtils.forceDelete(zipFile);
+            GFileUtils.moveFile(outputFile, zipFile);
+        }
+        if (index != null) {
+            index.store(zipFile, entryCompressionMethod);
+        }
+        return new SimpleWorkResult(true);
+    }
+
+    private RuntimeException zip64Required(Zip64RequiredException e) {
+        return new org.gradle.api.tasks.bundling.internal.Zip64RequiredException(
+                String.format("%s\n\nTo build this archive, please enable the zip64 extension.\nSee: %s", e.getMessage(), documentationRegistry.getDslRefForProperty(Zip.class, "zip64"))
+        );
+    }
+
+    private class StreamAction implements CopyActionProcessingStreamAction, Closeable {
+        private final RawZipOutputStream zipOutStr;
+        private final StoppableExecutor executor;
+        private final RandomAccessFile previousArchive;
+        private final Deque<PendingEntry> pending = new ArrayDeque<PendingEntry>();
+        private final Semaphore compressing = new Semaphore(maxThreads);
+
+        public StreamAction(RawZipOutputStream zipOutStr, StoppableExecutor executor, RandomAccessFile previousArchive) {
+            this.zipOutStr = zipOutStr;
+            this.executor = executor;
+            this.previousArchive = previousArchive;
+        }
+
+        public void processFile(FileCopyDetailsInternal details) {
+            PendingEntry entry = new PendingEntry(details);
+            pending.add(entry);
+            if (!details.isDirectory()) {
+                if (index != null) {
+                    findSourceFile(entry, details);
+                }
+                if (entry.previous == null) {
+                    readContent(entry, details);
+                }
+            }
+            if (entry.content != null && executor != null) {
+                compressConcurrently(entry);
+            } else if (entry.content != null) {
+                entry.run();
+            } else {
+                entry.done.countDown();
+            }
+            while (!pending.isEmpty() && (pending.peek().done.getCount() == 0 || pending.size() > maxThreads * 2)) {
+                write(pending.remove());
+            }
+        }
+
+        private void compressConcurrently(final PendingEntry entry) {
+            // Hand no more entries to the executor than there are threads, so that it uses at most that many threads
+            compressing.acquireUninterruptibly();
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        entry.run();
+                    } finally {
+                        compressing.release();
+                    }
+                }
+            });
+        }
+
+        void writeAll() {
+            while (!pending.isEmpty()) {
+                write(pending.remove());
+            }
+        }
+
+        private void findSourceFile(PendingEntry entry, FileCopyDetailsInternal details) {
+            File sourceFile = details.getSourceFile();
+            if (sourceFile == null) {
+                return;
+            }
+            // Capture the length and timestamp before reading the file, so that a concurrent change is detected on the next execution
+            entry.sourceFile = sourceFile;
+            entry.sourceLength = sourceFile.length();
+            entry.sourceLastModified = sourceFile.lastModified();
+            if (previousArchive != null) {
+                entry.previous = index.getReusable(entry.name, sourceFile, entry.sourceLength, entry.sourceLastModified);
+            }
+        }
+
+        private void readContent(PendingEntry entry, FileCopyDetails details) {
+            EntryContentOutputStream outputStream = new EntryContentOutputStream(entry);
+            try {
+                try {
+                    details.copyTo(outputStream);
+                } finally {
+                    outputStream.close();
+                }
+            } catch (Exception e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", details, zipFile), e);
+            }
+        }
+
+        private void write(PendingEntry entry) {
+            try {
+                entry.done.await();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            try {
+                if (entry.failure != null) {
+                    throw entry.failure;
+                }
+                if (entry.directory) {
+                    zipOutStr.putDirectory(entry.name, entry.time, entry.mode);
+                    return;
+                }
+                long dataOffset;
+                if (entry.previous != null) {
+                    ZipArchiveIndex.Entry previous = entry.previous;
+                    entry.crc = previous.crc;
+                    entry.size = previous.size;
+                    entry.compressedSize = previous.compressedSize;
+                    // Not closed, as this would close the previous archive
+                    FileChannel channel = previousArchive.getChannel();
+                    channel.position(previous.dataOffset);
+                    dataOffset = zipOutStr.putFile(entry.name, entry.time, entry.mode, entryCompressionMethod, entry.crc, entry.size, entry.compressedSize, Channels.newInputStream(channel));
+                } else if (entry.spillFile != null) {
+                    InputStream inputStream = new BufferedInputStream(new FileInputStream(entry.spillFile));
+                    try {
+                        dataOffset = zipOutStr.putFile(entry.name, entry.time, entry.mode, entryCompressionMethod, entry.crc, entry.size, entry.compressedSize, inputStream);
+                    } finally {
+                        inputStream.close();
+                    }
+                } else {
+                    dataOffset = zipOutStr.putFile(entry.name, entry.time, entry.mode, entryCompressionMethod, entry.crc, entry.size, entry.compressed, (int) entry.compressedSize);
+                }
+                if (entry.sourceFile != null) {
+                    index.add(entry.name, entry.sourceFile, entry.sourceLength, entry.sourceLastModified, entry.crc, entry.size, entry.compressedSize, dataOffset);
+                }
+            } catch (Zip64RequiredException e) {
+                throw zip64Required(e);
+            } catch (Throwable e) {
+                throw new GradleException(String.format("Could not add %s to ZIP '%s'.", entry.displayName, zipFile), e);
+            } finally {
+                entry.discard();
+            }
+        }
+
+        /**
+         * Discards the content of any entries which have not been written, once the executor has stopped.
+         */
+        public void close() {
+            for (PendingEntry entry : pending) {
+                entry.discard();
+            }
+            pending.clear();
+        }
+    }
+
+    private class PendingEntry implements Runnable {
+        final String displayName;
+        final String name;
+        final long time;
+        final int mode;
+        final boolean directory;
+        final CountDownLatch done = new CountDownLatch(1);
+        byte[] content;
+        byte[] compressed;
+        File spillFile;
+        File sourceFile;
+        long sourceLength;
+        long sourceLastModified;
+        ZipArchiveIndex.Entry previous;
+        long crc;
+        long size;
+        long compressedSize;
+        Throwable failure;
+
+        PendingEntry(FileCopyDetails details) {
+            displayName = details.toString();
+            name = details.getRelativePath().getPathString();
+            time = details.getLastModified();
+            mode = details.getMode();
+            directory = details.isDirectory();
+        }
+
+        public void run() {
+            try {
+                if (entryCompressionMethod == ZipOutputStream.STORED) {
+                    compressed = content;
+                    compressedSize = size;
+                } else {
+                    compress();
+                }
+            } catch (Throwable throwable) {
+                failure = throwable;
+            } finally {
+                content = null;
+                done.countDown();
+            }
+        }
+
+        private void compress() {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                deflater.setInput(content, 0, (int) size);
+                deflater.finish();
+                byte[] output = new byte[Math.max(64, (int) size / 2)];
+                int length = 0;
+                while (!deflater.finished()) {
+                    if (length == output.length) {
+                        byte[] larger = new byte[output.length * 2];
+                        System.arraycopy(output, 0, larger, 0, length);
+                        output = larger;
+                    }
+                    length += deflater.deflate(output, length, output.length - length);
+                }
+                compressed = output;
+                compressedSize = length;
+            } finally {
+                deflater.end();
+            }
+        }
+
+        void discard() {
+            content = null;
+            compressed = null;
+            if (spillFile != null) {
+                GFileUtils.deleteQuietly(spillFile);
+                spillFile = null;
+            }
+        }
+    }
+
+    /**
+     * Collects the uncompressed content of an entry in memory, calculating its CRC. Once the spill threshold is exceeded, the content is
+     * instead compressed into a temporary file as it is received.
+     */
+    private class EntryContentOutputStream extends OutputStream {
+        private final PendingEntry entry;
+        private final CRC32 crc = new CRC32();
+        private byte[] buffer = new byte[8192];
+        private int count;
+        private CountingOutputStream spillCount;
+        private OutputStream spillStream;
+        private Deflater deflater;
+
+        EntryContentOutputStream(PendingEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            crc.update(bytes, offset, length);
+            if (spillStream == null && count + length > spillThreshold) {
+                spill();
+            }
+            if (spillStream != null) {
+                spillStream.write(bytes, offset, length);
+                entry.size += length;
+                return;
+            }
+            if (count + length > buffer.length) {
+                byte[] larger = new byte[Math.max(buffer.length * 2, count + length)];
+                System.arraycopy(buffer, 0, larger, 0, count);
+                buffer = larger;
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+            entry.size += length;
+        }
+
+        private void spill() throws IOException {
+            GFileUtils.mkdirs(temporaryDir);
+            entry.spillFile = File.createTempFile("entry", ".bin", temporaryDir);
+            spillCount = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(entry.spillFile)));
+            if (entryCompressionMethod == ZipOutputStream.STORED) {
+                spillStream = spillCount;
+            } else {
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                spillStream = new DeflaterOutputStream(spillCount, deflater, 65536);
+            }
+            spillStream.write(buffer, 0, count);
+            buffer = null;
+            count = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            entry.crc = crc.getValue();
+            if (spillStream == null) {
+                entry.content = buffer;
+                return;
+            }
+            try {
+                spillStream.close();
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+            }
+            entry.compressedSize = spillCount.count;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
+}
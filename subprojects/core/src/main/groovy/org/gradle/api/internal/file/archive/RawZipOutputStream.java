@@ -0,0 +1,315 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.apache.tools.zip.UnixStat;
+import org.apache.tools.zip.Zip64RequiredException;
+import org.apache.tools.zip.ZipOutputStream;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Writes a ZIP archive from entries whose content has already been compressed, and whose CRC and sizes are therefore known
+ * before the entry is written. This allows entries to be compressed concurrently, or to be copied unchanged from another archive,
+ * and then written in order. Entry names are always encoded using UTF-8.
+ *
+ * <p>The format written is the same as that written by {@link ZipOutputStream} for a seekable file, without data descriptors.
+ * {@link #finish()} must be called to write the central directory before the archive is closed.</p>
+ */
+public class RawZipOutputStream implements Closeable {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int LOCAL_FILE_HEADER_SIG = 0x04034b50;
+    private static final int CENTRAL_FILE_HEADER_SIG = 0x02014b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_SIG = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG = 0x07064b50;
+    private static final int END_OF_CENTRAL_DIR_SIG = 0x06054b50;
+    private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+    private static final int PLATFORM_UNIX = 3;
+    private static final int UTF8_FLAG = 1 << 11;
+    private static final int MIN_VERSION = 10;
+    private static final int DEFLATE_MIN_VERSION = 20;
+    private static final int ZIP64_MIN_VERSION = 45;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_SHORT = 0xFFFF;
+    private static final long DOS_TIME_BEFORE_1980 = (1 << 21) | (1 << 16);
+
+    private final OutputStream outputStream;
+    private final boolean allowZip64;
+    private final List<Entry> entries = new ArrayList<Entry>();
+    private final Calendar calendar = Calendar.getInstance();
+    private final byte[] buffer = new byte[8192];
+    private long written;
+    private boolean finished;
+
+    public RawZipOutputStream(File file, boolean allowZip64) throws IOException {
+        this(new FileOutputStream(file), allowZip64);
+    }
+
+    public RawZipOutputStream(OutputStream outputStream, boolean allowZip64) {
+        this.outputStream = new BufferedOutputStream(outputStream, 65536);
+        this.allowZip64 = allowZip64;
+    }
+
+    /**
+     * Writes a directory entry. A trailing slash is appended to the given name.
+     */
+    public void putDirectory(String name, long time, int mode) throws IOException {
+        Entry entry = new Entry(name + '/', time, UnixStat.DIR_FLAG | mode, ZipOutputStream.STORED, 0, 0, 0);
+        writeLocalFileHeader(entry);
+    }
+
+    /**
+     * Writes a file entry with the given content, which has already been compressed using the given method.
+     *
+     * @param content the compressed content. Exactly {@code compressedSize} bytes are read from this stream.
+     * @return the offset of the compressed content in the archive.
+     */
+    public long putFile(String name, long time, int mode, int method, long crc, long size, long compressedSize, InputStream content) throws IOException {
+        Entry entry = new Entry(name, time, UnixStat.FILE_FLAG | mode, method, crc, size, compressedSize);
+        writeLocalFileHeader(entry);
+        long dataOffset = written;
+        long remaining = compressedSize;
+        while (remaining > 0) {
+            int count = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (count < 0) {
+                throw new EOFException(String.format("Unexpected end of compressed content for zip entry '%s'.", name));
+            }
+            writeOut(buffer, 0, count);
+            remaining -= count;
+        }
+        return dataOffset;
+    }
+
+    /**
+     * Writes a file entry with the given content, which has already been compressed using the given method.
+     *
+     * @return the offset of the compressed content in the archive.
+     */
+    public long putFile(String name, long time, int mode, int method, long crc, long size, byte[] compressed, int compressedLength) throws IOException {
+        Entry entry = new Entry(name, time, UnixStat.FILE_FLAG | mode, method, crc, size, compressedLength);
+        writeLocalFileHeader(entry);
+        long dataOffset = written;
+        writeOut(compressed, 0, compressedLength);
+        return dataOffset;
+    }
+
+    /**
+     * Writes the central directory.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        long centralDirectoryOffset = written;
+        for (Entry entry : entries) {
+            writeCentralFileHeader(entry);
+        }
+        long centralDirectoryLength = written - centralDirectoryOffset;
+        writeEndOfCentralDirectory(centralDirectoryOffset, centralDirectoryLength);
+        outputStream.flush();
+    }
+
+    /**
+     * Closes the archive. Unlike {@link ZipOutputStream#close()}, this does not write the central directory, so an archive which has
+     * not been finished is left incomplete.
+     */
+    public void close() throws IOException {
+        outputStream.close();
+    }
+
+    private void writeLocalFileHeader(Entry entry) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Archive has already been finished.");
+        }
+        entry.offset = written;
+        if (entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC) {
+            if (!allowZip64) {
+                throw new Zip64RequiredException(entry.name + "'s size exceeds the limit of 4GByte.");
+            }
+            entry.zip64 = true;
+        }
+        if (entry.offset >= ZIP64_MAGIC && !allowZip64) {
+            throw new Zip64RequiredException("archive's size exceeds the limit of 4GByte.");
+        }
+
+        byte[] name = entry.name.getBytes(UTF_8);
+        int extraLength = entry.zip64 ? 20 : 0;
+        ByteBuffer header = buffer(30 + name.length + extraLength);
+        header.putInt(LOCAL_FILE_HEADER_SIG);
+        header.putShort((short) versionNeeded(entry));
+        header.putShort((short) UTF8_FLAG);
+        header.putShort((short) entry.method);
+        header.putInt((int) toDosTime(entry.time));
+        header.putInt((int) entry.crc);
+        header.putInt((int) (entry.zip64 ? ZIP64_MAGIC : entry.compressedSize));
+        header.putInt((int) (entry.zip64 ? ZIP64_MAGIC : entry.size));
+        header.putShort((short) name.length);
+        header.putShort((short) extraLength);
+        header.put(name);
+        if (entry.zip64) {
+            header.putShort((short) ZIP64_EXTRA_FIELD_ID);
+            header.putShort((short) 16);
+            header.putLong(entry.size);
+            header.putLong(entry.compressedSize);
+        }
+        writeOut(header);
+        entries.add(entry);
+    }
+
+    private void writeCentralFileHeader(Entry entry) throws IOException {
+        boolean offsetOverflows = entry.offset >= ZIP64_MAGIC;
+        boolean zip64 = entry.zip64 || offsetOverflows;
+        byte[] name = entry.name.getBytes(UTF_8);
+        int extraLength = zip64 ? 4 + (entry.zip64 ? 16 : 0) + (offsetOverflows ? 8 : 0) : 0;
+        ByteBuffer header = buffer(46 + name.length + extraLength);
+        header.putInt(CENTRAL_FILE_HEADER_SIG);
+        header.putShort((short) ((PLATFORM_UNIX << 8) | (zip64 ? ZIP64_MIN_VERSION : versionNeeded(entry))));
+        header.putShort((short) (zip64 ? ZIP64_MIN_VERSION : versionNeeded(entry)));
+        header.putShort((short) UTF8_FLAG);
+        header.putShort((short) entry.method);
+        header.putInt((int) toDosTime(entry.time));
+        header.putInt((int) entry.crc);
+        header.putInt((int) (entry.zip64 ? ZIP64_MAGIC : entry.compressedSize));
+        header.putInt((int) (entry.zip64 ? ZIP64_MAGIC : entry.size));
+        header.putShort((short) name.length);
+        header.putShort((short) extraLength);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putShort((short) 0);
+        header.putInt(externalAttributes(entry));
+        header.putInt((int) (offsetOverflows ? ZIP64_MAGIC : entry.offset));
+        header.put(name);
+        if (zip64) {
+            header.putShort((short) ZIP64_EXTRA_FIELD_ID);
+            header.putShort((short) (extraLength - 4));
+            if (entry.zip64) {
+                header.putLong(entry.size);
+                header.putLong(entry.compressedSize);
+            }
+            if (offsetOverflows) {
+                header.putLong(entry.offset);
+            }
+        }
+        writeOut(header);
+    }
+
+    private void writeEndOfCentralDirectory(long centralDirectoryOffset, long centralDirectoryLength) throws IOException {
+        int count = entries.size();
+        boolean zip64 = count >= ZIP64_MAGIC_SHORT || centralDirectoryOffset >= ZIP64_MAGIC || centralDirectoryLength >= ZIP64_MAGIC;
+        if (zip64) {
+            if (!allowZip64) {
+                throw new Zip64RequiredException(count >= ZIP64_MAGIC_SHORT ? "archive contains more than 65535 entries." : "archive's size exceeds the limit of 4GByte.");
+            }
+            long zip64EndOffset = written;
+            ByteBuffer record = buffer(56 + 20);
+            record.putInt(ZIP64_END_OF_CENTRAL_DIR_SIG);
+            record.putLong(44);
+            record.putShort((short) ((PLATFORM_UNIX << 8) | ZIP64_MIN_VERSION));
+            record.putShort((short) ZIP64_MIN_VERSION);
+            record.putInt(0);
+            record.putInt(0);
+            record.putLong(count);
+            record.putLong(count);
+            record.putLong(centralDirectoryLength);
+            record.putLong(centralDirectoryOffset);
+            record.putInt(ZIP64_END_OF_CENTRAL_DIR_LOCATOR_SIG);
+            record.putInt(0);
+            record.putLong(zip64EndOffset);
+            record.putInt(1);
+            writeOut(record);
+        }
+
+        ByteBuffer record = buffer(22);
+        record.putInt(END_OF_CENTRAL_DIR_SIG);
+        record.putShort((short) 0);
+        record.putShort((short) 0);
+        record.putShort((short) Math.min(count, ZIP64_MAGIC_SHORT));
+        record.putShort((short) Math.min(count, ZIP64_MAGIC_SHORT));
+        record.putInt((int) Math.min(centralDirectoryLength, ZIP64_MAGIC));
+        record.putInt((int) Math.min(centralDirectoryOffset, ZIP64_MAGIC));
+        record.putShort((short) 0);
+        writeOut(record);
+    }
+
+    private static int versionNeeded(Entry entry) {
+        if (entry.zip64) {
+            return ZIP64_MIN_VERSION;
+        }
+        return entry.method == ZipOutputStream.DEFLATED ? DEFLATE_MIN_VERSION : MIN_VERSION;
+    }
+
+    private static int externalAttributes(Entry entry) {
+        boolean directory = (entry.mode & UnixStat.DIR_FLAG) == UnixStat.DIR_FLAG;
+        return (entry.mode << 16) | ((entry.mode & 0200) == 0 ? 1 : 0) | (directory ? 0x10 : 0);
+    }
+
+    private long toDosTime(long time) {
+        calendar.setTimeInMillis(time);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980) {
+            return DOS_TIME_BEFORE_1980;
+        }
+        return ((long) (year - 1980) << 25)
+                | ((calendar.get(Calendar.MONTH) + 1) << 21)
+                | (calendar.get(Calendar.DAY_OF_MONTH) << 16)
+                | (calendar.get(Calendar.HOUR_OF_DAY) << 11)
+                | (calendar.get(Calendar.MINUTE) << 5)
+                | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    private static ByteBuffer buffer(int length) {
+        return ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void writeOut(ByteBuffer buffer) throws IOException {
+        writeOut(buffer.array(), 0, buffer.position());
+    }
+
+    private void writeOut(byte[] bytes, int offset, int length) throws IOException {
+        outputStream.write(bytes, offset, length);
+        written += length;
+    }
+
+    private static class Entry {
+        final String name;
+        final long time;
+        final int mode;
+        final int method;
+        final long crc;
+        final long size;
+        final long compressedSize;
+        long offset;
+        boolean zip64;
+
+        Entry(String name, long time, int mode, int method, long crc, long size, long compressedSize) {
+            this.name = name;
+            this.time = time;
+            this.mode = mode;
+            this.method = method;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+        }
+    }
+}
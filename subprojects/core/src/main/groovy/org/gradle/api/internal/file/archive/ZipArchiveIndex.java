@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.nativeintegration.filesystem.FileMetadataSnapshot;
+import org.gradle.messaging.serialize.Decoder;
+import org.gradle.messaging.serialize.Encoder;
+import org.gradle.messaging.serialize.FlushableEncoder;
+import org.gradle.messaging.serialize.kryo.KryoBackedDecoder;
+import org.gradle.messaging.serialize.kryo.KryoBackedEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Records, for each entry of a ZIP archive which was copied unchanged from a file, the source file it was copied from and where its
+ * compressed content is located in the archive. This allows the next execution to copy the compressed content of an entry whose source
+ * file has not changed straight from the previous archive, rather than reading and compressing the file again.
+ *
+ * <p>Entries of the previous archive are only reused when the archive itself is unchanged, the entry was written using the same
+ * compression method, the entry is produced from the same source file and the length and last modified time of that file are unchanged.
+ * Source files modified too recently for their timestamp to be trusted are not recorded.</p>
+ */
+public class ZipArchiveIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZipArchiveIndex.class);
+    private static final int INDEX_VERSION = 1;
+
+    private final File indexFile;
+    private final boolean reusePrevious;
+    private Map<String, Entry> previous = Collections.emptyMap();
+    private final Map<String, Entry> current = new LinkedHashMap<String, Entry>();
+
+    /**
+     * @param reusePrevious whether entries of the previous archive may be reused. When false, all entries are written again.
+     */
+    public ZipArchiveIndex(File indexFile, boolean reusePrevious) {
+        this.indexFile = indexFile;
+        this.reusePrevious = reusePrevious;
+    }
+
+    /**
+     * Loads the entries of the given previous archive which may be reused.
+     *
+     * @return true if any entries of the previous archive may be reused.
+     */
+    public boolean load(File archive, int method) {
+        previous = new HashMap<String, Entry>();
+        current.clear();
+        if (!reusePrevious || !indexFile.isFile() || !archive.isFile()) {
+            return false;
+        }
+        try {
+            InputStream inputStream = new BufferedInputStream(new FileInputStream(indexFile));
+            try {
+                read(new KryoBackedDecoder(inputStream), archive, method);
+            } finally {
+                inputStream.close();
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Could not read archive index {}, ignoring.", indexFile, e);
+            previous.clear();
+        }
+        return !previous.isEmpty();
+    }
+
+    /**
+     * Returns the details of the entry with the given name in the previous archive, if it may be reused for the given source file.
+     */
+    public Entry getReusable(String name, File sourceFile, long sourceLength, long sourceLastModified) {
+        Entry entry = previous.get(name);
+        if (entry == null
+                || !entry.sourcePath.equals(sourceFile.getAbsolutePath())
+                || entry.sourceLength != sourceLength
+                || entry.sourceLastModified != sourceLastModified) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Records an entry which has been written to the new archive.
+     */
+    public void add(String name, File sourceFile, long sourceLength, long sourceLastModified, long crc, long size, long compressedSize, long dataOffset) {
+        if (!FileMetadataSnapshot.isStable(sourceLastModified)) {
+            return;
+        }
+        current.put(name, new Entry(sourceFile.getAbsolutePath(), sourceLength, sourceLastModified, crc, size, compressedSize, dataOffset));
+    }
+
+    /**
+     * Writes the entries recorded for the given new archive.
+     */
+    public void store(File archive, int method) {
+        try {
+            OutputStream outputStream = new FileOutputStream(indexFile);
+            try {
+                FlushableEncoder encoder = new KryoBackedEncoder(outputStream);
+                write(encoder, archive, method);
+                encoder.flush();
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void read(Decoder decoder, File archive, int method) throws IOException {
+        int version = decoder.readSmallInt();
+        if (version != INDEX_VERSION) {
+            return;
+        }
+        String archivePath = decoder.readString();
+        long archiveLength = decoder.readLong();
+        long archiveLastModified = decoder.readLong();
+        int storedMethod = decoder.readSmallInt();
+        if (!archivePath.equals(archive.getAbsolutePath()) || archiveLength != archive.length() || archiveLastModified != archive.lastModified() || storedMethod != method) {
+            return;
+        }
+        int count = decoder.readSmallInt();
+        for (int i = 0; i < count; i++) {
+            String name = decoder.readString();
+            String sourcePath = decoder.readString();
+            long sourceLength = decoder.readLong();
+            long sourceLastModified = decoder.readLong();
+            long crc = decoder.readLong();
+            long size = decoder.readLong();
+            long compressedSize = decoder.readLong();
+            long dataOffset = decoder.readLong();
+            previous.put(name, new Entry(sourcePath, sourceLength, sourceLastModified, crc, size, compressedSize, dataOffset));
+        }
+    }
+
+    private void write(Encoder encoder, File archive, int method) throws IOException {
+        encoder.writeSmallInt(INDEX_VERSION);
+        encoder.writeString(archive.getAbsolutePath());
+        encoder.writeLong(archive.length());
+        encoder.writeLong(archive.lastModified());
+        encoder.writeSmallInt(method);
+        encoder.writeSmallInt(current.size());
+        for (Map.Entry<String, Entry> mapEntry : current.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            encoder.writeString(mapEntry.getKey());
+            encoder.writeString(entry.sourcePath);
+            encoder.writeLong(entry.sourceLength);
+            encoder.writeLong(entry.sourceLastModified);
+            encoder.writeLong(entry.crc);
+            encoder.writeLong(entry.size);
+            encoder.writeLong(entry.compressedSize);
+            encoder.writeLong(entry.dataOffset);
+        }
+    }
+
+    public static class Entry {
+        final String sourcePath;
+        final long sourceLength;
+        final long sourceLastModified;
+        final long crc;
+        final long size;
+        final long compressedSize;
+        final long dataOffset;
+
+        Entry(String sourcePath, long sourceLength, long sourceLastModified, long crc, long size, long compressedSize, long dataOffset) {
+            this.sourcePath = sourcePath;
+            this.sourceLength = sourceLength;
+            this.sourceLastModified = sourceLastModified;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.dataOffset = dataOffset;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.gradle.api.internal.resources.URIBuilder;
 import org.gradle.api.resources.ReadableResource;
 import org.gradle.api.resources.ResourceException;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
@@ -45,7 +46,7 @@ public class Bzip2Archiver implements ReadableResource {
         return new ArchiveOutputStreamFactory() {
             public OutputStream createArchiveOutputStream(File destination) {
                 try {
-                    OutputStream outStr = new FileOutputStream(destination);
+                    OutputStream outStr = new BufferedOutputStream(new FileOutputStream(destination));
                     outStr.write('B');
                     outStr.write('Z');
                     return new CBZip2OutputStream(outStr);
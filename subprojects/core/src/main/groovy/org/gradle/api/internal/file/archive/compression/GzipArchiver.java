@@ -19,7 +19,9 @@ package org.gradle.api.internal.file.archive.compression;
 import org.gradle.api.internal.resources.URIBuilder;
 import org.gradle.api.resources.ReadableResource;
 import org.gradle.api.resources.ResourceException;
+import org.gradle.internal.concurrent.ExecutorFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
@@ -29,6 +31,7 @@ import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 public class GzipArchiver implements ReadableResource {
+    private static final int BUFFER_SIZE = 65536;
 
     private ReadableResource resource;
     private URI uri;
@@ -42,11 +45,29 @@ public class GzipArchiver implements ReadableResource {
     public static ArchiveOutputStreamFactory getCompressor() {
         // this is not very beautiful but at some point we will
         // get rid of ArchiveOutputStreamFactory in favor of the writable Resource
+        return new ArchiveOutputStreamFactory() {
+            public OutputStream createArchiveOutputStream(File destination) {
+                try {
+                    OutputStream outStr = new BufferedOutputStream(new FileOutputStream(destination), BUFFER_SIZE);
+                    return new GZIPOutputStream(outStr, BUFFER_SIZE);
+                } catch (Exception e) {
+                    String message = String.format("Unable to create gzip output stream for file %s.", destination);
+                    throw new RuntimeException(message, e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a compressor which compresses blocks of the data concurrently, using at most the given number of threads.
+     * See {@link ParallelGzipOutputStream}.
+     */
+    public static ArchiveOutputStreamFactory getParallelCompressor(final ExecutorFactory executorFactory, final int maxThreads) {
         return new ArchiveOutputStreamFactory() {
             public OutputStream createArchiveOutputStream(File destination) {
                 try {
                     OutputStream outStr = new FileOutputStream(destination);
-                    return new GZIPOutputStream(outStr);
+                    return new ParallelGzipOutputStream(outStr, executorFactory.create(String.format("gzip %s", destination.getName())), maxThreads);
                 } catch (Exception e) {
                     String message = String.format("Unable to create gzip output stream for file %s.", destination);
                     throw new RuntimeException(message, e);
@@ -58,7 +79,7 @@ public class GzipArchiver implements ReadableResource {
     public InputStream read() {
         InputStream is = resource.read();
         try {
-            return new GZIPInputStream(is);
+            return new GZIPInputStream(is, BUFFER_SIZE);
         } catch (Exception e) {
             String message = String.format("Unable to create gzip input stream for resource %s.", resource.getDisplayName());
             throw new ResourceException(message, e);
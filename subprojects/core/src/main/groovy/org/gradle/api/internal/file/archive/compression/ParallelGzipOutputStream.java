@@ -0,0 +1,224 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive.compression;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link OutputStream} which writes GZIP data, compressing blocks of the data concurrently.
+ *
+ * <p>The data is split into fixed size blocks, and each block is compressed by the given executor into a separate GZIP member.
+ * The members are written in order to the target stream. A GZIP file made of several members is valid, and is decompressed into
+ * the concatenation of the content of its members. The output is the same for the same data, regardless of the number of threads.
+ * At most the given number of blocks are compressed at the same time, as the executor may start a new thread for each block.</p>
+ *
+ * <p>Closing this stream waits for the remaining blocks to be compressed, then closes the target stream and stops the executor.</p>
+ */
+public class ParallelGzipOutputStream extends OutputStream {
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final OutputStream outputStream;
+    private final StoppableExecutor executor;
+    private final Semaphore compressing;
+    private final int maxPending;
+    private final int blockSize;
+    private final Deque<Block> pending = new ArrayDeque<Block>();
+    private Block current;
+    private boolean written;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream outputStream, StoppableExecutor executor, int maxThreads) {
+        this(outputStream, executor, maxThreads, DEFAULT_BLOCK_SIZE);
+    }
+
+    ParallelGzipOutputStream(OutputStream outputStream, StoppableExecutor executor, int maxThreads, int blockSize) {
+        this.outputStream = outputStream;
+        this.executor = executor;
+        this.compressing = new Semaphore(Math.max(1, maxThreads));
+        this.maxPending = Math.max(1, maxThreads) * 2;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed.");
+        }
+        while (length > 0) {
+            if (current == null) {
+                current = new Block(blockSize);
+            }
+            int count = Math.min(length, blockSize - current.length);
+            System.arraycopy(bytes, offset, current.content, current.length, count);
+            current.length += count;
+            offset += count;
+            length -= count;
+            if (current.length == blockSize) {
+                submit();
+            }
+        }
+    }
+
+    /**
+     * Submits the current block for compression, and writes any blocks which have been compressed.
+     */
+    private void submit() throws IOException {
+        final Block block = current;
+        current = null;
+        try {
+            compressing.acquire();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        block.run();
+                    } finally {
+                        compressing.release();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            compressing.release();
+            throw e;
+        }
+        pending.add(block);
+        while (!pending.isEmpty() && (pending.peek().done.getCount() == 0 || pending.size() > maxPending)) {
+            writeBlock(pending.remove());
+        }
+    }
+
+    private void writeBlock(Block block) throws IOException {
+        try {
+            block.done.await();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+        if (block.failure != null) {
+            throw UncheckedException.throwAsUncheckedException(block.failure);
+        }
+        outputStream.write(block.compressed, 0, block.compressedLength);
+        written = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (current != null || !written && pending.isEmpty()) {
+                // Always write at least one member, so that an empty stream produces a valid GZIP file
+                if (current == null) {
+                    current = new Block(0);
+                }
+                submit();
+            }
+            while (!pending.isEmpty()) {
+                writeBlock(pending.remove());
+            }
+        } finally {
+            pending.clear();
+            CompositeStoppable.stoppable(executor).add(outputStream).stop();
+        }
+    }
+
+    private static class Block implements Runnable {
+        final byte[] content;
+        final CountDownLatch done = new CountDownLatch(1);
+        int length;
+        byte[] compressed;
+        int compressedLength;
+        Throwable failure;
+
+        Block(int size) {
+            content = new byte[size];
+        }
+
+        public void run() {
+            try {
+                compress();
+            } catch (Throwable throwable) {
+                failure = throwable;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private void compress() {
+            CRC32 crc = new CRC32();
+            crc.update(content, 0, length);
+            byte[] output = new byte[HEADER.length + Math.max(64, length / 2) + 8];
+            System.arraycopy(HEADER, 0, output, 0, HEADER.length);
+            int outputLength = HEADER.length;
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                deflater.setInput(content, 0, length);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (outputLength == output.length) {
+                        output = grow(output);
+                    }
+                    outputLength += deflater.deflate(output, outputLength, output.length - outputLength);
+                }
+            } finally {
+                deflater.end();
+            }
+            if (output.length - outputLength < 8) {
+                output = grow(output);
+            }
+            writeInt(output, outputLength, crc.getValue());
+            writeInt(output, outputLength + 4, length);
+            compressed = output;
+            compressedLength = outputLength + 8;
+        }
+
+        private static byte[] grow(byte[] buffer) {
+            byte[] larger = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, buffer.length);
+            return larger;
+        }
+
+        private static void writeInt(byte[] buffer, int offset, long value) {
+            buffer[offset] = (byte) value;
+            buffer[offset + 1] = (byte) (value >> 8);
+            buffer[offset + 2] = (byte) (value >> 16);
+            buffer[offset + 3] = (byte) (value >> 24);
+        }
+    }
+}
@@ -20,13 +20,16 @@ import org.gradle.api.GradleException;
 import org.gradle.api.file.*;
 import org.gradle.api.internal.file.DefaultFileTreeElement;
 import org.gradle.api.internal.file.DefaultFileVisitDetails;
+import org.gradle.api.internal.file.pattern.CompiledPatternSpec;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.api.specs.Spec;
 import org.gradle.api.tasks.util.PatternFilterable;
 import org.gradle.api.tasks.util.PatternSet;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryLister;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
 import org.gradle.internal.nativeintegration.services.FileSystems;
+import org.gradle.internal.nativeintegration.services.NativeServices;
 import org.gradle.util.GFileUtils;
 import org.gradle.util.GUtil;
 
@@ -53,6 +56,7 @@ public class DirectoryFileTree implements MinimalFileTree, PatternFilterableFile
     private PatternSet patternSet;
     private boolean postfix;
     private final FileSystem fileSystem = FileSystems.getDefault();
+    private final DirectoryLister directoryLister = NativeServices.getInstance().get(DirectoryLister.class);
 
     public DirectoryFileTree(File dir) {
         this(dir, new PatternSet());
@@ -122,7 +126,9 @@ public class DirectoryFileTree implements MinimalFileTree, PatternFilterableFile
             if (dir.isFile()) {
                 processSingleFile(dir, visitor, spec, stopFlag);
             } else {
-                walkDir(dir, path, visitor, spec, stopFlag);
+                CompiledPatternSpec compiledSpec = spec instanceof CompiledPatternSpec ? (CompiledPatternSpec) spec : null;
+                CompiledPatternSpec.State state = compiledSpec == null ? null : compiledSpec.getState(path.getSegments(), path.getSegments().length);
+                walkDir(dir, path, visitor, spec, compiledSpec, state, stopFlag);
             }
         } else {
             LOGGER.info("file or directory '" + dir + "', not found");
@@ -137,8 +143,8 @@ public class DirectoryFileTree implements MinimalFileTree, PatternFilterableFile
         }
     }
 
-    private void walkDir(File file, RelativePath path, FileVisitor visitor, Spec<FileTreeElement> spec, AtomicBoolean stopFlag) {
-        File[] children = file.listFiles();
+    private void walkDir(File file, RelativePath path, FileVisitor visitor, Spec<FileTreeElement> spec, CompiledPatternSpec compiledSpec, CompiledPatternSpec.State state, AtomicBoolean stopFlag) {
+        DirectoryLister.Entry[] children = directoryLister.list(file);
         if (children == null) {
             if (file.isDirectory() && !file.canRead()) {
                 throw new GradleException(String.format("Could not list contents of directory '%s' as it is not readable.", file));
@@ -147,16 +153,34 @@ public class DirectoryFileTree implements MinimalFileTree, PatternFilterableFile
             throw new GradleException(String.format("Could not list contents of '%s'.", file));
         }
         List<FileVisitDetails> dirs = new ArrayList<FileVisitDetails>();
+        List<CompiledPatternSpec.State> dirStates = compiledSpec == null ? null : new ArrayList<CompiledPatternSpec.State>();
         for (int i = 0; !stopFlag.get() && i < children.length; i++) {
-            File child = children[i];
+            DirectoryLister.Entry child = children[i];
             boolean isFile = child.isFile();
+            CompiledPatternSpec.State childState = null;
+            if (compiledSpec != null) {
+                // Evaluate the patterns against the name, before creating the details for the child
+                if (isFile) {
+                    if (!compiledSpec.isFileSatisfiedBy(state, child.getName())) {
+                        continue;
+                    }
+                } else {
+                    childState = compiledSpec.enterDirectory(state, child.getName());
+                    if (childState == null) {
+                        continue;
+                    }
+                }
+            }
             RelativePath childPath = path.append(isFile, child.getName());
-            FileVisitDetails details = new DefaultFileVisitDetails(child, childPath, stopFlag, fileSystem, fileSystem);
-            if (isAllowed(details, spec)) {
+            FileVisitDetails details = new DefaultFileVisitDetails(child.getFile(), childPath, stopFlag, fileSystem, fileSystem);
+            if (compiledSpec != null || isAllowed(details, spec)) {
                 if (isFile) {
                     visitor.visitFile(details);
                 } else {
                     dirs.add(details);
+                    if (dirStates != null) {
+                        dirStates.add(childState);
+                    }
                 }
             }
         }
@@ -164,12 +188,13 @@ public class DirectoryFileTree implements MinimalFileTree, PatternFilterableFile
         // now handle dirs
         for (int i = 0; !stopFlag.get() && i < dirs.size(); i++) {
             FileVisitDetails dir = dirs.get(i);
+            CompiledPatternSpec.State dirState = dirStates == null ? null : dirStates.get(i);
             if (postfix) {
-                walkDir(dir.getFile(), dir.getRelativePath(), visitor, spec, stopFlag);
+                walkDir(dir.getFile(), dir.getRelativePath(), visitor, spec, compiledSpec, dirState, stopFlag);
                 visitor.visitDir(dir);
             } else {
                 visitor.visitDir(dir);
-                walkDir(dir.getFile(), dir.getRelativePath(), visitor, spec, stopFlag);
+                walkDir(dir.getFile(), dir.getRelativePath(), visitor, spec, compiledSpec, dirState, stopFlag);
             }
         }
     }
@@ -20,6 +20,7 @@ import org.gradle.api.file.CopySpec;
 import org.gradle.api.internal.file.FileLookup;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.reflect.Instantiator;
 
 import java.io.File;
@@ -28,11 +29,22 @@ public class FileCopier {
     private final Instantiator instantiator;
     private final FileResolver fileResolver;
     private final FileLookup fileLookup;
+    private final ExecutorFactory executorFactory;
+    private final int parallelThreads;
 
     public FileCopier(Instantiator instantiator, FileResolver fileResolver, FileLookup fileLookup) {
+        this(instantiator, fileResolver, fileLookup, null, 0);
+    }
+
+    /**
+     * @param parallelThreads The number of threads to use to copy files, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public FileCopier(Instantiator instantiator, FileResolver fileResolver, FileLookup fileLookup, ExecutorFactory executorFactory, int parallelThreads) {
         this.instantiator = instantiator;
         this.fileResolver = fileResolver;
         this.fileLookup = fileLookup;
+        this.executorFactory = executorFactory;
+        this.parallelThreads = parallelThreads;
     }
 
     private DestinationRootCopySpec createCopySpec(Action<? super CopySpec> action) {
@@ -56,7 +68,7 @@ public class FileCopier {
     }
 
     private FileCopyAction getCopyVisitor(File destination) {
-        return new FileCopyAction(fileLookup.getFileResolver(destination));
+        return new FileCopyAction(fileLookup.getFileResolver(destination), executorFactory, parallelThreads);
     }
 
     private WorkResult doCopy(CopySpecInternal copySpec, CopyAction visitor) {
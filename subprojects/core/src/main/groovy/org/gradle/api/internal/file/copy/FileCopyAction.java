@@ -19,31 +19,134 @@ import org.gradle.api.internal.file.CopyActionProcessingStreamAction;
 import org.gradle.api.internal.file.FileResolver;
 import org.gradle.api.internal.tasks.SimpleWorkResult;
 import org.gradle.api.tasks.WorkResult;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ParallelThreads;
+import org.gradle.internal.concurrent.StoppableExecutor;
 
 import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Copies each file into the destination directory, in the order in which they are received.
+ *
+ * <p>When an {@link ExecutorFactory} is provided and the build runs in parallel, regular files which are copied unchanged from the file
+ * system are copied by a pool of worker threads, one per parallel thread. Directories, and files which are filtered or read from an archive, are still copied on the calling thread in
+ * order, so that directories always exist before the files they contain are copied and filters are never run concurrently.
+ * A file which targets the same destination as a file still being copied waits for that copy to finish, so that the last one wins.</p>
+ */
 public class FileCopyAction implements CopyAction {
 
     private final FileResolver fileResolver;
+    private final ExecutorFactory executorFactory;
+    private final int maxThreads;
 
     public FileCopyAction(FileResolver fileResolver) {
+        this(fileResolver, null, 0);
+    }
+
+    /**
+     * @param parallelThreads The number of threads to use, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public FileCopyAction(FileResolver fileResolver, ExecutorFactory executorFactory, int parallelThreads) {
         this.fileResolver = fileResolver;
+        this.executorFactory = executorFactory;
+        this.maxThreads = ParallelThreads.getThreadCount(parallelThreads);
     }
 
     public WorkResult execute(CopyActionProcessingStream stream) {
-        FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
-        stream.process(action);
-        return new SimpleWorkResult(action.didWork);
+        if (executorFactory == null || maxThreads <= 1) {
+            FileCopyDetailsInternalAction action = new FileCopyDetailsInternalAction();
+            stream.process(action);
+            return new SimpleWorkResult(action.didWork.get());
+        }
+
+        StoppableExecutor executor = executorFactory.create("copy files");
+        ParallelFileCopyDetailsInternalAction action = new ParallelFileCopyDetailsInternalAction(executor);
+        try {
+            stream.process(action);
+        } finally {
+            executor.stop();
+        }
+        action.rethrowFailure();
+        return new SimpleWorkResult(action.didWork.get());
     }
 
     private class FileCopyDetailsInternalAction implements CopyActionProcessingStreamAction {
-        private boolean didWork;
+        final AtomicBoolean didWork = new AtomicBoolean();
 
         public void processFile(FileCopyDetailsInternal details) {
             File target = fileResolver.resolve(details.getRelativePath().getPathString());
+            copy(details, target);
+        }
+
+        void copy(FileCopyDetailsInternal details, File target) {
             boolean copied = details.copyTo(target);
             if (copied) {
-                didWork = true;
+                didWork.set(true);
+            }
+        }
+    }
+
+    private class ParallelFileCopyDetailsInternalAction extends FileCopyDetailsInternalAction {
+        private final StoppableExecutor executor;
+        private final Semaphore pending = new Semaphore(maxThreads);
+        private final ConcurrentMap<File, CountDownLatch> inProgress = new ConcurrentHashMap<File, CountDownLatch>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        ParallelFileCopyDetailsInternalAction(StoppableExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void processFile(final FileCopyDetailsInternal details) {
+            rethrowFailure();
+            final File target = fileResolver.resolve(details.getRelativePath().getPathString());
+            awaitCopy(target);
+            if (details.getSourceFile() == null) {
+                copy(details, target);
+                return;
+            }
+
+            final CountDownLatch done = new CountDownLatch(1);
+            inProgress.put(target, done);
+            pending.acquireUninterruptibly();
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        copy(details, target);
+                    } catch (Throwable throwable) {
+                        failure.compareAndSet(null, throwable);
+                    } finally {
+                        inProgress.remove(target, done);
+                        done.countDown();
+                        pending.release();
+                    }
+                }
+            });
+        }
+
+        private void awaitCopy(File target) {
+            CountDownLatch done = inProgress.get(target);
+            if (done == null) {
+                return;
+            }
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        void rethrowFailure() {
+            Throwable throwable = failure.get();
+            if (throwable != null) {
+                throw UncheckedException.throwAsUncheckedException(throwable);
             }
         }
     }
@@ -18,8 +18,16 @@ package org.gradle.api.internal.file.copy;
 
 import org.gradle.api.file.FileCopyDetails;
 
+import java.io.File;
+
 public interface FileCopyDetailsInternal extends FileCopyDetails {
 
     boolean isIncludeEmptyDirs();
 
+    /**
+     * Returns the regular file on the file system whose content is copied unchanged, or null when the content is filtered or is not
+     * read from a file. The content of such a file can be read on any thread, after the source tree has been visited.
+     */
+    File getSourceFile();
+
 }
@@ -117,6 +117,10 @@ public class NormalizingCopyActionDecorator implements CopyAction {
             return includeEmptyDirs;
         }
 
+        public File getSourceFile() {
+            return null;
+        }
+
         @Override
         public String getDisplayName() {
             return path.toString();
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.pattern;
+
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.specs.Spec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link Spec} for sets of include and exclude patterns, compiled into a single automaton over the segments of a path.
+ *
+ * <p>An element satisfies this spec when, for each set of patterns, it matches any of the include patterns (or there are no include
+ * patterns) and none of the exclude patterns. As for {@link PatternMatcherFactory}, a directory matches an include pattern when its
+ * path is a prefix of a path which matches the pattern.</p>
+ *
+ * <p>The automaton can be evaluated incrementally while walking a directory tree: {@link #enterDirectory(State, String)} calculates the
+ * {@link State} of a directory from the state of its parent, and returns null for a directory which does not satisfy this spec and
+ * so cannot contain any element which does. {@link #isFileSatisfiedBy(State, String)} evaluates a file of a directory without
+ * allocating anything.</p>
+ */
+public class CompiledPatternSpec implements Spec<FileTreeElement> {
+    private static final int MAX_PATTERN_SETS = 64;
+
+    // For each position: the step which matches the next segment, or null for '**' and for the end of a pattern.
+    private final PatternStep[] steps;
+    private final boolean[] greedy;
+    private final boolean[] end;
+    // Whether the end of the pattern can be reached from the position without consuming a segment.
+    private final boolean[] accepts;
+    private final boolean[] exclude;
+    private final boolean[] emptyPattern;
+    private final int[] patternSet;
+    private final long allPatternSets;
+    private final long patternSetsWithIncludes;
+    private final State root;
+
+    private CompiledPatternSpec(List<Position> positions, int patternSetCount, long patternSetsWithIncludes, int[] start) {
+        int count = positions.size();
+        steps = new PatternStep[count];
+        greedy = new boolean[count];
+        end = new boolean[count];
+        accepts = new boolean[count];
+        exclude = new boolean[count];
+        emptyPattern = new boolean[count];
+        patternSet = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            Position position = positions.get(i);
+            steps[i] = position.step;
+            greedy[i] = position.greedy;
+            end[i] = position.step == null && !position.greedy;
+            accepts[i] = end[i] || greedy[i] && accepts[i + 1];
+            exclude[i] = position.exclude;
+            emptyPattern[i] = position.emptyPattern;
+            patternSet[i] = position.patternSet;
+        }
+        allPatternSets = patternSetCount == 64 ? -1L : (1L << patternSetCount) - 1;
+        this.patternSetsWithIncludes = patternSetsWithIncludes;
+        root = close(start, start.length, new boolean[count]);
+    }
+
+    /**
+     * Compiles the given patterns. Returns null when the patterns cannot be compiled.
+     */
+    public static CompiledPatternSpec compile(Collection<String> includes, Collection<String> excludes, boolean caseSensitive) {
+        return new Builder().add(includes, excludes, caseSensitive).build();
+    }
+
+    /**
+     * Returns a spec which is satisfied by the elements which satisfy both this spec and the given spec. Returns null when the
+     * combination cannot be compiled.
+     */
+    public CompiledPatternSpec and(CompiledPatternSpec other) {
+        return new Builder().addAll(this).addAll(other).build();
+    }
+
+    /**
+     * Returns the state for the root of a tree.
+     */
+    public State getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the state for a directory with the given parent and name, or null if the directory does not satisfy this spec.
+     */
+    public State enterDirectory(State parent, String name) {
+        State state = step(parent, name);
+        long included = 0;
+        long excluded = 0;
+        for (int position : state.positions) {
+            if (exclude[position]) {
+                if (end[position]) {
+                    excluded |= 1L << patternSet[position];
+                }
+            } else {
+                included |= 1L << patternSet[position];
+            }
+        }
+        return isSatisfied(included, excluded) ? state : null;
+    }
+
+    /**
+     * Returns true if the file with the given parent and name satisfies this spec.
+     */
+    public boolean isFileSatisfiedBy(State parent, String name) {
+        long included = 0;
+        for (int position : parent.positions) {
+            long mask = 1L << patternSet[position];
+            if (!exclude[position] && (included & mask) != 0) {
+                // Already included by another pattern
+                continue;
+            }
+            boolean matches = greedy[position] ? accepts[position] : steps[position] != null && accepts[position + 1] && steps[position].matches(name);
+            if (!matches) {
+                continue;
+            }
+            if (exclude[position]) {
+                return false;
+            }
+            included |= mask;
+        }
+        return isSatisfied(included, 0);
+    }
+
+    public boolean isSatisfiedBy(FileTreeElement element) {
+        return isSatisfiedBy(element.getRelativePath());
+    }
+
+    public boolean isSatisfiedBy(RelativePath path) {
+        String[] segments = path.getSegments();
+        if (segments.length == 0) {
+            return isRootSatisfied(path.isFile());
+        }
+        State parent = getState(segments, segments.length - 1);
+        String name = segments[segments.length - 1];
+        if (path.isFile()) {
+            return isFileSatisfiedBy(parent, name);
+        }
+        return enterDirectory(parent, name) != null;
+    }
+
+    /**
+     * Returns the state for the directory made up of the given number of leading segments, regardless of whether the directory
+     * satisfies this spec.
+     */
+    public State getState(String[] segments, int count) {
+        State state = root;
+        for (int i = 0; i < count; i++) {
+            state = step(state, segments[i]);
+        }
+        return state;
+    }
+
+    private boolean isRootSatisfied(boolean file) {
+        long included = 0;
+        long excluded = 0;
+        for (int position : root.positions) {
+            if (exclude[position]) {
+                if (end[position]) {
+                    excluded |= 1L << patternSet[position];
+                }
+            } else if (file ? end[position] : !emptyPattern[position]) {
+                // An empty pattern matches only the root, and is not a prefix of any path
+                included |= 1L << patternSet[position];
+            }
+        }
+        return isSatisfied(included, excluded);
+    }
+
+    private boolean isSatisfied(long included, long excluded) {
+        return excluded == 0 && ((included | ~patternSetsWithIncludes) & allPatternSets) == allPatternSets;
+    }
+
+    private State step(State state, String segment) {
+        int[] next = new int[steps.length];
+        int count = 0;
+        for (int position : state.positions) {
+            if (greedy[position]) {
+                next[count++] = position;
+            } else if (steps[position] != null && steps[position].matches(segment)) {
+                next[count++] = position + 1;
+            }
+        }
+        return close(next, count, new boolean[steps.length]);
+    }
+
+    /**
+     * Adds the positions which can be reached from the given positions without consuming a segment, and removes duplicates.
+     */
+    private State close(int[] positions, int count, boolean[] seen) {
+        int[] result = new int[steps.length];
+        int resultCount = 0;
+        for (int i = 0; i < count; i++) {
+            for (int position = positions[i]; !seen[position]; position++) {
+                seen[position] = true;
+                result[resultCount++] = position;
+                if (!greedy[position]) {
+                    break;
+                }
+            }
+        }
+        return new State(Arrays.copyOf(result, resultCount));
+    }
+
+    /**
+     * The state of the automaton after consuming the segments of a directory.
+     */
+    public static class State {
+        private final int[] positions;
+
+        private State(int[] positions) {
+            this.positions = positions;
+        }
+    }
+
+    private static class Position {
+        final PatternStep step;
+        final boolean greedy;
+        final boolean exclude;
+        final boolean emptyPattern;
+        final int patternSet;
+
+        Position(PatternStep step, boolean greedy, boolean exclude, boolean emptyPattern, int patternSet) {
+            this.step = step;
+            this.greedy = greedy;
+            this.exclude = exclude;
+            this.emptyPattern = emptyPattern;
+            this.patternSet = patternSet;
+        }
+    }
+
+    private static class Builder {
+        private final List<Position> positions = new ArrayList<Position>();
+        private final List<Integer> start = new ArrayList<Integer>();
+        private int patternSetCount;
+        private long patternSetsWithIncludes;
+
+        Builder add(Collection<String> includes, Collection<String> excludes, boolean caseSensitive) {
+            int current = patternSetCount++;
+            if (current >= MAX_PATTERN_SETS) {
+                return this;
+            }
+            if (!includes.isEmpty()) {
+                patternSetsWithIncludes |= 1L << current;
+            }
+            for (String include : includes) {
+                addPattern(include, caseSensitive, false, current);
+            }
+            for (String exclude : excludes) {
+                addPattern(exclude, caseSensitive, true, current);
+            }
+            return this;
+        }
+
+        Builder addAll(CompiledPatternSpec spec) {
+            int offset = patternSetCount;
+            int positionOffset = positions.size();
+            int count = Long.numberOfTrailingZeros(~spec.allPatternSets);
+            patternSetCount += count;
+            if (patternSetCount > MAX_PATTERN_SETS) {
+                return this;
+            }
+            patternSetsWithIncludes |= spec.patternSetsWithIncludes << offset;
+            for (int i = 0; i < spec.steps.length; i++) {
+                positions.add(new Position(spec.steps[i], spec.greedy[i], spec.exclude[i], spec.emptyPattern[i], spec.patternSet[i] + offset));
+            }
+            for (int position : spec.root.positions) {
+                start.add(position + positionOffset);
+            }
+            return this;
+        }
+
+        private void addPattern(String pattern, boolean caseSensitive, boolean exclude, int patternSet) {
+            start.add(positions.size());
+            if (pattern.length() > 0) {
+                // trailing / or \ assumes **
+                if (pattern.endsWith("/") || pattern.endsWith("\\")) {
+                    pattern = pattern + "**";
+                }
+                String[] parts = pattern.split("\\\\|/");
+                boolean previousGreedy = false;
+                for (String part : parts) {
+                    boolean isGreedy = part.equals("**");
+                    if (isGreedy && previousGreedy) {
+                        continue;
+                    }
+                    PatternStep step = isGreedy ? null : PatternStepFactory.getStep(part, caseSensitive);
+                    positions.add(new Position(step, isGreedy, exclude, false, patternSet));
+                    previousGreedy = isGreedy;
+                }
+            }
+            positions.add(new Position(null, false, exclude, pattern.length() == 0, patternSet));
+        }
+
+        CompiledPatternSpec build() {
+            if (patternSetCount > MAX_PATTERN_SETS) {
+                return null;
+            }
+            int[] startPositions = new int[start.size()];
+            for (int i = 0; i < startPositions.length; i++) {
+                startPositions[i] = start.get(i);
+            }
+            return new CompiledPatternSpec(positions, patternSetCount, patternSetsWithIncludes, startPositions);
+        }
+    }
+}
@@ -15,8 +15,16 @@
  */
 package org.gradle.api.internal.hash;
 
+import org.gradle.api.file.FileTreeElement;
+
 import java.io.File;
 
 public interface Hasher {
     byte[] hash(File file);
+
+    /**
+     * Hashes the content of the given element, reading it through {@link FileTreeElement#open()} so that an element
+     * of an archive does not need to be extracted first.
+     */
+    byte[] hash(FileTreeElement fileDetails);
 }
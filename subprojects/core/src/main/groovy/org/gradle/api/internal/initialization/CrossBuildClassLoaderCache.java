@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.initialization;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.api.Nullable;
+import org.gradle.api.internal.cache.AbstractCrossBuildCache;
+import org.gradle.internal.classloader.FilteringClassLoader;
+import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.nativeintegration.filesystem.FileMetadataSnapshot;
+
+import java.io.File;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Process-wide cache of class loaders for script classpaths, which is retained across builds in the daemon, so that the classes
+ * loaded from an unchanged classpath do not need to be loaded and compiled by the JIT again on every build.
+ *
+ * <p>Class loaders are keyed by parent class loader, classpath and filter, and each is stored with a snapshot of the path, length
+ * and last modified time of each file of its classpath. A class loader whose classpath has changed since it was created is
+ * replaced. Each build uses the cache through its own {@link Session}, which holds a reference to each class loader it has used
+ * until the session is stopped. When the last active session is stopped, class loaders which are not referenced and which have
+ * not been used since the previous time this happened are discarded.</p>
+ */
+@ThreadSafe
+public class CrossBuildClassLoaderCache extends AbstractCrossBuildCache {
+    private final Map<DefaultClassLoaderCache.Key, CachedClassLoader> classLoaders = new HashMap<DefaultClassLoaderCache.Key, CachedClassLoader>();
+
+    /**
+     * Starts a session, which should be stopped when the build that uses it is finished.
+     */
+    public Session newSession() {
+        return new Session();
+    }
+
+    /**
+     * Returns the number of class loaders held by this cache.
+     */
+    public int size() {
+        synchronized (lock) {
+            return classLoaders.size();
+        }
+    }
+
+    @Override
+    protected void evictUnused() {
+        Iterator<CachedClassLoader> iterator = classLoaders.values().iterator();
+        while (iterator.hasNext()) {
+            CachedClassLoader cached = iterator.next();
+            if (cached.references == 0 && !cached.used) {
+                iterator.remove();
+            } else {
+                cached.used = false;
+            }
+        }
+    }
+
+    /**
+     * Returns null when some file of the classpath has been modified too recently for its timestamp to be trusted.
+     */
+    @Nullable
+    private static String snapshot(ClassPath classPath) {
+        StringBuilder builder = new StringBuilder();
+        for (File file : classPath.getAsFiles()) {
+            if (!FileMetadataSnapshot.appendTree(file, builder)) {
+                return null;
+            }
+        }
+        return HashUtil.createCompactMD5(builder.toString());
+    }
+
+    /**
+     * The view of the cache used by a single build. A session returns the same class loader for a given key for as long as it is
+     * active, even when the classpath changes in the meantime.
+     */
+    public class Session extends AbstractSession implements ClassLoaderCache {
+        private final Map<DefaultClassLoaderCache.Key, CachedClassLoader> acquired = new HashMap<DefaultClassLoaderCache.Key, CachedClassLoader>();
+
+        private Session() {
+        }
+
+        public ClassLoader get(ClassLoader parent, ClassPath classPath, @Nullable FilteringClassLoader.Spec filterSpec) {
+            DefaultClassLoaderCache.Key key = new DefaultClassLoaderCache.Key(parent, classPath, filterSpec);
+            synchronized (lock) {
+                CachedClassLoader cached = acquired.get(key);
+                if (cached != null) {
+                    return cached.classLoader;
+                }
+            }
+
+            // Take the snapshot without holding the lock, as it may need to visit many files
+            String snapshot = snapshot(classPath);
+            synchronized (lock) {
+                if (isStopped()) {
+                    throw new IllegalStateException("Cannot use a class loader cache session which has been stopped.");
+                }
+                return acquire(key, parent, classPath, filterSpec, snapshot).classLoader;
+            }
+        }
+
+        private CachedClassLoader acquire(DefaultClassLoaderCache.Key key, ClassLoader parent, ClassPath classPath, @Nullable FilteringClassLoader.Spec filterSpec, @Nullable String snapshot) {
+            CachedClassLoader cached = acquired.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            cached = classLoaders.get(key);
+            if (cached == null || !cached.isUpToDate(snapshot)) {
+                ClassLoader classLoader;
+                if (filterSpec == null) {
+                    classLoader = new URLClassLoader(classPath.getAsURLArray(), parent);
+                } else {
+                    DefaultClassLoaderCache.Key unfilteredKey = new DefaultClassLoaderCache.Key(parent, classPath, null);
+                    classLoader = new FilteringClassLoader(acquire(unfilteredKey, parent, classPath, null, snapshot).classLoader, filterSpec);
+                }
+                cached = new CachedClassLoader(classLoader, snapshot);
+                classLoaders.put(key, cached);
+            }
+            cached.references++;
+            cached.used = true;
+            acquired.put(key, cached);
+            return cached;
+        }
+
+        @Override
+        protected void release() {
+            for (CachedClassLoader cached : acquired.values()) {
+                cached.references--;
+            }
+            acquired.clear();
+        }
+    }
+
+    private static class CachedClassLoader {
+        final ClassLoader classLoader;
+        final String snapshot;
+        int references;
+        boolean used;
+
+        CachedClassLoader(ClassLoader classLoader, @Nullable String snapshot) {
+            this.classLoader = classLoader;
+            this.snapshot = snapshot;
+        }
+
+        boolean isUpToDate(@Nullable String snapshot) {
+            return snapshot != null && snapshot.equals(this.snapshot);
+        }
+    }
+}
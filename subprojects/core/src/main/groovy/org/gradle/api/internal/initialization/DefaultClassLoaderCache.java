@@ -34,7 +34,7 @@ public class DefaultClassLoaderCache implements ClassLoaderCache {
         private final ClassPath classPath;
         private final FilteringClassLoader.Spec filterSpec;
 
-        private Key(ClassLoader parent, ClassPath classPath, FilteringClassLoader.Spec filterSpec) {
+        Key(ClassLoader parent, ClassPath classPath, FilteringClassLoader.Spec filterSpec) {
             this.parent = parent;
             this.classPath = classPath;
             this.filterSpec = filterSpec;
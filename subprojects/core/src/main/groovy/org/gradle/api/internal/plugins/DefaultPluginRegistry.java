@@ -27,11 +27,12 @@ import org.gradle.internal.reflect.Instantiator;
 import org.gradle.internal.reflect.ObjectInstantiationException;
 import org.gradle.util.GUtil;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultPluginRegistry implements PluginRegistry {
-    private final Map<String, Class<? extends Plugin<?>>> idMappings = new HashMap<String, Class<? extends Plugin<?>>>();
+    // Projects may be configured concurrently, so look ups may happen concurrently
+    private final Map<String, Class<? extends Plugin<?>>> idMappings = new ConcurrentHashMap<String, Class<? extends Plugin<?>>>();
     private final DefaultPluginRegistry parent;
     private final Factory<? extends ClassLoader> classLoaderFactory;
     private final Instantiator instantiator;
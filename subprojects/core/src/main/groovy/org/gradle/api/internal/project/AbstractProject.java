@@ -136,6 +136,7 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
     private ArtifactHandler artifactHandler;
 
     private ListenerBroadcast<ProjectEvaluationListener> evaluationListener = new ListenerBroadcast<ProjectEvaluationListener>(ProjectEvaluationListener.class);
+    private volatile boolean hasEvaluationListeners;
 
     private ExtensibleDynamicObject extensibleDynamicObject;
 
@@ -718,19 +719,27 @@ public abstract class AbstractProject extends AbstractPluginAware implements Pro
         return evaluationListener.getSource();
     }
 
+    public boolean hasEvaluationListeners() {
+        return hasEvaluationListeners;
+    }
+
     public void beforeEvaluate(Action<? super Project> action) {
+        hasEvaluationListeners = true;
         evaluationListener.add("beforeEvaluate", action);
     }
 
     public void afterEvaluate(Action<? super Project> action) {
+        hasEvaluationListeners = true;
         evaluationListener.add("afterEvaluate", action);
     }
 
     public void beforeEvaluate(Closure closure) {
+        hasEvaluationListeners = true;
         evaluationListener.add(new ClosureBackedMethodInvocationDispatch("beforeEvaluate", closure));
     }
 
     public void afterEvaluate(Closure closure) {
+        hasEvaluationListeners = true;
         evaluationListener.add(new ClosureBackedMethodInvocationDispatch("afterEvaluate", closure));
     }
 
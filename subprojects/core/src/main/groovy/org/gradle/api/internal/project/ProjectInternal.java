@@ -70,6 +70,11 @@ public interface ProjectInternal extends Project, ProjectIdentifier, ScriptAware
 
     ProjectEvaluationListener getProjectEvaluationBroadcaster();
 
+    /**
+     * Returns true when any before or after evaluate actions have been registered with this project.
+     */
+    boolean hasEvaluationListeners();
+
     FileResolver getFileResolver();
 
     ServiceRegistry getServices();
@@ -30,6 +30,9 @@ import java.io.File;
  * Copies files into a destination directory. This task can also rename and filter files as it copies. The task
  * implements {@link org.gradle.api.file.CopySpec CopySpec} for specifying what to copy.
  *
+ * <p>When the build runs in parallel, files which are copied unchanged from the file system are copied concurrently, using up to
+ * {@link org.gradle.StartParameter#getParallelThreadCount()} threads. Otherwise, files are copied one at a time.</p>
+ *
  * <p> Examples:
  * <pre autoTested=''>
  * task copyDocs(type: Copy) {
@@ -75,7 +78,8 @@ public class Copy extends AbstractCopyTask {
         if (destinationDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
-        return new FileCopyAction(getFileLookup().getFileResolver(destinationDir));
+        int parallelThreads = getProject().getGradle().getStartParameter().getParallelThreadCount();
+        return new FileCopyAction(getFileLookup().getFileResolver(destinationDir), getExecutorFactory(), parallelThreads);
     }
 
     @Override
@@ -25,6 +25,8 @@ import java.io.File;
 
 /**
  * Synchronises the contents of a destination directory with some source directories and files.
+ *
+ * <p>When the build runs in parallel, files which are copied unchanged from the file system are copied concurrently, as for {@link Copy}.</p>
  */
 public class Sync extends AbstractCopyTask {
 
@@ -34,7 +36,8 @@ public class Sync extends AbstractCopyTask {
         if (destinationDir == null) {
             throw new InvalidUserDataException("No copy destination directory has been specified, use 'into' to specify a target directory.");
         }
-        return new SyncCopyActionDecorator(destinationDir, new FileCopyAction(getFileLookup().getFileResolver(destinationDir)));
+        int parallelThreads = getProject().getGradle().getStartParameter().getParallelThreadCount();
+        return new SyncCopyActionDecorator(destinationDir, new FileCopyAction(getFileLookup().getFileResolver(destinationDir), getExecutorFactory(), parallelThreads));
     }
 
     @Override
@@ -16,6 +16,7 @@
 
 package org.gradle.api.tasks.bundling;
 
+import org.gradle.api.Incubating;
 import org.gradle.api.internal.file.archive.TarCopyAction;
 import org.gradle.api.internal.file.archive.compression.ArchiveOutputStreamFactory;
 import org.gradle.api.internal.file.archive.compression.Bzip2Archiver;
@@ -30,6 +31,7 @@ import java.util.concurrent.Callable;
  */
 public class Tar extends AbstractArchiveTask {
     private Compression compression = Compression.NONE;
+    private boolean parallelCompression;
 
     public Tar() {
         getConventionMapping().map("extension", new Callable<Object>(){
@@ -47,7 +49,9 @@ public class Tar extends AbstractArchiveTask {
     private ArchiveOutputStreamFactory getCompressor() {
         switch(compression) {
             case BZIP2: return Bzip2Archiver.getCompressor();
-            case GZIP:  return GzipArchiver.getCompressor();
+            case GZIP:  return parallelCompression
+                    ? GzipArchiver.getParallelCompressor(getExecutorFactory(), Runtime.getRuntime().availableProcessors())
+                    : GzipArchiver.getCompressor();
             default:    return new SimpleCompressor();
         }
     }
@@ -69,4 +73,26 @@ public class Tar extends AbstractArchiveTask {
         this.compression = compression;
     }
 
+    /**
+     * Enables compressing the archive using multiple threads.
+     *
+     * @see #isParallelCompression()
+     */
+    @Incubating
+    public void setParallelCompression(boolean parallelCompression) {
+        this.parallelCompression = parallelCompression;
+    }
+
+    /**
+     * Whether the archive is compressed concurrently, using multiple threads. Defaults to {@code false}.
+     * <p>
+     * This is only used with {@link Compression#GZIP} compression. The archive is split into blocks which are compressed
+     * independently and written as consecutive GZIP members. Such an archive can be read by the common tools, but only by
+     * the {@link java.util.zip.GZIPInputStream} JDK class for Java 7 and later.
+     */
+    @Incubating
+    public boolean isParallelCompression() {
+        return parallelCompression;
+    }
+
 }
\ No newline at end of file
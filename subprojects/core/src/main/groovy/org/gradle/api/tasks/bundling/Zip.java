@@ -18,8 +18,13 @@ package org.gradle.api.tasks.bundling;
 import org.apache.tools.zip.ZipOutputStream;
 import org.gradle.api.Incubating;
 import org.gradle.api.internal.DocumentationRegistry;
+import org.gradle.api.internal.file.archive.ParallelZipCopyAction;
+import org.gradle.api.internal.file.archive.ZipArchiveIndex;
 import org.gradle.api.internal.file.archive.ZipCopyAction;
 import org.gradle.api.internal.file.copy.*;
+import org.gradle.internal.concurrent.ParallelThreads;
+
+import java.io.File;
 
 /**
  * Assembles a ZIP archive.
@@ -30,6 +35,8 @@ public class Zip extends AbstractArchiveTask {
     public static final String ZIP_EXTENSION = "zip";
     private ZipEntryCompression entryCompression = ZipEntryCompression.DEFLATED;
     private boolean allowZip64;
+    private boolean parallelCompression;
+    private boolean incrementalUpdate;
 
     public Zip() {
         setExtension(ZIP_EXTENSION);
@@ -37,11 +44,15 @@ public class Zip extends AbstractArchiveTask {
     }
 
     protected ZipCompressor getCompressor() {
+        return new DefaultZipCompressor(allowZip64, getEntryCompressionMethod());
+    }
+
+    private int getEntryCompressionMethod() {
         switch (entryCompression) {
             case DEFLATED:
-                return new DefaultZipCompressor(allowZip64, ZipOutputStream.DEFLATED);
+                return ZipOutputStream.DEFLATED;
             case STORED:
-                return new DefaultZipCompressor(allowZip64, ZipOutputStream.STORED);
+                return ZipOutputStream.STORED;
             default:
                 throw new IllegalArgumentException(String.format("Unknown Compression type %s", entryCompression));
         }
@@ -50,6 +61,15 @@ public class Zip extends AbstractArchiveTask {
     @Override
     protected CopyAction createCopyAction() {
         DocumentationRegistry documentationRegistry = getServices().get(DocumentationRegistry.class);
+        int maxThreads = parallelCompression ? ParallelThreads.getThreadCountWhenEnabled(getProject().getGradle().getStartParameter().getParallelThreadCount()) : 1;
+        if (incrementalUpdate) {
+            boolean reusePrevious = !getProject().getGradle().getStartParameter().isRerunTasks();
+            ZipArchiveIndex index = new ZipArchiveIndex(new File(getTemporaryDir(), "archive-index.bin"), reusePrevious);
+            return new ParallelZipCopyAction(getArchivePath(), getEntryCompressionMethod(), allowZip64, documentationRegistry, getExecutorFactory(), getTemporaryDir(), maxThreads, index);
+        }
+        if (parallelCompression) {
+            return new ParallelZipCopyAction(getArchivePath(), getEntryCompressionMethod(), allowZip64, documentationRegistry, getExecutorFactory(), getTemporaryDir(), maxThreads, null);
+        }
         return new ZipCopyAction(getArchivePath(), getCompressor(), documentationRegistry);
     }
 
@@ -99,6 +119,61 @@ public class Zip extends AbstractArchiveTask {
         return allowZip64;
     }
 
+    /**
+     * Enables compressing the entries of the archive concurrently.
+     *
+     * @see #isParallelCompression()
+     */
+    @Incubating
+    public void setParallelCompression(boolean parallelCompression) {
+        this.parallelCompression = parallelCompression;
+    }
+
+    /**
+     * Whether the entries of the archive are compressed concurrently, using multiple threads. Defaults to {@code false}.
+     * <p>
+     * The number of threads is given by the {@code --parallel-threads} command-line option. When the build does not run in parallel,
+     * one thread per processor is used.
+     * <p>
+     * The entries are still written to the archive in the same order, so for a {@code Jar}, {@code War} or {@code Ear} the manifest is still
+     * the first entry, and duplicate entries are handled according to the duplicates strategy as usual. The archive written is the same
+     * for the same entries and timestamps, regardless of the number of threads used.
+     * <p>
+     * The archive is not byte for byte the same as the archive written when this property is disabled, although it has the same entries
+     * and content. Entry names are always encoded using UTF-8 when this property is enabled. Each entry keeps the last modified time of
+     * its source file, so this property does not on its own make the archive reproducible across builds.
+     */
+    @Incubating
+    public boolean isParallelCompression() {
+        return parallelCompression;
+    }
+
+    /**
+     * Enables updating the archive produced by the previous execution of this task, rather than creating it from scratch.
+     *
+     * @see #isIncrementalUpdate()
+     */
+    @Incubating
+    public void setIncrementalUpdate(boolean incrementalUpdate) {
+        this.incrementalUpdate = incrementalUpdate;
+    }
+
+    /**
+     * Whether the archive produced by the previous execution of this task is reused, when only some of the files of the archive
+     * have changed. Defaults to {@code false}.
+     * <p>
+     * When enabled, the compressed content of each entry whose source file has not changed is copied unchanged from the previous archive,
+     * and only the entries whose source file has changed are compressed again. Entries which are filtered or expanded, or which are not
+     * copied from a file, are always compressed again. A source file is considered changed when its path, length or last modified time
+     * differs from when the previous archive was written. The previous archive is not reused when tasks are rerun using {@code --rerun-tasks}.
+     * The entries of the archive and their content are the same as when the archive is written from scratch.
+     * Entry names are always encoded using UTF-8 when this property is enabled.
+     */
+    @Incubating
+    public boolean isIncrementalUpdate() {
+        return incrementalUpdate;
+    }
+
     /**
      * DO NOT REMOVE.
      *
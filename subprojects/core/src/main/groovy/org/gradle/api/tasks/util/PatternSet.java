@@ -24,6 +24,7 @@ import org.gradle.api.Action;
 import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.RelativePathSpec;
+import org.gradle.api.internal.file.pattern.CompiledPatternSpec;
 import org.gradle.api.internal.file.pattern.PatternMatcherFactory;
 import org.gradle.api.specs.*;
 import org.gradle.api.tasks.AntBuilderAware;
@@ -107,7 +108,15 @@ public class PatternSet implements AntBuilderAware, PatternFilterable {
         }
 
         public Spec<FileTreeElement> getAsSpec() {
-            return new AndSpec<FileTreeElement>(super.getAsSpec(), other.getAsSpec());
+            Spec<FileTreeElement> spec = super.getAsSpec();
+            Spec<FileTreeElement> otherSpec = other.getAsSpec();
+            if (spec instanceof CompiledPatternSpec && otherSpec instanceof CompiledPatternSpec) {
+                CompiledPatternSpec compiled = ((CompiledPatternSpec) spec).and((CompiledPatternSpec) otherSpec);
+                if (compiled != null) {
+                    return compiled;
+                }
+            }
+            return new AndSpec<FileTreeElement>(spec, otherSpec);
         }
 
         public Object addToAntBuilder(Object node, String childNodeName) {
@@ -121,6 +130,16 @@ public class PatternSet implements AntBuilderAware, PatternFilterable {
     }
 
     public Spec<FileTreeElement> getAsSpec() {
+        if (includeSpecs.isEmpty() && excludeSpecs.isEmpty()) {
+            Collection<String> allExcludes = getAllExcludes();
+            // Without any exclude pattern, the exclude spec is satisfied by everything, so is not compiled
+            if (!allExcludes.isEmpty()) {
+                CompiledPatternSpec compiled = CompiledPatternSpec.compile(includes, allExcludes, caseSensitive);
+                if (compiled != null) {
+                    return compiled;
+                }
+            }
+        }
         return new AndSpec<FileTreeElement>(getAsIncludeSpec(), new NotSpec<FileTreeElement>(getAsExcludeSpec()));
     }
 
@@ -136,11 +155,8 @@ public class PatternSet implements AntBuilderAware, PatternFilterable {
     }
 
     public Spec<FileTreeElement> getAsExcludeSpec() {
-        Collection<String> allExcludes = Sets.newLinkedHashSet(excludes);
-        Collections.addAll(allExcludes, DirectoryScanner.getDefaultExcludes());
-
         List<Spec<FileTreeElement>> matchers = Lists.newArrayList();
-        for (String exclude : allExcludes) {
+        for (String exclude : getAllExcludes()) {
             Spec<RelativePath> patternMatcher = PatternMatcherFactory.getPatternMatcher(false, caseSensitive, exclude);
             matchers.add(new RelativePathSpec(patternMatcher));
         }
@@ -149,6 +165,12 @@ public class PatternSet implements AntBuilderAware, PatternFilterable {
         return new OrSpec<FileTreeElement>(matchers);
     }
 
+    private Collection<String> getAllExcludes() {
+        Collection<String> allExcludes = Sets.newLinkedHashSet(excludes);
+        Collections.addAll(allExcludes, DirectoryScanner.getDefaultExcludes());
+        return allExcludes;
+    }
+
     public Set<String> getIncludes() {
         return includes;
     }
@@ -52,4 +52,10 @@ public interface CacheAccess {
      * <p>This method is re-entrant, so that an action can call back into this method.</p>
      */
     void longRunningOperation(String operationDisplayName, Runnable action);
+
+    /**
+     * Performs some work which writes to the files of the cache other than through its indexed caches, within an action invoked by
+     * {@link #useCache(String, org.gradle.internal.Factory)}. When the action is holding a shared lock, acquires an exclusive lock first.
+     */
+    <T> T writeToCache(Factory<? extends T> action);
 }
@@ -77,7 +77,7 @@ public class    DefaultCacheAccess implements CacheCoordinator {
                 throw new IllegalStateException(String.format("Cannot open the %s, as it has already been opened.", cacheDisplayName));
             }
             this.lockOptions = lockOptions;
-            if (lockOptions.getMode() == FileLockManager.LockMode.None) {
+            if (lockOptions.getMode() == FileLockManager.LockMode.None || lockOptions.isOnDemand()) {
                 return;
             }
             if (fileLock != null) {
@@ -129,8 +129,12 @@ public class    DefaultCacheAccess implements CacheCoordinator {
     }
 
     private void closeFileLock() {
+        cacheClosedCount++;
+        releaseFileLock();
+    }
+
+    private void releaseFileLock() {
         try {
-            cacheClosedCount++;
             try {
                 // Close the caches and then notify them of the final state, in case the caches do work on close
                 new CompositeStoppable().add(caches).stop();
@@ -175,15 +179,21 @@ public class    DefaultCacheAccess implements CacheCoordinator {
         useCache(operationDisplayName, Factories.toFactory(action));
     }
 
+    /**
+     * Runs the given action while holding the lock on the cache.
+     *
+     * <p>When the cache uses a shared lock, the action reads the cache while other processes may also be reading it. The first write
+     * to the cache upgrades the lock to an exclusive lock, which waits until the other processes have released their shared locks.
+     * A shared lock taken on demand is released at the end of the action, and during any long running operation, so that a process
+     * waiting to write is held up by the other processes for the duration of their cache reads only.</p>
+     */
     public <T> T useCache(String operationDisplayName, Factory<? extends T> factory) {
-        if (lockOptions != null && lockOptions.getMode() == FileLockManager.LockMode.Shared) {
-            throw new UnsupportedOperationException("Not implemented yet.");
-        }
-
         takeOwnership(operationDisplayName);
         boolean wasStarted = false;
+        boolean wasShared = false;
         try {
             wasStarted = onStartWork();
+            wasShared = isShared();
             return factory.create();
         } finally {
             lock.lock();
@@ -191,6 +201,8 @@ public class    DefaultCacheAccess implements CacheCoordinator {
                 try {
                     if (wasStarted) {
                         onEndWork();
+                    } else if (wasShared) {
+                        downgradeLock(operationDisplayName);
                     }
                 } finally {
                     releaseOwnership();
@@ -244,7 +256,7 @@ public class    DefaultCacheAccess implements CacheCoordinator {
         boolean wasEnded;
         lock.lock();
         try {
-            if (lockOptions == null || lockOptions.getMode() == Shared) {
+            if (lockOptions == null || (lockOptions.getMode() == Shared && !lockOptions.isOnDemand())) {
                 throw new UnsupportedOperationException("Not supported for this lock mode.");
             }
             if (operations.isInCacheAction()) {
@@ -308,6 +320,11 @@ public class    DefaultCacheAccess implements CacheCoordinator {
         longRunningOperation(operationDisplayName, Factories.toFactory(action));
     }
 
+    public <T> T writeToCache(Factory<? extends T> action) {
+        getLockForWrite();
+        return action.create();
+    }
+
     public <K, V> MultiProcessSafePersistentIndexedCache<K, V> newCache(final PersistentIndexedCacheParameters<K, V> parameters) {
         final File cacheFile = new File(baseDir, parameters.getCacheName() + ".bin");
         Factory<BTreePersistentIndexedCache<K, V>> indexedCacheFactory = new Factory<BTreePersistentIndexedCache<K, V>>() {
@@ -316,7 +333,7 @@ public class    DefaultCacheAccess implements CacheCoordinator {
             }
         };
 
-        MultiProcessSafePersistentIndexedCache<K, V> indexedCache = new DefaultMultiProcessSafePersistentIndexedCache<K, V>(indexedCacheFactory, fileAccess);
+        MultiProcessSafePersistentIndexedCache<K, V> indexedCache = new DefaultMultiProcessSafePersistentIndexedCache<K, V>(cacheFile, indexedCacheFactory, fileAccess);
         CacheDecorator decorator = parameters.getCacheDecorator();
         indexedCache = decorator == null ? indexedCache : decorator.decorate(cacheFile.getAbsolutePath(), parameters.getCacheName(), indexedCache);
 
@@ -341,34 +358,95 @@ public class    DefaultCacheAccess implements CacheCoordinator {
         if (fileLock != null) {
             return false;
         }
-        fileLock = lockManager.lock(lockTarget, lockOptions.withMode(Exclusive), cacheDisplayName, operations.getDescription());
+        boolean shared = lockOptions.getMode() == Shared;
+        fileLock = lockManager.lock(lockTarget, shared ? lockOptions : lockOptions.withMode(Exclusive), cacheDisplayName, operations.getDescription());
         if (initializationAction.requiresInitialization(fileLock)) {
-            fileLock.writeFile(new Runnable() {
-                public void run() {
-                    initializationAction.initialize(fileLock);
-                }
-            });
+            if (shared) {
+                // Initializes the cache with an exclusive lock, which is kept until the end of the work
+                fileLock.close();
+                fileLock = null;
+                shared = false;
+                lockExclusively(operations.getDescription());
+            } else {
+                initialize();
+            }
         }
         stateAtOpen = fileLock.getState();
         for (UnitOfWorkParticipant cache : caches) {
             cache.onStartWork(operations.getDescription(), stateAtOpen);
         }
 
-        lockManager.allowContention(fileLock, whenContended());
+        if (!shared) {
+            lockManager.allowContention(fileLock, whenContended());
+        }
 
         return true;
     }
 
+    private void lockExclusively(String operationDisplayName) {
+        fileLock = lockManager.lock(lockTarget, lockOptions.withMode(Exclusive), cacheDisplayName, operationDisplayName);
+        if (initializationAction.requiresInitialization(fileLock)) {
+            initialize();
+        }
+    }
+
+    private void initialize() {
+        fileLock.writeFile(new Runnable() {
+            public void run() {
+                initializationAction.initialize(fileLock);
+            }
+        });
+    }
+
     private boolean onEndWork() {
         if (fileLock == null) {
             return false;
         }
-        if (contended || fileLock.getMode() == Shared) {
+        if (contended || fileLock.getMode() == Shared || lockOptions.getMode() == Shared) {
             closeFileLock();
         }
         return true;
     }
 
+    private boolean isShared() {
+        lock.lock();
+        try {
+            return lockOptions != null && lockOptions.getMode() == Shared && fileLock != null && fileLock.getMode() == Shared;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the shared lock with an exclusive lock, so that the cache can be written to. Another process may change the cache while
+     * no lock is held, so the indexed caches are closed with the shared lock, and are then told about the state of the exclusive lock.
+     */
+    private void upgradeLock() {
+        String operationDisplayName = operations.getDescription();
+        releaseFileLock();
+        lockExclusively(operationDisplayName);
+        stateAtOpen = fileLock.getState();
+        for (UnitOfWorkParticipant cache : caches) {
+            cache.onStartWork(operationDisplayName, stateAtOpen);
+        }
+        lockManager.allowContention(fileLock, whenContended());
+    }
+
+    /**
+     * Replaces an exclusive lock, acquired to write to the cache, with a shared lock again.
+     */
+    private void downgradeLock(String operationDisplayName) {
+        if (fileLock == null || fileLock.getMode() != Exclusive) {
+            return;
+        }
+        releaseFileLock();
+        fileLock = lockManager.lock(lockTarget, lockOptions, cacheDisplayName, operationDisplayName);
+        stateAtOpen = fileLock.getState();
+        for (UnitOfWorkParticipant cache : caches) {
+            cache.onStartWork(operationDisplayName, stateAtOpen);
+        }
+    }
+
     private FileLock getLock() {
         lock.lock();
         try {
@@ -381,6 +459,15 @@ public class    DefaultCacheAccess implements CacheCoordinator {
         return fileLock;
     }
 
+    private FileLock getLockForWrite() {
+        FileLock fileLock = getLock();
+        if (lockOptions.getMode() == Shared && fileLock != null && fileLock.getMode() == Shared) {
+            upgradeLock();
+            return this.fileLock;
+        }
+        return fileLock;
+    }
+
     private class UnitOfWorkFileAccess extends AbstractFileAccess {
         @Override
         public String toString() {
@@ -392,11 +479,11 @@ public class    DefaultCacheAccess implements CacheCoordinator {
         }
 
         public void updateFile(Runnable action) throws LockTimeoutException {
-            getLock().updateFile(action);
+            getLockForWrite().updateFile(action);
         }
 
         public void writeFile(Runnable action) throws LockTimeoutException {
-            getLock().writeFile(action);
+            getLockForWrite().writeFile(action);
         }
     }
 
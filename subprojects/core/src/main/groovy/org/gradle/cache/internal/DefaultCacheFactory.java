@@ -179,6 +179,10 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
             reference.cache.longRunningOperation(operationDisplayName, action);
         }
 
+        public <T> T writeToCache(Factory<? extends T> action) {
+            return reference.cache.writeToCache(action);
+        }
+
         public <T> T useCache(String operationDisplayName, Factory<? extends T> action) {
             return reference.cache.useCache(operationDisplayName, action);
         }
@@ -28,7 +28,11 @@ import org.gradle.util.GFileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 
 import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
@@ -39,8 +43,13 @@ import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
 public class DefaultFileLockManager implements FileLockManager {
     private static final Logger LOGGER = Logging.getLogger(DefaultFileLockManager.class);
     public static final int DEFAULT_LOCK_TIMEOUT = 60000;
+    /**
+     * How long to wait for the owner of a lock to notify us that it has released the lock, before checking again.
+     */
+    private static final long RELEASE_FALLBACK_POLL_MS = 2000L;
 
     private final Set<File> lockedFiles = new CopyOnWriteArraySet<File>();
+    private final ConcurrentMap<File, FileLockWaitStatistics> waitStatistics = new ConcurrentHashMap<File, FileLockWaitStatistics>();
     private final ProcessMetaDataProvider metaDataProvider;
     private final int lockTimeoutMs;
     private final IdGenerator<Long> generator;
@@ -89,6 +98,29 @@ public class DefaultFileLockManager implements FileLockManager {
         fileLockContentionHandler.start(internalLock.lockId, whenContended);
     }
 
+    public Collection<FileLockWaitStatistics> takeWaitStatistics() {
+        Collection<FileLockWaitStatistics> statistics = new ArrayList<FileLockWaitStatistics>();
+        for (File target : waitStatistics.keySet()) {
+            FileLockWaitStatistics lockStatistics = waitStatistics.remove(target);
+            if (lockStatistics != null) {
+                statistics.add(lockStatistics);
+            }
+        }
+        return statistics;
+    }
+
+    private void recordWait(File target, String displayName, boolean contended, long waitMs) {
+        FileLockWaitStatistics statistics = waitStatistics.get(target);
+        if (statistics == null) {
+            FileLockWaitStatistics newStatistics = new FileLockWaitStatistics(displayName);
+            statistics = waitStatistics.putIfAbsent(target, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        statistics.record(contended, waitMs);
+    }
+
     private class DefaultFileLock extends AbstractFileAccess implements FileLock {
         private final File lockFile;
         private final File target;
@@ -100,6 +132,7 @@ public class DefaultFileLockManager implements FileLockManager {
         private LockState lockState;
         private int port;
         private final long lockId;
+        private boolean contended;
 
         public DefaultFileLock(File target, LockOptions options, String displayName, String operationDisplayName, int port) throws Throwable {
             this.port = port;
@@ -233,6 +266,12 @@ public class DefaultFileLockManager implements FileLockManager {
                     }
                 }
             });
+            stoppable.add(new Stoppable() {
+                public void stop() {
+                    // Hand the lock over to any processes waiting for it
+                    fileLockContentionHandler.released(lockId);
+                }
+            });
             stoppable.add(new Stoppable() {
                 public void stop() {
                     lock = null;
@@ -249,10 +288,16 @@ public class DefaultFileLockManager implements FileLockManager {
 
         private LockState lock(FileLockManager.LockMode lockMode) throws Throwable {
             LOGGER.debug("Waiting to acquire {} lock on {}.", lockMode.toString().toLowerCase(), displayName);
-            long waitUntil = System.currentTimeMillis() + lockTimeoutMs;
+            long start = System.currentTimeMillis();
+            long waitUntil = start + lockTimeoutMs;
 
             // Lock the state region, with the requested mode
             java.nio.channels.FileLock stateRegionLock = lockStateRegion(lockMode, waitUntil);
+            long waitMs = System.currentTimeMillis() - start;
+            recordWait(target, displayName, contended, waitMs);
+            if (contended) {
+                LOGGER.debug("Waited {} ms for {} lock on {}.", waitMs, lockMode.toString().toLowerCase(), displayName);
+            }
             if (stateRegionLock == null) {
                 LockInfo lockInfo = readInformationRegion(System.currentTimeMillis() + shortTimeoutMs);
                 throw new LockTimeoutException(String.format("Timeout waiting to lock %s. It is currently in use by another Gradle instance.%nOwner PID: %s%nOur PID: %s%nOwner Operation: %s%nOur operation: %s%nLock file: %s",
@@ -313,11 +358,18 @@ public class DefaultFileLockManager implements FileLockManager {
                 if (fileLock != null) {
                     return fileLock;
                 }
+                contended = true;
                 if (port != -1) { //we don't like the assumption about the port very much
                     LockInfo lockInfo = readInformationRegion(System.currentTimeMillis()); //no need for timeout here, as we're already looping with timeout
                     if (lockInfo.port != -1) {
                         LOGGER.debug("The file lock is held by a different Gradle process (pid: {}, operation: {}). Will attempt to ping owner at port {}", lockInfo.pid, lockInfo.operation, lockInfo.port);
                         fileLockContentionHandler.pingOwner(lockInfo.port, lockInfo.lockId, displayName);
+                        // Wait for the owner to hand over the lock. Returns early when the owner does not send notifications
+                        long timeoutMs = Math.min(RELEASE_FALLBACK_POLL_MS, Math.max(0, waitUntil - System.currentTimeMillis()));
+                        if (fileLockContentionHandler.waitForRelease(lockInfo.lockId, timeoutMs)) {
+                            LOGGER.debug("The owner of the file lock has released it.");
+                        }
+                        continue;
                     } else {
                         LOGGER.debug("The file lock is held by a different Gradle process. I was unable to read on which port the owner listens for lock access requests.");
                     }
@@ -17,24 +17,34 @@ package org.gradle.cache.internal;
 
 import org.gradle.cache.PersistentIndexedCache;
 import org.gradle.cache.internal.btree.BTreePersistentIndexedCache;
+import org.gradle.internal.Factories;
 import org.gradle.internal.Factory;
 
+import java.io.File;
+
+/**
+ * A {@link MultiProcessSafePersistentIndexedCache} which reads entries with a read lock, and only requires a write lock to modify the cache.
+ * This allows entries to be read while other processes are also reading the cache.
+ */
 public class DefaultMultiProcessSafePersistentIndexedCache<K, V> implements MultiProcessSafePersistentIndexedCache<K, V> {
+    private final File cacheFile;
     private final FileAccess fileAccess;
     private final Factory<BTreePersistentIndexedCache<K, V>> factory;
     private BTreePersistentIndexedCache<K, V> cache;
+    private boolean modified;
 
-    public DefaultMultiProcessSafePersistentIndexedCache(Factory<BTreePersistentIndexedCache<K, V>> factory, FileAccess fileAccess) {
+    public DefaultMultiProcessSafePersistentIndexedCache(File cacheFile, Factory<BTreePersistentIndexedCache<K, V>> factory, FileAccess fileAccess) {
+        this.cacheFile = cacheFile;
         this.factory = factory;
         this.fileAccess = fileAccess;
     }
 
     public V get(final K key) {
-        final PersistentIndexedCache<K, V> cache = getCache();
         try {
             return fileAccess.readFile(new Factory<V>() {
                 public V create() {
-                    return cache.get(key);
+                    PersistentIndexedCache<K, V> cache = getCacheForRead();
+                    return cache == null ? null : cache.get(key);
                 }
             });
         } catch (FileIntegrityViolationException e) {
@@ -43,23 +53,21 @@ public class DefaultMultiProcessSafePersistentIndexedCache<K, V> implements Mult
     }
 
     public void put(final K key, final V value) {
-        final PersistentIndexedCache<K, V> cache = getCache();
         // Use writeFile because the cache can internally recover from datafile
         // corruption, so we don't care at this level if it's corrupt
         fileAccess.writeFile(new Runnable() {
             public void run() {
-                cache.put(key, value);
+                getCacheForWrite().put(key, value);
             }
         });
     }
 
     public void remove(final K key) {
-        final PersistentIndexedCache<K, V> cache = getCache();
         // Use writeFile because the cache can internally recover from datafile
         // corruption, so we don't care at this level if it's corrupt
         fileAccess.writeFile(new Runnable() {
             public void run() {
-                cache.remove(key);
+                getCacheForWrite().remove(key);
             }
         });
     }
@@ -73,27 +81,46 @@ public class DefaultMultiProcessSafePersistentIndexedCache<K, V> implements Mult
     public void close() {
         if (cache != null) {
             try {
-                fileAccess.writeFile(new Runnable() {
+                Runnable closeAction = new Runnable() {
                     public void run() {
                         cache.close();
                     }
-                });
+                };
+                if (modified) {
+                    fileAccess.writeFile(closeAction);
+                } else {
+                    // Nothing to flush, so don't require a write lock
+                    fileAccess.readFile(Factories.toFactory(closeAction));
+                }
             } finally {
                 cache = null;
+                modified = false;
             }
         }
     }
 
-    private PersistentIndexedCache<K, V> getCache() {
+    /**
+     * Opens the cache for reading, when the cache file exists. Called while holding the read lock.
+     */
+    private PersistentIndexedCache<K, V> getCacheForRead() {
         if (cache == null) {
-            // Use writeFile because the cache can internally recover from datafile
-            // corruption, so we don't care at this level if it's corrupt
-            fileAccess.writeFile(new Runnable() {
-                public void run() {
-                    cache = factory.create();
-                }
-            });
+            if (cacheFile.length() == 0) {
+                // Nothing has been written yet. Creating the cache would write its header
+                return null;
+            }
+            cache = factory.create();
+        }
+        return cache;
+    }
+
+    /**
+     * Opens the cache for writing. Called while holding the write lock, which closes the cache if it was opened with a read lock.
+     */
+    private PersistentIndexedCache<K, V> getCacheForWrite() {
+        if (cache == null) {
+            cache = factory.create();
         }
+        modified = true;
         return cache;
     }
 }
@@ -113,4 +113,8 @@ public class DefaultPersistentDirectoryStore implements ReferencablePersistentCa
     public void longRunningOperation(String operationDisplayName, Runnable action) {
         cacheAccess.longRunningOperation(operationDisplayName, action);
     }
+
+    public <T> T writeToCache(Factory<? extends T> action) {
+        return cacheAccess.writeToCache(action);
+    }
 }
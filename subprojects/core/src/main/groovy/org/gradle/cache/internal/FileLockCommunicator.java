@@ -19,15 +19,21 @@ package org.gradle.cache.internal;
 import org.gradle.messaging.remote.internal.inet.InetAddressFactory;
 
 import java.io.*;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
-import java.net.SocketException;
+import java.net.*;
 
 import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
 
+/**
+ * Exchanges lock contention messages with other processes.
+ *
+ * <p>A ping sent by an older version is made up of the protocol version and the lock id. Newer messages append a message type, which
+ * older versions ignore. A process which pings the owner of a lock asks to be notified when the lock is released, and the owner
+ * acknowledges this so that the waiting process knows whether to expect a notification.</p>
+ */
 public class FileLockCommunicator {
     private static final byte PROTOCOL_VERSION = 1;
+    private static final int PING_LENGTH = 9;
+    private static final int MESSAGE_LENGTH = 10;
     private final DatagramSocket socket;
     private final InetAddressFactory addressFactory;
     private boolean stopped;
@@ -41,9 +47,12 @@ public class FileLockCommunicator {
         }
     }
 
+    /**
+     * Pings the owner of a lock, asking it to notify this process when the lock has been released.
+     */
     public void pingOwner(int ownerPort, long lockId, String displayName) {
         try {
-            byte[] bytesToSend = encode(lockId);
+            byte[] bytesToSend = encode(lockId, MessageType.PING);
             // Ping the owner via all available local addresses
             for (InetAddress address : addressFactory.findLocalAddresses()) {
                 socket.send(new DatagramPacket(bytesToSend, bytesToSend.length, address, ownerPort));
@@ -53,12 +62,35 @@ public class FileLockCommunicator {
         }
     }
 
-    public long receive() throws GracefullyStoppedException {
+    /**
+     * Tells a process which has pinged the owner of a lock that it will be notified when the lock has been released.
+     */
+    public void acknowledge(SocketAddress waiter, long lockId) {
+        send(waiter, lockId, MessageType.ACKNOWLEDGED);
+    }
+
+    /**
+     * Tells a process which has pinged the owner of a lock that the lock has been released.
+     */
+    public void notifyReleased(SocketAddress waiter, long lockId) {
+        send(waiter, lockId, MessageType.RELEASED);
+    }
+
+    private void send(SocketAddress address, long lockId, MessageType type) {
         try {
-            byte[] bytes = new byte[9];
+            byte[] bytesToSend = encode(lockId, type);
+            socket.send(new DatagramPacket(bytesToSend, bytesToSend.length, address));
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to send lock notification to %s (lock id: %s)", address, lockId), e);
+        }
+    }
+
+    public Message receive() throws GracefullyStoppedException {
+        try {
+            byte[] bytes = new byte[MESSAGE_LENGTH];
             DatagramPacket packet = new DatagramPacket(bytes, bytes.length);
             socket.receive(packet);
-            return decode(bytes);
+            return decode(bytes, packet.getLength(), packet.getSocketAddress());
         } catch (IOException e) {
             if (!stopped) {
                 throw new RuntimeException(e);
@@ -72,25 +104,64 @@ public class FileLockCommunicator {
         socket.close();
     }
 
-    private static byte[] encode(long lockId) throws IOException {
+    private static byte[] encode(long lockId, MessageType type) throws IOException {
         ByteArrayOutputStream packet = new ByteArrayOutputStream();
         DataOutputStream dataOutput = new DataOutputStream(packet);
         dataOutput.writeByte(PROTOCOL_VERSION);
         dataOutput.writeLong(lockId);
+        dataOutput.writeByte(type.ordinal());
         dataOutput.flush();
         return packet.toByteArray();
     }
 
-    private static long decode(byte[] bytes) throws IOException {
-        DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(bytes));
+    private static Message decode(byte[] bytes, int length, SocketAddress sender) throws IOException {
+        DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(bytes, 0, length));
         byte version = dataInput.readByte();
         if (version != PROTOCOL_VERSION) {
             throw new IllegalArgumentException(String.format("Unexpected protocol version %s received in lock contention notification message", version));
         }
-        return dataInput.readLong();
+        long lockId = dataInput.readLong();
+        if (length == PING_LENGTH) {
+            // Sent by an older version, which does not expect to be notified
+            return new Message(lockId, MessageType.LEGACY_PING, sender);
+        }
+        int type = dataInput.readByte();
+        if (type < 0 || type >= MessageType.values().length) {
+            throw new IllegalArgumentException(String.format("Unexpected message type %s received in lock contention notification message", type));
+        }
+        return new Message(lockId, MessageType.values()[type], sender);
     }
 
     public int getPort() {
         return socket.getLocalPort();
     }
-}
\ No newline at end of file
+
+    public enum MessageType {
+        // The ordinal is sent over the wire, so new types must be added at the end
+        LEGACY_PING, PING, ACKNOWLEDGED, RELEASED
+    }
+
+    public static class Message {
+        private final long lockId;
+        private final MessageType type;
+        private final SocketAddress sender;
+
+        public Message(long lockId, MessageType type, SocketAddress sender) {
+            this.lockId = lockId;
+            this.type = type;
+            this.sender = sender;
+        }
+
+        public long getLockId() {
+            return lockId;
+        }
+
+        public MessageType getType() {
+            return type;
+        }
+
+        public SocketAddress getSender() {
+            return sender;
+        }
+    }
+}
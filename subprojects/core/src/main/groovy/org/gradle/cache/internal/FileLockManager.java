@@ -18,6 +18,7 @@ package org.gradle.cache.internal;
 import org.gradle.cache.internal.filelock.LockOptions;
 
 import java.io.File;
+import java.util.Collection;
 
 public interface FileLockManager {
     /**
@@ -51,6 +52,11 @@ public interface FileLockManager {
      */
     void allowContention(FileLock fileLock, Runnable whenContended);
 
+    /**
+     * Returns the time spent waiting for each lock since the previous call to this method.
+     */
+    Collection<FileLockWaitStatistics> takeWaitStatistics();
+
     enum LockMode {
         /**
          * No synchronisation is done.
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal;
+
+/**
+ * The time spent waiting to acquire a lock which was held by another process.
+ */
+public class FileLockWaitStatistics {
+    private final String displayName;
+    private int acquired;
+    private int contended;
+    private long totalWaitMs;
+    private long maxWaitMs;
+
+    public FileLockWaitStatistics(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    synchronized void record(boolean wasContended, long waitMs) {
+        acquired++;
+        if (wasContended) {
+            contended++;
+            totalWaitMs += waitMs;
+            maxWaitMs = Math.max(maxWaitMs, waitMs);
+        }
+    }
+
+    /**
+     * The number of times the lock was acquired.
+     */
+    public synchronized int getAcquired() {
+        return acquired;
+    }
+
+    /**
+     * The number of times the lock was held by another process when it was requested.
+     */
+    public synchronized int getContended() {
+        return contended;
+    }
+
+    public synchronized long getTotalWaitMs() {
+        return totalWaitMs;
+    }
+
+    public synchronized long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+}
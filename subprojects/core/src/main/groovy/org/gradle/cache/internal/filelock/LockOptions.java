@@ -23,6 +23,11 @@ public interface LockOptions {
 
     boolean isUseCrossVersionImplementation();
 
+    /**
+     * Returns true when the lock is only held while the cache is in use, rather than from when the cache is opened until it is closed.
+     */
+    boolean isOnDemand();
+
     /**
      * Creates a copy of these options with the given mode.
      */
@@ -21,14 +21,16 @@ public class LockOptionsBuilder implements LockOptions {
 
     private FileLockManager.LockMode mode;
     private boolean crossVersion;
+    private boolean onDemand;
 
-    private LockOptionsBuilder(FileLockManager.LockMode mode, boolean crossVersion) {
+    private LockOptionsBuilder(FileLockManager.LockMode mode, boolean crossVersion, boolean onDemand) {
         this.mode = mode;
         this.crossVersion = crossVersion;
+        this.onDemand = onDemand;
     }
 
     public static LockOptionsBuilder mode(FileLockManager.LockMode lockMode) {
-        return new LockOptionsBuilder(lockMode, false);
+        return new LockOptionsBuilder(lockMode, false, false);
     }
 
     public LockOptionsBuilder useCrossVersionImplementation() {
@@ -36,6 +38,14 @@ public class LockOptionsBuilder implements LockOptions {
         return this;
     }
 
+    /**
+     * Locks the cache with the given mode only while it is in use.
+     */
+    public LockOptionsBuilder onDemand() {
+        onDemand = true;
+        return this;
+    }
+
     public FileLockManager.LockMode getMode() {
         return mode;
     }
@@ -44,13 +54,17 @@ public class LockOptionsBuilder implements LockOptions {
         return crossVersion;
     }
 
+    public boolean isOnDemand() {
+        return onDemand;
+    }
+
     public LockOptions withMode(FileLockManager.LockMode mode) {
-        return new LockOptionsBuilder(mode, crossVersion);
+        return new LockOptionsBuilder(mode, crossVersion, onDemand);
     }
 
     @Override
     public String toString() {
-        return mode + " (simple=" + crossVersion + ")";
+        return mode + " (simple=" + crossVersion + ", onDemand=" + onDemand + ")";
     }
 
     @Override
@@ -67,6 +81,9 @@ public class LockOptionsBuilder implements LockOptions {
         if (crossVersion != that.crossVersion) {
             return false;
         }
+        if (onDemand != that.onDemand) {
+            return false;
+        }
         if (mode != that.mode) {
             return false;
         }
@@ -78,6 +95,7 @@ public class LockOptionsBuilder implements LockOptions {
     public int hashCode() {
         int result = mode.hashCode();
         result = 31 * result + (crossVersion ? 1 : 0);
+        result = 31 * result + (onDemand ? 1 : 0);
         return result;
     }
 }
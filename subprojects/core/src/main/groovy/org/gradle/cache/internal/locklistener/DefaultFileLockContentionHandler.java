@@ -25,15 +25,26 @@ import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.messaging.remote.internal.inet.InetAddressFactory;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.net.SocketAddress;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class DefaultFileLockContentionHandler implements FileLockContentionHandler, Stoppable {
     private static final Logger LOGGER = Logging.getLogger(DefaultFileLockContentionHandler.class);
+    /**
+     * How long to wait for the owner of a lock to acknowledge a ping, before assuming that it will not send a notification.
+     */
+    private static final long ACKNOWLEDGE_TIMEOUT_MS = 200L;
     private final Lock lock = new ReentrantLock();
+    private final Condition notificationReceived = lock.newCondition();
     private final Map<Long, Runnable> contendedActions = new HashMap<Long, Runnable>();
+    // The processes to notify when a lock held by this process is released
+    private final Map<Long, Set<SocketAddress>> waiters = new HashMap<Long, Set<SocketAddress>>();
+    // The locks held by other processes which this process is waiting for
+    private final Map<Long, Waiting> waiting = new HashMap<Long, Waiting>();
     private final ExecutorFactory executorFactory;
     private final InetAddressFactory addressFactory;
 
@@ -62,29 +73,75 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
 
             private void doRun() {
                 while (true) {
-                    long lockId;
+                    FileLockCommunicator.Message message;
                     try {
-                        lockId = communicator.receive();
+                        message = communicator.receive();
                     } catch (GracefullyStoppedException e) {
                         return;
                     }
-                    lock.lock();
-                    Runnable action;
-                    try {
-                        action = contendedActions.get(lockId);
-                        if (action == null) {
-                            //received access request for lock that is already closed
-                            continue;
-                        }
-                    } finally {
-                        lock.unlock();
+                    switch (message.getType()) {
+                        case ACKNOWLEDGED:
+                        case RELEASED:
+                            notified(message);
+                            break;
+                        default:
+                            contended(message);
                     }
-                    action.run();
                 }
             }
         };
     }
 
+    private void contended(FileLockCommunicator.Message message) {
+        long lockId = message.getLockId();
+        Runnable action;
+        lock.lock();
+        try {
+            action = contendedActions.get(lockId);
+            if (action == null) {
+                //received access request for lock that is already closed
+                return;
+            }
+            if (message.getType() == FileLockCommunicator.MessageType.PING) {
+                Set<SocketAddress> lockWaiters = waiters.get(lockId);
+                if (lockWaiters == null) {
+                    lockWaiters = new HashSet<SocketAddress>();
+                    waiters.put(lockId, lockWaiters);
+                }
+                lockWaiters.add(message.getSender());
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (message.getType() == FileLockCommunicator.MessageType.PING) {
+            try {
+                communicator.acknowledge(message.getSender(), lockId);
+            } catch (Exception e) {
+                LOGGER.debug("Could not acknowledge lock request from {}.", message.getSender(), e);
+            }
+        }
+        action.run();
+    }
+
+    private void notified(FileLockCommunicator.Message message) {
+        lock.lock();
+        try {
+            Waiting waitingForLock = waiting.get(message.getLockId());
+            if (waitingForLock == null) {
+                // No longer waiting
+                return;
+            }
+            if (message.getType() == FileLockCommunicator.MessageType.RELEASED) {
+                waitingForLock.released = true;
+            } else {
+                waitingForLock.acknowledged = true;
+            }
+            notificationReceived.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public void start(long lockId, Runnable whenContended) {
         lock.lock();
         try {
@@ -92,10 +149,7 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
             if (communicator == null) {
                 throw new IllegalStateException("Must initialize the handler by reserving the port first.");
             }
-            if (executor == null) {
-                executor = executorFactory.create("File lock request listener");
-                executor.execute(listener());
-            }
+            startListener();
             if (contendedActions.containsKey(lockId)) {
                 throw new UnsupportedOperationException("Multiple contention actions for a given lock are currently not supported.");
             }
@@ -105,8 +159,71 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         }
     }
 
+    private void startListener() {
+        if (executor == null) {
+            executor = executorFactory.create("File lock request listener");
+            executor.execute(listener());
+        }
+    }
+
     public void pingOwner(int port, long lockId, String displayName) {
-        getCommunicator().pingOwner(port, lockId, displayName);
+        FileLockCommunicator communicator;
+        lock.lock();
+        try {
+            communicator = getCommunicator();
+            // Listen for the acknowledgement and notification from the owner
+            startListener();
+            waiting.put(lockId, new Waiting());
+        } finally {
+            lock.unlock();
+        }
+        communicator.pingOwner(port, lockId, displayName);
+    }
+
+    public boolean waitForRelease(long lockId, long timeoutMs) throws InterruptedException {
+        lock.lock();
+        try {
+            Waiting waitingForLock = waiting.get(lockId);
+            if (waitingForLock == null) {
+                return false;
+            }
+            long start = System.currentTimeMillis();
+            long acknowledgeBy = start + Math.min(ACKNOWLEDGE_TIMEOUT_MS, timeoutMs);
+            long waitUntil = start + timeoutMs;
+            while (!waitingForLock.released && !stopped) {
+                long remaining = (waitingForLock.acknowledged ? waitUntil : acknowledgeBy) - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                notificationReceived.await(remaining, TimeUnit.MILLISECONDS);
+            }
+            return waitingForLock.released;
+        } finally {
+            waiting.remove(lockId);
+            lock.unlock();
+        }
+    }
+
+    public void released(long lockId) {
+        Set<SocketAddress> lockWaiters;
+        FileLockCommunicator communicator;
+        lock.lock();
+        try {
+            lockWaiters = waiters.remove(lockId);
+            communicator = this.communicator;
+            if (lockWaiters == null || stopped) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (SocketAddress waiter : lockWaiters) {
+            try {
+                communicator.notifyReleased(waiter, lockId);
+            } catch (Exception e) {
+                LOGGER.debug("Could not notify {} that the lock has been released.", waiter, e);
+            }
+        }
     }
 
     private void assertNotStopped() {
@@ -130,6 +247,8 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         try {
             stopped = true;
             contendedActions.clear();
+            waiters.clear();
+            notificationReceived.signalAll();
             if (communicator != null) {
                 communicator.stop();
             }
@@ -157,4 +276,9 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
             lock.unlock();
         }
     }
+
+    private static class Waiting {
+        boolean acknowledged;
+        boolean released;
+    }
 }
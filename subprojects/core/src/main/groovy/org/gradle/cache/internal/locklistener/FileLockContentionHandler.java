@@ -24,4 +24,17 @@ public interface FileLockContentionHandler {
     int reservePort();
 
     void pingOwner(int port, long lockId, String displayName);
+
+    /**
+     * Waits until the owner of the given lock, which has been pinged, notifies this process that the lock has been released.
+     * Returns early when the owner has not acknowledged the ping, as older versions do not send notifications.
+     *
+     * @return true if the lock has been released, false if the owner did not acknowledge the ping or the timeout expired.
+     */
+    boolean waitForRelease(long lockId, long timeoutMs) throws InterruptedException;
+
+    /**
+     * Notifies the processes waiting for the given lock, which has been released by this process.
+     */
+    void released(long lockId);
 }
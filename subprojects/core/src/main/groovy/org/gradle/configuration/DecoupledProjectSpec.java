@@ -0,0 +1,50 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration;
+
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.specs.Spec;
+import org.gradle.internal.resource.Resource;
+
+import java.util.regex.Pattern;
+
+/**
+ * Matches the projects which can be configured at the same time as other projects. A project is decoupled when its evaluation runs no
+ * evaluation listeners registered by other build logic, and its build script does not apply script plugins or refer to other projects or to
+ * the build, except through project dependencies and task paths.
+ *
+ * <p>This is a heuristic, and is only used when parallel project configuration has been requested. Only the text of the project's own build
+ * script is inspected. Names in comments and strings also prevent a match, so some decoupled projects are not matched. On the other hand,
+ * binary plugins and plugins from buildSrc that reach into other projects or the build are not detected.</p>
+ */
+public class DecoupledProjectSpec implements Spec<ProjectInternal> {
+    private static final Pattern COUPLING_REFERENCE = Pattern.compile(
+            "\\b(rootProject|parent|allprojects|subprojects|childProjects|gradle)\\b"
+            + "|\\b(project|findProject)\\s*\\([^)]*\\)\\s*[.{]"
+            + "|\\bfrom\\s*:");
+
+    public boolean isSatisfiedBy(ProjectInternal project) {
+        if (project.hasEvaluationListeners() || project.getGradle().hasProjectEvaluationListeners()) {
+            return false;
+        }
+        Resource buildScript = project.getBuildScriptSource().getResource();
+        if (!buildScript.getExists()) {
+            return true;
+        }
+        return !COUPLING_REFERENCE.matcher(buildScript.getText()).find();
+    }
+}
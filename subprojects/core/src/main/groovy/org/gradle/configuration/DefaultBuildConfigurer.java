@@ -20,31 +20,119 @@ import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.specs.Spec;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ParallelThreads;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.util.SingleMessageLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DefaultBuildConfigurer implements BuildConfigurer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultBuildConfigurer.class);
     private final BuildCancellationToken cancellationToken;
+    private final ExecutorFactory executorFactory;
+    private final Spec<? super ProjectInternal> decoupledProjects;
 
-    public DefaultBuildConfigurer(BuildCancellationToken cancellationToken) {
+    public DefaultBuildConfigurer(BuildCancellationToken cancellationToken, ExecutorFactory executorFactory, Spec<? super ProjectInternal> decoupledProjects) {
         this.cancellationToken = cancellationToken;
+        this.executorFactory = executorFactory;
+        this.decoupledProjects = decoupledProjects;
     }
 
     public void configure(GradleInternal gradle) {
         maybeInformAboutIncubatingMode(gradle.getStartParameter());
         if (gradle.getStartParameter().isConfigureOnDemand()) {
             gradle.getRootProject().evaluate();
+        } else if (gradle.getStartParameter().isParallelProjectConfiguration()) {
+            configureInParallel(gradle);
         } else {
             for (Project project : gradle.getRootProject().getAllprojects()) {
-                if (cancellationToken.isCancellationRequested()) {
-                    throw new BuildCancelledException();
-                }
+                checkCancelled();
                 ((ProjectInternal) project).evaluate();
             }
         }
     }
 
+    /**
+     * Evaluates projects on this thread, in the usual order, up to and including the last project that has child projects, as these
+     * commonly configure other projects. When the remaining projects are all decoupled, they are then evaluated concurrently. Otherwise,
+     * they are evaluated on this thread as well. Any cross-project access that goes through project evaluation, such as resolving a
+     * project dependency, waits for the target project to be evaluated.
+     */
+    private void configureInParallel(GradleInternal gradle) {
+        List<ProjectInternal> projects = new ArrayList<ProjectInternal>();
+        int lastParent = 0;
+        for (Project project : gradle.getRootProject().getAllprojects()) {
+            if (!project.getChildProjects().isEmpty()) {
+                lastParent = projects.size();
+            }
+            projects.add((ProjectInternal) project);
+        }
+        for (ProjectInternal project : projects.subList(0, lastParent + 1)) {
+            checkCancelled();
+            project.evaluate();
+        }
+
+        List<ProjectInternal> leafProjects = projects.subList(lastParent + 1, projects.size());
+        for (ProjectInternal project : leafProjects) {
+            if (!decoupledProjects.isSatisfiedBy(project)) {
+                LOGGER.info("Configuring projects sequentially, as {} may not be decoupled from other projects.", project);
+                for (ProjectInternal leafProject : leafProjects) {
+                    checkCancelled();
+                    leafProject.evaluate();
+                }
+                return;
+            }
+        }
+
+        final Queue<ProjectInternal> queue = new ConcurrentLinkedQueue<ProjectInternal>(leafProjects);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        int workers = Math.min(leafProjects.size(), ParallelThreads.getThreadCountWhenEnabled(gradle.getStartParameter().getParallelThreadCount()));
+        StoppableExecutor executor = executorFactory.create("Project configuration");
+        try {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        ProjectInternal project;
+                        // Stop taking projects from the queue as soon as any worker fails
+                        while (failure.get() == null && !cancellationToken.isCancellationRequested() && (project = queue.poll()) != null) {
+                            try {
+                                project.evaluate();
+                            } catch (Throwable t) {
+                                failure.compareAndSet(null, t);
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.stop();
+        }
+        if (failure.get() != null) {
+            throw UncheckedException.throwAsUncheckedException(failure.get());
+        }
+        checkCancelled();
+    }
+
+    private void checkCancelled() {
+        if (cancellationToken.isCancellationRequested()) {
+            throw new BuildCancelledException();
+        }
+    }
+
     private void maybeInformAboutIncubatingMode(StartParameter startParameter) {
+        if (startParameter.isParallelProjectConfiguration()) {
+            SingleMessageLogger.incubatingFeatureUsed("Parallel project configuration");
+        }
         if (startParameter.getParallelThreadCount() != 0 && startParameter.isConfigureOnDemand()) {
             SingleMessageLogger.incubatingFeatureUsed("Parallel execution with configuration on demand");
         } else if (startParameter.getParallelThreadCount() != 0) {
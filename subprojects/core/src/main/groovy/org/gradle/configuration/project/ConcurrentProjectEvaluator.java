@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration.project;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectStateInternal;
+import org.gradle.internal.UncheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Allows projects to be evaluated from multiple threads. Each project is evaluated by at most one thread. A thread that requires a project
+ * which is being evaluated by another thread, for example to resolve a project dependency, waits until that evaluation has completed.
+ *
+ * <p>When waiting would result in a deadlock, because the other thread is itself waiting for a project being evaluated by this thread, the
+ * request returns without waiting. This is the same behaviour as a circular evaluation request when projects are evaluated by a single thread.</p>
+ */
+@ThreadSafe
+public class ConcurrentProjectEvaluator implements ProjectEvaluator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentProjectEvaluator.class);
+    private final ProjectEvaluator delegate;
+    private final Object lock = new Object();
+    private final Map<ProjectInternal, Thread> evaluating = new HashMap<ProjectInternal, Thread>();
+    private final Map<Thread, ProjectInternal> waiting = new HashMap<Thread, ProjectInternal>();
+
+    public ConcurrentProjectEvaluator(ProjectEvaluator delegate) {
+        this.delegate = delegate;
+    }
+
+    public void evaluate(ProjectInternal project, ProjectStateInternal state) {
+        Thread current = Thread.currentThread();
+        synchronized (lock) {
+            while (true) {
+                if (state.getExecuted()) {
+                    return;
+                }
+                Thread owner = evaluating.get(project);
+                if (owner == null) {
+                    evaluating.put(project, current);
+                    break;
+                }
+                if (owner == current || wouldDeadlock(owner, current)) {
+                    // Circular evaluation request. The project is already being evaluated, so there is nothing to do
+                    return;
+                }
+                LOGGER.debug("Waiting for {} to be configured by another thread.", project);
+                waiting.put(current, project);
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                } finally {
+                    waiting.remove(current);
+                }
+            }
+        }
+
+        try {
+            delegate.evaluate(project, state);
+        } finally {
+            synchronized (lock) {
+                evaluating.remove(project);
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private boolean wouldDeadlock(Thread owner, Thread current) {
+        Thread thread = owner;
+        while (thread != null) {
+            ProjectInternal waitingFor = waiting.get(thread);
+            if (waitingFor == null) {
+                return false;
+            }
+            thread = evaluating.get(waitingFor);
+            if (thread == current) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -41,7 +41,7 @@ public class LifecycleProjectEvaluator implements ProjectEvaluator {
     }
 
     public void evaluate(ProjectInternal project, ProjectStateInternal state) {
-        //TODO this is one of the places to look into thread safety when we implement parallel configuration
+        // Thread safety for parallel configuration is provided by ConcurrentProjectEvaluator
         if (state.getExecuted() || state.getExecuting()) {
             return;
         }
@@ -18,6 +18,7 @@ package org.gradle.execution.taskgraph;
 
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ParallelThreads;
 
 public class TaskPlanExecutorFactory implements Factory<TaskPlanExecutor> {
     private final int parallelThreads;
@@ -30,7 +31,7 @@ public class TaskPlanExecutorFactory implements Factory<TaskPlanExecutor> {
 
     public TaskPlanExecutor create() {
         if (executeProjectsInParallel()) {
-            return new ParallelTaskPlanExecutor(numberOfParallelThreads(), executorFactory);
+            return new ParallelTaskPlanExecutor(ParallelThreads.getThreadCount(parallelThreads), executorFactory);
         }
         return new DefaultTaskPlanExecutor();
     }
@@ -38,11 +39,4 @@ public class TaskPlanExecutorFactory implements Factory<TaskPlanExecutor> {
     private boolean executeProjectsInParallel() {
         return parallelThreads != 0;
     }
-
-    private int numberOfParallelThreads() {
-        if (parallelThreads == -1) {
-            return Runtime.getRuntime().availableProcessors();
-        }
-        return parallelThreads;
-    }
 }
@@ -20,10 +20,18 @@ import org.codehaus.groovy.classgen.Verifier;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.groovy.scripts.Transformer;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * Caches the compiled script classes for the lifetime of a build. Scripts may be compiled concurrently by parallel
+ * project evaluation, so each script class is compiled at most once, under a lock held for that script only.
+ */
 public class CachingScriptClassCompiler implements ScriptClassCompiler {
-    private final Map<Collection<Object>, Class<?>> cachedClasses = new HashMap<Collection<Object>, Class<?>>();
+    private final ConcurrentMap<Collection<Object>, CachedClass> cachedClasses = new ConcurrentHashMap<Collection<Object>, CachedClass>();
     private final ScriptClassCompiler scriptClassCompiler;
 
     public CachingScriptClassCompiler(ScriptClassCompiler scriptClassCompiler) {
@@ -32,11 +40,23 @@ public class CachingScriptClassCompiler implements ScriptClassCompiler {
 
     public <T extends Script> Class<? extends T> compile(ScriptSource source, ClassLoader classLoader, Transformer transformer, Class<T> scriptBaseClass, Verifier verifier) {
         List<Object> key = Arrays.asList(source.getClassName(), classLoader, transformer.getId(), scriptBaseClass.getName());
-        Class<?> c = cachedClasses.get(key);
-        if (c == null) {
-            c = scriptClassCompiler.compile(source, classLoader, transformer, scriptBaseClass, verifier);
-            cachedClasses.put(key, c);
+        CachedClass cachedClass = cachedClasses.get(key);
+        if (cachedClass == null) {
+            CachedClass newClass = new CachedClass();
+            cachedClass = cachedClasses.putIfAbsent(key, newClass);
+            if (cachedClass == null) {
+                cachedClass = newClass;
+            }
+        }
+        synchronized (cachedClass) {
+            if (cachedClass.type == null) {
+                cachedClass.type = scriptClassCompiler.compile(source, classLoader, transformer, scriptBaseClass, verifier);
+            }
+            return cachedClass.type.asSubclass(scriptBaseClass);
         }
-        return c.asSubclass(scriptBaseClass);
+    }
+
+    private static class CachedClass {
+        Class<?> type;
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.groovy.scripts.internal;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.groovy.scripts.ScriptSource;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.nativeintegration.filesystem.FileMetadataSnapshot;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide state for script compilation, which is retained across builds in the daemon.
+ *
+ * <p>Keeps an index of script content hashes keyed by file path, length and last modified time, so that an unchanged script
+ * file does not need to be read and hashed on every build. Also keeps the script classes that have been loaded for a given
+ * parent class loader, so that an unchanged script is not loaded again while its parent class loader is reused.</p>
+ */
+@ThreadSafe
+public class CrossBuildScriptCache {
+    private final ConcurrentMap<File, FileHash> hashes = new ConcurrentHashMap<File, FileHash>();
+    private final Cache<ClassLoader, ConcurrentMap<String, Class<?>>> loadedClasses = CacheBuilder.newBuilder()
+            .weakKeys()
+            .softValues()
+            .build();
+
+    /**
+     * Returns the hash of the content of the given script.
+     */
+    public String hash(ScriptSource source) {
+        File file = source.getResource().getFile();
+        if (file == null) {
+            return HashUtil.createCompactMD5(source.getResource().getText());
+        }
+
+        // Take the file details before reading the content, so that a concurrent change leaves a stale entry which never matches
+        FileMetadataSnapshot snapshot = FileMetadataSnapshot.of(file);
+        FileHash fileHash = hashes.get(file);
+        if (fileHash != null && fileHash.snapshot.equals(snapshot)) {
+            return fileHash.hash;
+        }
+
+        String hash = HashUtil.createCompactMD5(source.getResource().getText());
+        if (snapshot.isStable()) {
+            hashes.put(file, new FileHash(snapshot, hash));
+        } else {
+            hashes.remove(file);
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the script class previously loaded from the given classes directory for the given parent class loader, if any.
+     */
+    public Class<?> getLoadedClass(ClassLoader parent, File classesDir, String className) {
+        ConcurrentMap<String, Class<?>> classes = loadedClasses.getIfPresent(parent);
+        return classes == null ? null : classes.get(key(classesDir, className));
+    }
+
+    public void putLoadedClass(ClassLoader parent, File classesDir, String className, Class<?> scriptClass) {
+        ConcurrentMap<String, Class<?>> classes = loadedClasses.getIfPresent(parent);
+        if (classes == null) {
+            ConcurrentMap<String, Class<?>> newClasses = new ConcurrentHashMap<String, Class<?>>();
+            classes = loadedClasses.asMap().putIfAbsent(parent, newClasses);
+            if (classes == null) {
+                classes = newClasses;
+            }
+        }
+        classes.put(key(classesDir, className), scriptClass);
+    }
+
+    /**
+     * Discards any script classes loaded from the given classes directory, for example because it has been recompiled.
+     */
+    public void discardLoadedClasses(File classesDir) {
+        String prefix = classesDir.getAbsolutePath() + File.pathSeparator;
+        for (ConcurrentMap<String, Class<?>> classes : loadedClasses.asMap().values()) {
+            for (String key : classes.keySet()) {
+                if (key.startsWith(prefix)) {
+                    classes.remove(key);
+                }
+            }
+        }
+    }
+
+    private static String key(File classesDir, String className) {
+        return classesDir.getAbsolutePath() + File.pathSeparator + className;
+    }
+
+    private static class FileHash {
+        final FileMetadataSnapshot snapshot;
+        final String hash;
+
+        private FileHash(FileMetadataSnapshot snapshot, String hash) {
+            this.snapshot = snapshot;
+            this.hash = hash;
+        }
+    }
+}
@@ -21,62 +21,142 @@ import org.gradle.api.Action;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.CacheValidator;
 import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.FileLockManager;
 import org.gradle.groovy.scripts.ScriptSource;
 import org.gradle.groovy.scripts.Transformer;
+import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.CompositeStoppable;
-import org.gradle.internal.hash.HashUtil;
 import org.gradle.logging.ProgressLogger;
 import org.gradle.logging.ProgressLoggerFactory;
+import org.gradle.util.GFileUtils;
 
 import java.io.Closeable;
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 /**
  * A {@link ScriptClassCompiler} which compiles scripts to a cache directory, and loads them from there.
+ *
+ * <p>All scripts share a single cache directory, keyed by the hash of the script content. The cache is opened once and locked on
+ * demand, while a script is compiled and loaded. Compiled scripts are loaded with a shared lock, so that builds running at the same time
+ * can load them, and the lock is upgraded to an exclusive lock only to compile a script. A script class which has already been loaded
+ * for the same parent class loader is reused without locking the cache.</p>
  */
 public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler, Closeable {
+    private static final String COMPILED_MARKER_FILE_NAME = "compiled.bin";
     private final ScriptCompilationHandler scriptCompilationHandler;
     private ProgressLoggerFactory progressLoggerFactory;
     private final CacheRepository cacheRepository;
     private final CacheValidator validator;
-    private final CompositeStoppable caches = new CompositeStoppable();
+    private final CrossBuildScriptCache crossBuildCache;
+    private final Set<File> recompiled = new HashSet<File>();
+    private PersistentCache cache;
 
-    public FileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, CacheValidator validator, ScriptCompilationHandler scriptCompilationHandler, ProgressLoggerFactory progressLoggerFactory) {
+    public FileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, CacheValidator validator, ScriptCompilationHandler scriptCompilationHandler, ProgressLoggerFactory progressLoggerFactory,
+                                              CrossBuildScriptCache crossBuildCache) {
         this.cacheRepository = cacheRepository;
         this.validator = validator;
         this.scriptCompilationHandler = scriptCompilationHandler;
         this.progressLoggerFactory = progressLoggerFactory;
+        this.crossBuildCache = crossBuildCache;
     }
 
     public <T extends Script> Class<? extends T> compile(ScriptSource source, ClassLoader classLoader, Transformer transformer, Class<T> scriptBaseClass, Verifier verifier) {
-        Map<String, Object> properties = new HashMap<String, Object>();
-        properties.put("source.filename", source.getFileName());
-        properties.put("source.hash", HashUtil.createCompactMD5(source.getResource().getText()));
-
-        String cacheName = String.format("scripts/%s/%s/%s", source.getClassName(), scriptBaseClass.getSimpleName(), transformer.getId());
-        PersistentCache cache = cacheRepository.cache(cacheName)
-                .withProperties(properties)
-                .withValidator(validator)
-                .withDisplayName(String.format("%s class cache for %s", transformer.getId(), source.getDisplayName()))
-                .withInitializer(new ProgressReportingInitializer(progressLoggerFactory, new CacheInitializer(source, classLoader, transformer, verifier, scriptBaseClass)))
-                .open();
-
-        // This isn't quite right. The cache will be closed at the end of the build, releasing the shared lock on the classes. Instead, the cache for a script should be
-        // closed once we no longer require the script classes. This may be earlier than the end of the current build, or it may used across multiple builds
-        caches.add(cache);
-
-        File classesDir = classesDir(cache);
-        return scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, scriptBaseClass);
+        String hash = crossBuildCache.hash(source);
+        String entryName = String.format("%s/%s/%s/%s", hash, source.getClassName(), scriptBaseClass.getSimpleName(), transformer.getId());
+        PersistentCache cache = getCache();
+        File entryDir = new File(cache.getBaseDir(), entryName);
+        File classesDir = new File(entryDir, "classes");
+
+        boolean recompile = !validator.isValid() && markRecompiled(entryDir);
+        if (!recompile) {
+            Class<?> scriptClass = crossBuildCache.getLoadedClass(classLoader, classesDir, source.getClassName());
+            if (scriptClass != null) {
+                return scriptClass.asSubclass(scriptBaseClass);
+            }
+        }
+
+        return cache.useCache(String.format("load %s", source.getDisplayName()),
+                new LoadAction<T>(cache, source, classLoader, scriptBaseClass, entryDir, classesDir, recompile,
+                        new ProgressReportingInitializer(progressLoggerFactory, new CacheInitializer(source, classLoader, transformer, verifier, scriptBaseClass, classesDir))));
     }
 
     public void close() {
-        caches.stop();
+        PersistentCache cache;
+        synchronized (this) {
+            cache = this.cache;
+            this.cache = null;
+        }
+        CompositeStoppable.stoppable(cache).stop();
+    }
+
+    private synchronized PersistentCache getCache() {
+        if (cache == null) {
+            cache = cacheRepository.cache("scripts")
+                    .withDisplayName("script class cache")
+                    .withLockOptions(mode(FileLockManager.LockMode.Shared).onDemand())
+                    .open();
+        }
+        return cache;
+    }
+
+    private synchronized boolean markRecompiled(File entryDir) {
+        return recompiled.add(entryDir);
     }
 
-    private File classesDir(PersistentCache cache) {
-        return new File(cache.getBaseDir(), "classes");
+    private static boolean isCompiled(File entryDir) {
+        return new File(entryDir, COMPILED_MARKER_FILE_NAME).isFile();
+    }
+
+    /**
+     * Compiles the script if required, and loads its classes. Runs while holding the cache lock, so that the classes cannot be
+     * recompiled by another process while they are being loaded. Compiling requires the exclusive lock, so checks again whether the
+     * script has been compiled by another process once that lock is held.
+     */
+    private class LoadAction<T extends Script> implements Factory<Class<? extends T>> {
+        private final PersistentCache cache;
+        private final ScriptSource source;
+        private final ClassLoader classLoader;
+        private final Class<T> scriptBaseClass;
+        private final File entryDir;
+        private final File classesDir;
+        private final boolean recompile;
+        private final Action<PersistentCache> initializer;
+
+        private LoadAction(PersistentCache cache, ScriptSource source, ClassLoader classLoader, Class<T> scriptBaseClass, File entryDir, File classesDir, boolean recompile,
+                           Action<PersistentCache> initializer) {
+            this.cache = cache;
+            this.source = source;
+            this.classLoader = classLoader;
+            this.scriptBaseClass = scriptBaseClass;
+            this.entryDir = entryDir;
+            this.classesDir = classesDir;
+            this.recompile = recompile;
+            this.initializer = initializer;
+        }
+
+        public Class<? extends T> create() {
+            if (recompile || !isCompiled(entryDir)) {
+                cache.writeToCache(new Factory<Void>() {
+                    public Void create() {
+                        if (recompile || !isCompiled(entryDir)) {
+                            crossBuildCache.discardLoadedClasses(classesDir);
+                            File marker = new File(entryDir, COMPILED_MARKER_FILE_NAME);
+                            GFileUtils.deleteQuietly(marker);
+                            initializer.execute(cache);
+                            GFileUtils.touch(marker);
+                        }
+                        return null;
+                    }
+                });
+            }
+            Class<? extends T> scriptClass = scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, scriptBaseClass);
+            crossBuildCache.putLoadedClass(classLoader, classesDir, source.getClassName(), scriptClass);
+            return scriptClass;
+        }
     }
 
     private class CacheInitializer implements Action<PersistentCache> {
@@ -85,17 +165,18 @@ public class FileCacheBackedScriptClassCompiler implements ScriptClassCompiler,
         private final ClassLoader classLoader;
         private final Transformer transformer;
         private final ScriptSource source;
+        private final File classesDir;
 
-        private CacheInitializer(ScriptSource source, ClassLoader classLoader, Transformer transformer, Verifier verifier, Class<? extends Script> scriptBaseClass) {
+        private CacheInitializer(ScriptSource source, ClassLoader classLoader, Transformer transformer, Verifier verifier, Class<? extends Script> scriptBaseClass, File classesDir) {
             this.source = source;
             this.classLoader = classLoader;
             this.transformer = transformer;
             this.verifier = verifier;
             this.scriptBaseClass = scriptBaseClass;
+            this.classesDir = classesDir;
         }
 
         public void execute(PersistentCache cache) {
-            File classesDir = classesDir(cache);
             scriptCompilationHandler.compileToDir(source, classLoader, classesDir, transformer, scriptBaseClass, verifier);
         }
     }
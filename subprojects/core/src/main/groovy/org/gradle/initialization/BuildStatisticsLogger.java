@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.initialization;
+
+import org.gradle.BuildAdapter;
+import org.gradle.BuildResult;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.cache.internal.FileLockManager;
+import org.gradle.cache.internal.FileLockWaitStatistics;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryLister;
+import org.gradle.internal.service.DefaultServiceRegistry;
+
+/**
+ * A {@link org.gradle.BuildListener} which logs, at info level, the statistics collected during the build by the process-wide services: directory listings,
+ * waits for file locks held by other processes, and service registry lookups.
+ *
+ * <p>The statistics are counted per process, so the statistics collected before the build starts are discarded.</p>
+ */
+public class BuildStatisticsLogger extends BuildAdapter {
+    private static final Logger LOGGER = Logging.getLogger(BuildStatisticsLogger.class);
+    private final DirectoryLister directoryLister;
+    private final FileLockManager fileLockManager;
+
+    public BuildStatisticsLogger(DirectoryLister directoryLister, FileLockManager fileLockManager) {
+        this.directoryLister = directoryLister;
+        this.fileLockManager = fileLockManager;
+        directoryLister.takeStatistics();
+        fileLockManager.takeWaitStatistics();
+        DefaultServiceRegistry.takeLookupStatistics();
+    }
+
+    @Override
+    public void buildFinished(BuildResult result) {
+        DirectoryLister.Statistics listings = directoryLister.takeStatistics();
+        LOGGER.info("Directory listings: {} read from the file system, {} served from memory.", listings.getListed(), listings.getCached());
+
+        for (FileLockWaitStatistics statistics : fileLockManager.takeWaitStatistics()) {
+            if (statistics.getContended() > 0) {
+                LOGGER.info("Waited {} ms for {} held by another process ({} of {} acquisitions contended, longest wait {} ms).",
+                        statistics.getTotalWaitMs(), statistics.getDisplayName(), statistics.getContended(), statistics.getAcquired(), statistics.getMaxWaitMs());
+            }
+        }
+
+        DefaultServiceRegistry.LookupStatistics lookups = DefaultServiceRegistry.takeLookupStatistics();
+        LOGGER.info("Service lookups: {} acquired the registry lock, {} waited for another thread.", lookups.getLocked(), lookups.getContended());
+    }
+}
@@ -16,18 +16,24 @@
 
 package org.gradle.initialization;
 
-import org.gradle.api.internal.initialization.ClassLoaderCache;
 import org.gradle.api.internal.initialization.ClassLoaderScope;
-import org.gradle.api.internal.initialization.DefaultClassLoaderCache;
+import org.gradle.api.internal.initialization.CrossBuildClassLoaderCache;
 import org.gradle.api.internal.initialization.RootClassLoaderScope;
+import org.gradle.internal.concurrent.Stoppable;
 
-public class DefaultClassLoaderScopeRegistry implements ClassLoaderScopeRegistry {
+/**
+ * Provides the root class loader scopes of a build. Class loaders are taken from the given cross-build cache, so that a build
+ * reuses the class loaders of an earlier build whose classpaths have not changed. The class loaders are released when this
+ * registry is stopped at the end of the build.
+ */
+public class DefaultClassLoaderScopeRegistry implements ClassLoaderScopeRegistry, Stoppable {
 
+    private final CrossBuildClassLoaderCache.Session cache;
     private final ClassLoaderScope coreAndPluginsScope;
     private final ClassLoaderScope coreScope;
 
-    public DefaultClassLoaderScopeRegistry(ClassLoaderRegistry loaderRegistry) {
-        ClassLoaderCache cache = new DefaultClassLoaderCache();
+    public DefaultClassLoaderScopeRegistry(ClassLoaderRegistry loaderRegistry, CrossBuildClassLoaderCache crossBuildClassLoaderCache) {
+        this.cache = crossBuildClassLoaderCache.newSession();
         this.coreScope = new RootClassLoaderScope(loaderRegistry.getGradleCoreApiClassLoader(), cache);
         this.coreAndPluginsScope = new RootClassLoaderScope(loaderRegistry.getGradleApiClassLoader(), cache);
     }
@@ -39,4 +45,8 @@ public class DefaultClassLoaderScopeRegistry implements ClassLoaderScopeRegistry
     public ClassLoaderScope getCoreScope() {
         return coreScope;
     }
+
+    public void stop() {
+        cache.stop();
+    }
 }
@@ -24,11 +24,15 @@ import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.logging.Logging;
 import org.gradle.api.logging.StandardOutputListener;
 import org.gradle.cache.CacheRepository;
+import org.gradle.cache.internal.FileLockManager;
 import org.gradle.configuration.BuildConfigurer;
 import org.gradle.execution.BuildExecuter;
 import org.gradle.initialization.buildsrc.BuildSourceBuilder;
+import org.gradle.initialization.buildsrc.InMemoryBuildSrcClasspathCache;
 import org.gradle.initialization.layout.BuildLayoutFactory;
 import org.gradle.internal.featurelifecycle.ScriptUsageLocationReporter;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryLister;
+import org.gradle.internal.nativeintegration.services.NativeServices;
 import org.gradle.internal.progress.BuildProgressFilter;
 import org.gradle.internal.progress.BuildProgressLogger;
 import org.gradle.internal.progress.LoggerProvider;
@@ -102,6 +106,7 @@ public class DefaultGradleLauncherFactory implements GradleLauncherFactory {
         listenerManager.useLogger(new TaskExecutionLogger(serviceRegistry.get(ProgressLoggerFactory.class), loggerProvider));
         if (tracker.getCurrentBuild() == null) {
             listenerManager.useLogger(new BuildLogger(Logging.getLogger(BuildLogger.class), serviceRegistry.get(StyledTextOutputFactory.class), startParameter, requestMetaData));
+            listenerManager.addListener(new BuildStatisticsLogger(NativeServices.getInstance().get(DirectoryLister.class), sharedServices.get(FileLockManager.class)));
         }
         listenerManager.addListener(tracker);
 
@@ -125,7 +130,8 @@ public class DefaultGradleLauncherFactory implements GradleLauncherFactory {
                                 this,
                                 cancellationToken,
                                 serviceRegistry.get(ClassLoaderScopeRegistry.class).getCoreAndPluginsScope(),
-                                serviceRegistry.get(CacheRepository.class))
+                                serviceRegistry.get(CacheRepository.class),
+                                serviceRegistry.get(InMemoryBuildSrcClasspathCache.class))
                 ),
                 serviceRegistry.get(BuildLoader.class),
                 serviceRegistry.get(BuildConfigurer.class),
@@ -26,6 +26,7 @@ import org.gradle.initialization.GradleLauncher;
 import org.gradle.initialization.GradleLauncherFactory;
 import org.gradle.internal.classpath.ClassPath;
 import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.hash.HashValue;
 import org.gradle.util.GradleVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,13 +43,15 @@ public class BuildSourceBuilder {
     private final BuildCancellationToken cancellationToken;
     private final ClassLoaderScope classLoaderScope;
     private final CacheRepository cacheRepository;
+    private final InMemoryBuildSrcClasspathCache classpathCache;
 
     public BuildSourceBuilder(GradleLauncherFactory gradleLauncherFactory, BuildCancellationToken cancellationToken,
-                              ClassLoaderScope classLoaderScope, CacheRepository cacheRepository) {
+                              ClassLoaderScope classLoaderScope, CacheRepository cacheRepository, InMemoryBuildSrcClasspathCache classpathCache) {
         this.gradleLauncherFactory = gradleLauncherFactory;
         this.cancellationToken = cancellationToken;
         this.classLoaderScope = classLoaderScope;
         this.cacheRepository = cacheRepository;
+        this.classpathCache = classpathCache;
     }
 
     public ClassLoaderScope buildAndCreateClassLoader(StartParameter startParameter) {
@@ -67,6 +70,12 @@ public class BuildSourceBuilder {
             LOGGER.debug("Gradle source dir does not exist. We leave.");
             return new DefaultClassPath();
         }
+        HashValue inputs = classpathCache.fingerprintInputs(startParameter.getCurrentDir(), startParameter);
+        ClassPath cachedClasspath = classpathCache.get(startParameter.getCurrentDir(), inputs);
+        if (cachedClasspath != null) {
+            LOGGER.info("The buildSrc sources and classpath have not changed since the last build. Reusing the buildSrc classpath.");
+            return cachedClasspath;
+        }
         LOGGER.info("================================================" + " Start building buildSrc");
 
         // If we were not the most recent version of Gradle to build the buildSrc dir, then do a clean build
@@ -75,7 +84,12 @@ public class BuildSourceBuilder {
         try {
             GradleLauncher gradleLauncher = buildGradleLauncher(startParameter);
             try {
-                return buildSrcCache.useCache("rebuild buildSrc", new BuildSrcUpdateFactory(buildSrcCache, gradleLauncher, new BuildSrcBuildListenerFactory()));
+                BuildSrcUpdateFactory updateFactory = createUpdateFactory(buildSrcCache, gradleLauncher);
+                ClassPath classpath = buildSrcCache.useCache("rebuild buildSrc", updateFactory);
+                if (updateFactory.isClasspathReusable()) {
+                    classpathCache.put(startParameter.getCurrentDir(), startParameter, inputs, classpath);
+                }
+                return classpath;
             } finally {
                 gradleLauncher.stop();
             }
@@ -95,6 +109,10 @@ public class BuildSourceBuilder {
                 .open();
     }
 
+    BuildSrcUpdateFactory createUpdateFactory(PersistentCache buildSrcCache, GradleLauncher gradleLauncher) {
+        return new BuildSrcUpdateFactory(buildSrcCache, gradleLauncher, new BuildSrcBuildListenerFactory());
+    }
+
     private GradleLauncher buildGradleLauncher(StartParameter startParameter) {
         final StartParameter startParameterArg = startParameter.newInstance();
         startParameterArg.setProjectProperties(startParameter.getProjectProperties());
@@ -17,6 +17,11 @@
 package org.gradle.initialization.buildsrc;
 
 import org.gradle.BuildAdapter;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ConfigurationContainer;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.ExternalModuleDependency;
 import org.gradle.api.internal.GradleInternal;
 import org.gradle.api.internal.plugins.EmbeddableJavaProject;
 import org.gradle.api.invocation.Gradle;
@@ -37,6 +42,7 @@ public class BuildSrcBuildListenerFactory {
 
     public static class Listener extends BuildAdapter implements ModelConfigurationListener {
         private Set<File> classpath;
+        private boolean classpathReusable;
         private final boolean rebuild;
 
         public Listener(boolean rebuild) {
@@ -52,10 +58,51 @@ public class BuildSrcBuildListenerFactory {
             return classpath;
         }
 
+        /**
+         * Returns false when the buildSrc build uses dependencies which may resolve to something different in a later build,
+         * such as dynamic versions, snapshots or changing modules.
+         */
+        public boolean isClasspathReusable() {
+            return classpathReusable;
+        }
+
         public void onConfigure(GradleInternal gradle) {
             EmbeddableJavaProject projectInfo = gradle.getRootProject().getConvention().getPlugin(EmbeddableJavaProject.class);
             gradle.getStartParameter().setTaskNames(rebuild ? projectInfo.getRebuildTasks() : projectInfo.getBuildTasks());
             classpath = projectInfo.getRuntimeClasspath().getFiles();
+            classpathReusable = !hasChangingDependencies(gradle.getRootProject());
+        }
+
+        private static boolean hasChangingDependencies(Project rootProject) {
+            for (Project project : rootProject.getAllprojects()) {
+                if (hasChangingDependencies(project.getConfigurations()) || hasChangingDependencies(project.getBuildscript().getConfigurations())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean hasChangingDependencies(ConfigurationContainer configurations) {
+            for (Configuration configuration : configurations) {
+                for (Dependency dependency : configuration.getDependencies()) {
+                    if (dependency instanceof ExternalModuleDependency && isChanging((ExternalModuleDependency) dependency)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean isChanging(ExternalModuleDependency dependency) {
+            String version = dependency.getVersion();
+            return dependency.isChanging()
+                    || version == null
+                    || version.endsWith("SNAPSHOT")
+                    || version.endsWith("+")
+                    || version.startsWith("latest.")
+                    || version.startsWith("[")
+                    || version.startsWith("]")
+                    || version.startsWith("(");
         }
     }
 }
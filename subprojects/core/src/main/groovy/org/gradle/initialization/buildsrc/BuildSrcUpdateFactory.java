@@ -32,6 +32,7 @@ public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
     private final PersistentCache cache;
     private final GradleLauncher gradleLauncher;
     private BuildSrcBuildListenerFactory listenerFactory;
+    private boolean classpathReusable;
     private static final Logger LOGGER = Logging.getLogger(BuildSrcUpdateFactory.class);
 
     public BuildSrcUpdateFactory(PersistentCache cache, GradleLauncher gradleLauncher, BuildSrcBuildListenerFactory listenerFactory) {
@@ -49,6 +50,7 @@ public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
         gradleLauncher.run().rethrowFailure();
 
         Collection<File> classpath = listener.getRuntimeClasspath();
+        classpathReusable = listener.isClasspathReusable();
         LOGGER.debug("Gradle source classpath is: {}", classpath);
         LOGGER.info("================================================" + " Finished building buildSrc");
         try {
@@ -58,4 +60,12 @@ public class BuildSrcUpdateFactory implements Factory<DefaultClassPath> {
         }
         return new DefaultClassPath(classpath);
     }
+
+    /**
+     * Returns true when the classpath created by the most recent call to {@link #create()} may be reused by later builds
+     * while the buildSrc inputs do not change.
+     */
+    public boolean isClasspathReusable() {
+        return classpathReusable;
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.initialization.buildsrc;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.StartParameter;
+import org.gradle.api.Nullable;
+import org.gradle.internal.classpath.ClassPath;
+import org.gradle.internal.hash.HashUtil;
+import org.gradle.internal.hash.HashValue;
+import org.gradle.internal.nativeintegration.filesystem.FileMetadataSnapshot;
+import org.gradle.util.GradleVersion;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Remembers, for the lifetime of this process, the classpath built for each buildSrc directory, along with a fingerprint of the inputs of the
+ * buildSrc build and of the resulting classpath. While neither fingerprint changes, the classpath can be reused without running the buildSrc build again.
+ *
+ * <p>The inputs fingerprint is made up of the path, length and modification time of each file in the buildSrc directory, excluding its build
+ * and .gradle directories, plus the Gradle version, the environment and the relevant start parameters. It is taken before the buildSrc build
+ * runs and checked again once the build has finished, and the classpath is only remembered when no input changed in the meantime. A build that
+ * refreshes dependencies or uses init scripts never reuses a classpath.</p>
+ *
+ * <p>Only the buildSrc classpath is reused. The configuration of the main build is not cached.</p>
+ */
+@ThreadSafe
+public class InMemoryBuildSrcClasspathCache {
+    private static final Set<String> IGNORED_DIRS = new HashSet<String>(Arrays.asList("build", ".gradle"));
+    private final Map<File, Entry> entries = new HashMap<File, Entry>();
+
+    /**
+     * Takes the fingerprint of the inputs of the buildSrc build in the given directory. Should be called before the buildSrc build runs.
+     *
+     * @return the fingerprint, or null when the classpath built for these inputs should not be reused.
+     */
+    @Nullable
+    public HashValue fingerprintInputs(File buildSrcDir, StartParameter startParameter) {
+        if (!isCacheable(startParameter)) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append(GradleVersion.current().getVersion()).append('\n');
+        builder.append(startParameter.isOffline()).append('\n');
+        builder.append(new TreeMap<String, String>(startParameter.getProjectProperties())).append('\n');
+        builder.append(new TreeMap<String, String>(startParameter.getSystemPropertiesArgs())).append('\n');
+        builder.append(new TreeMap<String, String>(System.getenv())).append('\n');
+        FileMetadataSnapshot.appendFile(new File(startParameter.getGradleUserHomeDir(), "gradle.properties"), builder);
+        File[] children = buildSrcDir.listFiles();
+        if (children != null) {
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.isDirectory() && IGNORED_DIRS.contains(child.getName())) {
+                    continue;
+                }
+                FileMetadataSnapshot.appendTree(child, builder);
+            }
+        }
+        return HashUtil.createHash(builder.toString(), "MD5");
+    }
+
+    /**
+     * Returns the classpath previously built for the given buildSrc directory from the given inputs, or null when it is unknown or has changed since.
+     */
+    @Nullable
+    public ClassPath get(File buildSrcDir, @Nullable HashValue inputs) {
+        if (inputs == null) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(buildSrcDir);
+        }
+        if (entry == null || !inputs.equals(entry.inputs) || !fingerprintClasspath(entry.classpath).equals(entry.outputs)) {
+            return null;
+        }
+        return entry.classpath;
+    }
+
+    /**
+     * Remembers the classpath built for the given buildSrc directory. Should be called once the buildSrc build has finished, with the fingerprint
+     * of the inputs taken before it started.
+     */
+    public void put(File buildSrcDir, StartParameter startParameter, @Nullable HashValue inputs, ClassPath classpath) {
+        // An input changed while buildSrc was being built may or may not have been used by the build
+        boolean unchanged = inputs != null && inputs.equals(fingerprintInputs(buildSrcDir, startParameter));
+        HashValue outputs = unchanged ? fingerprintClasspath(classpath) : null;
+        synchronized (entries) {
+            if (outputs == null) {
+                entries.remove(buildSrcDir);
+            } else {
+                entries.put(buildSrcDir, new Entry(inputs, outputs, classpath));
+            }
+        }
+    }
+
+    private boolean isCacheable(StartParameter startParameter) {
+        // Init scripts can change the buildSrc build in ways which are not visible in the buildSrc directory
+        return !startParameter.isRefreshDependencies() && !startParameter.isRerunTasks() && startParameter.getAllInitScripts().isEmpty();
+    }
+
+    private HashValue fingerprintClasspath(ClassPath classpath) {
+        StringBuilder builder = new StringBuilder();
+        for (File file : classpath.getAsFiles()) {
+            FileMetadataSnapshot.appendTree(file, builder);
+        }
+        return HashUtil.createHash(builder.toString(), "MD5");
+    }
+
+    private static class Entry {
+        final HashValue inputs;
+        final HashValue outputs;
+        final ClassPath classpath;
+
+        private Entry(HashValue inputs, HashValue outputs, ClassPath classpath) {
+            this.inputs = inputs;
+            this.outputs = outputs;
+            this.classpath = classpath;
+        }
+    }
+}
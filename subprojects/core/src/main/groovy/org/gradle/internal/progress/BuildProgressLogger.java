@@ -60,7 +60,7 @@ public class BuildProgressLogger implements LoggerProvider {
         buildProgress = loggerProvider.start("Execute tasks", buildProgressFormatter.getProgress());
     }
 
-    public void buildFinished() {
+    public synchronized void buildFinished() {
         for (ProgressLogger l : projectConfigurationProgress.values()) {
             l.completed();
         }
@@ -81,14 +81,14 @@ public class BuildProgressLogger implements LoggerProvider {
         buildProgress.progress("Configuring");
     }
 
-    public void beforeEvaluate(String projectPath) {
+    public synchronized void beforeEvaluate(String projectPath) {
         if (configurationProgress != null) {
             ProgressLogger logger = loggerProvider.start("Configure project " + projectPath, projectPath.equals(":") ? "root project" : projectPath);
             projectConfigurationProgress.put(projectPath, logger);
         }
     }
 
-    public void afterEvaluate(String projectPath) {
+    public synchronized void afterEvaluate(String projectPath) {
         if (configurationProgress != null) {
             ProgressLogger logger = projectConfigurationProgress.remove(projectPath);
             if (logger == null) {
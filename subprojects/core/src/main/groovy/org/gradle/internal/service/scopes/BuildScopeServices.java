@@ -30,14 +30,17 @@ import org.gradle.api.internal.component.ComponentTypeRegistry;
 import org.gradle.api.internal.component.DefaultComponentTypeRegistry;
 import org.gradle.api.internal.file.FileLookup;
 import org.gradle.api.internal.file.FileResolver;
+import org.gradle.api.internal.initialization.CrossBuildClassLoaderCache;
 import org.gradle.api.internal.initialization.DefaultScriptHandlerFactory;
 import org.gradle.api.internal.initialization.ScriptHandlerFactory;
 import org.gradle.api.internal.plugins.CorePluginRegistry;
 import org.gradle.api.internal.plugins.PluginRegistry;
 import org.gradle.api.internal.project.*;
 import org.gradle.api.internal.project.taskfactory.AnnotationProcessingTaskFactory;
+import org.gradle.api.internal.project.taskfactory.DefaultTaskClassInfoStore;
 import org.gradle.api.internal.project.taskfactory.DependencyAutoWireTaskFactory;
 import org.gradle.api.internal.project.taskfactory.ITaskFactory;
+import org.gradle.api.internal.project.taskfactory.TaskClassInfoStore;
 import org.gradle.api.internal.project.taskfactory.TaskFactory;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.CacheValidator;
@@ -162,12 +165,17 @@ public class BuildScopeServices extends DefaultServiceRegistry {
         );
         Action<? super ProjectInternal> projectFinalizer = Actions.composite(new TaskModelRealizingConfigurationAction(),
                 new ModelRegistryValidatingConfigurationAction());
-        return new LifecycleProjectEvaluator(withActionsEvaluator, projectFinalizer);
+        ProjectEvaluator evaluator = new LifecycleProjectEvaluator(withActionsEvaluator, projectFinalizer);
+        if (get(StartParameter.class).isParallelProjectConfiguration()) {
+            return new ConcurrentProjectEvaluator(evaluator);
+        }
+        return evaluator;
     }
 
     protected ITaskFactory createITaskFactory() {
         return new DependencyAutoWireTaskFactory(
                 new AnnotationProcessingTaskFactory(
+                        get(TaskClassInfoStore.class),
                         new TaskFactory(
                                 get(ClassGenerator.class))
                 )
@@ -191,7 +199,8 @@ public class BuildScopeServices extends DefaultServiceRegistry {
         return new AsmBackedEmptyScriptGenerator();
     }
 
-    protected FileCacheBackedScriptClassCompiler createFileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, EmptyScriptGenerator emptyScriptGenerator, final StartParameter startParameter, ProgressLoggerFactory progressLoggerFactory) {
+    protected FileCacheBackedScriptClassCompiler createFileCacheBackedScriptClassCompiler(CacheRepository cacheRepository, EmptyScriptGenerator emptyScriptGenerator, final StartParameter startParameter, ProgressLoggerFactory progressLoggerFactory,
+                                                                                      CrossBuildScriptCache crossBuildScriptCache) {
         CacheValidator scriptCacheInvalidator = new CacheValidator() {
             public boolean isValid() {
                 return !startParameter.isRecompileScripts();
@@ -202,7 +211,8 @@ public class BuildScopeServices extends DefaultServiceRegistry {
                 scriptCacheInvalidator,
                 new DefaultScriptCompilationHandler(
                         emptyScriptGenerator),
-                progressLoggerFactory
+                progressLoggerFactory,
+                crossBuildScriptCache
         );
     }
 
@@ -269,8 +279,8 @@ public class BuildScopeServices extends DefaultServiceRegistry {
                 new LongIdGenerator());
     }
 
-    protected BuildConfigurer createBuildConfigurer(BuildCancellationToken cancellationToken) {
-        return new DefaultBuildConfigurer(cancellationToken);
+    protected BuildConfigurer createBuildConfigurer(BuildCancellationToken cancellationToken, ExecutorFactory executorFactory) {
+        return new DefaultBuildConfigurer(cancellationToken, executorFactory, new DecoupledProjectSpec());
     }
 
     protected ProjectAccessListener createProjectAccessListener() {
@@ -289,8 +299,12 @@ public class BuildScopeServices extends DefaultServiceRegistry {
         return new BuildScopeServiceRegistryFactory(services);
     }
 
-    protected ClassLoaderScopeRegistry createClassLoaderScopeRegistry(ClassLoaderRegistry classLoaderRegistry) {
-        return new DefaultClassLoaderScopeRegistry(classLoaderRegistry);
+    protected TaskClassInfoStore createTaskClassInfoStore(DefaultTaskClassInfoStore taskClassInfoStore) {
+        return taskClassInfoStore.newSession();
+    }
+
+    protected ClassLoaderScopeRegistry createClassLoaderScopeRegistry(ClassLoaderRegistry classLoaderRegistry, CrossBuildClassLoaderCache crossBuildClassLoaderCache) {
+        return new DefaultClassLoaderScopeRegistry(classLoaderRegistry, crossBuildClassLoaderCache);
     }
 
     protected ProjectTaskLister createProjectTaskLister() {
@@ -24,14 +24,18 @@ import org.gradle.api.internal.classpath.DefaultPluginModuleRegistry;
 import org.gradle.api.internal.classpath.ModuleRegistry;
 import org.gradle.api.internal.classpath.PluginModuleRegistry;
 import org.gradle.api.internal.file.*;
+import org.gradle.api.internal.initialization.CrossBuildClassLoaderCache;
+import org.gradle.api.internal.project.taskfactory.DefaultTaskClassInfoStore;
 import org.gradle.cache.internal.*;
 import org.gradle.cache.internal.locklistener.DefaultFileLockContentionHandler;
 import org.gradle.cache.internal.locklistener.FileLockContentionHandler;
 import org.gradle.cli.CommandLineConverter;
+import org.gradle.groovy.scripts.internal.CrossBuildScriptCache;
 import org.gradle.initialization.ClassLoaderRegistry;
 import org.gradle.initialization.DefaultClassLoaderRegistry;
 import org.gradle.initialization.DefaultCommandLineConverter;
 import org.gradle.initialization.DefaultGradleLauncherFactory;
+import org.gradle.initialization.buildsrc.InMemoryBuildSrcClasspathCache;
 import org.gradle.internal.classloader.ClassLoaderFactory;
 import org.gradle.internal.classloader.DefaultClassLoaderFactory;
 import org.gradle.internal.concurrent.DefaultExecutorFactory;
@@ -157,6 +161,22 @@ public class GlobalScopeServices {
         return new InMemoryTaskArtifactCache();
     }
 
+    InMemoryBuildSrcClasspathCache createInMemoryBuildSrcClasspathCache() {
+        return new InMemoryBuildSrcClasspathCache();
+    }
+
+    CrossBuildScriptCache createCrossBuildScriptCache() {
+        return new CrossBuildScriptCache();
+    }
+
+    CrossBuildClassLoaderCache createCrossBuildClassLoaderCache() {
+        return new CrossBuildClassLoaderCache();
+    }
+
+    DefaultTaskClassInfoStore createTaskClassInfoStore() {
+        return new DefaultTaskClassInfoStore();
+    }
+
     DefaultFileLockContentionHandler createFileLockContentionHandler(ExecutorFactory executorFactory, MessagingServices messagingServices) {
         return new DefaultFileLockContentionHandler(
                 executorFactory,
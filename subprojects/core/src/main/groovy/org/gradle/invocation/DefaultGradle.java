@@ -57,6 +57,7 @@ public class DefaultGradle extends AbstractPluginAware implements GradleInternal
     private final GradleDistributionLocator distributionLocator;
     private final ListenerBroadcast<BuildListener> buildListenerBroadcast;
     private final ListenerBroadcast<ProjectEvaluationListener> projectEvaluationListenerBroadcast;
+    private volatile boolean hasProjectEvaluationListeners;
     private ActionBroadcast<Project> rootProjectActions = new ActionBroadcast<Project>();
 
     private PluginContainer pluginContainer;
@@ -164,10 +165,12 @@ public class DefaultGradle extends AbstractPluginAware implements GradleInternal
     }
 
     public void beforeProject(Closure closure) {
+        hasProjectEvaluationListeners = true;
         projectEvaluationListenerBroadcast.add(new ClosureBackedMethodInvocationDispatch("beforeEvaluate", closure));
     }
 
     public void afterProject(Closure closure) {
+        hasProjectEvaluationListeners = true;
         projectEvaluationListenerBroadcast.add(new ClosureBackedMethodInvocationDispatch("afterEvaluate", closure));
     }
 
@@ -192,6 +195,9 @@ public class DefaultGradle extends AbstractPluginAware implements GradleInternal
     }
 
     public void addListener(Object listener) {
+        if (listener instanceof ProjectEvaluationListener) {
+            hasProjectEvaluationListeners = true;
+        }
         listenerManager.addListener(listener);
     }
 
@@ -207,6 +213,10 @@ public class DefaultGradle extends AbstractPluginAware implements GradleInternal
         return projectEvaluationListenerBroadcast.getSource();
     }
 
+    public boolean hasProjectEvaluationListeners() {
+        return hasProjectEvaluationListeners;
+    }
+
     public void addBuildListener(BuildListener buildListener) {
         addListener(buildListener);
     }
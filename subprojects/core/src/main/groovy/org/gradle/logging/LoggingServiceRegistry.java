@@ -127,9 +127,16 @@ public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
     protected OutputEventRenderer createOutputEventRenderer() {
         OutputEventRenderer renderer = new OutputEventRenderer(Actions.doNothing());
         renderer.addStandardOutputAndError();
+        configureRendering(renderer);
         return renderer;
     }
 
+    protected void configureRendering(OutputEventRenderer renderer) {
+        if (Boolean.getBoolean(OutputEventRenderer.ASYNC_RENDERING_PROPERTY)) {
+            renderer.startAsyncRendering(OutputEventRenderer.DEFAULT_ASYNC_QUEUE_CAPACITY);
+        }
+    }
+
     private static class ChildProcessLogging extends LoggingServiceRegistry {
         protected Factory<LoggingManagerInternal> createLoggingManagerFactory() {
             OutputEventRenderer renderer = get(OutputEventRenderer.class);
@@ -150,6 +157,7 @@ public abstract class LoggingServiceRegistry extends DefaultServiceRegistry {
         protected OutputEventRenderer createOutputEventRenderer() {
             OutputEventRenderer renderer = new OutputEventRenderer(new ConsoleConfigureAction());
             renderer.addStandardOutputAndError();
+            configureRendering(renderer);
             return renderer;
         }
     }
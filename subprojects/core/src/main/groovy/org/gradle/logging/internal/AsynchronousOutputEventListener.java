@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.logging.internal;
+
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link OutputEventListener} which accepts events from any number of threads and forwards them to a delegate listener
+ * from a single rendering thread, in the order in which they were received. Producers do not contend on the delegate. They
+ * only block when the queue has reached its capacity, until the rendering thread has caught up.
+ *
+ * <p>Once stopped, events are forwarded by the thread which generates them. Events are always taken from the queue and
+ * forwarded while holding the render lock, so events are never forwarded twice or out of order.</p>
+ */
+@ThreadSafe
+public class AsynchronousOutputEventListener implements OutputEventListener, Stoppable {
+    private static final int BATCH_SIZE = 256;
+    private final OutputEventListener delegate;
+    private final int capacity;
+    private final Queue<OutputEvent> queue = new ConcurrentLinkedQueue<OutputEvent>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private final Object drained = new Object();
+    private final Object renderLock = new Object();
+    private final Thread renderer;
+    private volatile boolean idle;
+    private volatile boolean stopped;
+
+    public AsynchronousOutputEventListener(String displayName, OutputEventListener delegate, int capacity) {
+        this.delegate = delegate;
+        this.capacity = capacity;
+        renderer = new Thread(new Runnable() {
+            public void run() {
+                render();
+            }
+        });
+        renderer.setName(displayName);
+        renderer.setDaemon(true);
+        renderer.start();
+    }
+
+    public void onOutput(OutputEvent event) {
+        if (stopped) {
+            synchronized (renderLock) {
+                drainAll();
+                delegate.onOutput(event);
+            }
+            return;
+        }
+        // Never block the rendering thread on itself, when an event is generated while rendering another event
+        if (pending.get() >= capacity && Thread.currentThread() != renderer) {
+            awaitPendingBelow(capacity);
+        }
+        pending.incrementAndGet();
+        queue.offer(event);
+        if (idle) {
+            LockSupport.unpark(renderer);
+        }
+        if (stopped) {
+            drainAll();
+        }
+    }
+
+    /**
+     * Blocks until all events received before this method was called have been forwarded to the delegate.
+     */
+    public void flush() {
+        if (Thread.currentThread() == renderer) {
+            return;
+        }
+        if (stopped) {
+            drainAll();
+            return;
+        }
+        awaitPendingBelow(1);
+    }
+
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(renderer);
+        if (Thread.currentThread() != renderer) {
+            try {
+                renderer.join();
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+        drainAll();
+        Throwable throwable = failure.getAndSet(null);
+        if (throwable != null) {
+            throw UncheckedException.throwAsUncheckedException(throwable);
+        }
+    }
+
+    private void awaitPendingBelow(int count) {
+        waiting.incrementAndGet();
+        try {
+            synchronized (drained) {
+                while (pending.get() >= count && renderer.isAlive()) {
+                    LockSupport.unpark(renderer);
+                    drained.wait(10L);
+                }
+            }
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void render() {
+        while (true) {
+            if (drainBatch() > 0) {
+                continue;
+            }
+            if (stopped) {
+                if (queue.isEmpty()) {
+                    break;
+                }
+                continue;
+            }
+            idle = true;
+            if (queue.isEmpty() && !stopped) {
+                LockSupport.park(this);
+            }
+            idle = false;
+        }
+        synchronized (drained) {
+            drained.notifyAll();
+        }
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        synchronized (renderLock) {
+            OutputEvent event;
+            while (count < BATCH_SIZE && (event = queue.poll()) != null) {
+                try {
+                    delegate.onOutput(event);
+                } catch (Throwable throwable) {
+                    failure.compareAndSet(null, throwable);
+                } finally {
+                    pending.decrementAndGet();
+                }
+                count++;
+            }
+        }
+        if (count > 0 && waiting.get() > 0) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+        return count;
+    }
+
+    private void drainAll() {
+        synchronized (renderLock) {
+            OutputEvent event;
+            while ((event = queue.poll()) != null) {
+                try {
+                    delegate.onOutput(event);
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        }
+        synchronized (drained) {
+            drained.notifyAll();
+        }
+    }
+}
@@ -19,6 +19,7 @@ import net.jcip.annotations.ThreadSafe;
 import org.gradle.api.Action;
 import org.gradle.api.logging.LogLevel;
 import org.gradle.api.logging.StandardOutputListener;
+import org.gradle.internal.concurrent.Stoppable;
 import org.gradle.internal.nativeintegration.console.ConsoleMetaData;
 import org.gradle.listener.ListenerBroadcast;
 
@@ -27,15 +28,24 @@ import java.io.OutputStream;
 /**
  * A {@link org.gradle.logging.internal.OutputEventListener} implementation which renders output events to various
  * destinations. This implementation is thread-safe.
+ *
+ * <p>By default, events are rendered synchronously by the thread that generates them. When asynchronous rendering is enabled
+ * using {@link #startAsyncRendering(int)}, events are instead queued and rendered in order by a single rendering thread, so that
+ * threads generating output do not contend with each other. Events below the current log level are discarded before they are queued.</p>
  */
 @ThreadSafe
-public class OutputEventRenderer implements OutputEventListener, LoggingConfigurer, LoggingOutputInternal {
+public class OutputEventRenderer implements OutputEventListener, LoggingConfigurer, LoggingOutputInternal, Stoppable {
+    public static final String ASYNC_RENDERING_PROPERTY = "org.gradle.logging.async";
+    public static final int DEFAULT_ASYNC_QUEUE_CAPACITY = 10000;
     private final ListenerBroadcast<OutputEventListener> formatters = new ListenerBroadcast<OutputEventListener>(OutputEventListener.class);
     private final ListenerBroadcast<StandardOutputListener> stdoutListeners = new ListenerBroadcast<StandardOutputListener>(StandardOutputListener.class);
     private final ListenerBroadcast<StandardOutputListener> stderrListeners = new ListenerBroadcast<StandardOutputListener>(StandardOutputListener.class);
     private final Object lock = new Object();
     private final DefaultColorMap colourMap = new DefaultColorMap();
     private LogLevel logLevel = LogLevel.LIFECYCLE;
+    private volatile LogLevel acceptLevel = LogLevel.LIFECYCLE;
+    private volatile AsynchronousOutputEventListener asyncRenderer;
+    private Thread asyncRendererShutdownHook;
     private final Action<? super OutputEventRenderer> consoleConfigureAction;
     private OutputStream originalStdOut;
     private OutputStream originalStdErr;
@@ -85,15 +95,81 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     public void removeOutputEventListener(OutputEventListener listener) {
+        flush();
         formatters.remove(listener);
     }
 
+    /**
+     * Starts rendering events on a separate thread. Does nothing if asynchronous rendering has already been started.
+     */
+    public void startAsyncRendering(int queueCapacity) {
+        synchronized (lock) {
+            if (asyncRenderer != null) {
+                return;
+            }
+            acceptLevel = logLevel;
+            asyncRenderer = new AsynchronousOutputEventListener("Output event renderer", new OutputEventListener() {
+                public void onOutput(OutputEvent event) {
+                    render(event);
+                }
+            }, queueCapacity);
+            // Render any queued events when the process exits, for example through System.exit() in ProcessCompleter
+            asyncRendererShutdownHook = new Thread(new Runnable() {
+                public void run() {
+                    OutputEventRenderer.this.stop();
+                }
+            }, "Output event renderer shutdown");
+            Runtime.getRuntime().addShutdownHook(asyncRendererShutdownHook);
+        }
+    }
+
+    /**
+     * Blocks until all events generated before this method was called have been rendered.
+     */
+    public void flush() {
+        AsynchronousOutputEventListener renderer = asyncRenderer;
+        if (renderer != null) {
+            renderer.flush();
+        }
+    }
+
+    /**
+     * Stops asynchronous rendering, if started. Renders all queued events and waits for the rendering thread to finish.
+     */
+    public void stop() {
+        AsynchronousOutputEventListener renderer;
+        Thread shutdownHook;
+        synchronized (lock) {
+            renderer = asyncRenderer;
+            shutdownHook = asyncRendererShutdownHook;
+            asyncRendererShutdownHook = null;
+        }
+        if (renderer == null) {
+            return;
+        }
+        if (shutdownHook != null && shutdownHook != Thread.currentThread()) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The process is exiting, and the hook is already running or has already run
+            }
+        }
+        // Keep the stopped renderer in place until it has drained, so that events generated meanwhile are rendered after the queued events
+        renderer.stop();
+        synchronized (lock) {
+            if (asyncRenderer == renderer) {
+                asyncRenderer = null;
+            }
+        }
+    }
+
     public OutputEventRenderer addConsole(Console console, boolean stdout, boolean stderr, ConsoleMetaData consoleMetaData) {
         final OutputEventListener consoleChain = new ConsoleBackedProgressRenderer(
                 new ProgressLogEventGenerator(
                         new StyledTextOutputBackedRenderer(console.getMainArea()), true),
                 console,
                 new DefaultStatusBarFormatter(consoleMetaData));
+        flush();
         synchronized (lock) {
             if (stdout && stderr) {
                 formatters.add(consoleChain);
@@ -144,12 +220,14 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     public void removeStandardOutputListener(StandardOutputListener listener) {
+        flush();
         synchronized (lock) {
             stdoutListeners.remove(listener);
         }
     }
 
     public void removeStandardErrorListener(StandardOutputListener listener) {
+        flush();
         synchronized (lock) {
             stderrListeners.remove(listener);
         }
@@ -160,6 +238,20 @@ public class OutputEventRenderer implements OutputEventListener, LoggingConfigur
     }
 
     public void onOutput(OutputEvent event) {
+        AsynchronousOutputEventListener renderer = asyncRenderer;
+        if (renderer == null) {
+            render(event);
+            return;
+        }
+        if (event instanceof LogLevelChangeEvent) {
+            acceptLevel = ((LogLevelChangeEvent) event).getNewLogLevel();
+        } else if (event.getLogLevel() != null && event.getLogLevel().compareTo(acceptLevel) < 0) {
+            return;
+        }
+        renderer.onOutput(event);
+    }
+
+    private void render(OutputEvent event) {
         synchronized (lock) {
             if (event.getLogLevel() != null && event.getLogLevel().compareTo(logLevel) < 0) {
                 return;
@@ -96,7 +96,7 @@ public class BuildProfile {
      * Get the profiling container for the specified project
      * @param projectPath to look up
      */
-    public ProjectProfile getProjectProfile(String projectPath) {
+    public synchronized ProjectProfile getProjectProfile(String projectPath) {
         ProjectProfile result = projects.get(projectPath);
         if (result == null) {
             result = new ProjectProfile(projectPath);
@@ -122,7 +122,7 @@ public class BuildProfile {
         return new CompositeOperation<Operation>(operations);
     }
 
-    public ContinuousOperation getDependencySetProfile(String dependencySetDescription) {
+    public synchronized ContinuousOperation getDependencySetProfile(String dependencySetDescription) {
         ContinuousOperation profile = dependencySets.get(dependencySetDescription);
         if (profile == null) {
             profile = new ContinuousOperation(dependencySetDescription);
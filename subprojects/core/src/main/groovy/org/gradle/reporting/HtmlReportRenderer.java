@@ -93,7 +93,7 @@ public class HtmlReportRenderer {
             this.outputDirectory = outputDirectory;
         }
 
-        Resource addResource(URL source) {
+        synchronized Resource addResource(URL source) {
             String name = StringUtils.substringAfterLast(source.getPath(), "/");
             String type = StringUtils.substringAfterLast(source.getPath(), ".");
             if (type.equalsIgnoreCase("png") || type.equalsIgnoreCase("gif")) {
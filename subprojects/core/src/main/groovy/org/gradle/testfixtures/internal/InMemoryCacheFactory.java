@@ -114,5 +114,10 @@ public class InMemoryCacheFactory implements CacheFactory {
             assertNotClosed();
             action.run();
         }
+
+        public <T> T writeToCache(Factory<? extends T> action) {
+            assertNotClosed();
+            return action.create();
+        }
     }
 }
@@ -20,6 +20,7 @@ import org.gradle.api.Action
 import org.gradle.api.Task
 import org.gradle.api.internal.project.AbstractProject
 import org.gradle.api.internal.project.taskfactory.AnnotationProcessingTaskFactory
+import org.gradle.api.internal.project.taskfactory.DefaultTaskClassInfoStore
 import org.gradle.api.internal.project.taskfactory.TaskFactory
 import org.gradle.internal.reflect.DirectInstantiator
 import org.gradle.internal.reflect.Instantiator
@@ -35,7 +36,7 @@ class AbstractTaskSpec extends Specification {
 
     private DefaultServiceRegistry serviceRegistry = new DefaultServiceRegistry();
     private Instantiator instantiator = new DependencyInjectingInstantiator(serviceRegistry);
-    private final AnnotationProcessingTaskFactory rootFactory = new AnnotationProcessingTaskFactory(new TaskFactory(new AsmBackedClassGenerator()));
+    private final AnnotationProcessingTaskFactory rootFactory = new AnnotationProcessingTaskFactory(new DefaultTaskClassInfoStore(), new TaskFactory(new AsmBackedClassGenerator()));
 
     public static class TestTask extends AbstractTask {
 
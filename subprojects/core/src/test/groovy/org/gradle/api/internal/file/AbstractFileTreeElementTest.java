@@ -30,6 +30,7 @@ import org.junit.runner.RunWith;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStream;
 
 import static org.hamcrest.Matchers.equalTo;
@@ -67,6 +68,41 @@ public class AbstractFileTreeElementTest {
         assertThat(dest.getText(), equalTo("content"));
     }
 
+    @Test
+    public void canCopyContentLargerThanTransferChunkToFile() {
+        StringBuilder content = new StringBuilder();
+        while (content.length() < 3 * 1024 * 1024) {
+            content.append("some content ").append(content.length()).append('\n');
+        }
+        TestFile src = writeToFile("src", content.toString());
+        TestFile dest = tmpDir.file("dest");
+
+        context.checking(new Expectations(){{
+            ignoring(chmod);
+        }});
+
+        new TestFileTreeElement(src).copyTo(dest);
+
+        assertThat(dest.getText(), equalTo(content.toString()));
+    }
+
+    @Test
+    public void copyToFileOutputStreamWritesAtCurrentPosition() throws Exception {
+        TestFile src = writeToFile("src", "content");
+        TestFile dest = tmpDir.file("dest");
+        dest.write("existing ");
+
+        FileOutputStream outstr = new FileOutputStream(dest, true);
+        try {
+            new TestFileTreeElement(src).copyTo(outstr);
+            outstr.write(" more".getBytes());
+        } finally {
+            outstr.close();
+        }
+
+        assertThat(dest.getText(), equalTo("existing content more"));
+    }
+
     @Test
     public void copiedFileHasExpectedPermissions() throws Exception {
         TestFile src = writeToFile("src", "");
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive
+
+import org.apache.tools.zip.ZipOutputStream
+import org.gradle.api.file.RelativePath
+import org.gradle.api.internal.DocumentationRegistry
+import org.gradle.api.internal.file.CopyActionProcessingStreamAction
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.internal.file.copy.CopyActionProcessingStream
+import org.gradle.api.internal.file.copy.FileCopyDetailsInternal
+import org.gradle.api.tasks.bundling.Zip
+import org.gradle.api.tasks.bundling.internal.Zip64RequiredException
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.zip.ZipFile
+
+import static org.gradle.api.file.FileVisitorUtil.assertVisitsPermissions
+import static org.hamcrest.Matchers.equalTo
+
+class ParallelZipCopyActionTest extends Specification {
+    @Rule
+    public final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    final executorFactory = new DefaultExecutorFactory()
+    TestFile zipFile = tmpDir.testDirectory.file("test.zip")
+    TestFile spillDir = tmpDir.testDirectory.file("tmp")
+    TestFile indexFile = tmpDir.testDirectory.file("index.bin")
+    final Map<String, Integer> reads = [:]
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "creates zip file with entries in the order received"() {
+        given:
+        zip(action(ZipOutputStream.DEFLATED), dir("dir"), file("dir/file1"), file("file2"), file("a"))
+
+        when:
+        TestFile expandDir = tmpDir.testDirectory.file("expanded")
+        zipFile.unzipTo(expandDir)
+
+        then:
+        expandDir.file("dir/file1").assertContents(equalTo("contents of dir/file1"))
+        expandDir.file("file2").assertContents(equalTo("contents of file2"))
+        entryNames() == ["dir/", "dir/file1", "file2", "a"]
+    }
+
+    def "creates stored zip file"() {
+        given:
+        zip(action(ZipOutputStream.STORED), dir("dir"), file("dir/file1"))
+
+        expect:
+        def zip = new ZipFile(zipFile)
+        try {
+            def entry = zip.getEntry("dir/file1")
+            assert entry.method == java.util.zip.ZipEntry.STORED
+            assert zip.getInputStream(entry).text == "contents of dir/file1"
+        } finally {
+            zip.close()
+        }
+    }
+
+    def "zip file contains expected permissions"() {
+        given:
+        zip(action(ZipOutputStream.DEFLATED), dir("dir"), file("file"))
+
+        expect:
+        assertVisitsPermissions(new ZipFileTree(zipFile, null, TestFiles.fileSystem()), [dir: 2, file: 1])
+    }
+
+    def "compresses large entries into temporary files"() {
+        given:
+        def content = (0..<20000).collect { "line $it" }.join("\n")
+
+        when:
+        zip(action(method, 1024), file("small"), file("large", content), file("other"))
+
+        then:
+        TestFile expandDir = tmpDir.testDirectory.file("expanded")
+        zipFile.unzipTo(expandDir)
+        expandDir.file("large").text == content
+        expandDir.file("small").text == "contents of small"
+        entryNames() == ["small", "large", "other"]
+        spillDir.listFiles().length == 0
+
+        where:
+        method << [ZipOutputStream.DEFLATED, ZipOutputStream.STORED]
+    }
+
+    def "creates same archive regardless of number of threads"() {
+        given:
+        def entries = { (0..<50).collect { file("file$it", "contents $it " * it) } }
+
+        when:
+        zip(new ParallelZipCopyAction(zipFile, ZipOutputStream.DEFLATED, false, new DocumentationRegistry(), executorFactory, spillDir, 1, 100, null), *entries())
+        def first = zipFile.bytes
+        zip(new ParallelZipCopyAction(zipFile, ZipOutputStream.DEFLATED, false, new DocumentationRegistry(), executorFactory, spillDir, 8, 100, null), *entries())
+
+        then:
+        zipFile.bytes == first
+    }
+
+    def "wraps failure to add element"() {
+        given:
+        Throwable failure = new RuntimeException("broken")
+        def brokenFile = brokenFile("dir/file1", failure)
+
+        when:
+        zip(action(ZipOutputStream.DEFLATED), brokenFile)
+
+        then:
+        def e = thrown(Exception)
+        e.message == String.format("Could not add $brokenFile to ZIP '%s'.", zipFile)
+        e.cause.is(failure)
+    }
+
+    def "fails when too many entries and zip64 is not enabled"() {
+        given:
+        def docRegistry = Mock(DocumentationRegistry)
+        1 * docRegistry.getDslRefForProperty(Zip, "zip64") >> "doc url"
+        def entries = [dir("dir")] * 65535
+
+        when:
+        zip(new ParallelZipCopyAction(zipFile, ZipOutputStream.DEFLATED, false, docRegistry, executorFactory, spillDir, 4, null), *entries)
+
+        then:
+        def e = thrown(Zip64RequiredException)
+        e.message == "archive contains more than 65535 entries.\n\nTo build this archive, please enable the zip64 extension.\nSee: doc url"
+    }
+
+    def "can create zip with more than 65535 entries when zip64 is enabled"() {
+        given:
+        def entries = [dir("dir")] * 65536
+
+        when:
+        zip(new ParallelZipCopyAction(zipFile, ZipOutputStream.DEFLATED, true, new DocumentationRegistry(), executorFactory, spillDir, 4, null), *entries)
+
+        then:
+        def zip = new ZipFile(zipFile)
+        try {
+            assert zip.size() == 65536
+        } finally {
+            zip.close()
+        }
+    }
+
+    def "copies entries whose source file has not changed from the previous archive"() {
+        given:
+        def source1 = sourceFile("file1", "contents 1")
+        def source2 = sourceFile("file2", "contents 2")
+        def source3 = sourceFile("file3", "contents 3")
+        zip(incrementalAction(method), dir("dir"), file("dir/file1", source1), file("file2", source2), file("file3", source3))
+        reads.clear()
+
+        when:
+        source2.text = "changed contents 2"
+        source2.lastModified = source2.lastModified() - 5000
+        zip(incrementalAction(method), dir("dir"), file("dir/file1", source1), file("file2", source2), file("file3", source3))
+
+        then:
+        reads == ["file2": 1]
+        entryNames() == ["dir/", "dir/file1", "file2", "file3"]
+        TestFile expandDir = tmpDir.testDirectory.file("expanded")
+        zipFile.unzipTo(expandDir)
+        expandDir.file("dir/file1").text == "contents 1"
+        expandDir.file("file2").text == "changed contents 2"
+        expandDir.file("file3").text == "contents 3"
+        spillDir.listFiles().length == 0
+
+        when:
+        def updated = zipFile.bytes
+        zip(action(method), dir("dir"), file("dir/file1", source1), file("file2", source2), file("file3", source3))
+
+        then:
+        zipFile.bytes == updated
+
+        where:
+        method << [ZipOutputStream.DEFLATED, ZipOutputStream.STORED]
+    }
+
+    def "compresses entries again when the source file has been renamed or modified"() {
+        given:
+        def source1 = sourceFile("file1", "contents 1")
+        def source2 = sourceFile("file2", "contents 2")
+        zip(incrementalAction(ZipOutputStream.DEFLATED), file("file1", source1), file("file2", source2))
+        reads.clear()
+
+        when:
+        source2.text = "contents 3"
+        source2.lastModified = source2.lastModified() + 5000
+        zip(incrementalAction(ZipOutputStream.DEFLATED), file("file1", source2), file("file2", source1))
+
+        then:
+        reads == ["file1": 1, "file2": 1]
+        TestFile expandDir = tmpDir.testDirectory.file("expanded")
+        zipFile.unzipTo(expandDir)
+        expandDir.file("file1").text == "contents 3"
+        expandDir.file("file2").text == "contents 1"
+    }
+
+    def "compresses all entries again when the previous archive may not be reused"() {
+        given:
+        def source1 = sourceFile("file1", "contents 1")
+        zip(incrementalAction(ZipOutputStream.DEFLATED), file("file1", source1))
+        reads.clear()
+
+        when:
+        zip(incrementalAction(ZipOutputStream.DEFLATED, false), file("file1", source1))
+
+        then:
+        reads == ["file1": 1]
+    }
+
+    def "compresses all entries again when the previous archive has changed"() {
+        given:
+        def source1 = sourceFile("file1", "contents 1")
+        zip(incrementalAction(ZipOutputStream.DEFLATED), file("file1", source1))
+        reads.clear()
+
+        when:
+        zipFile.lastModified = zipFile.lastModified() - 5000
+        zip(incrementalAction(ZipOutputStream.DEFLATED), file("file1", source1))
+
+        then:
+        reads == ["file1": 1]
+    }
+
+    def "compresses all entries again when the compression method has changed"() {
+        given:
+        def source1 = sourceFile("file1", "contents 1")
+        zip(incrementalAction(ZipOutputStream.DEFLATED), file("file1", source1))
+        reads.clear()
+
+        when:
+        zip(incrementalAction(ZipOutputStream.STORED), file("file1", source1))
+
+        then:
+        reads == ["file1": 1]
+        def zip = new ZipFile(zipFile)
+        try {
+            assert zip.getEntry("file1").method == java.util.zip.ZipEntry.STORED
+        } finally {
+            zip.close()
+        }
+    }
+
+    private ParallelZipCopyAction incrementalAction(int method, boolean reusePrevious = true) {
+        def index = new ZipArchiveIndex(indexFile, reusePrevious)
+        new ParallelZipCopyAction(zipFile, method, false, new DocumentationRegistry(), executorFactory, spillDir, 4, 1024 * 1024, index)
+    }
+
+    private TestFile sourceFile(String path, String content) {
+        def file = tmpDir.testDirectory.file("src", path)
+        file.text = content
+        // Files modified very recently are not recorded in the index
+        file.lastModified = System.currentTimeMillis() - 10000
+        file
+    }
+
+    private ParallelZipCopyAction action(int method, int spillThreshold = 1024 * 1024) {
+        new ParallelZipCopyAction(zipFile, method, false, new DocumentationRegistry(), executorFactory, spillDir, 4, spillThreshold, null)
+    }
+
+    private List<String> entryNames() {
+        def zip = new ZipFile(zipFile)
+        try {
+            return zip.entries().collect { it.name }
+        } finally {
+            zip.close()
+        }
+    }
+
+    private void zip(ParallelZipCopyAction action, final FileCopyDetailsInternal... files) {
+        action.execute(new CopyActionProcessingStream() {
+            public void process(CopyActionProcessingStreamAction streamAction) {
+                for (FileCopyDetailsInternal f : files) {
+                    streamAction.processFile(f);
+                }
+            }
+        });
+    }
+
+    private FileCopyDetailsInternal file(final String path, final String content = "contents of $path") {
+        def mock = Stub(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(false, path)
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> false
+        mock.getMode() >> 1
+        mock.copyTo(_ as OutputStream) >> { OutputStream out ->
+            out << content
+        }
+        mock
+    }
+
+    private FileCopyDetailsInternal file(final String path, final TestFile sourceFile) {
+        def mock = Stub(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(false, path)
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> false
+        mock.getMode() >> 1
+        mock.getSourceFile() >> sourceFile
+        mock.copyTo(_ as OutputStream) >> { OutputStream out ->
+            reads[path] = (reads[path] ?: 0) + 1
+            out << sourceFile.bytes
+        }
+        mock
+    }
+
+    private FileCopyDetailsInternal dir(final String path) {
+        def mock = Stub(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(false, path)
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> true
+        mock.getMode() >> 2
+        mock
+    }
+
+    private FileCopyDetailsInternal brokenFile(final String path, final Throwable failure) {
+        def mock = Stub(FileCopyDetailsInternal)
+        mock.getRelativePath() >> RelativePath.parse(false, path)
+        mock.getLastModified() >> 1000L
+        mock.isDirectory() >> false
+        mock.getMode() >> 1
+        mock.copyTo(_ as OutputStream) >> { OutputStream out ->
+            failure.fillInStackTrace()
+            throw failure
+        }
+        mock
+    }
+}
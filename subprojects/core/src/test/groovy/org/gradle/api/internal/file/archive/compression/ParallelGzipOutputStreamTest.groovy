@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.archive.compression
+
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.StoppableExecutor
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.GZIPInputStream
+
+class ParallelGzipOutputStreamTest extends Specification {
+    final executorFactory = new DefaultExecutorFactory()
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "compressed data can be read using GZIPInputStream"() {
+        given:
+        def content = (0..<size).collect { (byte) (it % 31) } as byte[]
+
+        when:
+        def compressed = compress(content, 4)
+
+        then:
+        new GZIPInputStream(new ByteArrayInputStream(compressed)).bytes == content
+
+        where:
+        size << [0, 1, 99, 100, 101, 1000, 12345]
+    }
+
+    def "writes the same data regardless of the number of threads"() {
+        given:
+        def content = (0..<5000).collect { "line $it\n" }.join().bytes
+
+        expect:
+        compress(content, 1) == compress(content, 8)
+    }
+
+    def "writes each block as a separate member"() {
+        when:
+        def compressed = compress(new byte[250], 2)
+
+        then:
+        members(compressed) == 3
+    }
+
+    def "compresses no more blocks concurrently than the number of threads"() {
+        given:
+        def delegate = executorFactory.create("test")
+        def active = new AtomicInteger()
+        def maxActive = new AtomicInteger()
+        def executor = Stub(StoppableExecutor) {
+            execute(_) >> { Runnable runnable ->
+                delegate.execute {
+                    def current = active.incrementAndGet()
+                    synchronized (maxActive) {
+                        maxActive.set(Math.max(maxActive.get(), current))
+                    }
+                    Thread.sleep(5)
+                    active.decrementAndGet()
+                    runnable.run()
+                }
+            }
+        }
+        def bytes = new ByteArrayOutputStream()
+        def outputStream = new ParallelGzipOutputStream(bytes, executor, 2, 10)
+
+        when:
+        outputStream.write(new byte[200])
+        outputStream.close()
+        delegate.stop()
+
+        then:
+        maxActive.get() <= 2
+        members(bytes.toByteArray()) == 20
+    }
+
+    def "can write single bytes"() {
+        given:
+        def bytes = new ByteArrayOutputStream()
+        def outputStream = new ParallelGzipOutputStream(bytes, executorFactory.create("test"), 2, 10)
+
+        when:
+        "some content".bytes.each { outputStream.write(it) }
+        outputStream.close()
+
+        then:
+        new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())).text == "some content"
+    }
+
+    def "closes target stream"() {
+        given:
+        def target = Mock(OutputStream)
+        def outputStream = new ParallelGzipOutputStream(target, executorFactory.create("test"), 2, 10)
+
+        when:
+        outputStream.close()
+
+        then:
+        1 * target.close()
+    }
+
+    private byte[] compress(byte[] content, int maxThreads) {
+        def bytes = new ByteArrayOutputStream()
+        def outputStream = new ParallelGzipOutputStream(bytes, executorFactory.create("test"), maxThreads, 100)
+        outputStream.write(content)
+        outputStream.close()
+        return bytes.toByteArray()
+    }
+
+    private static int members(byte[] compressed) {
+        int count = 0
+        for (int i = 0; i < compressed.length - 2; i++) {
+            if (compressed[i] == (byte) 0x1f && compressed[i + 1] == (byte) 0x8b && compressed[i + 2] == (byte) 8) {
+                count++
+            }
+        }
+        return count
+    }
+}
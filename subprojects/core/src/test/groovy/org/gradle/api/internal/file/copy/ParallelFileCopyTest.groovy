@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy
+
+import org.gradle.api.Action
+import org.gradle.api.file.DuplicatesStrategy
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.reflect.DirectInstantiator
+import org.gradle.test.fixtures.file.WorkspaceTest
+
+class ParallelFileCopyTest extends WorkspaceTest {
+
+    FileCopier copier
+
+    def setup() {
+        copier = new FileCopier(new DirectInstantiator(), TestFiles.resolver(testDirectory), TestFiles.fileLookup(), new DefaultExecutorFactory(), 4)
+    }
+
+    def "copies tree of files concurrently"() {
+        given:
+        def expected = []
+        10.times { dir ->
+            20.times { index ->
+                file("src/dir$dir/file${index}.txt").text = "content $dir $index"
+                expected << "dir$dir/file${index}.txt"
+            }
+        }
+        file("src/empty").createDir()
+
+        when:
+        def result = copier.copy({
+            it.from "src"
+            it.into "dest"
+        } as Action)
+
+        then:
+        result.didWork
+        file("dest").assertHasDescendants(expected as String[])
+        file("dest/empty").assertIsDir()
+        file("dest/dir3/file7.txt").text == "content 3 7"
+    }
+
+    def "filters and renames files"() {
+        given:
+        file("src/a.txt").text = "a"
+        file("src/sub/b.txt").text = "b"
+
+        when:
+        copier.copy({
+            it.from "src"
+            it.into "dest"
+            it.filter { String line -> line.toUpperCase() }
+            it.rename "b.txt", "c.txt"
+        } as Action)
+
+        then:
+        file("dest").assertHasDescendants("a.txt", "sub/c.txt")
+        file("dest/a.txt").text.trim() == "A"
+        file("dest/sub/c.txt").text.trim() == "B"
+    }
+
+    def "last duplicate wins when duplicates are included"() {
+        given:
+        file("src1/file.txt").text = "first"
+        file("src2/file.txt").text = "second"
+
+        when:
+        copier.copy({
+            it.from "src1"
+            it.from "src2"
+            it.into "dest"
+            it.duplicatesStrategy = strategy
+        } as Action)
+
+        then:
+        file("dest/file.txt").text == content
+
+        where:
+        strategy                   | content
+        DuplicatesStrategy.INCLUDE | "second"
+        DuplicatesStrategy.EXCLUDE | "first"
+    }
+
+    def "sync removes extra files after all copies complete"() {
+        given:
+        50.times { file("src/file${it}.txt").text = "content" }
+        file("dest/extra.txt").text = "extra"
+
+        when:
+        copier.sync({
+            it.from "src"
+            it.into "dest"
+        } as Action)
+
+        then:
+        file("dest").assertHasDescendants((0..<50).collect { "file${it}.txt" } as String[])
+    }
+
+    def "copies files on the calling thread when the build does not run in parallel"() {
+        given:
+        def executorFactory = Mock(ExecutorFactory)
+        copier = new FileCopier(new DirectInstantiator(), TestFiles.resolver(testDirectory), TestFiles.fileLookup(), executorFactory, 0)
+        file("src/a.txt").text = "a"
+
+        when:
+        copier.copy({
+            it.from "src"
+            it.into "dest"
+        } as Action)
+
+        then:
+        file("dest").assertHasDescendants("a.txt")
+        0 * executorFactory._
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.pattern
+
+import org.gradle.api.file.RelativePath
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CompiledPatternSpecTest extends Specification {
+    static final PATTERNS = ["", "a", "b", "A", "a/b", "a/b/", "a\\b", "*.txt", "a/*.txt", "**", "**/", "**/b", "**/b/**", "a/**", "a/**/c",
+            "a/**/**/c", "**/a/**/b", "?", "b*", "*/b", "a/b/c", "**/*.txt", "**/.git/**", "**/.git"]
+    static final PATHS = [[], ["a"], ["b"], ["A"], ["c"], ["x.txt"], ["a", "b"], ["a", "B"], ["a", "c"], ["a", "x.txt"], ["b", "a"],
+            ["a", "b", "c"], ["a", "x", "c"], ["a", "x", "y", "c"], ["x", "a", "y", "b"], [".git"], ["a", ".git"], ["a", ".git", "b"],
+            ["bb", "b"], ["a", "b", "x.txt"]]
+
+    @Unroll
+    def "matches the same elements as pattern matchers for #description patterns"() {
+        expect:
+        [true, false].each { caseSensitive ->
+            PATTERNS.each { first ->
+                PATTERNS.each { second ->
+                    def includes = includePatterns ? [first] : []
+                    def excludes = includePatterns ? [second] : [first, second]
+                    def spec = CompiledPatternSpec.compile(includes, excludes, caseSensitive)
+                    PATHS.each { segments ->
+                        [true, false].each { isFile ->
+                            def path = new RelativePath(isFile, segments as String[])
+                            assert spec.isSatisfiedBy(path) == matches(includes, excludes, caseSensitive, path): "includes $includes excludes $excludes case sensitive $caseSensitive path $path"
+                        }
+                    }
+                }
+            }
+        }
+
+        where:
+        description | includePatterns
+        "include"   | true
+        "exclude"   | false
+    }
+
+    def "combined spec matches elements which match both specs"() {
+        expect:
+        PATTERNS.each { first ->
+            PATTERNS.each { second ->
+                def firstSpec = CompiledPatternSpec.compile([first], ["**/.git"], true)
+                def secondSpec = CompiledPatternSpec.compile([second], ["**/c"], true)
+                def spec = firstSpec.and(secondSpec)
+                PATHS.each { segments ->
+                    [true, false].each { isFile ->
+                        def path = new RelativePath(isFile, segments as String[])
+                        assert spec.isSatisfiedBy(path) == (firstSpec.isSatisfiedBy(path) && secondSpec.isSatisfiedBy(path)): "$first and $second path $path"
+                    }
+                }
+            }
+        }
+    }
+
+    def "evaluates elements incrementally"() {
+        def spec = CompiledPatternSpec.compile(["a/**/c/*.txt"], ["**/x/**"], true)
+
+        when:
+        def a = spec.enterDirectory(spec.root, "a")
+        def b = spec.enterDirectory(a, "b")
+        def c = spec.enterDirectory(b, "c")
+
+        then:
+        a != null
+        b != null
+        c != null
+        spec.isFileSatisfiedBy(c, "file.txt")
+        !spec.isFileSatisfiedBy(c, "file.java")
+        !spec.isFileSatisfiedBy(b, "file.txt")
+        spec.enterDirectory(spec.root, "b") == null
+        spec.enterDirectory(a, "x") == null
+    }
+
+    def "directory which is a prefix of an include pattern is satisfied"() {
+        def spec = CompiledPatternSpec.compile(["a/b/c.txt"], [], true)
+
+        expect:
+        spec.isSatisfiedBy(new RelativePath(false, "a"))
+        spec.isSatisfiedBy(new RelativePath(false, "a", "b"))
+        !spec.isSatisfiedBy(new RelativePath(true, "a", "b"))
+        spec.isSatisfiedBy(new RelativePath(true, "a", "b", "c.txt"))
+        !spec.isSatisfiedBy(new RelativePath(false, "a", "c"))
+    }
+
+    def "cannot combine more than 64 sets of patterns"() {
+        def spec = CompiledPatternSpec.compile(["a"], [], true)
+        (1..63).each { spec = spec.and(CompiledPatternSpec.compile(["a"], [], true)) }
+
+        expect:
+        spec != null
+        spec.and(CompiledPatternSpec.compile(["a"], [], true)) == null
+    }
+
+    boolean matches(List<String> includes, List<String> excludes, boolean caseSensitive, RelativePath path) {
+        def included = includes.empty || includes.any { PatternMatcherFactory.getPatternMatcher(true, caseSensitive, it).isSatisfiedBy(path) }
+        def excluded = excludes.any { PatternMatcherFactory.getPatternMatcher(false, caseSensitive, it).isSatisfiedBy(path) }
+        return included && !excluded
+    }
+}
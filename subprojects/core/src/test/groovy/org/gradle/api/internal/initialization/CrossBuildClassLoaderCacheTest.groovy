@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.initialization
+
+import org.gradle.internal.classloader.FilteringClassLoader
+import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.classpath.DefaultClassPath
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class CrossBuildClassLoaderCacheTest extends Specification {
+    @Rule TestNameTestDirectoryProvider testDirectoryProvider = new TestNameTestDirectoryProvider()
+    def cache = new CrossBuildClassLoaderCache()
+    def root = new URLClassLoader(new URL[0])
+
+    def setup() {
+        modify(file("c1.jar"), "c1")
+        modify(file("c2.jar"), "c2")
+    }
+
+    TestFile file(String path) {
+        testDirectoryProvider.testDirectory.file(path)
+    }
+
+    void modify(TestFile file, String text) {
+        file.text = text
+        file.lastModified = System.currentTimeMillis() - 10000
+    }
+
+    ClassPath classPath(String... paths) {
+        new DefaultClassPath(paths.collect { file(it) } as Iterable<File>)
+    }
+
+    def "class loaders are reused within a session"() {
+        def session = cache.newSession()
+
+        expect:
+        session.get(root, classPath("c1.jar"), null).is(session.get(root, classPath("c1.jar"), null))
+        !session.get(root, classPath("c1.jar"), null).is(session.get(root, classPath("c2.jar"), null))
+    }
+
+    def "class loaders are reused by later sessions when classpath has not changed"() {
+        def first = cache.newSession()
+        def loader = first.get(root, classPath("c1.jar"), null)
+        first.stop()
+
+        when:
+        def second = cache.newSession()
+
+        then:
+        second.get(root, classPath("c1.jar"), null).is(loader)
+    }
+
+    def "class loader is replaced when a file of its classpath changes"() {
+        def first = cache.newSession()
+        def loader = first.get(root, classPath("c1.jar"), null)
+        first.stop()
+
+        when:
+        modify(file("c1.jar"), "changed")
+        def second = cache.newSession()
+
+        then:
+        !second.get(root, classPath("c1.jar"), null).is(loader)
+        cache.size() == 1
+    }
+
+    def "class loader is not reused by later sessions when a file of its classpath has just been modified"() {
+        file("c1.jar").text = "changed"
+        def first = cache.newSession()
+        def loader = first.get(root, classPath("c1.jar"), null)
+        first.stop()
+
+        when:
+        def second = cache.newSession()
+
+        then:
+        !second.get(root, classPath("c1.jar"), null).is(loader)
+    }
+
+    def "session keeps using its class loader when classpath changes"() {
+        def session = cache.newSession()
+        def loader = session.get(root, classPath("c1.jar"), null)
+
+        when:
+        modify(file("c1.jar"), "changed")
+
+        then:
+        session.get(root, classPath("c1.jar"), null).is(loader)
+    }
+
+    def "filtered class loaders share the unfiltered class loader"() {
+        def session = cache.newSession()
+        def f1 = new FilteringClassLoader.Spec(["1"], [], [], [], [], [])
+        def f2 = new FilteringClassLoader.Spec(["2"], [], [], [], [], [])
+
+        expect:
+        session.get(root, classPath("c1.jar"), f1).is(session.get(root, classPath("c1.jar"), f1))
+        !session.get(root, classPath("c1.jar"), f1).is(session.get(root, classPath("c1.jar"), f2))
+        session.get(root, classPath("c1.jar"), f1).parent.is(session.get(root, classPath("c1.jar"), null))
+        cache.size() == 3
+    }
+
+    def "discards class loaders which were not used by the previous build"() {
+        def first = cache.newSession()
+        def loader = first.get(root, classPath("c1.jar"), null)
+        first.get(root, classPath("c2.jar"), null)
+        first.stop()
+
+        when:
+        def second = cache.newSession()
+        second.get(root, classPath("c2.jar"), null)
+        second.stop()
+
+        then:
+        cache.size() == 1
+
+        when:
+        def third = cache.newSession()
+
+        then:
+        !third.get(root, classPath("c1.jar"), null).is(loader)
+    }
+
+    def "does not discard class loaders while another session is active"() {
+        def active = cache.newSession()
+        active.get(root, classPath("c1.jar"), null)
+
+        when:
+        3.times {
+            def session = cache.newSession()
+            session.get(root, classPath("c2.jar"), null)
+            session.stop()
+        }
+
+        then:
+        cache.size() == 2
+
+        when:
+        active.stop()
+
+        then:
+        cache.size() == 2
+    }
+
+    def "cannot use session after it has been stopped"() {
+        def session = cache.newSession()
+        session.stop()
+
+        when:
+        session.get(root, classPath("c1.jar"), null)
+
+        then:
+        thrown(IllegalStateException)
+    }
+}
@@ -84,7 +84,7 @@ public class AnnotationProcessingTaskFactoryTest {
     private final TestFile existingDir = testDir.file("dir").createDir();
     private final File missingDir = testDir.file("missing-dir");
     private final File missingDir2 = testDir.file("missing-dir2");
-    private final AnnotationProcessingTaskFactory factory = new AnnotationProcessingTaskFactory(delegate);
+    private final AnnotationProcessingTaskFactory factory = new AnnotationProcessingTaskFactory(new DefaultTaskClassInfoStore(), delegate);
 
     @Test
     public void attachesAnActionToTaskForMethodMarkedWithTaskActionAnnotation() {
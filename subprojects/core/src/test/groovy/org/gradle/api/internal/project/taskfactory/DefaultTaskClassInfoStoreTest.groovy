@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.project.taskfactory
+
+import org.gradle.api.DefaultTask
+import org.gradle.api.GradleException
+import org.gradle.api.Task
+import org.gradle.api.tasks.TaskAction
+import spock.lang.Specification
+
+class DefaultTaskClassInfoStoreTest extends Specification {
+    def store = new DefaultTaskClassInfoStore()
+
+    def "inspects task type once"() {
+        when:
+        def info = store.getTaskClassInfo(InputFileTask)
+
+        then:
+        info.validator != null
+        info.taskActions.empty
+        !info.incremental
+        store.getTaskClassInfo(InputFileTask).is(info)
+    }
+
+    def "provides actions of task type"() {
+        when:
+        def info = store.getTaskClassInfo(TaskWithAction)
+
+        then:
+        info.validator == null
+        info.taskActions.size() == 1
+    }
+
+    def "reports invalid task type on each attempt to inspect it"() {
+        when:
+        store.getTaskClassInfo(TaskWithStaticAction)
+
+        then:
+        def e = thrown(GradleException)
+        e.message == "Cannot use @TaskAction annotation on static method TaskWithStaticAction.doStuff()."
+
+        when:
+        store.getTaskClassInfo(TaskWithStaticAction)
+
+        then:
+        thrown(GradleException)
+    }
+
+    def "keeps information about task types of class loaders used by each build"() {
+        def type = taskType()
+        def first = store.newSession()
+        def info = first.getTaskClassInfo(type)
+        first.stop()
+
+        when:
+        def second = store.newSession()
+
+        then:
+        second.getTaskClassInfo(type).is(info)
+    }
+
+    def "discards information about task types of class loaders not used by the previous build"() {
+        def type = taskType()
+        def first = store.newSession()
+        def info = first.getTaskClassInfo(type)
+        first.stop()
+
+        when:
+        def second = store.newSession()
+        second.getTaskClassInfo(TaskWithAction)
+        second.stop()
+
+        then:
+        !store.getTaskClassInfo(type).is(info)
+    }
+
+    def "does not discard information while another build is active"() {
+        def type = taskType()
+        def active = store.newSession()
+        def info = active.getTaskClassInfo(type)
+
+        when:
+        3.times {
+            def session = store.newSession()
+            session.getTaskClassInfo(TaskWithAction)
+            session.stop()
+        }
+
+        then:
+        active.getTaskClassInfo(type).is(info)
+    }
+
+    private Class<? extends Task> taskType() {
+        def classLoader = new GroovyClassLoader(getClass().classLoader)
+        return classLoader.parseClass("class SomeTask extends ${DefaultTask.name} { @${TaskAction.name} void doStuff() { } }")
+    }
+
+    static class TaskWithAction extends DefaultTask {
+        @TaskAction
+        void doStuff() {
+        }
+    }
+
+    static class TaskWithStaticAction extends DefaultTask {
+        @TaskAction
+        static void doStuff() {
+        }
+    }
+}
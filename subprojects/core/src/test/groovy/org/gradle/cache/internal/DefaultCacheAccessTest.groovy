@@ -328,16 +328,220 @@ class DefaultCacheAccessTest extends ConcurrentSpec {
         !access.owner
     }
 
-    def "use cache operation does not allow shared locks"() {
+    def "use cache operation reuses shared lock acquired on open"() {
+        Factory<String> action = Mock()
+
         given:
-        1 * lockManager.lock(lockFile, mode(Shared), "<display-name>") >> lock
+        lockManager.lock(lockFile, mode(Shared), "<display-name>") >> lock
+        lock.mode >> Shared
+        access.open(mode(Shared))
+
+        when:
+        access.useCache("some operation", action)
+
+        then:
+        1 * action.create() >> { assert access.owner == Thread.currentThread() }
+        0 * lockManager._
+        0 * lock.close()
+    }
+
+    def "writing to cache upgrades shared lock until the end of the operation"() {
+        def exclusiveLock = Mock(FileLock)
+        def sharedLock = Mock(FileLock)
+        def runnable = Mock(Runnable)
+        def state = Stub(FileLock.State)
+
+        given:
+        lockManager.lock(lockFile, mode(Shared), "<display-name>") >> lock
+        lock.mode >> Shared
+        exclusiveLock.state >> state
+        exclusiveLock.mode >> Exclusive
+        access.open(mode(Shared))
+
+        when:
+        access.useCache("some operation") {
+            access.fileAccess.writeFile(runnable)
+            access.fileAccess.writeFile(runnable)
+        }
+
+        then:
+        1 * lock.close()
+        1 * lockManager.lock(lockFile, mode(Exclusive), "<display-name>", _) >> exclusiveLock
+        1 * initializationAction.requiresInitialization(exclusiveLock) >> false
+        1 * lockManager.allowContention(exclusiveLock, _ as Runnable)
+        2 * exclusiveLock.writeFile(runnable)
+
+        then:
+        1 * exclusiveLock.close()
+
+        then:
+        1 * lockManager.lock(lockFile, mode(Shared), "<display-name>", _) >> sharedLock
+        0 * lockManager._
+
+        and:
+        access.owner == Thread.currentThread()
+    }
+
+    def "closes caches with shared lock and notifies them of exclusive lock state when upgrading shared lock"() {
+        def exclusiveLock = Mock(FileLock)
+        def sharedState = Stub(FileLock.State)
+        def exclusiveState = Stub(FileLock.State)
+        def runnable = Mock(Runnable)
+        def cache = Mock(MultiProcessSafePersistentIndexedCache)
+        def decorator = Stub(CacheDecorator) {
+            decorate(_, _, _) >> cache
+        }
+
+        given:
+        lockManager.lock(lockFile, mode(Shared), "<display-name>") >> lock
+        lock.mode >> Shared
+        lock.state >> sharedState
+        exclusiveLock.state >> exclusiveState
         access.open(mode(Shared))
+        access.newCache(new PersistentIndexedCacheParameters('cache', String.class, Integer.class).cacheDecorator(decorator))
 
         when:
-        access.useCache("some operation", Mock(Factory))
+        access.useCache("some operation") {
+            access.fileAccess.writeFile(runnable)
+        }
+
+        then:
+        1 * cache.close()
+
+        then:
+        1 * cache.onEndWork(sharedState)
+
+        then:
+        1 * lock.close()
+
+        then:
+        1 * lockManager.lock(lockFile, mode(Exclusive), "<display-name>", _) >> exclusiveLock
+
+        then:
+        1 * cache.onStartWork(_, exclusiveState)
+
+        then:
+        1 * exclusiveLock.writeFile(runnable)
+    }
+
+    def "acquires shared lock on demand for each operation and releases it at the end of the operation"() {
+        def options = mode(Shared).onDemand()
+        Factory<String> action = Mock()
+
+        when:
+        access.open(options)
+
+        then:
+        0 * _._
+
+        when:
+        access.useCache("some operation", action)
+
+        then:
+        1 * lockManager.lock(lockFile, options, "<display-name>", "some operation") >> lock
+        1 * initializationAction.requiresInitialization(lock) >> false
+        _ * lock.state
+        _ * lock.mode >> Shared
+
+        then:
+        1 * action.create() >> { assert access.owner == Thread.currentThread() }
+
+        then:
+        1 * lock.close()
+        0 * lockManager._
+
+        and:
+        !access.owner
+    }
+
+    def "releases shared lock acquired on demand during long running operation"() {
+        def options = mode(Shared).onDemand()
+        def sharedLock = Mock(FileLock)
+        Factory<String> action = Mock()
+
+        given:
+        sharedLock.mode >> Shared
+        lock.mode >> Shared
+        access.open(options)
+
+        when:
+        access.useCache("some operation") {
+            access.longRunningOperation("download", action)
+        }
+
+        then:
+        1 * lockManager.lock(lockFile, options, "<display-name>", "some operation") >> lock
+
+        then:
+        1 * lock.close()
+
+        then:
+        1 * action.create() >> { assert !access.owner }
+
+        then:
+        1 * lockManager.lock(lockFile, options, "<display-name>", "some operation") >> sharedLock
+
+        then:
+        1 * sharedLock.close()
+        0 * lockManager._
+    }
+
+    def "releases upgraded lock at the end of operation when shared lock is acquired on demand"() {
+        def options = mode(Shared).onDemand()
+        def exclusiveLock = Mock(FileLock)
+        def runnable = Mock(Runnable)
+
+        given:
+        lock.mode >> Shared
+        exclusiveLock.mode >> Exclusive
+        exclusiveLock.state >> Stub(FileLock.State)
+        access.open(options)
+
+        when:
+        access.useCache("some operation") {
+            access.fileAccess.writeFile(runnable)
+        }
+
+        then:
+        1 * lockManager.lock(lockFile, options, "<display-name>", "some operation") >> lock
+
+        then:
+        1 * lock.close()
+        1 * lockManager.lock(lockFile, options.withMode(Exclusive), "<display-name>", _) >> exclusiveLock
+        1 * lockManager.allowContention(exclusiveLock, _ as Runnable)
+        1 * exclusiveLock.writeFile(runnable)
+
+        then:
+        1 * exclusiveLock.close()
+        0 * lockManager._
+
+        and:
+        !access.owner
+    }
+
+    def "initializes cache when lock is upgraded"() {
+        def exclusiveLock = Mock(FileLock)
+        def runnable = Mock(Runnable)
+
+        given:
+        lockManager.lock(lockFile, mode(Shared), "<display-name>") >> lock
+        lock.mode >> Shared
+        exclusiveLock.state >> Stub(FileLock.State)
+        access.open(mode(Shared))
+
+        when:
+        access.useCache("some operation") {
+            access.fileAccess.writeFile(runnable)
+        }
+
+        then:
+        1 * lockManager.lock(lockFile, mode(Exclusive), "<display-name>", _) >> exclusiveLock
+        1 * initializationAction.requiresInitialization(exclusiveLock) >> true
+        1 * exclusiveLock.writeFile({ it != runnable }) >> { Runnable r -> r.run() }
+        1 * initializationAction.initialize(exclusiveLock)
 
         then:
-        thrown(UnsupportedOperationException)
+        1 * exclusiveLock.writeFile(runnable)
     }
 
     def "long running operation pushes an operation and releases ownership but not lock"() {
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.cache.internal
+
+import org.gradle.internal.Factory
+import org.gradle.internal.jvm.Jvm
+import org.gradle.process.internal.ExecHandleBuilder
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.GUtil
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import static org.gradle.cache.internal.FileLockManager.LockMode.Shared
+import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode
+import static org.gradle.messaging.serialize.BaseSerializerFactory.STRING_SERIALIZER
+
+@Timeout(60)
+class DefaultPersistentDirectoryStoreCrossProcessTest extends Specification {
+    @Rule final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def "processes can read from a cache with a shared lock at the same time"() {
+        given:
+        def cacheDir = tmpDir.file("cache")
+        def reading = tmpDir.file("reading")
+        def done = tmpDir.file("done")
+        def store = openStore(cacheDir)
+        def cache = store.createCache("entries", String, STRING_SERIALIZER)
+        store.useCache("write", { cache.put("key", "value") } as Runnable)
+
+        when:
+        def reader = new ExecHandleBuilder()
+                .executable(Jvm.current().getJavaExecutable().getAbsolutePath())
+                .workingDir(tmpDir.testDirectory)
+                .args(GUtil.flattenElements("-cp", System.getProperty("java.class.path"), SharedReader.name, cacheDir.absolutePath, reading.absolutePath, done.absolutePath))
+                .build()
+                .start()
+        waitFor(reading)
+
+        // The other process holds its shared lock until this process has read from the cache
+        def value = store.useCache("read", { cache.get("key") } as Factory)
+        done.createNewFile()
+        def result = reader.waitForFinish()
+
+        then:
+        value == "value"
+        result.exitValue == 0
+
+        cleanup:
+        store.close()
+    }
+
+    static void waitFor(File file) {
+        long timeout = System.currentTimeMillis() + 20000
+        while (!file.exists()) {
+            if (System.currentTimeMillis() > timeout) {
+                throw new AssertionError("Timeout waiting for $file")
+            }
+            Thread.sleep(50)
+        }
+    }
+
+    static DefaultPersistentDirectoryStore openStore(File cacheDir) {
+        new DefaultPersistentDirectoryStore(cacheDir, "test cache", mode(Shared).onDemand(), DefaultFileLockManagerTestHelper.createDefaultFileLockManager()).open()
+    }
+
+    public static class SharedReader {
+        public static void main(String[] args) {
+            def reading = new File(args[1])
+            def done = new File(args[2])
+            def store = openStore(new File(args[0]))
+            def value
+            try {
+                def cache = store.createCache("entries", String, STRING_SERIALIZER)
+                value = store.useCache("read", {
+                    def result = cache.get("key")
+                    reading.createNewFile()
+                    waitFor(done)
+                    result
+                } as Factory)
+            } finally {
+                store.close()
+            }
+            System.exit(value == "value" ? 0 : 1)
+        }
+    }
+}
@@ -25,7 +25,7 @@ import static org.gradle.test.fixtures.ConcurrentTestUtil.poll
 class FileLockCommunicatorTest extends ConcurrentSpecification {
 
     def communicator = new FileLockCommunicator(new InetAddressFactory())
-    Long receivedId
+    FileLockCommunicator.Message received
 
     def cleanup() {
         communicator.stop()
@@ -46,11 +46,11 @@ class FileLockCommunicatorTest extends ConcurrentSpecification {
 
     def "can receive lock id"() {
         start {
-            receivedId = communicator.receive()
+            received = communicator.receive()
         }
 
         poll {
-            assert communicator.getPort() != -1 && receivedId == null
+            assert communicator.getPort() != -1 && received == null
         }
 
         when:
@@ -58,8 +58,59 @@ class FileLockCommunicatorTest extends ConcurrentSpecification {
 
         then:
         poll {
-            assert receivedId == 155
+            assert received?.lockId == 155
         }
+        received.type == FileLockCommunicator.MessageType.PING
+        received.sender instanceof InetSocketAddress
+        received.sender.port == communicator.port
+    }
+
+    def "can receive acknowledgement and release notification"() {
+        def waiter = new FileLockCommunicator(new InetAddressFactory())
+        def messages = []
+
+        start {
+            2.times { messages << waiter.receive() }
+        }
+
+        when:
+        communicator.acknowledge(new InetSocketAddress(InetAddress.getByName(null), waiter.port), 155)
+        communicator.notifyReleased(new InetSocketAddress(InetAddress.getByName(null), waiter.port), 155)
+
+        then:
+        poll {
+            assert messages.size() == 2
+        }
+        messages*.lockId == [155L, 155L]
+        messages*.type == [FileLockCommunicator.MessageType.ACKNOWLEDGED, FileLockCommunicator.MessageType.RELEASED]
+
+        cleanup:
+        waiter.stop()
+    }
+
+    def "can receive ping from older version"() {
+        def socket = new DatagramSocket()
+
+        start {
+            received = communicator.receive()
+        }
+
+        when:
+        def bytes = new ByteArrayOutputStream()
+        def output = new DataOutputStream(bytes)
+        output.writeByte(1)
+        output.writeLong(155)
+        output.flush()
+        socket.send(new DatagramPacket(bytes.toByteArray(), bytes.size(), InetAddress.getByName(null), communicator.port))
+
+        then:
+        poll {
+            assert received?.lockId == 155
+        }
+        received.type == FileLockCommunicator.MessageType.LEGACY_PING
+
+        cleanup:
+        socket.close()
     }
 
     def "may not receive after the stop"() {
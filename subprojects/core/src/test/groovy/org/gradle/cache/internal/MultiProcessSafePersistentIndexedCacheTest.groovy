@@ -17,21 +17,58 @@ package org.gradle.cache.internal
 
 import org.gradle.internal.Factory
 import org.gradle.cache.internal.btree.BTreePersistentIndexedCache
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
 import spock.lang.Specification
 
 class MultiProcessSafePersistentIndexedCacheTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir
     final FileAccess fileAccess = Mock()
     final Factory<BTreePersistentIndexedCache<String, String>> factory = Mock()
-    final cache = new DefaultMultiProcessSafePersistentIndexedCache<String, String>(factory, fileAccess)
+    def cacheFile
+    def cache
     final BTreePersistentIndexedCache<String, String> backingCache = Mock()
-    
-    def "opens cache on first access"() {
+
+    def setup() {
+        cacheFile = tmpDir.file("cache.bin")
+        cache = new DefaultMultiProcessSafePersistentIndexedCache<String, String>(cacheFile, factory, fileAccess)
+    }
+
+    def "opens cache with read lock on first read"() {
+        given:
+        cacheFile.text = "content"
+
         when:
         cache.get("value")
 
+        then:
+        1 * fileAccess.readFile(!null) >> { Factory action -> action.create() }
+        1 * factory.create() >> backingCache
+        1 * backingCache.get("value")
+        0 * _._
+    }
+
+    def "does not open cache on read when cache file does not exist"() {
+        when:
+        def result = cache.get("value")
+
+        then:
+        result == null
+
+        and:
+        1 * fileAccess.readFile(!null) >> { Factory action -> action.create() }
+        0 * _._
+    }
+
+    def "opens cache with write lock on first write"() {
+        when:
+        cache.put("key", "value")
+
         then:
         1 * fileAccess.writeFile(!null) >> { Runnable action -> action.run() }
         1 * factory.create() >> backingCache
+        1 * backingCache.put("key", "value")
+        0 * _._
     }
 
     def "holds read lock while getting entry from cache"() {
@@ -50,6 +87,22 @@ class MultiProcessSafePersistentIndexedCacheTest extends Specification {
         0 * _._
     }
 
+    def "holds read lock while closing cache that has only been read"() {
+        given:
+        cacheFile.text = "content"
+        1 * fileAccess.readFile(!null) >> { Factory action -> action.create() }
+        1 * factory.create() >> backingCache
+        cache.get("something")
+
+        when:
+        cache.close()
+
+        then:
+        1 * fileAccess.readFile(!null) >> { Factory action -> action.create() }
+        1 * backingCache.close()
+        0 * _._
+    }
+
     def "holds write lock while putting entry into cache"() {
         given:
         cacheOpened()
@@ -131,7 +184,8 @@ class MultiProcessSafePersistentIndexedCacheTest extends Specification {
     def cacheOpened() {
         1 * fileAccess.writeFile(!null) >> { Runnable action -> action.run() }
         1 * factory.create() >> backingCache
-        
-        cache.get("something")
+        1 * backingCache.put("something", "value")
+
+        cache.put("something", "value")
     }
 }
@@ -53,6 +53,59 @@ class DefaultFileLockContentionHandlerTest extends ConcurrentSpecification {
         }
     }
 
+    def "notifies process waiting for lock when the lock is released"() {
+        def contended = new AtomicBoolean()
+        int port = handler.reservePort()
+        handler.start(10, { contended.set(true) })
+        def released = new AtomicBoolean()
+
+        when:
+        client.pingOwner(port, 10, "lock 1")
+        start {
+            released.set(client.waitForRelease(10, 20000))
+        }
+        poll {
+            assert contended.get()
+        }
+        handler.stop(10)
+        handler.released(10)
+
+        then:
+        poll {
+            assert released.get()
+        }
+    }
+
+    def "stops waiting when the owner does not acknowledge the ping"() {
+        int port = handler.reservePort()
+
+        when:
+        client.pingOwner(port, 10, "lock 1")
+        def startTime = System.currentTimeMillis()
+        def released = client.waitForRelease(10, 20000)
+
+        then:
+        !released
+        System.currentTimeMillis() - startTime < 10000
+    }
+
+    def "waits until timeout when the lock is not released"() {
+        int port = handler.reservePort()
+        handler.start(10, {} as Runnable)
+
+        when:
+        client.pingOwner(port, 10, "lock 1")
+        def released = client.waitForRelease(10, 500)
+
+        then:
+        !released
+    }
+
+    def "does not wait for lock which has not been pinged"() {
+        expect:
+        !client.waitForRelease(10, 20000)
+    }
+
     def "there is only one executor thread"() {
         def factory = Mock(ExecutorFactory)
         handler = new DefaultFileLockContentionHandler(factory, addressFactory)
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.configuration
+
+package org.gradle.configuration
+
+import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.groovy.scripts.ScriptSource
+import org.gradle.internal.resource.Resource
+import spock.lang.Specification
+
+class DecoupledProjectSpecTest extends Specification {
+    def project = Stub(ProjectInternal)
+    def gradle = Stub(GradleInternal)
+    def resource = Stub(Resource)
+    def spec = new DecoupledProjectSpec()
+
+    def setup() {
+        project.gradle >> gradle
+        project.buildScriptSource >> Stub(ScriptSource) {
+            getResource() >> resource
+        }
+    }
+
+    def "project without build script is decoupled"() {
+        resource.exists >> false
+
+        expect:
+        spec.isSatisfiedBy(project)
+    }
+
+    def "project whose build script refers only to itself is decoupled"() {
+        resource.exists >> true
+        resource.text >> """
+apply plugin: 'java'
+dependencies { compile project(':util') }
+task copy(dependsOn: ':util:jar')
+"""
+
+        expect:
+        spec.isSatisfiedBy(project)
+    }
+
+    def "project whose build script refers to other projects is not decoupled"() {
+        resource.exists >> true
+        resource.text >> script
+
+        expect:
+        !spec.isSatisfiedBy(project)
+
+        where:
+        script << [
+                "version = rootProject.version",
+                "version = parent.version",
+                "gradle.taskGraph.whenReady { }",
+                "project(':util').apply plugin: 'java'",
+                "project(':util') { apply plugin: 'java' }",
+                "apply from: 'other.gradle'"
+        ]
+    }
+
+    def "project with evaluation listeners is not decoupled"() {
+        resource.exists >> false
+        project.hasEvaluationListeners() >> true
+
+        expect:
+        !spec.isSatisfiedBy(project)
+    }
+
+    def "project is not decoupled when build has project evaluation listeners"() {
+        resource.exists >> false
+        gradle.hasProjectEvaluationListeners() >> true
+
+        expect:
+        !spec.isSatisfiedBy(project)
+    }
+}
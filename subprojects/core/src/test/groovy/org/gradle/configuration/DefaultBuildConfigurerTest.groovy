@@ -19,7 +19,9 @@ import org.gradle.StartParameter
 import org.gradle.api.BuildCancelledException
 import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.specs.Spec
 import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import spock.lang.Specification
 
 class DefaultBuildConfigurerTest extends Specification {
@@ -27,11 +29,13 @@ class DefaultBuildConfigurerTest extends Specification {
     private gradle = Mock(GradleInternal)
     private rootProject = Mock(ProjectInternal)
     private cancellationToken = Mock(BuildCancellationToken)
-    private configurer = new DefaultBuildConfigurer(cancellationToken)
+    private decoupledProjects = Mock(Spec)
+    private configurer = new DefaultBuildConfigurer(cancellationToken, new DefaultExecutorFactory(), decoupledProjects)
 
     def setup() {
         gradle.startParameter >> startParameter
         gradle.rootProject >> rootProject
+        _ * decoupledProjects.isSatisfiedBy(_) >> true
     }
 
     def "configures build for standard mode"() {
@@ -50,6 +54,123 @@ class DefaultBuildConfigurerTest extends Specification {
         1 * child2.evaluate()
     }
 
+    def "configures build for parallel mode"() {
+        def parent = Mock(ProjectInternal)
+        def child1 = Mock(ProjectInternal)
+        def child2 = Mock(ProjectInternal)
+        def child3 = Mock(ProjectInternal)
+
+        given:
+        startParameter.isParallelProjectConfiguration() >> true
+        startParameter.parallelThreadCount >> 2
+        _ * rootProject.allprojects >> [rootProject, parent, child1, child2, child3]
+        _ * rootProject.childProjects >> [parent: parent, child3: child3]
+        _ * parent.childProjects >> [child1: child1, child2: child2]
+        _ * child1.childProjects >> [:]
+        _ * child2.childProjects >> [:]
+        _ * child3.childProjects >> [:]
+
+        when:
+        configurer.configure(gradle)
+
+        then:
+        1 * rootProject.evaluate()
+
+        then:
+        1 * parent.evaluate()
+
+        then:
+        1 * child1.evaluate()
+        1 * child2.evaluate()
+        1 * child3.evaluate()
+    }
+
+    def "configures build sequentially in parallel mode when some project is not decoupled"() {
+        def child1 = Mock(ProjectInternal)
+        def child2 = Mock(ProjectInternal)
+        def decoupledProjects = Mock(Spec)
+        def configurer = new DefaultBuildConfigurer(cancellationToken, new DefaultExecutorFactory(), decoupledProjects)
+
+        given:
+        startParameter.isParallelProjectConfiguration() >> true
+        startParameter.parallelThreadCount >> 2
+        _ * rootProject.allprojects >> [rootProject, child1, child2]
+        _ * rootProject.childProjects >> [child1: child1, child2: child2]
+        _ * child1.childProjects >> [:]
+        _ * child2.childProjects >> [:]
+        _ * decoupledProjects.isSatisfiedBy(child1) >> true
+        _ * decoupledProjects.isSatisfiedBy(child2) >> false
+
+        when:
+        configurer.configure(gradle)
+
+        then:
+        1 * rootProject.evaluate()
+
+        then:
+        1 * child1.evaluate()
+
+        then:
+        1 * child2.evaluate()
+    }
+
+    def "evaluates projects up to the last project with child projects sequentially in parallel mode"() {
+        def leaf = Mock(ProjectInternal)
+        def parent = Mock(ProjectInternal)
+        def child = Mock(ProjectInternal)
+
+        given:
+        startParameter.isParallelProjectConfiguration() >> true
+        startParameter.parallelThreadCount >> 2
+        _ * rootProject.allprojects >> [rootProject, leaf, parent, child]
+        _ * rootProject.childProjects >> [leaf: leaf, parent: parent]
+        _ * leaf.childProjects >> [:]
+        _ * parent.childProjects >> [child: child]
+        _ * child.childProjects >> [:]
+
+        when:
+        configurer.configure(gradle)
+
+        then:
+        1 * rootProject.evaluate()
+
+        then:
+        1 * leaf.evaluate()
+
+        then:
+        1 * parent.evaluate()
+
+        then:
+        1 * child.evaluate()
+    }
+
+    def "stops configuring projects in parallel mode when a project fails"() {
+        def child1 = Mock(ProjectInternal)
+        def child2 = Mock(ProjectInternal)
+        def child3 = Mock(ProjectInternal)
+        def failure = new RuntimeException("broken")
+
+        given:
+        startParameter.isParallelProjectConfiguration() >> true
+        startParameter.parallelThreadCount >> 1
+        _ * rootProject.allprojects >> [rootProject, child1, child2, child3]
+        _ * rootProject.childProjects >> [child1: child1, child2: child2, child3: child3]
+        _ * child1.childProjects >> [:]
+        _ * child2.childProjects >> [:]
+        _ * child3.childProjects >> [:]
+
+        when:
+        configurer.configure(gradle)
+
+        then:
+        1 * rootProject.evaluate()
+        1 * child1.evaluate() >> { throw failure }
+        0 * child2.evaluate()
+        0 * child3.evaluate()
+        RuntimeException e = thrown()
+        e == failure
+    }
+
     def "configures build for on demand mode"() {
         when:
         configurer.configure(gradle)
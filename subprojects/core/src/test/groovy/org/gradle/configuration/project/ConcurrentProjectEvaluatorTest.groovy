@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration.project
+
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectStateInternal
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+class ConcurrentProjectEvaluatorTest extends ConcurrentSpec {
+    def project1 = Stub(ProjectInternal)
+    def project2 = Stub(ProjectInternal)
+    def state1 = new ProjectStateInternal()
+    def state2 = new ProjectStateInternal()
+    def actions = [:]
+    def delegate = new ProjectEvaluator() {
+        void evaluate(ProjectInternal project, ProjectStateInternal state) {
+            if (state.executed || state.executing) {
+                return
+            }
+            state.executing = true
+            try {
+                actions[project]?.call()
+            } finally {
+                state.executing = false
+                state.executed()
+            }
+        }
+    }
+    def evaluator = new ConcurrentProjectEvaluator(delegate)
+
+    def "evaluates project"() {
+        def action = Mock(Runnable)
+        actions[project1] = action
+
+        when:
+        evaluator.evaluate(project1, state1)
+
+        then:
+        1 * action.run()
+        state1.executed
+    }
+
+    def "does not evaluate a project that has already been evaluated"() {
+        def action = Mock(Runnable)
+        actions[project1] = action
+
+        when:
+        evaluator.evaluate(project1, state1)
+        evaluator.evaluate(project1, state1)
+
+        then:
+        1 * action.run()
+    }
+
+    def "evaluates different projects concurrently"() {
+        actions[project1] = {
+            instant.project1Started
+            thread.blockUntil.project2Started
+        }
+        actions[project2] = {
+            instant.project2Started
+            thread.blockUntil.project1Started
+        }
+
+        when:
+        async {
+            start { evaluator.evaluate(project1, state1) }
+            start { evaluator.evaluate(project2, state2) }
+        }
+
+        then:
+        state1.executed
+        state2.executed
+    }
+
+    def "waits for a project that is being evaluated by another thread"() {
+        actions[project1] = {
+            instant.project1Started
+            thread.block()
+            instant.project1Done
+        }
+
+        when:
+        async {
+            start { evaluator.evaluate(project1, state1) }
+            thread.blockUntil.project1Started
+            evaluator.evaluate(project1, state1)
+            instant.requestDone
+        }
+
+        then:
+        instant.requestDone > instant.project1Done
+    }
+
+    def "does not deadlock when projects that are being evaluated by different threads depend on each other"() {
+        actions[project1] = {
+            instant.project1Started
+            thread.blockUntil.project2Started
+            evaluator.evaluate(project2, state2)
+        }
+        actions[project2] = {
+            instant.project2Started
+            thread.blockUntil.project1Started
+            thread.block()
+            evaluator.evaluate(project1, state1)
+        }
+
+        when:
+        async {
+            start { evaluator.evaluate(project1, state1) }
+            start { evaluator.evaluate(project2, state2) }
+        }
+
+        then:
+        state1.executed
+        state2.executed
+    }
+}
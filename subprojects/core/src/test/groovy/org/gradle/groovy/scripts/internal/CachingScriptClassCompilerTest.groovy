@@ -22,6 +22,8 @@ import org.gradle.groovy.scripts.Transformer
 import org.gradle.groovy.scripts.Script
 import org.gradle.groovy.scripts.TestScript
 
+import java.util.concurrent.CopyOnWriteArrayList
+
 class CachingScriptClassCompilerTest extends Specification {
     private final ScriptClassCompiler target = Mock()
     private final CachingScriptClassCompiler compiler = new CachingScriptClassCompiler(target)
@@ -106,6 +108,27 @@ class CachingScriptClassCompilerTest extends Specification {
         1 * target.compile(script2, parentClassLoader, transformer, TestScript.class, verifier) >> TestScript.class
     }
 
+    def "compiles a script class once when requested concurrently"() {
+        ScriptSource script = scriptSource('script')
+        ClassLoader parentClassLoader = Mock()
+        Transformer transformer = transformer()
+        def results = new CopyOnWriteArrayList()
+
+        when:
+        def threads = (1..5).collect {
+            Thread.start {
+                results << compiler.compile(script, parentClassLoader, transformer, Script.class, verifier)
+            }
+        }
+        threads*.join()
+
+        then:
+        results.size() == 5
+        results.every { it == Script.class }
+        1 * target.compile(script, parentClassLoader, transformer, Script.class, verifier) >> { Thread.sleep(100); Script.class }
+        0 * target._
+    }
+
     def scriptSource(String className = 'script') {
         ScriptSource script = Mock()
         _ * script.className >> className
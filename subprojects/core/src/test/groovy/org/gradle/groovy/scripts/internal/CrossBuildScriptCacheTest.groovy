@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.groovy.scripts.internal
+
+import org.gradle.groovy.scripts.ScriptSource
+import org.gradle.internal.hash.HashUtil
+import org.gradle.internal.resource.Resource
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class CrossBuildScriptCacheTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final cache = new CrossBuildScriptCache()
+    final Resource resource = Mock()
+    final ScriptSource source = Stub() {
+        getResource() >> resource
+    }
+
+    def "hashes content of script without a backing file every time"() {
+        when:
+        def hash1 = cache.hash(source)
+        def hash2 = cache.hash(source)
+
+        then:
+        hash1 == HashUtil.createCompactMD5("content")
+        hash2 == hash1
+        _ * resource.file >> null
+        2 * resource.text >> "content"
+    }
+
+    def "reuses hash of unchanged script file"() {
+        def file = tmpDir.file("build.gradle")
+        file.text = "content"
+        file.lastModified = System.currentTimeMillis() - 10000
+        _ * resource.file >> file
+
+        when:
+        def hash1 = cache.hash(source)
+        def hash2 = cache.hash(source)
+
+        then:
+        hash1 == HashUtil.createCompactMD5("content")
+        hash2 == hash1
+        1 * resource.text >> file.text
+    }
+
+    def "rehashes script file when it has changed"() {
+        def file = tmpDir.file("build.gradle")
+        file.text = "content"
+        file.lastModified = System.currentTimeMillis() - 10000
+        _ * resource.file >> file
+        _ * resource.text >> { file.text }
+
+        when:
+        def hash1 = cache.hash(source)
+        file.text = "changed content"
+        file.lastModified = System.currentTimeMillis() - 5000
+        def hash2 = cache.hash(source)
+
+        then:
+        hash1 == HashUtil.createCompactMD5("content")
+        hash2 == HashUtil.createCompactMD5("changed content")
+    }
+
+    def "does not reuse hash of recently modified script file"() {
+        def file = tmpDir.file("build.gradle")
+        file.text = "content"
+        _ * resource.file >> file
+
+        when:
+        cache.hash(source)
+        cache.hash(source)
+
+        then:
+        2 * resource.text >> file.text
+    }
+
+    def "reuses loaded class for same parent ClassLoader and classes directory"() {
+        def parent = new URLClassLoader(new URL[0])
+        def classesDir = tmpDir.file("classes")
+        cache.putLoadedClass(parent, classesDir, "Script", String)
+
+        expect:
+        cache.getLoadedClass(parent, classesDir, "Script") == String
+        cache.getLoadedClass(new URLClassLoader(new URL[0]), classesDir, "Script") == null
+        cache.getLoadedClass(parent, tmpDir.file("other"), "Script") == null
+
+        when:
+        cache.discardLoadedClasses(classesDir)
+
+        then:
+        cache.getLoadedClass(parent, classesDir, "Script") == null
+    }
+}
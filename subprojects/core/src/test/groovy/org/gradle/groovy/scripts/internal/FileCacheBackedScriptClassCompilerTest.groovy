@@ -22,14 +22,21 @@ import org.gradle.cache.CacheBuilder
 import org.gradle.cache.CacheRepository
 import org.gradle.cache.CacheValidator
 import org.gradle.cache.PersistentCache
+import org.gradle.cache.internal.FileLockManager
 import org.gradle.groovy.scripts.Script
 import org.gradle.groovy.scripts.ScriptSource
 import org.gradle.groovy.scripts.Transformer
+import org.gradle.internal.Factory
+import org.gradle.internal.hash.HashUtil
 import org.gradle.logging.ProgressLogger
 import org.gradle.logging.ProgressLoggerFactory
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
 import spock.lang.Specification
 
 class FileCacheBackedScriptClassCompilerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
     final ScriptCompilationHandler scriptCompilationHandler = Mock()
     final CacheRepository cacheRepository = Mock()
     final CacheBuilder cacheBuilder = Mock()
@@ -38,78 +45,204 @@ class FileCacheBackedScriptClassCompilerTest extends Specification {
     final ScriptSource source = Mock()
     final ClassLoader classLoader = Mock()
     final Transformer transformer = Mock()
-    final File cacheDir = new File("base-dir")
-    final FileCacheBackedScriptClassCompiler compiler = new FileCacheBackedScriptClassCompiler(cacheRepository, validator, scriptCompilationHandler, Stub(ProgressLoggerFactory))
+    final CrossBuildScriptCache crossBuildCache = new CrossBuildScriptCache()
+    final FileCacheBackedScriptClassCompiler compiler = new FileCacheBackedScriptClassCompiler(cacheRepository, validator, scriptCompilationHandler, Stub(ProgressLoggerFactory), crossBuildCache)
     private Verifier verifier = new Verifier()
+    File cacheDir
+    File classesDir
 
     def setup() {
         Resource resource = Mock()
+        cacheDir = tmpDir.createDir("scripts")
+        classesDir = new File(cacheDir, "${HashUtil.createCompactMD5('this is the script')}/ScriptClassName/Script/TransformerId/classes")
         _ * source.resource >> resource
         _ * resource.text >> 'this is the script'
         _ * source.className >> 'ScriptClassName'
         _ * source.fileName >> 'ScriptFileName'
         _ * transformer.id >> 'TransformerId'
         _ * cache.baseDir >> cacheDir
+        _ * cache.useCache(_, _) >> { String name, Factory action -> action.create() }
+        _ * cache.writeToCache(_) >> { Factory action -> action.create() }
+        _ * cacheRepository.cache("scripts") >> cacheBuilder
+        _ * cacheBuilder.withDisplayName(!null) >> cacheBuilder
+        _ * cacheBuilder.withLockOptions(!null) >> cacheBuilder
+        _ * cacheBuilder.open() >> cache
+    }
+
+    def "compiles classes to cache directory when not already compiled"() {
         _ * validator.isValid() >> true
+
+        when:
+        def result = compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        then:
+        result == Script
+        1 * scriptCompilationHandler.compileToDir(source, classLoader, classesDir, transformer, Script, verifier)
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
+        0 * scriptCompilationHandler._
     }
 
-    def "loads classes from cache directory"() {
+    def "loads classes from cache directory when already compiled"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+
         when:
         def result = compiler.compile(source, classLoader, transformer, Script, verifier)
 
         then:
         result == Script
-        1 * cacheRepository.cache("scripts/ScriptClassName/Script/TransformerId") >> cacheBuilder
-        1 * cacheBuilder.withProperties(!null) >> { args ->
-            assert args[0].get('source.filename') == 'ScriptFileName'
-            assert args[0].containsKey('source.hash')
-            return cacheBuilder
-        }
-        1 * cacheBuilder.withInitializer(!null) >> cacheBuilder
-        1 * cacheBuilder.withDisplayName(!null) >> cacheBuilder
-        1 * cacheBuilder.withValidator(!null) >> cacheBuilder
-        1 * cacheBuilder.open() >> cache
-        1 * scriptCompilationHandler.loadFromDir(source, classLoader, new File(cacheDir, "classes"), Script) >> Script
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
         0 * scriptCompilationHandler._
     }
 
-    def "passes CacheValidator to cacheBuilder"() {
-        setup:
-        cacheRepository.cache("scripts/ScriptClassName/Script/TransformerId") >> cacheBuilder
-        cacheBuilder.withProperties(!null) >> cacheBuilder
-        cacheBuilder.withInitializer(!null) >> cacheBuilder
-        cacheBuilder.withDisplayName(!null) >> cacheBuilder
-        cacheBuilder.open() >> cache
-        scriptCompilationHandler.loadFromDir(source, classLoader, new File(cacheDir, "classes"), Script) >> Script
+    def "holds the cache lock while loading classes"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+        def locked = false
+
+        when:
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        then:
+        1 * cache.useCache(_, _) >> { String name, Factory action ->
+            locked = true
+            try {
+                return action.create()
+            } finally {
+                locked = false
+            }
+        }
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> {
+            assert locked
+            return Script
+        }
+    }
+
+    def "compiles classes while holding the exclusive cache lock"() {
+        _ * validator.isValid() >> true
+        def exclusive = false
 
         when:
         compiler.compile(source, classLoader, transformer, Script, verifier)
 
         then:
-        1 * cacheBuilder.withValidator(validator) >> cacheBuilder
+        1 * cache.writeToCache(_) >> { Factory action ->
+            exclusive = true
+            try {
+                return action.create()
+            } finally {
+                exclusive = false
+            }
+        }
+        1 * scriptCompilationHandler.compileToDir(source, classLoader, classesDir, transformer, Script, verifier) >> {
+            assert exclusive
+        }
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
+    }
+
+    def "does not take the exclusive cache lock when already compiled"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+
+        when:
+        compiler.compile(source, classLoader, transformer, Script, verifier)
 
+        then:
+        0 * cache.writeToCache(_)
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
+    }
+
+    def "does not compile classes which another process compiled while waiting for the exclusive cache lock"() {
+        _ * validator.isValid() >> true
+
+        when:
+        def result = compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        then:
+        1 * cache.writeToCache(_) >> { Factory action ->
+            markCompiled()
+            return action.create()
+        }
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
+        0 * scriptCompilationHandler._
 
+        and:
+        result == Script
     }
 
-    def "compiles classes to cache directory when cache is invalid"() {
-        def initializer
+    def "does not lock the cache when reusing a loaded class"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+        _ * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
+        compiler.compile(source, classLoader, transformer, Script, verifier)
 
         when:
         def result = compiler.compile(source, classLoader, transformer, Script, verifier)
 
         then:
         result == Script
-        1 * cacheRepository.cache("scripts/ScriptClassName/Script/TransformerId") >> cacheBuilder
-        1 * cacheBuilder.withProperties(!null) >> cacheBuilder
-        1 * cacheBuilder.withDisplayName(!null) >> cacheBuilder
-        1 * cacheBuilder.withValidator(!null) >> cacheBuilder
-        1 * cacheBuilder.withInitializer(!null) >> {args -> initializer = args[0]; return cacheBuilder}
-        1 * cacheBuilder.open() >> {initializer.execute(cache); return cache}
-        1 * scriptCompilationHandler.compileToDir(source, classLoader, new File(cacheDir, "classes"), transformer, Script, verifier)
-        1 * scriptCompilationHandler.loadFromDir(source, classLoader, new File(cacheDir, "classes"), Script) >> Script
+        0 * cache.useCache(_, _)
+        0 * scriptCompilationHandler._
+    }
+
+    def "opens the cache once for all scripts"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+
+        when:
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+        compiler.compile(source, Mock(ClassLoader), transformer, Script, verifier)
+
+        then:
+        1 * cacheBuilder.withLockOptions({ it.mode == FileLockManager.LockMode.Shared && it.onDemand }) >> cacheBuilder
+        1 * cacheBuilder.open() >> cache
+        2 * scriptCompilationHandler.loadFromDir(source, _, classesDir, Script) >> Script
+    }
+
+    def "reuses loaded class across builds when script and parent ClassLoader are unchanged"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+
+        when:
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+        def result = new FileCacheBackedScriptClassCompiler(cacheRepository, validator, scriptCompilationHandler, Stub(ProgressLoggerFactory), crossBuildCache).compile(source, classLoader, transformer, Script, verifier)
+
+        then:
+        result == Script
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
+        0 * scriptCompilationHandler._
+    }
+
+    def "recompiles classes once per build when cache is invalid"() {
+        _ * validator.isValid() >> false
+        markCompiled()
+
+        when:
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        then:
+        1 * scriptCompilationHandler.compileToDir(source, classLoader, classesDir, transformer, Script, verifier)
+        1 * scriptCompilationHandler.loadFromDir(source, classLoader, classesDir, Script) >> Script
         0 * scriptCompilationHandler._
     }
 
+    def "closes cache on close"() {
+        _ * validator.isValid() >> true
+        markCompiled()
+        compiler.compile(source, classLoader, transformer, Script, verifier)
+
+        when:
+        compiler.close()
+
+        then:
+        1 * cache.close()
+    }
+
+    private void markCompiled() {
+        new TestFile(classesDir.parentFile, "compiled.bin").touch()
+    }
+
     def "reports compilation progress even in case of a failure"() {
         def factory = Mock(ProgressLoggerFactory)
         def delegate = Mock(Action)
@@ -23,6 +23,7 @@ import org.gradle.cache.CacheRepository
 import org.gradle.cache.PersistentCache
 import org.gradle.initialization.GradleLauncherFactory
 import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.hash.HashValue
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
@@ -35,9 +36,11 @@ class BuildSourceBuilderTest extends Specification {
     BuildCancellationToken cancellationToken = Mock()
     ClassLoaderScope classLoaderScope = Mock()
     CacheRepository cacheRepository = Mock()
-    BuildSourceBuilder buildSourceBuilder = Spy(BuildSourceBuilder, constructorArgs: [launcherFactory, cancellationToken, classLoaderScope,  cacheRepository])
+    InMemoryBuildSrcClasspathCache classpathCache = Mock()
+    BuildSourceBuilder buildSourceBuilder = Spy(BuildSourceBuilder, constructorArgs: [launcherFactory, cancellationToken, classLoaderScope,  cacheRepository, classpathCache])
 
     StartParameter parameter = new StartParameter()
+    HashValue inputs = HashValue.parse("1234")
 
     void "creates classpath when build src does not exist"() {
         when:
@@ -50,14 +53,55 @@ class BuildSourceBuilderTest extends Specification {
         def cache = Mock(PersistentCache)
         def classpath = Mock(ClassPath)
         def launcher = Mock(GradleLauncher)
+        def updateFactory = Mock(BuildSrcUpdateFactory)
         launcherFactory.newInstance(_, cancellationToken) >> launcher
         buildSourceBuilder.createCache(parameter) >> cache
-        cache.useCache(_ as String, _ as BuildSrcUpdateFactory) >> classpath
+        buildSourceBuilder.createUpdateFactory(cache, launcher) >> updateFactory
+        updateFactory.isClasspathReusable() >> true
+        cache.useCache(_ as String, updateFactory) >> classpath
 
         when:
         parameter.setCurrentDir(tmpDir.createDir("someDir"));
 
         then:
         buildSourceBuilder.createBuildSourceClasspath(parameter) == classpath
+        1 * classpathCache.fingerprintInputs(parameter.currentDir, parameter) >> inputs
+        1 * classpathCache.put(parameter.currentDir, parameter, inputs, classpath)
+    }
+
+    void "does not remember classpath when build src uses changing dependencies"() {
+        def cache = Mock(PersistentCache)
+        def classpath = Mock(ClassPath)
+        def launcher = Mock(GradleLauncher)
+        def updateFactory = Mock(BuildSrcUpdateFactory)
+        launcherFactory.newInstance(_, cancellationToken) >> launcher
+        buildSourceBuilder.createCache(parameter) >> cache
+        buildSourceBuilder.createUpdateFactory(cache, launcher) >> updateFactory
+        updateFactory.isClasspathReusable() >> false
+        cache.useCache(_ as String, updateFactory) >> classpath
+
+        when:
+        parameter.setCurrentDir(tmpDir.createDir("someDir"));
+
+        then:
+        buildSourceBuilder.createBuildSourceClasspath(parameter) == classpath
+        0 * classpathCache.put(_, _, _, _)
+    }
+
+    void "reuses classpath when build src has not changed"() {
+        def classpath = Mock(ClassPath)
+
+        given:
+        parameter.setCurrentDir(tmpDir.createDir("someDir"));
+        classpathCache.fingerprintInputs(parameter.currentDir, parameter) >> inputs
+        classpathCache.get(parameter.currentDir, inputs) >> classpath
+
+        when:
+        def result = buildSourceBuilder.createBuildSourceClasspath(parameter)
+
+        then:
+        result == classpath
+        0 * launcherFactory._
+        0 * cacheRepository._
     }
 }
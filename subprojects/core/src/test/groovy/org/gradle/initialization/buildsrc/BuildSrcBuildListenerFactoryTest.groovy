@@ -17,6 +17,12 @@
 package org.gradle.initialization.buildsrc
 
 import spock.lang.Specification
+import spock.lang.Unroll
+import org.gradle.api.artifacts.Configuration
+import org.gradle.api.artifacts.ConfigurationContainer
+import org.gradle.api.artifacts.DependencySet
+import org.gradle.api.artifacts.ExternalModuleDependency
+import org.gradle.api.initialization.dsl.ScriptHandler
 import org.gradle.api.internal.GradleInternal
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.plugins.Convention
@@ -30,8 +36,18 @@ class BuildSrcBuildListenerFactoryTest extends Specification {
     def convention = Mock(Convention) {
         getPlugin(EmbeddableJavaProject) >> plugin
     }
+    def dependencies = []
+    def configurations = Stub(ConfigurationContainer) {
+        iterator() >> { [Stub(Configuration) { getDependencies() >> Stub(DependencySet) { iterator() >> { dependencies.iterator() } } }].iterator() }
+    }
+    def buildscript = Stub(ScriptHandler) {
+        getConfigurations() >> Stub(ConfigurationContainer) { iterator() >> { [].iterator() } }
+    }
     def project = Mock(ProjectInternal) {
         getConvention() >> convention
+        getAllprojects() >> { [project] as Set }
+        getConfigurations() >> configurations
+        getBuildscript() >> buildscript
     }
     def gradle = Mock(GradleInternal) {
         getStartParameter() >> startParameter
@@ -59,4 +75,48 @@ class BuildSrcBuildListenerFactoryTest extends Specification {
         then:
         1 * startParameter.setTaskNames(['barBuild'])
     }
+
+    def "classpath is reusable when dependencies have fixed versions"() {
+        def listener = new BuildSrcBuildListenerFactory().create(false)
+        dependencies << dependency("1.2")
+
+        when:
+        listener.onConfigure(gradle)
+
+        then:
+        listener.classpathReusable
+    }
+
+    @Unroll
+    def "classpath is not reusable when a dependency has version #version"() {
+        def listener = new BuildSrcBuildListenerFactory().create(false)
+        dependencies << dependency("1.2") << dependency(version)
+
+        when:
+        listener.onConfigure(gradle)
+
+        then:
+        !listener.classpathReusable
+
+        where:
+        version << ["1.2-SNAPSHOT", "1.+", "latest.release", "[1.0,2.0)", null]
+    }
+
+    def "classpath is not reusable when a dependency is changing"() {
+        def listener = new BuildSrcBuildListenerFactory().create(false)
+        dependencies << dependency("1.2", true)
+
+        when:
+        listener.onConfigure(gradle)
+
+        then:
+        !listener.classpathReusable
+    }
+
+    def dependency(String version, boolean changing = false) {
+        Stub(ExternalModuleDependency) {
+            getVersion() >> version
+            isChanging() >> changing
+        }
+    }
 }
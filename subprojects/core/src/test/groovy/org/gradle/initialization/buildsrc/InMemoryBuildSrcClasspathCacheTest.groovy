@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.initialization.buildsrc
+
+import org.gradle.StartParameter
+import org.gradle.internal.classpath.ClassPath
+import org.gradle.internal.classpath.DefaultClassPath
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class InMemoryBuildSrcClasspathCacheTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def cache = new InMemoryBuildSrcClasspathCache()
+    def parameter = new StartParameter()
+    def buildSrcDir = tmpDir.createDir("buildSrc")
+    def classesDir = buildSrcDir.createDir("build/classes/main")
+    def classpath = new DefaultClassPath(classesDir)
+
+    def setup() {
+        parameter.gradleUserHomeDir = tmpDir.createDir("user-home")
+        parameter.gradleHomeDir = tmpDir.createDir("gradle-home")
+        buildSrcDir.createFile("build.gradle") << "apply plugin: 'groovy'"
+        buildSrcDir.createFile("src/main/groovy/Thing.groovy") << "class Thing {}"
+        classesDir.createFile("Thing.class") << "bytes"
+        makeOld()
+    }
+
+    def remember(ClassPath classpath) {
+        cache.put(buildSrcDir, parameter, cache.fingerprintInputs(buildSrcDir, parameter), classpath)
+    }
+
+    def lookup() {
+        cache.get(buildSrcDir, cache.fingerprintInputs(buildSrcDir, parameter))
+    }
+
+    def makeOld() {
+        tmpDir.testDirectory.eachFileRecurse { it.lastModified = System.currentTimeMillis() - 10000 }
+    }
+
+    def "returns null for unknown buildSrc directory"() {
+        expect:
+        lookup() == null
+    }
+
+    def "reuses classpath when nothing has changed"() {
+        when:
+        remember(classpath)
+
+        then:
+        lookup() == classpath
+    }
+
+    def "ignores changes in build and .gradle directories"() {
+        given:
+        remember(new DefaultClassPath())
+
+        when:
+        buildSrcDir.createFile("build/tmp/thing.txt") << "content"
+        buildSrcDir.createFile(".gradle/noVersion/buildSrc/built.bin") << "content"
+        makeOld()
+
+        then:
+        lookup() != null
+    }
+
+    def "does not reuse classpath when a source file has changed"() {
+        given:
+        remember(classpath)
+
+        when:
+        buildSrcDir.file("src/main/groovy/Thing.groovy") << "class Other {}"
+        makeOld()
+
+        then:
+        lookup() == null
+    }
+
+    def "does not reuse classpath when a source file has been added"() {
+        given:
+        remember(classpath)
+
+        when:
+        buildSrcDir.createFile("src/main/groovy/Other.groovy") << "class Other {}"
+        makeOld()
+
+        then:
+        lookup() == null
+    }
+
+    def "does not reuse classpath when the classpath has changed"() {
+        given:
+        remember(classpath)
+
+        when:
+        classesDir.file("Thing.class").delete()
+
+        then:
+        lookup() == null
+    }
+
+    def "does not reuse classpath when project properties have changed"() {
+        given:
+        remember(classpath)
+
+        when:
+        parameter.projectProperties = [prop: "value"]
+
+        then:
+        lookup() == null
+    }
+
+    def "does not reuse classpath when dependencies are refreshed"() {
+        given:
+        remember(classpath)
+
+        when:
+        parameter.refreshDependencies = true
+
+        then:
+        lookup() == null
+    }
+
+    def "reuses classpath when a source file was modified just before the build"() {
+        given:
+        buildSrcDir.file("src/main/groovy/Thing.groovy").lastModified = System.currentTimeMillis()
+
+        when:
+        remember(classpath)
+
+        then:
+        lookup() == classpath
+    }
+
+    def "does not remember classpath when a source file changes while buildSrc is being built"() {
+        given:
+        def inputs = cache.fingerprintInputs(buildSrcDir, parameter)
+
+        when:
+        buildSrcDir.file("src/main/groovy/Thing.groovy") << "class Other {}"
+        cache.put(buildSrcDir, parameter, inputs, classpath)
+
+        then:
+        lookup() == null
+    }
+
+    def "does not reuse classpath when init scripts are used"() {
+        given:
+        remember(classpath)
+
+        when:
+        parameter.addInitScript(tmpDir.createFile("init.gradle"))
+
+        then:
+        lookup() == null
+    }
+
+    def "does not reuse classpath when there is an init script in the user home init.d directory"() {
+        given:
+        remember(classpath)
+
+        when:
+        tmpDir.createFile("user-home/init.d/init.gradle")
+
+        then:
+        lookup() == null
+    }
+}
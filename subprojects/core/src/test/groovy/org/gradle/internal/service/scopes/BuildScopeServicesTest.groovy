@@ -34,6 +34,7 @@ import org.gradle.configuration.DefaultScriptPluginFactory
 import org.gradle.configuration.ScriptPluginFactory
 import org.gradle.groovy.scripts.DefaultScriptCompilerFactory
 import org.gradle.groovy.scripts.ScriptCompilerFactory
+import org.gradle.groovy.scripts.internal.CrossBuildScriptCache
 import org.gradle.initialization.*
 import org.gradle.internal.Factory
 import org.gradle.internal.classloader.ClassLoaderFactory
@@ -84,6 +85,7 @@ public class BuildScopeServicesTest extends Specification {
         parent.get(FileLookup) >> Stub(FileLookup)
         parent.get(PluginRequestApplicator) >> Mock(PluginRequestApplicator)
         parent.get(BuildCancellationToken) >> Mock(BuildCancellationToken)
+        parent.get(CrossBuildScriptCache) >> new CrossBuildScriptCache()
     }
 
     def delegatesToParentForUnknownService() {
@@ -16,6 +16,7 @@
 
 package org.gradle.internal.service.scopes
 
+import org.gradle.StartParameter
 import org.gradle.api.AntBuilder
 import org.gradle.api.RecordingAntBuildListener
 import org.gradle.api.artifacts.ConfigurationContainer
@@ -41,6 +42,7 @@ import org.gradle.configuration.project.ProjectConfigurationActionContainer
 import org.gradle.groovy.scripts.ScriptSource
 import org.gradle.initialization.ProjectAccessListener
 import org.gradle.internal.Factory
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.nativeintegration.filesystem.FileSystem
 import org.gradle.internal.reflect.DirectInstantiator
 import org.gradle.internal.reflect.Instantiator
@@ -85,6 +87,8 @@ class ProjectScopeServicesTest extends Specification {
         parent.get(ClassGenerator) >> Stub(ClassGenerator)
         parent.get(ProjectAccessListener) >> Stub(ProjectAccessListener)
         parent.get(FileLookup) >> Stub(FileLookup)
+        parent.get(ExecutorFactory) >> Stub(ExecutorFactory)
+        gradle.startParameter >> new StartParameter()
         registry = new ProjectScopeServices(parent, project)
     }
 
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.logging.internal
+
+import org.gradle.api.logging.LogLevel
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class AsynchronousOutputEventListenerTest extends OutputSpecification {
+    final received = new CopyOnWriteArrayList<OutputEvent>()
+    final OutputEventListener target = { OutputEvent event -> received << event } as OutputEventListener
+    AsynchronousOutputEventListener listener
+
+    def cleanup() {
+        listener?.stop()
+    }
+
+    def "forwards events to delegate in the order they were received"() {
+        given:
+        listener = new AsynchronousOutputEventListener("renderer", target, 1000)
+        def events = (1..500).collect { event("message $it") }
+
+        when:
+        events.each { listener.onOutput(it) }
+        listener.flush()
+
+        then:
+        received == events
+    }
+
+    def "preserves per-thread ordering when events are generated by multiple threads"() {
+        given:
+        listener = new AsynchronousOutputEventListener("renderer", target, 10)
+
+        when:
+        def threads = (1..4).collect { thread ->
+            Thread.start {
+                100.times { listener.onOutput(event("$thread $it")) }
+            }
+        }
+        threads*.join()
+        listener.flush()
+
+        then:
+        received.size() == 400
+        (1..4).each { thread ->
+            assert received.findAll { it.message.startsWith("$thread ") }.collect { it.message } == (0..<100).collect { "$thread $it" }
+        }
+    }
+
+    def "forwards events received after stop directly to delegate"() {
+        given:
+        listener = new AsynchronousOutputEventListener("renderer", target, 10)
+        listener.onOutput(event("before"))
+        listener.stop()
+
+        when:
+        listener.onOutput(event("after"))
+
+        then:
+        received*.message == ["before", "after"]
+    }
+
+    def "forwards each event exactly once and in order when events are generated while stopping"() {
+        given:
+        listener = new AsynchronousOutputEventListener("renderer", target, 10)
+
+        when:
+        def threads = (1..4).collect { thread ->
+            Thread.start {
+                200.times { listener.onOutput(event("$thread $it")) }
+            }
+        }
+        listener.stop()
+        threads*.join()
+
+        then:
+        received.size() == 800
+        (1..4).each { thread ->
+            assert received.findAll { it.message.startsWith("$thread ") }.collect { it.message } == (0..<200).collect { "$thread $it" }
+        }
+    }
+
+    def "rethrows rendering failure on stop"() {
+        given:
+        def failure = new RuntimeException("broken")
+        listener = new AsynchronousOutputEventListener("renderer", { throw failure } as OutputEventListener, 10)
+        listener.onOutput(event("message", LogLevel.INFO))
+
+        when:
+        listener.stop()
+
+        then:
+        RuntimeException e = thrown()
+        e == failure
+
+        cleanup:
+        listener = null
+    }
+}
@@ -294,6 +294,54 @@ class OutputEventRendererTest extends OutputSpecification {
         outputs.stdOut.readLines() == ['info']
         outputs.stdErr == ''
     }
+
+    def rendersEventsInOrderWhenRenderingAsynchronously() {
+        def listener = new TestListener()
+
+        when:
+        renderer.startAsyncRendering(2)
+        renderer.addStandardOutputListener(listener)
+        renderer.onOutput(event('info 1', LogLevel.INFO))
+        renderer.onOutput(event('debug', LogLevel.DEBUG))
+        renderer.onOutput(event('info 2', LogLevel.INFO))
+        renderer.onOutput(event('info 3', LogLevel.INFO))
+        renderer.flush()
+
+        then:
+        listener.value.readLines() == ['info 1', 'info 2', 'info 3']
+
+        cleanup:
+        renderer.stop()
+    }
+
+    def rendersQueuedEventsBeforeListenerIsRemovedWhenRenderingAsynchronously() {
+        def listener = new TestListener()
+
+        when:
+        renderer.startAsyncRendering(100)
+        renderer.addStandardOutputListener(listener)
+        renderer.onOutput(event('info', LogLevel.INFO))
+        renderer.removeStandardOutputListener(listener)
+        renderer.onOutput(event('ignored', LogLevel.INFO))
+        renderer.stop()
+
+        then:
+        listener.value.readLines() == ['info']
+    }
+
+    def appliesLogLevelChangesInOrderWhenRenderingAsynchronously() {
+        def listener = new TestListener()
+
+        when:
+        renderer.startAsyncRendering(100)
+        renderer.addStandardOutputListener(listener)
+        renderer.configure(LogLevel.DEBUG)
+        renderer.onOutput(event(tenAm, 'message', LogLevel.DEBUG))
+        renderer.stop()
+
+        then:
+        listener.value.readLines() == ['10:00:00.000 [DEBUG] [category] message']
+    }
 }
 
 class TestListener implements StandardOutputListener {
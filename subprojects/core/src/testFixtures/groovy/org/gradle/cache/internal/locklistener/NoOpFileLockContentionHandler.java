@@ -28,4 +28,11 @@ public class NoOpFileLockContentionHandler implements FileLockContentionHandler
 
     public void pingOwner(int port, long lockId, String displayName) {
     }
+
+    public boolean waitForRelease(long lockId, long timeoutMs) {
+        return false;
+    }
+
+    public void released(long lockId) {
+    }
 }
@@ -40,7 +40,7 @@ public class DefaultCacheLockingManager implements CacheLockingManager, Closeabl
                 .store(CacheLayout.ROOT.getKey())
                 .withCrossVersionCache()
                 .withDisplayName("artifact cache")
-                .withLockOptions(mode(FileLockManager.LockMode.None)) // Don't need to lock anything until we use the caches
+                .withLockOptions(mode(FileLockManager.LockMode.Shared).onDemand()) // Don't need to lock anything until we use the caches, and only need an exclusive lock to write
                 .open();
     }
 
@@ -68,6 +68,10 @@ public class DefaultCacheLockingManager implements CacheLockingManager, Closeabl
         return cache.longRunningOperation(operationDisplayName, action);
     }
 
+    public <T> T writeToCache(Factory<? extends T> action) {
+        return cache.writeToCache(action);
+    }
+
     public <K, V> PersistentIndexedCache<K, V> createCache(String cacheName, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
         String cacheFileInMetaDataStore = CacheLayout.META_DATA.getKey() + "/" + cacheName;
         return cache.createCache(new PersistentIndexedCacheParameters<K, V>(cacheFileInMetaDataStore, keySerializer, valueSerializer));
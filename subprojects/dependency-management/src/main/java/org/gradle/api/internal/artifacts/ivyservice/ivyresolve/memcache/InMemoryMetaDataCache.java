@@ -22,14 +22,14 @@ import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolv
 import org.gradle.internal.resolve.result.BuildableModuleComponentVersionSelectionResolveResult;
 import org.gradle.internal.resolve.result.ModuleVersionListing;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.gradle.internal.resolve.result.BuildableModuleComponentVersionSelectionResolveResult.State.Listed;
 
 class InMemoryMetaDataCache {
-    private final Map<ModuleVersionSelector, ModuleVersionListing> moduleVersionListing = new HashMap<ModuleVersionSelector, ModuleVersionListing>();
-    private final Map<ModuleComponentIdentifier, CachedModuleVersionResult> metaData = new HashMap<ModuleComponentIdentifier, CachedModuleVersionResult>();
+    private final Map<ModuleVersionSelector, ModuleVersionListing> moduleVersionListing = new ConcurrentHashMap<ModuleVersionSelector, ModuleVersionListing>();
+    private final Map<ModuleComponentIdentifier, CachedModuleVersionResult> metaData = new ConcurrentHashMap<ModuleComponentIdentifier, CachedModuleVersionResult>();
     private InMemoryCacheStats stats;
 
     InMemoryMetaDataCache(InMemoryCacheStats stats) {
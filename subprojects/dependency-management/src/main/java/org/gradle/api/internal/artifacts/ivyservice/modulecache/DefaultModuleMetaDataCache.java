@@ -24,6 +24,7 @@ import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyXmlModu
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.ResolverStrategy;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.ComponentIdentifierSerializer;
 import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetaData;
 import org.gradle.internal.hash.HashValue;
 import org.gradle.internal.resource.local.LocallyAvailableResource;
@@ -85,10 +86,14 @@ public class DefaultModuleMetaDataCache implements ModuleMetaDataCache {
         return new DefaultCachedMetaData(entry, null, timeProvider);
     }
 
-    public CachedMetaData cacheMetaData(ModuleComponentRepository repository, ModuleComponentResolveMetaData metaData) {
-        ModuleDescriptor moduleDescriptor = metaData.getDescriptor();
+    public CachedMetaData cacheMetaData(final ModuleComponentRepository repository, ModuleComponentResolveMetaData metaData) {
+        final ModuleDescriptor moduleDescriptor = metaData.getDescriptor();
         LOGGER.debug("Recording module descriptor in cache: {} [changing = {}]", moduleDescriptor.getModuleRevisionId(), metaData.isChanging());
-        LocallyAvailableResource resource = moduleDescriptorStore.putModuleDescriptor(repository, moduleDescriptor);
+        LocallyAvailableResource resource = cacheLockingManager.writeToCache(new Factory<LocallyAvailableResource>() {
+            public LocallyAvailableResource create() {
+                return moduleDescriptorStore.putModuleDescriptor(repository, moduleDescriptor);
+            }
+        });
         ModuleDescriptorCacheEntry entry = createEntry(metaData, resource.getSha1());
         getCache().put(createKey(repository, metaData.getComponentId()), entry);
         return new DefaultCachedMetaData(entry, null, timeProvider);
@@ -303,4 +303,34 @@ ear {
         assertEquals(roles[1].description.text(), 'This is the SUPERGIRL role')
     }
 
+    @Test
+    void "writes manifest first and excludes duplicates when compressing in parallel"() {
+        file('src1/dup.txt') << 'first'
+        file('src2/dup.txt') << 'second'
+        file("build.gradle").write("""
+apply plugin: 'ear'
+
+dependencies {
+    deploy files('rootLib.jar')
+}
+
+ear {
+    parallelCompression = true
+    from 'src1'
+    from 'src2'
+    duplicatesStrategy = 'exclude'
+}
+
+""")
+        //when
+        executer.withTasks('assemble').run()
+
+        //then
+        def ear = new JarTestFixture(file('build/libs/root.ear'))
+        ear.assertContainsFile("META-INF/MANIFEST.MF")
+        ear.assertContainsFile("META-INF/application.xml")
+        ear.assertContainsFile("rootLib.jar")
+        ear.assertContainsFile("dup.txt")
+        ear.assertFileContent("dup.txt", "first")
+    }
 }
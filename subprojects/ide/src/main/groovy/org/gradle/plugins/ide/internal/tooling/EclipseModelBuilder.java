@@ -19,6 +19,7 @@ package org.gradle.plugins.ide.internal.tooling;
 import org.apache.commons.lang.StringUtils;
 import org.gradle.api.Project;
 import org.gradle.api.Task;
+import org.gradle.api.Transformer;
 import org.gradle.plugins.ide.eclipse.EclipsePlugin;
 import org.gradle.plugins.ide.eclipse.model.*;
 import org.gradle.plugins.ide.internal.tooling.eclipse.*;
@@ -31,16 +32,19 @@ import java.util.*;
 
 public class EclipseModelBuilder implements ToolingModelBuilder {
     private final GradleProjectBuilder gradleProjectBuilder;
+    private final ParallelTransformer parallelTransformer;
 
     private boolean projectDependenciesOnly;
     private DefaultEclipseProject result;
     private final Map<String, DefaultEclipseProject> projectMapping = new HashMap<String, DefaultEclipseProject>();
+    private final Map<String, List<ClasspathEntry>> classpathEntries = new HashMap<String, List<ClasspathEntry>>();
     private TasksFactory tasksFactory;
     private DefaultGradleProject<?> rootGradleProject;
     private Project currentProject;
 
-    public EclipseModelBuilder(GradleProjectBuilder gradleProjectBuilder) {
+    public EclipseModelBuilder(GradleProjectBuilder gradleProjectBuilder, ParallelTransformer parallelTransformer) {
         this.gradleProjectBuilder = gradleProjectBuilder;
+        this.parallelTransformer = parallelTransformer;
     }
 
     public boolean canBuild(String modelName) {
@@ -58,10 +62,26 @@ public class EclipseModelBuilder implements ToolingModelBuilder {
         tasksFactory.collectTasks(root);
         applyEclipsePlugin(root);
         buildHierarchy(root);
+        resolveClasspaths(root);
         populate(root);
         return result;
     }
 
+    private void resolveClasspaths(Project root) {
+        List<Project> allProjects = new ArrayList<Project>(root.getAllprojects());
+        List<List<ClasspathEntry>> entries = parallelTransformer.transform(allProjects, new Transformer<List<ClasspathEntry>, Project>() {
+            public List<ClasspathEntry> transform(Project project) {
+                EclipseClasspath classpath = project.getPlugins().getPlugin(EclipsePlugin.class).getModel().getClasspath();
+                classpath.setProjectDependenciesOnly(projectDependenciesOnly);
+                return classpath.resolveDependencies();
+            }
+        });
+        classpathEntries.clear();
+        for (int i = 0; i < allProjects.size(); i++) {
+            classpathEntries.put(allProjects.get(i).getPath(), entries.get(i));
+        }
+    }
+
     private void applyEclipsePlugin(Project root) {
         Set<Project> allProjects = root.getAllprojects();
         for (Project p : allProjects) {
@@ -79,10 +99,7 @@ public class EclipseModelBuilder implements ToolingModelBuilder {
 
     private void populate(Project project) {
         EclipseModel eclipseModel = project.getPlugins().getPlugin(EclipsePlugin.class).getModel();
-        EclipseClasspath classpath = eclipseModel.getClasspath();
-
-        classpath.setProjectDependenciesOnly(projectDependenciesOnly);
-        List<ClasspathEntry> entries = classpath.resolveDependencies();
+        List<ClasspathEntry> entries = classpathEntries.get(project.getPath());
 
         final List<DefaultEclipseExternalDependency> externalDependencies = new LinkedList<DefaultEclipseExternalDependency>();
         final List<DefaultEclipseProjectDependency> projectDependencies = new LinkedList<DefaultEclipseProjectDependency>();
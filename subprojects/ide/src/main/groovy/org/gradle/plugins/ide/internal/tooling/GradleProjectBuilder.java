@@ -32,16 +32,22 @@ import java.util.List;
  * Builds the GradleProject that contains the project hierarchy and task information
  */
 public class GradleProjectBuilder implements ToolingModelBuilder {
+    // The hierarchy is shared by the models built by a single build invocation, as the projects and tasks do not change once configured
+    private DefaultGradleProject<LaunchableGradleTask> rootGradleProject;
+
     public boolean canBuild(String modelName) {
         return modelName.equals("org.gradle.tooling.model.GradleProject");
     }
 
     public Object buildAll(String modelName, Project project) {
-        return buildHierarchy(project.getRootProject());
+        return buildAll(project);
     }
 
     public DefaultGradleProject buildAll(Project project) {
-        return buildHierarchy(project.getRootProject());
+        if (rootGradleProject == null) {
+            rootGradleProject = buildHierarchy(project.getRootProject());
+        }
+        return rootGradleProject;
     }
 
     private DefaultGradleProject<LaunchableGradleTask> buildHierarchy(Project project) {
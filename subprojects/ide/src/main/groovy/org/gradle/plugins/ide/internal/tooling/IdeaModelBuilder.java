@@ -17,6 +17,7 @@
 package org.gradle.plugins.ide.internal.tooling;
 
 import org.gradle.api.Project;
+import org.gradle.api.Transformer;
 import org.gradle.plugins.ide.idea.IdeaPlugin;
 import org.gradle.plugins.ide.idea.model.*;
 import org.gradle.plugins.ide.internal.tooling.idea.*;
@@ -30,11 +31,13 @@ import java.util.*;
 
 public class IdeaModelBuilder implements ToolingModelBuilder {
     private final GradleProjectBuilder gradleProjectBuilder;
+    private final ParallelTransformer parallelTransformer;
 
     private boolean offlineDependencyResolution;
 
-    public IdeaModelBuilder(GradleProjectBuilder gradleProjectBuilder) {
+    public IdeaModelBuilder(GradleProjectBuilder gradleProjectBuilder, ParallelTransformer parallelTransformer) {
         this.gradleProjectBuilder = gradleProjectBuilder;
+        this.parallelTransformer = parallelTransformer;
     }
 
     public boolean canBuild(String modelName) {
@@ -69,17 +72,22 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         for (IdeaModule module : projectModel.getModules()) {
             appendModule(modules, module, out, rootGradleProject);
         }
-        for (IdeaModule module : projectModel.getModules()) {
-            buildDependencies(modules, module);
+        List<IdeaModule> ideaModules = new ArrayList<IdeaModule>(projectModel.getModules());
+        List<Set<Dependency>> resolved = parallelTransformer.transform(ideaModules, new Transformer<Set<Dependency>, IdeaModule>() {
+            public Set<Dependency> transform(IdeaModule module) {
+                module.setOffline(offlineDependencyResolution);
+                return module.resolveDependencies();
+            }
+        });
+        for (int i = 0; i < ideaModules.size(); i++) {
+            buildDependencies(modules, ideaModules.get(i), resolved.get(i));
         }
         out.setChildren(new LinkedList<DefaultIdeaModule>(modules.values()));
 
         return out;
     }
 
-    private void buildDependencies(Map<String, DefaultIdeaModule> modules, IdeaModule ideaModule) {
-        ideaModule.setOffline(offlineDependencyResolution);
-        Set<Dependency> resolved = ideaModule.resolveDependencies();
+    private void buildDependencies(Map<String, DefaultIdeaModule> modules, IdeaModule ideaModule, Set<Dependency> resolved) {
         List<DefaultIdeaDependency> dependencies = new LinkedList<DefaultIdeaDependency>();
         for (Dependency dependency : resolved) {
             if (dependency instanceof SingleEntryModuleLibrary) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.ide.internal.tooling;
+
+import org.gradle.api.Transformer;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ParallelThreads;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a transformation, such as resolving the dependencies of a project, to each of a list of elements. When the build runs projects
+ * in parallel, the elements are transformed concurrently. The results are always returned in the order of the given elements.
+ */
+public class ParallelTransformer {
+    private final ExecutorFactory executorFactory;
+    private final int parallelThreads;
+
+    /**
+     * @param parallelThreads The number of threads to use, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public ParallelTransformer(ExecutorFactory executorFactory, int parallelThreads) {
+        this.executorFactory = executorFactory;
+        this.parallelThreads = parallelThreads;
+    }
+
+    public <T, S> List<T> transform(final List<S> elements, final Transformer<? extends T, ? super S> transformer) {
+        int workers = Math.min(elements.size(), ParallelThreads.getThreadCount(parallelThreads));
+        if (workers <= 1) {
+            List<T> results = new ArrayList<T>(elements.size());
+            for (S element : elements) {
+                results.add(transformer.transform(element));
+            }
+            return results;
+        }
+
+        final List<T> results = new ArrayList<T>(Collections.<T>nCopies(elements.size(), null));
+        final AtomicInteger next = new AtomicInteger();
+        StoppableExecutor executor = executorFactory.create("IDE model dependency resolution");
+        try {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(new Runnable() {
+                    public void run() {
+                        int index;
+                        while ((index = next.getAndIncrement()) < results.size()) {
+                            results.set(index, transformer.transform(elements.get(index)));
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.stop();
+        }
+
+        return results;
+    }
+}
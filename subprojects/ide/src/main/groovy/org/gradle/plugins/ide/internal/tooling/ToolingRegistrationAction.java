@@ -20,6 +20,7 @@ import org.gradle.api.internal.artifacts.ivyservice.projectmodule.ProjectPublica
 import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.internal.project.ProjectTaskLister;
 import org.gradle.configuration.project.ProjectConfigureAction;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.tooling.provider.model.ToolingModelBuilderRegistry;
 
 public class ToolingRegistrationAction implements ProjectConfigureAction {
@@ -27,10 +28,12 @@ public class ToolingRegistrationAction implements ProjectConfigureAction {
         ToolingModelBuilderRegistry modelBuilderRegistry = project.getServices().get(ToolingModelBuilderRegistry.class);
         ProjectPublicationRegistry projectPublicationRegistry = project.getServices().get(ProjectPublicationRegistry.class);
         ProjectTaskLister taskLister = project.getServices().get(ProjectTaskLister.class);
+        ExecutorFactory executorFactory = project.getServices().get(ExecutorFactory.class);
+        ParallelTransformer parallelTransformer = new ParallelTransformer(executorFactory, project.getGradle().getStartParameter().getParallelThreadCount());
 
         GradleProjectBuilder gradleProjectBuilder  = new GradleProjectBuilder();
-        IdeaModelBuilder ideaModelBuilder = new IdeaModelBuilder(gradleProjectBuilder);
-        modelBuilderRegistry.register(new EclipseModelBuilder(gradleProjectBuilder));
+        IdeaModelBuilder ideaModelBuilder = new IdeaModelBuilder(gradleProjectBuilder, parallelTransformer);
+        modelBuilderRegistry.register(new EclipseModelBuilder(gradleProjectBuilder, parallelTransformer));
         modelBuilderRegistry.register(ideaModelBuilder);
         modelBuilderRegistry.register(gradleProjectBuilder);
         modelBuilderRegistry.register(new GradleBuildBuilder());
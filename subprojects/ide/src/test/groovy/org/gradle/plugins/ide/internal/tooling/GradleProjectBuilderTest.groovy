@@ -40,4 +40,17 @@ class GradleProjectBuilderTest extends Specification {
         model.buildDirectory == project.buildDir
         model.buildScript.sourceFile == buildFile
     }
+
+    def "reuses hierarchy for subsequent models"() {
+        def root = TestUtil.builder().withName("root").withProjectDir(tmpDir.testDirectory).build()
+        def child = TestUtil.builder().withName("child").withParent(root).build()
+
+        when:
+        def model = builder.buildAll(child)
+
+        then:
+        model.path == ':'
+        model.children*.path == [':child']
+        builder.buildAll("org.gradle.tooling.model.GradleProject", root).is(model)
+    }
 }
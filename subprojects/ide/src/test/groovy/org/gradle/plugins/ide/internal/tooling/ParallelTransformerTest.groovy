@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.plugins.ide.internal.tooling
+
+import org.gradle.api.Transformer
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArraySet
+
+class ParallelTransformerTest extends Specification {
+    def executorFactory = new DefaultExecutorFactory()
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "transforms elements on the calling thread when not running in parallel"() {
+        def transformer = new ParallelTransformer(executorFactory, 0)
+        def threads = new CopyOnWriteArraySet()
+
+        when:
+        def results = transformer.transform(["a", "b", "c"], { threads << Thread.currentThread(); it.toUpperCase() } as Transformer)
+
+        then:
+        results == ["A", "B", "C"]
+        threads == [Thread.currentThread()] as Set
+    }
+
+    def "returns results in the order of the elements when running in parallel"() {
+        def transformer = new ParallelTransformer(executorFactory, threadCount)
+        def elements = (1..100).collect { it }
+
+        when:
+        def results = transformer.transform(elements, { Thread.sleep(it % 10); it * 2 } as Transformer)
+
+        then:
+        results == elements.collect { it * 2 }
+
+        where:
+        threadCount << [4, -1]
+    }
+
+    def "propagates failure to transform an element"() {
+        def transformer = new ParallelTransformer(executorFactory, 4)
+        def failure = new RuntimeException("broken")
+
+        when:
+        transformer.transform((1..10).collect { it }, { if (it == 5) { throw failure }; it } as Transformer)
+
+        then:
+        RuntimeException e = thrown()
+        e.is(failure)
+    }
+}
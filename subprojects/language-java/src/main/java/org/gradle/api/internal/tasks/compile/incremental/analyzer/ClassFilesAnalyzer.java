@@ -21,8 +21,6 @@ import org.gradle.api.file.FileVisitor;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassDependentsAccumulator;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassSetAnalysisData;
 
-import java.io.File;
-
 public class ClassFilesAnalyzer implements FileVisitor {
 
     private final ClassDependenciesAnalyzer analyzer;
@@ -42,8 +40,7 @@ public class ClassFilesAnalyzer implements FileVisitor {
     public void visitDir(FileVisitDetails dirDetails) {}
 
     public void visitFile(FileVisitDetails fileDetails) {
-        File file = fileDetails.getFile();
-        if (!file.getName().endsWith(".class")) {
+        if (!fileDetails.getName().endsWith(".class")) {
             return;
         }
         String className = fileDetails.getPath().replaceAll("/", ".").replaceAll("\\.class$", "");
@@ -51,7 +48,7 @@ public class ClassFilesAnalyzer implements FileVisitor {
             return;
         }
 
-        ClassAnalysis analysis = analyzer.getClassAnalysis(className, file);
+        ClassAnalysis analysis = analyzer.getClassAnalysis(className, fileDetails);
         accumulator.addClass(className, analysis.isDependencyToAll(), analysis.getClassDependencies());
     }
 
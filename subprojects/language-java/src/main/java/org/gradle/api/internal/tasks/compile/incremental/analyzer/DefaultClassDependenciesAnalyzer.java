@@ -16,12 +16,10 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.analyzer;
 
-import org.gradle.util.GFileUtils;
+import org.gradle.api.file.FileTreeElement;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Type;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashSet;
@@ -64,14 +62,16 @@ public class DefaultClassDependenciesAnalyzer implements ClassDependenciesAnalyz
         return out;
     }
 
-    public ClassAnalysis getClassAnalysis(String className, File classFile) {
-        FileInputStream input = GFileUtils.openInputStream(classFile);
+    public ClassAnalysis getClassAnalysis(String className, FileTreeElement classFile) {
         try {
-            return getClassAnalysis(className, input);
+            InputStream input = classFile.open();
+            try {
+                return getClassAnalysis(className, input);
+            } finally {
+                input.close();
+            }
         } catch (IOException e) {
             throw new RuntimeException("Problems loading class analysis for '" + className + "' from file: " + classFile);
-        } finally {
-            GFileUtils.closeInputStream(input);
         }
     }
 }
@@ -48,7 +48,7 @@ class DefaultJarSnapshotter {
             public void visitFile(FileVisitDetails fileDetails) {
                 analyzer.visitFile(fileDetails);
                 String className = fileDetails.getPath().replaceAll("/", ".").replaceAll("\\.class$", "");
-                byte[] classHash = hasher.hash(fileDetails.getFile());
+                byte[] classHash = hasher.hash(fileDetails);
                 hashes.put(className, classHash);
             }
         });
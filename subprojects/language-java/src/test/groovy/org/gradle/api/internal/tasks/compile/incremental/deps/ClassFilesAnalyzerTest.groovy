@@ -43,19 +43,22 @@ class ClassFilesAnalyzerTest extends Specification {
     }
 
     def "is sensitive to package prefix"() {
-        def details = Stub(FileVisitDetails) { getPath() >> "com/foo/Foo.class"}
+        def details = Stub(FileVisitDetails) {
+            getName() >> "Foo.class"
+            getPath() >> "com/foo/Foo.class"
+        }
         when: analyzer.visitFile(details)
         then: 0 * _
     }
 
     def "accumulates dependencies"() {
         def details = Stub(FileVisitDetails) {
+            getName() >> "Foo.class"
             getPath() >> "org/foo/Foo.class"
-            getFile() >> new File("Foo.class")
         }
         when: analyzer.visitFile(details)
         then:
-        1 * classAnalyzer.getClassAnalysis("org.foo.Foo", new File("Foo.class")) >> new ClassAnalysis(new HashSet(["A"]), true)
+        1 * classAnalyzer.getClassAnalysis("org.foo.Foo", details) >> new ClassAnalysis(new HashSet(["A"]), true)
         1 * accumulator.addClass("org.foo.Foo", true, new HashSet(["A"]))
         0 * _
     }
@@ -18,6 +18,8 @@
 
 package org.gradle.api.internal.tasks.compile.incremental.jar
 
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.api.internal.file.archive.ZipFileTree
 import org.gradle.api.internal.file.collections.DirectoryFileTree
 import org.gradle.api.internal.file.collections.FileTreeAdapter
 import org.gradle.api.internal.hash.Hasher
@@ -53,8 +55,8 @@ class DefaultJarSnapshotterTest extends Specification {
 
         then:
         2 * analyzer.visitFile(_)
-        1 * hasher.hash(f1)
-        1 * hasher.hash(f2)
+        1 * hasher.hash({ it.file == f1 })
+        1 * hasher.hash({ it.file == f2 })
         1 * analyzer.getAnalysis() >> Stub(ClassSetAnalysisData)
         0 * _._
 
@@ -62,4 +64,25 @@ class DefaultJarSnapshotterTest extends Specification {
         snapshot.hashes.keySet() == ["Foo", "com.Foo2"] as Set
         snapshot.analysis
     }
+
+    def "creates snapshot of a jar without extracting its classes"() {
+        temp.createFile("contents/foo/Foo.class")
+        def jar = temp.file("foo.jar")
+        temp.file("contents").zipTo(jar)
+        def expandDir = temp.file("expanded")
+        def analyzer = Mock(ClassFilesAnalyzer)
+
+        when:
+        def snapshot = snapshotter.createSnapshot(new byte[0], new FileTreeAdapter(new ZipFileTree(jar, expandDir, TestFiles.fileSystem())), analyzer)
+
+        then:
+        1 * analyzer.visitFile(_)
+        1 * hasher.hash({ it.path == "foo/Foo.class" })
+        1 * analyzer.getAnalysis() >> Stub(ClassSetAnalysisData)
+        0 * _._
+
+        and:
+        snapshot.hashes.keySet() == ["foo.Foo"] as Set
+        !expandDir.exists()
+    }
 }
@@ -38,6 +38,16 @@ public class PropertiesToDaemonParametersConverter {
             }
         }
 
+        prop = properties.get(SPARE_DAEMONS_PROPERTY);
+        if (prop != null) {
+            target.setSpareDaemons(parseInt(SPARE_DAEMONS_PROPERTY, prop));
+        }
+
+        prop = properties.get(MAX_DAEMONS_PROPERTY);
+        if (prop != null) {
+            target.setMaxDaemons(parseInt(MAX_DAEMONS_PROPERTY, prop));
+        }
+
         prop = properties.get(JVM_ARGS_PROPERTY);
         if (prop != null) {
             target.setJvmArgs(JvmOptions.fromString(prop));
@@ -65,4 +75,12 @@ public class PropertiesToDaemonParametersConverter {
         target.setEnabled(isTrue(properties.get(DAEMON_ENABLED_PROPERTY)));
         target.setDebug(isTrue(properties.get(DEBUG_MODE_PROPERTY)));
     }
+
+    private int parseInt(String propertyName, String value) {
+        try {
+            return new Integer(value);
+        } catch (NumberFormatException e) {
+            throw new GradleException(String.format("Unable to parse %s property. The value should be an int but is: %s", propertyName, value));
+        }
+    }
 }
@@ -31,6 +31,7 @@ public class PropertiesToStartParameterConverter {
         if (isTrue(parallel)) {
             startParameter.setParallelThreadCount(-1);
         }
+        startParameter.setParallelProjectConfiguration(isTrue(properties.get(GradleProperties.PARALLEL_CONFIGURATION_PROPERTY)));
         return startParameter;
     }
 }
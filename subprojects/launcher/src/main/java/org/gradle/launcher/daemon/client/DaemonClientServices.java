@@ -29,8 +29,10 @@ import org.gradle.launcher.daemon.bootstrap.DaemonGreeter;
 import org.gradle.launcher.daemon.configuration.DaemonParameters;
 import org.gradle.launcher.daemon.context.DaemonContextBuilder;
 import org.gradle.launcher.daemon.registry.DaemonDir;
+import org.gradle.launcher.daemon.registry.DaemonRegistry;
 import org.gradle.launcher.daemon.registry.DaemonRegistryServices;
 import org.gradle.messaging.remote.internal.MessagingServices;
+import org.gradle.messaging.remote.internal.OutgoingConnector;
 import org.gradle.messaging.remote.internal.inet.InetAddressFactory;
 
 import java.io.InputStream;
@@ -70,6 +72,15 @@ public class DaemonClientServices extends DaemonClientServicesSupport {
         return new DocumentationRegistry();
     }
 
+    protected SpareDaemonPool createSpareDaemonPool(DaemonRegistry daemonRegistry, DaemonStarter daemonStarter, ExecutorFactory executorFactory) {
+        return new SpareDaemonPool(daemonRegistry, daemonStarter, executorFactory, daemonParameters.getSpareDaemons(), daemonParameters.getMaxDaemons(), DefaultDaemonConnector.DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    protected DaemonConnector createDaemonConnector() {
+        SpareDaemonPool spareDaemonPool = daemonParameters.getSpareDaemons() > 0 ? get(SpareDaemonPool.class) : null;
+        return new DefaultDaemonConnector(get(DaemonRegistry.class), get(OutgoingConnector.class), get(DaemonStarter.class), spareDaemonPool);
+    }
+
     public DaemonStarter createDaemonStarter() {
         return new DefaultDaemonStarter(get(DaemonDir.class), daemonParameters, get(DaemonGreeter.class));
     }
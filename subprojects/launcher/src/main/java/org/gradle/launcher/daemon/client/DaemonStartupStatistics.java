@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.client;
+
+import org.gradle.util.Clock;
+
+/**
+ * Records how long it takes for daemons started by this client to become available.
+ */
+public class DaemonStartupStatistics {
+    private int count;
+    private long totalTime;
+    private long maxTime;
+
+    public synchronized void record(long startupTimeMs) {
+        count++;
+        totalTime += startupTimeMs;
+        maxTime = Math.max(maxTime, startupTimeMs);
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized long getTotalTime() {
+        return totalTime;
+    }
+
+    public synchronized long getMaxTime() {
+        return maxTime;
+    }
+
+    public synchronized long getAverageTime() {
+        return count == 0 ? 0 : totalTime / count;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s daemons started, average startup time %s, maximum startup time %s", count, Clock.prettyTime(getAverageTime()), Clock.prettyTime(maxTime));
+    }
+}
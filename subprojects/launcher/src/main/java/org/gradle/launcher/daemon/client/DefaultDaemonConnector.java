@@ -24,14 +24,19 @@ import org.gradle.launcher.daemon.diagnostics.DaemonStartupInfo;
 import org.gradle.launcher.daemon.logging.DaemonMessages;
 import org.gradle.launcher.daemon.registry.DaemonInfo;
 import org.gradle.launcher.daemon.registry.DaemonRegistry;
+import org.gradle.messaging.remote.Address;
 import org.gradle.messaging.remote.internal.ConnectException;
 import org.gradle.messaging.remote.internal.Connection;
 import org.gradle.messaging.remote.internal.OutgoingConnector;
+import org.gradle.util.Clock;
 
 import java.util.List;
 
 /**
  * Provides the mechanics of connecting to a daemon, starting one via a given runnable if no suitable daemons are already available.
+ *
+ * <p>When a {@link SpareDaemonPool} is provided, spare daemons are started in the background after each connect, so that a later concurrent
+ * build can connect to an idle daemon rather than waiting for one to start.</p>
  */
 public class DefaultDaemonConnector implements DaemonConnector {
     private static final Logger LOGGER = Logging.getLogger(DefaultDaemonConnector.class);
@@ -39,12 +44,19 @@ public class DefaultDaemonConnector implements DaemonConnector {
     private final DaemonRegistry daemonRegistry;
     protected final OutgoingConnector connector;
     private final DaemonStarter daemonStarter;
+    private final SpareDaemonPool spareDaemonPool;
+    private final DaemonStartupStatistics startupStatistics = new DaemonStartupStatistics();
     private long connectTimeout = DefaultDaemonConnector.DEFAULT_CONNECT_TIMEOUT;
 
     public DefaultDaemonConnector(DaemonRegistry daemonRegistry, OutgoingConnector connector, DaemonStarter daemonStarter) {
+        this(daemonRegistry, connector, daemonStarter, null);
+    }
+
+    public DefaultDaemonConnector(DaemonRegistry daemonRegistry, OutgoingConnector connector, DaemonStarter daemonStarter, SpareDaemonPool spareDaemonPool) {
         this.daemonRegistry = daemonRegistry;
         this.connector = connector;
         this.daemonStarter = daemonStarter;
+        this.spareDaemonPool = spareDaemonPool;
     }
 
     public void setConnectTimeout(long connectTimeout) {
@@ -59,20 +71,31 @@ public class DefaultDaemonConnector implements DaemonConnector {
         return daemonRegistry;
     }
 
+    /**
+     * Returns the startup times of the daemons this connector had to wait for.
+     */
+    public DaemonStartupStatistics getStartupStatistics() {
+        return startupStatistics;
+    }
+
     public DaemonClientConnection maybeConnect(ExplainingSpec<DaemonContext> constraint) {
-        return findConnection(daemonRegistry.getAll(), constraint);
+        return findConnection(daemonRegistry.getAll(), constraint, null);
     }
 
     public DaemonClientConnection connect(ExplainingSpec<DaemonContext> constraint) {
-        DaemonClientConnection connection = findConnection(daemonRegistry.getIdle(), constraint);
-        if (connection != null) {
-            return connection;
+        DaemonInfo[] used = new DaemonInfo[1];
+        DaemonClientConnection connection = findConnection(daemonRegistry.getIdle(), constraint, used);
+        if (connection == null) {
+            connection = startDaemon(constraint);
         }
-
-        return startDaemon(constraint);
+        if (spareDaemonPool != null) {
+            Address inUse = used[0] == null ? null : used[0].getAddress();
+            spareDaemonPool.replenish(constraint, inUse);
+        }
+        return connection;
     }
 
-    private DaemonClientConnection findConnection(List<DaemonInfo> daemonInfos, ExplainingSpec<DaemonContext> constraint) {
+    private DaemonClientConnection findConnection(List<DaemonInfo> daemonInfos, ExplainingSpec<DaemonContext> constraint, DaemonInfo[] used) {
         for (final DaemonInfo daemonInfo : daemonInfos) {
             if (!constraint.isSatisfiedBy(daemonInfo.getContext())) {
                 LOGGER.debug("Found daemon (address: {}, idle: {}) however its context does not match the desired criteria.\n"
@@ -82,7 +105,11 @@ public class DefaultDaemonConnector implements DaemonConnector {
             }
 
             try {
-                return connectToDaemon(daemonInfo, new CleanupOnStaleAddress(daemonInfo, true));
+                DaemonClientConnection connection = connectToDaemon(daemonInfo, new CleanupOnStaleAddress(daemonInfo, true));
+                if (used != null) {
+                    used[0] = daemonInfo;
+                }
+                return connection;
             } catch (ConnectException e) {
                 LOGGER.debug("Cannot connect to the daemon at " + daemonInfo.getAddress() + " due to " + e + ". Trying a different daemon...");
             }
@@ -92,12 +119,15 @@ public class DefaultDaemonConnector implements DaemonConnector {
 
     public DaemonClientConnection startDaemon(ExplainingSpec<DaemonContext> constraint) {
         LOGGER.info("Starting Gradle daemon");
+        Clock clock = new Clock();
         final DaemonStartupInfo startupInfo = daemonStarter.startDaemon();
         LOGGER.debug("Started Gradle Daemon: {}", startupInfo);
         long expiry = System.currentTimeMillis() + connectTimeout;
         do {
             DaemonClientConnection daemonConnection = connectToDaemonWithId(startupInfo, constraint);
             if (daemonConnection != null) {
+                startupStatistics.record(clock.getTimeInMs());
+                LOGGER.info("Connected to new Gradle daemon after {}.", clock.getTime());
                 return daemonConnection;
             }
             try {
@@ -24,7 +24,9 @@ import org.gradle.internal.id.IdGenerator;
 import org.gradle.internal.service.ServiceRegistry;
 import org.gradle.launcher.daemon.configuration.DaemonParameters;
 import org.gradle.launcher.daemon.context.DaemonContext;
+import org.gradle.launcher.daemon.registry.DaemonRegistry;
 import org.gradle.logging.internal.OutputEventListener;
+import org.gradle.messaging.remote.internal.OutgoingConnector;
 
 import java.io.InputStream;
 
@@ -33,6 +35,12 @@ public class SingleUseDaemonClientServices extends DaemonClientServices {
         super(loggingServices, daemonParameters, buildStandardInput);
     }
 
+    @Override
+    protected DaemonConnector createDaemonConnector() {
+        // A single use daemon is never shared, so there is no point keeping spares around
+        return new DefaultDaemonConnector(get(DaemonRegistry.class), get(OutgoingConnector.class), get(DaemonStarter.class));
+    }
+
     @Override
     protected DaemonClient createDaemonClient() {
         ExplainingSpec<DaemonContext> matchNone = ExplainingSpecs.satisfyNone();
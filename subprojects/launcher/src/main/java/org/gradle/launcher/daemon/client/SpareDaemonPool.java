@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.client;
+
+import org.gradle.api.internal.specs.ExplainingSpec;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.concurrent.StoppableExecutor;
+import org.gradle.launcher.daemon.context.DaemonContext;
+import org.gradle.launcher.daemon.diagnostics.DaemonStartupInfo;
+import org.gradle.launcher.daemon.registry.DaemonInfo;
+import org.gradle.launcher.daemon.registry.DaemonRegistry;
+import org.gradle.messaging.remote.Address;
+import org.gradle.util.Clock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps a number of compatible daemons idle and ready to accept a build, so that a client which finds all compatible daemons busy
+ * does not have to wait for a new daemon to start.
+ *
+ * <p>Spare daemons are started in the background, and are made available by marking them as idle in the registry once they have started.
+ * No spare daemon is started when the total number of compatible daemons has reached the maximum pool size. Spare daemons that are not used
+ * stop themselves when their idle timeout expires, like any other daemon.</p>
+ */
+public class SpareDaemonPool implements Stoppable {
+    private static final Logger LOGGER = Logging.getLogger(SpareDaemonPool.class);
+    private final DaemonRegistry daemonRegistry;
+    private final DaemonStarter daemonStarter;
+    private final int spareDaemons;
+    private final int maxDaemons;
+    private final long connectTimeout;
+    private final StoppableExecutor executor;
+    private final AtomicInteger starting = new AtomicInteger();
+    private final DaemonStartupStatistics statistics = new DaemonStartupStatistics();
+
+    public SpareDaemonPool(DaemonRegistry daemonRegistry, DaemonStarter daemonStarter, ExecutorFactory executorFactory, int spareDaemons, int maxDaemons, long connectTimeout) {
+        this.daemonRegistry = daemonRegistry;
+        this.daemonStarter = daemonStarter;
+        this.spareDaemons = spareDaemons;
+        this.maxDaemons = maxDaemons;
+        this.connectTimeout = connectTimeout;
+        this.executor = executorFactory.create("Spare daemon starter");
+    }
+
+    public DaemonStartupStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Starts spare daemons in the background, if there are fewer idle daemons that satisfy the given constraint than required.
+     *
+     * @param inUse The address of a daemon that this client is about to use, and which may not have marked itself busy yet. May be null.
+     */
+    public void replenish(final ExplainingSpec<DaemonContext> constraint, Address inUse) {
+        int idle = 0;
+        int total = starting.get();
+        for (DaemonInfo daemonInfo : daemonRegistry.getAll()) {
+            if (constraint.isSatisfiedBy(daemonInfo.getContext())) {
+                total++;
+                if (daemonInfo.isIdle() && !daemonInfo.getAddress().equals(inUse)) {
+                    idle++;
+                }
+            }
+        }
+        int required = Math.min(spareDaemons - idle - starting.get(), maxDaemons - total);
+        for (int i = 0; i < required; i++) {
+            starting.incrementAndGet();
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        startSpare(constraint);
+                    } catch (Exception e) {
+                        LOGGER.info("Could not start spare Gradle daemon.", e);
+                    } finally {
+                        starting.decrementAndGet();
+                    }
+                }
+            });
+        }
+    }
+
+    private void startSpare(ExplainingSpec<DaemonContext> constraint) {
+        LOGGER.info("Starting spare Gradle daemon");
+        Clock clock = new Clock();
+        DaemonStartupInfo startupInfo = daemonStarter.startDaemon();
+        long expiry = System.currentTimeMillis() + connectTimeout;
+        do {
+            DaemonInfo daemonInfo = findStartedDaemon(startupInfo);
+            if (daemonInfo != null) {
+                if (!constraint.isSatisfiedBy(daemonInfo.getContext())) {
+                    LOGGER.info("Spare daemon has a different context than expected, not making it available.\n{}", constraint.whyUnsatisfied(daemonInfo.getContext()));
+                    return;
+                }
+                daemonRegistry.markIdle(daemonInfo.getAddress());
+                statistics.record(clock.getTimeInMs());
+                LOGGER.info("Spare daemon {} is available after {}. {}", daemonInfo.getAddress(), clock.getTime(), statistics);
+                return;
+            }
+            try {
+                Thread.sleep(200L);
+            } catch (InterruptedException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        } while (System.currentTimeMillis() < expiry);
+        LOGGER.info("Timeout waiting for spare daemon to start.\n{}", startupInfo.describe());
+    }
+
+    private DaemonInfo findStartedDaemon(DaemonStartupInfo startupInfo) {
+        // A newly started daemon registers itself as busy. All daemons started by this client share the same uid, so use the pid when available
+        Long pid = startupInfo.getDiagnostics() == null ? null : startupInfo.getDiagnostics().getPid();
+        for (DaemonInfo daemonInfo : daemonRegistry.getBusy()) {
+            DaemonContext context = daemonInfo.getContext();
+            if (pid != null ? pid.equals(context.getPid()) : context.getUid().equals(startupInfo.getUid())) {
+                return daemonInfo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for any spare daemons that are currently starting, so that they are made available before this process exits.
+     */
+    public void stop() {
+        executor.stop();
+    }
+}
@@ -29,6 +29,7 @@ import static org.gradle.util.GFileUtils.canonicalise;
 
 public class DaemonParameters {
     static final int DEFAULT_IDLE_TIMEOUT = 3 * 60 * 60 * 1000;
+    static final int DEFAULT_MAX_DAEMONS = 4;
 
     public static final List<String> DEFAULT_JVM_ARGS = ImmutableList.of("-Xmx1024m", "-XX:MaxPermSize=256m", "-XX:+HeapDumpOnOutOfMemoryError");
 
@@ -36,6 +37,8 @@ public class DaemonParameters {
 
     private File baseDir;
     private int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int spareDaemons;
+    private int maxDaemons = DEFAULT_MAX_DAEMONS;
     private final JvmOptions jvmOptions = new JvmOptions(new IdentityFileResolver());
     private boolean enabled;
     private File javaHome;
@@ -76,6 +79,28 @@ public class DaemonParameters {
         this.idleTimeout = idleTimeout;
     }
 
+    /**
+     * Returns the number of idle compatible daemons to keep ready in the background. Zero disables spare daemons.
+     */
+    public int getSpareDaemons() {
+        return spareDaemons;
+    }
+
+    public void setSpareDaemons(int spareDaemons) {
+        this.spareDaemons = spareDaemons;
+    }
+
+    /**
+     * Returns the maximum number of compatible daemons, busy or idle, beyond which no spare daemons are started.
+     */
+    public int getMaxDaemons() {
+        return maxDaemons;
+    }
+
+    public void setMaxDaemons(int maxDaemons) {
+        this.maxDaemons = maxDaemons;
+    }
+
     public List<String> getEffectiveJvmArgs() {
         return jvmOptions.getAllImmutableJvmArgs();
     }
@@ -62,6 +62,8 @@ class PropertiesToDaemonParametersConverterTest extends Specification {
                 (DAEMON_BASE_DIR_PROPERTY): new File("baseDir").absolutePath,
                 (IDLE_TIMEOUT_PROPERTY): "115",
                 (DEBUG_MODE_PROPERTY): "true",
+                (SPARE_DAEMONS_PROPERTY): "1",
+                (MAX_DAEMONS_PROPERTY): "3",
         ], params)
 
         then:
@@ -71,6 +73,8 @@ class PropertiesToDaemonParametersConverterTest extends Specification {
         params.enabled
         params.baseDir == new File("baseDir").absoluteFile
         params.idleTimeout == 115
+        params.spareDaemons == 1
+        params.maxDaemons == 3
     }
 
     def "shows nice message for dummy java home"() {
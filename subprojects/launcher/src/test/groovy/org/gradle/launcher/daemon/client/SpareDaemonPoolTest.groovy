@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.launcher.daemon.client
+
+import org.gradle.api.internal.specs.ExplainingSpec
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import org.gradle.launcher.daemon.context.DaemonContext
+import org.gradle.launcher.daemon.context.DefaultDaemonContext
+import org.gradle.launcher.daemon.diagnostics.DaemonStartupInfo
+import org.gradle.launcher.daemon.registry.EmbeddedDaemonRegistry
+import org.gradle.messaging.remote.Address
+import spock.lang.Specification
+
+class SpareDaemonPoolTest extends Specification {
+    def javaHome = new File("tmp")
+    def registry = new EmbeddedDaemonRegistry()
+    def daemonCounter = 0
+    def matchAll = { true } as ExplainingSpec<DaemonContext>
+
+    def createPool(int spares, int maxDaemons) {
+        return new SpareDaemonPool(registry, { startBusyDaemon() } as DaemonStarter, new DefaultExecutorFactory(), spares, maxDaemons, 1000)
+    }
+
+    def startBusyDaemon() {
+        def address = storeDaemon(false)
+        return new DaemonStartupInfo(address.displayName, null)
+    }
+
+    def storeDaemon(boolean idle) {
+        def daemonNum = daemonCounter++
+        DaemonContext context = new DefaultDaemonContext(daemonNum.toString(), javaHome, javaHome, daemonNum, 1000, [])
+        def address = { daemonNum.toString() } as Address
+        registry.store(address, context, "password", idle)
+        return address
+    }
+
+    def "starts spare daemon and makes it available as idle daemon"() {
+        given:
+        def pool = createPool(1, 4)
+        storeDaemon(false)
+
+        when:
+        pool.replenish(matchAll, null)
+        pool.stop()
+
+        then:
+        registry.all.size() == 2
+        registry.idle.size() == 1
+        pool.statistics.count == 1
+    }
+
+    def "does not start spare daemon when enough idle daemons are available"() {
+        given:
+        def pool = createPool(1, 4)
+        storeDaemon(true)
+
+        when:
+        pool.replenish(matchAll, null)
+        pool.stop()
+
+        then:
+        registry.all.size() == 1
+        pool.statistics.count == 0
+    }
+
+    def "does not count daemon that is about to be used as idle"() {
+        given:
+        def pool = createPool(1, 4)
+        def inUse = storeDaemon(true)
+
+        when:
+        pool.replenish(matchAll, inUse)
+        pool.stop()
+
+        then:
+        registry.all.size() == 2
+        registry.idle.size() == 2
+    }
+
+    def "does not start more daemons than maximum pool size"() {
+        given:
+        def pool = createPool(3, 2)
+        storeDaemon(false)
+
+        when:
+        pool.replenish(matchAll, null)
+        pool.stop()
+
+        then:
+        registry.all.size() == 2
+        pool.statistics.count == 1
+    }
+
+    def "ignores daemons that do not satisfy the constraint"() {
+        given:
+        def pool = createPool(1, 4)
+        storeDaemon(true)
+
+        when:
+        pool.replenish({ it.pid > 0 } as ExplainingSpec<DaemonContext>, null)
+        pool.stop()
+
+        then:
+        registry.all.size() == 2
+        registry.idle*.context*.pid.sort() == [0, 1]
+    }
+}
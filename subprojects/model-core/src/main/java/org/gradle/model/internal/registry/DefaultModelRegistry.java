@@ -50,15 +50,15 @@ public class DefaultModelRegistry implements ModelRegistry {
     private final Map<ModelPath, ModelElement> store = new HashMap<ModelPath, ModelElement>();
 
     private final Map<ModelPath, BoundModelCreator> creations = new HashMap<ModelPath, BoundModelCreator>();
+    private final SetMultimap<ModelPath, ModelPath> creationsByParent = LinkedHashMultimap.create();
     private final Multimap<ModelPath, BoundModelMutator<?>> mutators = ArrayListMultimap.create();
     private final Multimap<ModelPath, List<ModelPath>> usedMutators = ArrayListMultimap.create();
     private final Multimap<ModelPath, BoundModelMutator<?>> finalizers = ArrayListMultimap.create();
     private final Multimap<ModelPath, List<ModelPath>> usedFinalizers = ArrayListMultimap.create();
 
-    // TODO rework this listener mechanism to be more targeted, in that interested parties nominate what they are interested in (e.g. path or type) and use this to only notify relavant listeners
-    private final List<ModelCreationListener> modelCreationListeners = new LinkedList<ModelCreationListener>();
+    private final ModelCreationListeners modelCreationListeners = new ModelCreationListeners();
 
-    private final List<RuleBinder<?>> binders = Lists.newLinkedList();
+    private final Set<RuleBinder<?>> binders = Sets.newLinkedHashSet();
 
     private BoundModelCreator inCreation;
 
@@ -111,7 +111,7 @@ public class DefaultModelRegistry implements ModelRegistry {
         final RuleBinder<Void> binder = bind(null, creator.getInputs(), creator.getDescriptor(), new Action<RuleBinder<Void>>() {
             public void execute(RuleBinder<Void> ruleBinding) {
                 BoundModelCreator boundCreator = new BoundModelCreator(creator, ruleBinding.getInputBindings());
-                creations.put(creator.getPath(), boundCreator);
+                addCreation(boundCreator);
             }
         });
 
@@ -122,7 +122,6 @@ public class DefaultModelRegistry implements ModelRegistry {
     private <T> RuleBinder<T> bind(ModelReference<T> subject, List<ModelReference<?>> inputs, ModelRuleDescriptor descriptor, Action<? super RuleBinder<T>> onBind) {
         RuleBinder<T> binder = new RuleBinder<T>(subject, inputs, descriptor, Actions.composite(new Action<RuleBinder<T>>() {
             public void execute(RuleBinder<T> binder) {
-                // TODO this is going to run even if we never added the binder to the bindings (inefficient)
                 binders.remove(binder);
             }
         }, onBind));
@@ -206,6 +205,29 @@ public class DefaultModelRegistry implements ModelRegistry {
     public void registerListener(ModelCreationListener listener) {
         boolean remove;
 
+        ModelPath matchPath = listener.matchPath();
+        if (matchPath != null) {
+            BoundModelCreator boundCreator = creations.get(matchPath);
+            if (boundCreator != null) {
+                ModelCreator creator = boundCreator.getCreator();
+                remove = listener.onCreate(creator.getDescriptor(), creator.getPath(), creator.getPromise());
+                if (remove) {
+                    return;
+                }
+            }
+
+            ModelElement element = store.get(matchPath);
+            if (element != null) {
+                remove = listener.onCreate(element.getCreatorDescriptor(), element.getPath(), element.getPromise());
+                if (remove) {
+                    return;
+                }
+            }
+
+            modelCreationListeners.add(listener);
+            return;
+        }
+
         // Copy the creations we know about now because a listener may add creations, causing a CME.
         // This can happen when a listener is listening in order to bind a type-only reference, and the
         // reference binding causing the rule to fully bind and register a new creation.
@@ -214,6 +236,9 @@ public class DefaultModelRegistry implements ModelRegistry {
         for (ModelPath key : creationKeys) {
             BoundModelCreator boundCreator = creations.get(key);
             ModelCreator creator = boundCreator.getCreator();
+            if (!ModelCreationListeners.matches(listener, creator.getPath(), creator.getPromise())) {
+                continue;
+            }
             remove = listener.onCreate(creator.getDescriptor(), creator.getPath(), creator.getPromise());
             if (remove) {
                 return;
@@ -221,6 +246,9 @@ public class DefaultModelRegistry implements ModelRegistry {
         }
 
         for (ModelElement element : store.values()) {
+            if (!ModelCreationListeners.matches(listener, element.getPath(), element.getPromise())) {
+                continue;
+            }
             remove = listener.onCreate(element.getCreatorDescriptor(), element.getPath(), element.getPromise());
             if (remove) {
                 return;
@@ -231,7 +259,7 @@ public class DefaultModelRegistry implements ModelRegistry {
     }
 
     public void remove(ModelPath path) {
-        if (creations.remove(path) == null && store.remove(path) == null) {
+        if (removeCreation(path) == null && store.remove(path) == null) {
             throw new RuntimeException("Tried to remove model " + path + " but it is not registered");
         }
         if (isDependedOn(path)) {
@@ -280,8 +308,22 @@ public class DefaultModelRegistry implements ModelRegistry {
         return false;
     }
 
-    private Set<ModelPath> getPromisedPaths() {
-        return ImmutableSet.<ModelPath>builder().addAll(creations.keySet()).build();
+    private void addCreation(BoundModelCreator boundCreator) {
+        ModelPath path = boundCreator.getCreator().getPath();
+        creations.put(path, boundCreator);
+        ModelPath parent = path.getParent();
+        if (parent != null) {
+            creationsByParent.put(parent, path);
+        }
+    }
+
+    private BoundModelCreator removeCreation(ModelPath path) {
+        BoundModelCreator removed = creations.remove(path);
+        ModelPath parent = path.getParent();
+        if (removed != null && parent != null) {
+            creationsByParent.remove(parent, path);
+        }
+        return removed;
     }
 
     private ModelElement get(ModelPath path) {
@@ -309,11 +351,9 @@ public class DefaultModelRegistry implements ModelRegistry {
         fireMutations(model, finalizers.removeAll(path), usedFinalizers);
 
         // close all the child objects
-        Set<ModelPath> promisedPaths = getPromisedPaths();
-        for (ModelPath modelPath : promisedPaths) {
-            if (path.isDirectChild(modelPath)) {
-                get(modelPath);
-            }
+        List<ModelPath> promisedChildren = ImmutableList.copyOf(creationsByParent.get(path));
+        for (ModelPath modelPath : promisedChildren) {
+            get(modelPath);
         }
     }
 
@@ -353,7 +393,7 @@ public class DefaultModelRegistry implements ModelRegistry {
     }
 
     private BoundModelCreator removeCreator(ModelPath path) {
-        BoundModelCreator creator = creations.remove(path);
+        BoundModelCreator creator = removeCreation(path);
         if (creator == null) {
             throw new IllegalStateException("No creator for '" + path + "'");
         } else {
@@ -415,14 +455,7 @@ public class DefaultModelRegistry implements ModelRegistry {
     }
 
     private void notifyCreationListeners(ModelCreator creator) {
-        ListIterator<ModelCreationListener> modelCreationListenerListIterator = modelCreationListeners.listIterator();
-        while (modelCreationListenerListIterator.hasNext()) {
-            ModelCreationListener next = modelCreationListenerListIterator.next();
-            boolean remove = next.onCreate(creator.getDescriptor(), creator.getPath(), creator.getPromise());
-            if (remove) {
-                modelCreationListenerListIterator.remove();
-            }
-        }
+        modelCreationListeners.notify(creator.getDescriptor(), creator.getPath(), creator.getPromise());
     }
 
     private static class BinderCreationListener implements ModelCreationListener {
@@ -440,6 +473,18 @@ public class DefaultModelRegistry implements ModelRegistry {
             this.bindAction = bindAction;
         }
 
+        public ModelPath matchPath() {
+            return reference.getPath();
+        }
+
+        public ModelType<?> matchType() {
+            return reference.getType();
+        }
+
+        public boolean matchWritable() {
+            return writable;
+        }
+
         public boolean onCreate(ModelRuleDescriptor creatorDescriptor, ModelPath path, ModelPromise promise) {
             if (boundTo != null && isTypeCompatible(promise)) {
                 throw new InvalidModelRuleException(descriptor, new ModelRuleBindingException(
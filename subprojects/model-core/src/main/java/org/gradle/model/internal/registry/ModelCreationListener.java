@@ -16,10 +16,41 @@
 
 package org.gradle.model.internal.registry;
 
+import org.gradle.api.Nullable;
 import org.gradle.model.internal.core.ModelPath;
 import org.gradle.model.internal.core.ModelPromise;
+import org.gradle.model.internal.core.ModelType;
 import org.gradle.model.internal.core.rule.describe.ModelRuleDescriptor;
 
+/**
+ * Notified of the creation of model elements. A listener nominates the elements it is interested in, so that it is only notified
+ * of the creation of those elements.
+ */
 public interface ModelCreationListener {
+
+    /**
+     * The path of the element this listener is interested in, or null when interested in elements at any path.
+     * When not null, the listener is notified of the creation of the element at this path regardless of its type.
+     */
+    @Nullable
+    ModelPath matchPath();
+
+    /**
+     * The type of the elements this listener is interested in, or null when interested in elements of any type.
+     * Only used when {@link #matchPath()} returns null.
+     */
+    @Nullable
+    ModelType<?> matchType();
+
+    /**
+     * Whether the elements must be writable as {@link #matchType()}, rather than readable.
+     */
+    boolean matchWritable();
+
+    /**
+     * Called when a matching element is created.
+     *
+     * @return true if this listener is no longer interested in further elements.
+     */
     boolean onCreate(ModelRuleDescriptor creatorDescriptor, ModelPath path, ModelPromise promise);
 }
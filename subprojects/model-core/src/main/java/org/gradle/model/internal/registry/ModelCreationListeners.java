@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.model.internal.registry;
+
+import org.gradle.model.internal.core.ModelPath;
+import org.gradle.model.internal.core.ModelPromise;
+import org.gradle.model.internal.core.ModelType;
+import org.gradle.model.internal.core.rule.describe.ModelRuleDescriptor;
+
+import java.util.*;
+
+/**
+ * The creation listeners of a registry, indexed by the path and type of the elements they are interested in.
+ *
+ * Listeners are notified in the order they were added, regardless of how they are indexed.
+ */
+class ModelCreationListeners {
+
+    private final Map<ModelPath, List<Registration>> byPath = new HashMap<ModelPath, List<Registration>>();
+    private final Map<TypeMatch, List<Registration>> byType = new LinkedHashMap<TypeMatch, List<Registration>>();
+    private final List<Registration> untargeted = new ArrayList<Registration>();
+    private long nextSequence;
+
+    public static boolean matches(ModelCreationListener listener, ModelPath path, ModelPromise promise) {
+        ModelPath matchPath = listener.matchPath();
+        if (matchPath != null) {
+            return matchPath.equals(path);
+        }
+        ModelType<?> matchType = listener.matchType();
+        return matchType == null || new TypeMatch(matchType, listener.matchWritable()).isSatisfiedBy(promise);
+    }
+
+    public void add(ModelCreationListener listener) {
+        ModelPath path = listener.matchPath();
+        ModelType<?> type = listener.matchType();
+        if (path != null) {
+            add(byPath, path, new Registration(listener, nextSequence++, path));
+        } else if (type != null) {
+            TypeMatch typeMatch = new TypeMatch(type, listener.matchWritable());
+            add(byType, typeMatch, new Registration(listener, nextSequence++, typeMatch));
+        } else {
+            untargeted.add(new Registration(listener, nextSequence++, null));
+        }
+    }
+
+    /**
+     * Notifies the listeners which are interested in the given element, and removes those which are no longer interested in further elements.
+     */
+    public void notify(ModelRuleDescriptor creatorDescriptor, ModelPath path, ModelPromise promise) {
+        // Collect the listeners up front, as a listener may cause other listeners to be added or removed
+        List<Registration> matching = new ArrayList<Registration>();
+        List<Registration> pathListeners = byPath.get(path);
+        if (pathListeners != null) {
+            matching.addAll(pathListeners);
+        }
+        for (Map.Entry<TypeMatch, List<Registration>> entry : byType.entrySet()) {
+            if (entry.getKey().isSatisfiedBy(promise)) {
+                matching.addAll(entry.getValue());
+            }
+        }
+        matching.addAll(untargeted);
+        if (matching.isEmpty()) {
+            return;
+        }
+
+        Collections.sort(matching);
+        for (Registration registration : matching) {
+            boolean remove = registration.listener.onCreate(creatorDescriptor, path, promise);
+            if (remove) {
+                remove(registration);
+            }
+        }
+    }
+
+    private void remove(Registration registration) {
+        if (registration.key instanceof ModelPath) {
+            remove(byPath, (ModelPath) registration.key, registration);
+        } else if (registration.key instanceof TypeMatch) {
+            remove(byType, (TypeMatch) registration.key, registration);
+        } else {
+            untargeted.remove(registration);
+        }
+    }
+
+    private static <K> void add(Map<K, List<Registration>> index, K key, Registration registration) {
+        List<Registration> registrations = index.get(key);
+        if (registrations == null) {
+            registrations = new ArrayList<Registration>();
+            index.put(key, registrations);
+        }
+        registrations.add(registration);
+    }
+
+    private static <K> void remove(Map<K, List<Registration>> index, K key, Registration registration) {
+        List<Registration> registrations = index.get(key);
+        if (registrations != null && registrations.remove(registration) && registrations.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static class Registration implements Comparable<Registration> {
+        private final ModelCreationListener listener;
+        private final long sequence;
+        private final Object key;
+
+        private Registration(ModelCreationListener listener, long sequence, Object key) {
+            this.listener = listener;
+            this.sequence = sequence;
+            this.key = key;
+        }
+
+        public int compareTo(Registration other) {
+            return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+        }
+    }
+
+    private static class TypeMatch {
+        private final ModelType<?> type;
+        private final boolean writable;
+
+        private TypeMatch(ModelType<?> type, boolean writable) {
+            this.type = type;
+            this.writable = writable;
+        }
+
+        public boolean isSatisfiedBy(ModelPromise promise) {
+            return writable ? promise.asWritable(type) : promise.asReadOnly(type);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            TypeMatch other = (TypeMatch) o;
+            return writable == other.writable && type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + (writable ? 1 : 0);
+        }
+    }
+}
@@ -17,8 +17,8 @@
 package org.gradle.model.internal.registry
 
 import org.gradle.internal.Factories
-import org.gradle.model.internal.core.InstanceBackedModelCreator
-import org.gradle.model.internal.core.ModelReference
+import org.gradle.model.InvalidModelRuleException
+import org.gradle.model.internal.core.*
 import org.gradle.model.internal.core.rule.describe.SimpleModelRuleDescriptor
 import spock.lang.Specification
 
@@ -41,4 +41,100 @@ class DefaultModelRegistryTest extends Specification {
         then:
         noExceptionThrown()
     }
+
+    def "binds mutators by path regardless of when the element is created"() {
+        given:
+        registry.mutate(mutator(ModelReference.of("foo", List), []) { it << "before" })
+        registry.create(creator("foo", List, []))
+        registry.mutate(mutator(ModelReference.of("foo", List), []) { it << "after" })
+        registry.mutate(mutator(ModelReference.of("bar", List), []) { it << "other" })
+        registry.create(creator("bar", List, []))
+
+        expect:
+        registry.get(ModelPath.path("foo"), ModelType.of(List)) == ["before", "after"]
+        registry.get(ModelPath.path("bar"), ModelType.of(List)) == ["other"]
+    }
+
+    def "type only reference is ambiguous when a second compatible element is created"() {
+        given:
+        registry.mutate(mutator(ModelReference.of("foo", List), [ModelReference.of(Integer)]) { it << "mutated" })
+        registry.create(creator("a", Integer, 1))
+
+        when:
+        registry.create(creator("b", Integer, 2))
+
+        then:
+        thrown InvalidModelRuleException
+    }
+
+    def "notifies only interested listeners in the order they were registered"() {
+        given:
+        def notified = []
+        registry.registerListener(listener(null, ModelType.of(CharSequence)) { notified << "type" })
+        registry.registerListener(listener(null, ModelType.of(Integer)) { notified << "other type" })
+        registry.registerListener(listener(null, null) { notified << "any" })
+        registry.registerListener(listener(ModelPath.path("bar"), null) { notified << "other path" })
+        registry.registerListener(listener(ModelPath.path("foo"), null) { notified << "path" })
+        registry.registerListener(listener(null, ModelType.of(String)) { notified << "exact type" })
+
+        when:
+        registry.create(creator("foo", String, "foo"))
+
+        then:
+        notified == ["type", "any", "path", "exact type"]
+
+        when:
+        notified.clear()
+        registry.registerListener(listener(ModelPath.path("foo"), null) { notified << "late path" })
+        registry.registerListener(listener(null, ModelType.of(Integer)) { notified << "late other type" })
+        registry.registerListener(listener(null, ModelType.of(String)) { notified << "late type" })
+
+        then:
+        notified == ["late path", "late type"]
+    }
+
+    def "binds rules for many elements"() {
+        given:
+        def count = 10000
+        count.times { i ->
+            registry.mutate(mutator(ModelReference.of("e$i", List), []) { it << "mutated" })
+            registry.mutate(mutator(ModelReference.of("e${i}.child", List), [ModelReference.of("e$i", List)]) { it << "child" })
+        }
+        count.times { i ->
+            registry.create(creator("e$i", List, []))
+            registry.create(creator("e${i}.child", List, []))
+        }
+
+        when:
+        registry.validate()
+        def elements = (0..<count).collect { registry.get(ModelPath.path("e$it"), ModelType.of(List)) }
+
+        then:
+        elements.every { it == ["mutated"] }
+        registry.state(ModelPath.path("e${count - 1}.child")).status == ModelState.Status.FINALIZED
+        registry.get(ModelPath.path("e${count - 1}.child"), ModelType.of(List)) == ["child"]
+    }
+
+    private static <T> ModelCreator creator(String path, Class<T> type, T instance) {
+        InstanceBackedModelCreator.of(ModelReference.of(path, type), new SimpleModelRuleDescriptor("create $path"), instance)
+    }
+
+    private static <T> ModelMutator<T> mutator(ModelReference<T> subject, List<ModelReference<?>> inputs, Closure action) {
+        def descriptor = new SimpleModelRuleDescriptor("mutate $subject.path")
+        [
+                getSubject: { subject },
+                getInputs: { inputs },
+                getDescriptor: { descriptor },
+                mutate: { object, mutateInputs -> action(object) }
+        ] as ModelMutator
+    }
+
+    private static ModelCreationListener listener(ModelPath path, ModelType<?> type, Closure action) {
+        [
+                matchPath: { path },
+                matchType: { type },
+                matchWritable: { false },
+                onCreate: { descriptor, createdPath, promise -> action(); false }
+        ] as ModelCreationListener
+    }
 }
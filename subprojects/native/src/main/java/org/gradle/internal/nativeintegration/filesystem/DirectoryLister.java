@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.nativeintegration.filesystem;
+
+import java.io.File;
+
+/**
+ * Lists the children of directories. Implementations may serve the listing of an unchanged directory from memory.
+ */
+public interface DirectoryLister {
+    /**
+     * Returns the children of the given directory, in the order returned by {@link File#listFiles()}. The returned array may be shared,
+     * and must not be modified.
+     *
+     * @return the children, or null if the given file is not a directory or cannot be listed.
+     */
+    Entry[] list(File dir);
+
+    /**
+     * Returns the number of directories listed since the previous call to this method.
+     */
+    Statistics takeStatistics();
+
+    class Entry {
+        private final File file;
+        private final boolean isFile;
+
+        public Entry(File file, boolean isFile) {
+            this.file = file;
+            this.isFile = isFile;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getName() {
+            return file.getName();
+        }
+
+        /**
+         * Returns true if this child was a regular file when the directory was listed.
+         */
+        public boolean isFile() {
+            return isFile;
+        }
+    }
+
+    class Statistics {
+        private final int listed;
+        private final int cached;
+
+        public Statistics(int listed, int cached) {
+            this.listed = listed;
+            this.cached = cached;
+        }
+
+        /**
+         * The number of directories read from the file system.
+         */
+        public int getListed() {
+            return listed;
+        }
+
+        /**
+         * The number of directories served from memory.
+         */
+        public int getCached() {
+            return cached;
+        }
+    }
+}
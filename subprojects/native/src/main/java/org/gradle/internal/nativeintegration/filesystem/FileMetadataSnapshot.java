@@ -0,0 +1,140 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.nativeintegration.filesystem;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * The length and last modified time of a file, used to detect whether the file has changed since something was derived from it.
+ *
+ * <p>A file may be modified again within the resolution of the file system timestamps without its last modified time changing. So a
+ * snapshot can only be trusted on its own when it is stable: the file existed and was last modified at least {@link #TIMESTAMP_RESOLUTION} ms
+ * before the snapshot was taken.</p>
+ */
+public class FileMetadataSnapshot {
+    /**
+     * The number of milliseconds within which a file may be modified more than once without its last modified time changing.
+     */
+    public static final long TIMESTAMP_RESOLUTION = 2000L;
+
+    private final long length;
+    private final long lastModified;
+    private final boolean stable;
+
+    private FileMetadataSnapshot(long length, long lastModified) {
+        this.length = length;
+        this.lastModified = lastModified;
+        this.stable = isStable(lastModified);
+    }
+
+    /**
+     * Takes a snapshot of the given file. The length and last modified time of a file which does not exist are 0.
+     */
+    public static FileMetadataSnapshot of(File file) {
+        return new FileMetadataSnapshot(file.length(), file.lastModified());
+    }
+
+    /**
+     * Returns true when a file with the given last modified time exists and has not been modified within the timestamp resolution.
+     */
+    public static boolean isStable(long lastModified) {
+        return lastModified > 0 && lastModified < System.currentTimeMillis() - TIMESTAMP_RESOLUTION;
+    }
+
+    /**
+     * Appends the path of the given file, and of each file beneath it when it is a directory, to the given builder. The length and
+     * last modified time of each regular file are appended too, so that the text changes whenever a file is added, removed or changed.
+     *
+     * @return false when some regular file is not stable.
+     */
+    public static boolean appendTree(File root, StringBuilder builder) {
+        return appendTree(root, System.currentTimeMillis() - TIMESTAMP_RESOLUTION, builder);
+    }
+
+    /**
+     * Appends the path of the given file to the given builder, along with its length and last modified time when it is a regular file.
+     *
+     * @return false when the file is a regular file which is not stable.
+     */
+    public static boolean appendFile(File file, StringBuilder builder) {
+        return appendFile(file, System.currentTimeMillis() - TIMESTAMP_RESOLUTION, builder);
+    }
+
+    private static boolean appendTree(File file, long cutoff, StringBuilder builder) {
+        boolean stable = appendFile(file, cutoff, builder);
+        File[] children = file.listFiles();
+        if (children != null) {
+            Arrays.sort(children);
+            for (File child : children) {
+                stable &= appendTree(child, cutoff, builder);
+            }
+        }
+        return stable;
+    }
+
+    private static boolean appendFile(File file, long cutoff, StringBuilder builder) {
+        builder.append(file.getAbsolutePath());
+        boolean stable = true;
+        if (file.isFile()) {
+            long lastModified = file.lastModified();
+            stable = lastModified < cutoff;
+            builder.append(':').append(file.length()).append(':').append(lastModified);
+        } else if (!file.exists()) {
+            builder.append(":missing");
+        }
+        builder.append('\n');
+        return stable;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns true when the file existed and had not been modified within the timestamp resolution when this snapshot was taken.
+     */
+    public boolean isStable() {
+        return stable;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        FileMetadataSnapshot other = (FileMetadataSnapshot) obj;
+        return length == other.length && lastModified == other.lastModified;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (length ^ (length >>> 32)) * 31 + (int) (lastModified ^ (lastModified >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("{length: %s, lastModified: %s}", length, lastModified);
+    }
+}
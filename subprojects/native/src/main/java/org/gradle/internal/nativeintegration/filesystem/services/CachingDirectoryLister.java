@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.nativeintegration.filesystem.services;
+
+import org.gradle.internal.nativeintegration.filesystem.DirectoryLister;
+import org.gradle.internal.nativeintegration.filesystem.FileMetadataSnapshot;
+
+import java.io.File;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link DirectoryLister} which keeps the listings of directories in memory, for the life of the process.
+ *
+ * <p>A listing is only served from memory when the last modified time of the directory is unchanged. Adding, removing or renaming
+ * a child changes the last modified time of a directory, so this requires a single stat of the directory rather than a listing of
+ * the directory and a stat of each child. The listing of a directory which was modified recently is not kept, as a change made within
+ * the resolution of the file system timestamps may not change the last modified time.</p>
+ */
+public class CachingDirectoryLister implements DirectoryLister {
+    private static final int MAX_CACHED_DIRECTORIES = 100000;
+
+    private final ConcurrentMap<File, Listing> listings = new ConcurrentHashMap<File, Listing>();
+    private final AtomicInteger listed = new AtomicInteger();
+    private final AtomicInteger cached = new AtomicInteger();
+
+    public Entry[] list(File dir) {
+        long lastModified = dir.lastModified();
+        Listing listing = listings.get(dir);
+        if (listing != null && lastModified != 0 && listing.lastModified == lastModified) {
+            cached.incrementAndGet();
+            return listing.entries;
+        }
+
+        listed.incrementAndGet();
+        File[] children = dir.listFiles();
+        if (children == null) {
+            listings.remove(dir);
+            return null;
+        }
+        Entry[] entries = new Entry[children.length];
+        for (int i = 0; i < children.length; i++) {
+            entries[i] = new Entry(children[i], children[i].isFile());
+        }
+        if (FileMetadataSnapshot.isStable(lastModified) && dir.lastModified() == lastModified) {
+            if (listings.size() >= MAX_CACHED_DIRECTORIES) {
+                listings.clear();
+            }
+            listings.put(dir, new Listing(lastModified, entries));
+        } else {
+            listings.remove(dir);
+        }
+        return entries;
+    }
+
+    public Statistics takeStatistics() {
+        return new Statistics(listed.getAndSet(0), cached.getAndSet(0));
+    }
+
+    private static class Listing {
+        final long lastModified;
+        final Entry[] entries;
+
+        Listing(long lastModified, Entry[] entries) {
+            this.lastModified = lastModified;
+            this.entries = entries;
+        }
+    }
+}
@@ -20,6 +20,7 @@ import net.rubygrapefruit.platform.NativeIntegrationUnavailableException;
 import net.rubygrapefruit.platform.PosixFiles;
 import org.gradle.api.JavaVersion;
 import org.gradle.internal.UncheckedException;
+import org.gradle.internal.nativeintegration.filesystem.DirectoryLister;
 import org.gradle.internal.nativeintegration.filesystem.FileCanonicalizer;
 import org.gradle.internal.nativeintegration.filesystem.FileModeAccessor;
 import org.gradle.internal.nativeintegration.filesystem.FileModeMutator;
@@ -37,6 +38,11 @@ public class FileSystemServices {
         return (FileCanonicalizer) newInstance("org.gradle.internal.nativeintegration.filesystem.jdk7.Jdk7FileCanonicalizer", FallbackFileCanonicalizer.class);
     }
 
+    @SuppressWarnings("UnusedDeclaration")
+    public DirectoryLister createDirectoryLister() {
+        return new CachingDirectoryLister();
+    }
+
     @SuppressWarnings("UnusedDeclaration")
     public FileSystem createFileSystem(OperatingSystem operatingSystem) throws Exception {
         // Use no-op implementations for windows
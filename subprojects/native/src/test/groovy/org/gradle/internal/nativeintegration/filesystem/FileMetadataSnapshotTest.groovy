@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.nativeintegration.filesystem
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class FileMetadataSnapshotTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def "snapshot of a file modified earlier is stable"() {
+        given:
+        def file = tmpDir.createFile("file.txt")
+        file.text = "content"
+        file.lastModified = System.currentTimeMillis() - 10000
+
+        when:
+        def snapshot = FileMetadataSnapshot.of(file)
+
+        then:
+        snapshot.stable
+        snapshot.length == 7
+        snapshot.lastModified == file.lastModified()
+        snapshot == FileMetadataSnapshot.of(file)
+    }
+
+    def "snapshot of a file which has just been modified or does not exist is not stable"() {
+        given:
+        def file = tmpDir.createFile("file.txt")
+        file.lastModified = System.currentTimeMillis()
+
+        expect:
+        !FileMetadataSnapshot.of(file).stable
+        !FileMetadataSnapshot.of(tmpDir.file("missing")).stable
+    }
+
+    def "snapshot changes when file changes"() {
+        given:
+        def file = tmpDir.createFile("file.txt")
+        file.text = "content"
+        file.lastModified = System.currentTimeMillis() - 10000
+        def snapshot = FileMetadataSnapshot.of(file)
+
+        when:
+        file.text = "changed"
+        file.lastModified = System.currentTimeMillis() - 5000
+
+        then:
+        FileMetadataSnapshot.of(file) != snapshot
+    }
+
+    def "description of a tree changes when a file is added"() {
+        given:
+        def dir = tmpDir.createDir("dir")
+        dir.createFile("a.txt").lastModified = System.currentTimeMillis() - 10000
+        def before = new StringBuilder()
+        FileMetadataSnapshot.appendTree(dir, before)
+
+        when:
+        dir.createFile("b.txt").lastModified = System.currentTimeMillis() - 10000
+        def after = new StringBuilder()
+        def stable = FileMetadataSnapshot.appendTree(dir, after)
+
+        then:
+        stable
+        after.toString() != before.toString()
+    }
+
+    def "tree which contains a file which has just been modified is not stable"() {
+        given:
+        def dir = tmpDir.createDir("dir")
+        dir.createFile("a.txt").lastModified = System.currentTimeMillis() - 10000
+        dir.createFile("b.txt")
+
+        expect:
+        !FileMetadataSnapshot.appendTree(dir, new StringBuilder())
+    }
+}
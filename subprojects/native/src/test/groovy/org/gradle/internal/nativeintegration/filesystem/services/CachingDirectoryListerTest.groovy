@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.nativeintegration.filesystem.services
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class CachingDirectoryListerTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final lister = new CachingDirectoryLister()
+
+    def "lists children of directory"() {
+        given:
+        def dir = tmpDir.createDir("dir")
+        dir.createFile("a.txt")
+        dir.createDir("b")
+
+        when:
+        def entries = lister.list(dir)
+
+        then:
+        entries.collectEntries { [it.name, it.isFile()] } == ["a.txt": true, "b": false]
+        entries*.file as Set == [dir.file("a.txt"), dir.file("b")] as Set
+    }
+
+    def "serves listing of unchanged directory from memory"() {
+        given:
+        def dir = tmpDir.createDir("dir")
+        dir.createFile("a.txt")
+        dir.lastModified = System.currentTimeMillis() - 10000
+
+        when:
+        def first = lister.list(dir)
+        def second = lister.list(dir)
+
+        then:
+        second.is(first)
+        def statistics = lister.takeStatistics()
+        statistics.listed == 1
+        statistics.cached == 1
+
+        and:
+        lister.takeStatistics().listed == 0
+    }
+
+    def "lists directory again when a child is added or removed"() {
+        given:
+        def dir = tmpDir.createDir("dir")
+        def a = dir.createFile("a.txt")
+        dir.lastModified = System.currentTimeMillis() - 10000
+        lister.list(dir)
+
+        when:
+        dir.createFile("b.txt")
+
+        then:
+        lister.list(dir)*.name as Set == ["a.txt", "b.txt"] as Set
+
+        when:
+        a.delete()
+
+        then:
+        lister.list(dir)*.name == ["b.txt"]
+        lister.takeStatistics().cached == 0
+    }
+
+    def "does not keep listing of recently modified directory"() {
+        given:
+        def dir = tmpDir.createDir("dir")
+        dir.createFile("a.txt")
+
+        when:
+        lister.list(dir)
+        lister.list(dir)
+
+        then:
+        def statistics = lister.takeStatistics()
+        statistics.listed == 2
+        statistics.cached == 0
+    }
+
+    def "returns null for file or missing directory"() {
+        expect:
+        lister.list(tmpDir.createFile("file")) == null
+        lister.list(tmpDir.file("missing")) == null
+    }
+}
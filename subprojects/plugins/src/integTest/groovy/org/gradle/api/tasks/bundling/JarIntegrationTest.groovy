@@ -18,6 +18,9 @@ package org.gradle.api.tasks.bundling
 
 import org.gradle.integtests.fixtures.AbstractIntegrationSpec
 import org.gradle.test.fixtures.archive.JarTestFixture
+import spock.lang.Unroll
+
+import java.util.jar.JarFile
 
 class JarIntegrationTest extends AbstractIntegrationSpec {
 
@@ -317,4 +320,39 @@ class JarIntegrationTest extends AbstractIntegrationSpec {
         jar.hasService('org.gradle.Service', 'org.gradle.DefaultServiceImpl')
     }
 
+    @Unroll
+    def "writes manifest first and handles #strategy duplicates when compressing in parallel"() {
+        given:
+        file('src1/dup.txt') << 'first'
+        file('src1/dir1/file1.txt') << 'one'
+        file('src2/dup.txt') << 'second'
+        file('src2/META-INF/MANIFEST.MF') << 'Manifest-Version: 1.0\r\nattr: ignored\r\n\r\n'
+        buildFile << """
+            task jar(type: Jar) {
+                parallelCompression = true
+                from 'src1'
+                from 'src2'
+                duplicatesStrategy = '${strategy}'
+                manifest { attributes(attr: 'value') }
+                destinationDir = buildDir
+                archiveName = 'test.jar'
+            }
+        """
+
+        when:
+        run 'jar'
+
+        then:
+        def jar = new JarTestFixture(file('build/test.jar'))
+        jar.assertContainsFile('META-INF/MANIFEST.MF')
+        jar.assertContainsFile('dir1/file1.txt')
+        jar.assertContainsFile('dup.txt', occurrences)
+        jar.assertFilePresent('dup.txt', 'first')
+        new JarFile(file('build/test.jar')).manifest.mainAttributes.getValue('attr') == 'value'
+
+        where:
+        strategy  | occurrences
+        'include' | 2
+        'exclude' | 1
+    }
 }
@@ -18,6 +18,7 @@ package org.gradle.api.tasks.bundling
 
 import org.gradle.integtests.fixtures.AbstractIntegrationSpec
 import org.gradle.test.fixtures.archive.JarTestFixture
+import spock.lang.Unroll
 
 class WarTaskIntegrationTest extends AbstractIntegrationSpec {
 
@@ -278,4 +279,41 @@ class WarTaskIntegrationTest extends AbstractIntegrationSpec {
         war.assertContainsFile('WEB-INF/web.xml')
         war.assertFileContent('WEB-INF/web.xml', 'good')
     }
+
+    @Unroll
+    def "writes manifest first and handles #strategy duplicates when compressing in parallel"() {
+        given:
+        file('content/dup.jsp') << 'first'
+        file('content2/dup.jsp') << 'second'
+        file('classes/org/gradle/Person.class') << 'class'
+        file('web.xml') << 'web'
+        buildFile << """
+            task war(type: War) {
+                parallelCompression = true
+                from 'content'
+                from 'content2'
+                classpath 'classes'
+                webXml = file('web.xml')
+                duplicatesStrategy = '${strategy}'
+                destinationDir = buildDir
+                archiveName = 'test.war'
+            }
+        """
+
+        when:
+        run 'war'
+
+        then:
+        def war = new JarTestFixture(file('build/test.war'))
+        war.assertContainsFile('META-INF/MANIFEST.MF')
+        war.assertContainsFile('WEB-INF/classes/org/gradle/Person.class')
+        war.assertFileContent('WEB-INF/web.xml', 'web')
+        war.assertContainsFile('dup.jsp', occurrences)
+        war.assertFilePresent('dup.jsp', 'first')
+
+        where:
+        strategy  | occurrences
+        'include' | 2
+        'exclude' | 1
+    }
 }
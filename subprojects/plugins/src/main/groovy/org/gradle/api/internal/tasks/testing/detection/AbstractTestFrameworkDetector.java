@@ -25,11 +25,10 @@ import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Type;
 
-import java.io.BufferedInputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.io.*;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor> implements TestFrameworkDetector {
     protected static final String TEST_CASE = "junit/framework/TestCase";
@@ -37,24 +36,27 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
 
     private List<File> testClassDirectories;
     private final ClassFileExtractionManager classFileExtractionManager;
-    private final Map<File, Boolean> superClasses;
+    private final TestClassDetectionIndex detectionIndex;
+    private final Map<String, Boolean> superClasses;
     private TestClassProcessor testClassProcessor;
     private final List<String> knownTestCaseClassNames;
 
     private File testClassesDirectory;
     private FileCollection testClasspath;
 
-    protected AbstractTestFrameworkDetector(ClassFileExtractionManager classFileExtractionManager) {
+    protected AbstractTestFrameworkDetector(ClassFileExtractionManager classFileExtractionManager, TestClassDetectionIndex detectionIndex) {
         assert classFileExtractionManager != null;
+        assert detectionIndex != null;
         this.classFileExtractionManager = classFileExtractionManager;
-        this.superClasses = new HashMap<File, Boolean>();
+        this.detectionIndex = detectionIndex;
+        this.superClasses = new HashMap<String, Boolean>();
         this.knownTestCaseClassNames = new ArrayList<String>();
         addKnownTestCaseClassNames(TEST_CASE, GROOVY_TEST_CASE);
     }
 
     protected abstract T createClassVisitor();
 
-    protected File getSuperTestClassFile(String superClassName) {
+    protected TestClassVisitor getSuperTestClassVisitor(String superClassName) {
         prepareClasspath();
         if (StringUtils.isEmpty(superClassName)) {
             throw new IllegalArgumentException("superClassName is empty!");
@@ -72,9 +74,9 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
         }
 
         if (superTestClassFile != null) {
-            return superTestClassFile;
+            return classVisitor(superTestClassFile);
         } else { // super test class file not in test class directories
-            return classFileExtractionManager.getLibraryClassFile(superClassName);
+            return libraryClassVisitor(superClassName);
         }
     }
 
@@ -108,41 +110,89 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
     }
 
     protected TestClassVisitor classVisitor(final File testClassFile) {
-        final TestClassVisitor classVisitor = createClassVisitor();
+        final String key = testClassFile.getAbsolutePath();
+        final TestClassVisitor indexedClassVisitor = detectionIndex.get(key, testClassFile, this);
+        if (indexedClassVisitor != null) {
+            return indexedClassVisitor;
+        }
 
         InputStream classStream = null;
         try {
             classStream = new BufferedInputStream(new FileInputStream(testClassFile));
-            final ClassReader classReader = new ClassReader(classStream);
-            classReader.accept(classVisitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+            return classVisitor(key, testClassFile, classStream);
         } catch (Throwable e) {
             throw new GradleException("failed to read class file " + testClassFile.getAbsolutePath(), e);
         } finally {
             IOUtils.closeQuietly(classStream);
         }
-
-        return classVisitor;
     }
 
-    public boolean processTestClass(File testClassFile) {
-        return processTestClass(testClassFile, false);
+    /**
+     * Reads the given class straight from the first library jar which contains it, without extracting it.
+     */
+    private TestClassVisitor libraryClassVisitor(final String className) {
+        final String classFileName = className + ".class";
+        for (File libraryJar : classFileExtractionManager.getLibraryJars(className)) {
+            final String key = libraryJar.getAbsolutePath() + "!/" + classFileName;
+            final TestClassVisitor indexedClassVisitor = detectionIndex.get(key, libraryJar, this);
+            if (indexedClassVisitor != null) {
+                return indexedClassVisitor;
+            }
+
+            ZipFile zipFile = null;
+            try {
+                zipFile = new ZipFile(libraryJar);
+                final ZipEntry classEntry = zipFile.getEntry(classFileName);
+                if (classEntry != null) {
+                    return classVisitor(key, libraryJar, zipFile.getInputStream(classEntry));
+                }
+            } catch (Throwable e) {
+                throw new GradleException("failed to read class file " + classFileName + " from jar (" + libraryJar + ")", e);
+            } finally {
+                closeQuietly(zipFile);
+            }
+        }
+        return null; // super class not on the classpath - unable to scan parent class
     }
 
-    protected abstract boolean processTestClass(File testClassFile, boolean superClass);
+    private TestClassVisitor classVisitor(String key, File file, InputStream classStream) throws IOException {
+        final TestClassVisitor classVisitor = createClassVisitor();
+        final ClassReader classReader = new ClassReader(classStream);
+        classReader.accept(classVisitor, ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        detectionIndex.put(key, file, classVisitor);
+        return classVisitor;
+    }
 
-    protected boolean processSuperClass(File testClassFile) {
-        boolean isTest = false;
+    private static void closeQuietly(ZipFile zipFile) {
+        if (zipFile != null) {
+            try {
+                zipFile.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
 
-        Boolean isSuperTest = superClasses.get(testClassFile);
+    public boolean processTestClass(File testClassFile) {
+        return processTestClass(classVisitor(testClassFile), false);
+    }
 
-        if (isSuperTest == null) {
-            isTest = processTestClass(testClassFile, true);
+    protected abstract boolean processTestClass(TestClassVisitor classVisitor, boolean superClass);
 
-            superClasses.put(testClassFile, isTest);
-        } else {
-            isTest = isSuperTest;
+    /**
+     * Determines whether the given super class is a test class.
+     *
+     * @return whether the super class is a test class, or null when the super class cannot be found.
+     */
+    protected Boolean processSuperClass(String superClassName) {
+        if (superClasses.containsKey(superClassName)) {
+            return superClasses.get(superClassName);
         }
 
+        final TestClassVisitor superClassVisitor = getSuperTestClassVisitor(superClassName);
+        final Boolean isTest = superClassVisitor == null ? null : processTestClass(superClassVisitor, true);
+        superClasses.put(superClassName, isTest);
+
         return isTest;
     }
 
@@ -159,6 +209,11 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
 
     public void startDetection(TestClassProcessor testClassProcessor) {
         this.testClassProcessor = testClassProcessor;
+        detectionIndex.load(getClass().getName());
+    }
+
+    public void endDetection() {
+        detectionIndex.store();
     }
 
     public void addKnownTestCaseClassNames(String... knownTestCaseClassNames) {
@@ -56,6 +56,7 @@ public class DefaultTestClassScanner implements Runnable {
                 testFrameworkDetector.processTestClass(fileDetails.getFile());
             }
         });
+        testFrameworkDetector.endDetection();
     }
 
     private void filenameScan() {
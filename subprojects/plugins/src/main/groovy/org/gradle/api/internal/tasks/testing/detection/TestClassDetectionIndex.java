@@ -0,0 +1,218 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.detection;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.internal.Factory;
+import org.gradle.internal.nativeintegration.filesystem.FileMetadataSnapshot;
+import org.gradle.messaging.serialize.Decoder;
+import org.gradle.messaging.serialize.Encoder;
+import org.gradle.messaging.serialize.FlushableEncoder;
+import org.gradle.messaging.serialize.kryo.KryoBackedDecoder;
+import org.gradle.messaging.serialize.kryo.KryoBackedEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persists the outcome of scanning class files for tests between executions of a test task, so that class files which have
+ * not changed since the previous execution do not need to be parsed again. Each entry records the class name, super class name
+ * and whether the class is abstract or a test class on its own, for the class file, or jar entry, with the given key.
+ *
+ * <p>Entries are only reused when the length and last modified time of the class file, or of the jar which contains it, are
+ * unchanged. Entries which are not used during an execution are discarded when the index is stored.</p>
+ */
+public class TestClassDetectionIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestClassDetectionIndex.class);
+    private static final int INDEX_VERSION = 1;
+
+    private final Factory<File> indexDirFactory;
+    private Map<String, Entry> previous = new HashMap<String, Entry>();
+    private Map<String, Entry> current = new HashMap<String, Entry>();
+    private String detectorId;
+    private boolean changed;
+
+    public TestClassDetectionIndex(Factory<File> indexDirFactory) {
+        this.indexDirFactory = indexDirFactory;
+    }
+
+    /**
+     * Loads the index written by a previous execution using the given detector, if any.
+     */
+    public void load(String detectorId) {
+        this.detectorId = detectorId;
+        previous = new HashMap<String, Entry>();
+        current = new HashMap<String, Entry>();
+        changed = false;
+
+        File indexFile = indexFile();
+        if (!indexFile.isFile()) {
+            changed = true;
+            return;
+        }
+        try {
+            InputStream inputStream = new BufferedInputStream(new FileInputStream(indexFile));
+            try {
+                read(new KryoBackedDecoder(inputStream));
+            } finally {
+                inputStream.close();
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Could not read test class detection index {}, ignoring.", indexFile, e);
+            previous.clear();
+            changed = true;
+        }
+    }
+
+    /**
+     * Writes the entries used since the index was loaded.
+     */
+    public void store() {
+        if (!changed && current.size() == previous.size()) {
+            return;
+        }
+        File indexFile = indexFile();
+        try {
+            OutputStream outputStream = new FileOutputStream(indexFile);
+            try {
+                FlushableEncoder encoder = new KryoBackedEncoder(outputStream);
+                write(encoder);
+                encoder.flush();
+            } finally {
+                outputStream.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        previous = current;
+        current = new HashMap<String, Entry>();
+        changed = false;
+    }
+
+    /**
+     * Returns the recorded details for the given key, if the given file has not changed since they were recorded.
+     *
+     * @param key the class file or jar entry the details were recorded for.
+     * @param file the class file, or the jar which contains the class file.
+     */
+    public TestClassVisitor get(String key, File file, TestFrameworkDetector detector) {
+        Entry entry = previous.get(key);
+        if (entry == null || entry.length != file.length() || entry.lastModified != file.lastModified()) {
+            return null;
+        }
+        current.put(key, entry);
+        return new IndexedTestClassVisitor(detector, entry);
+    }
+
+    /**
+     * Records the details of a class file which has just been scanned.
+     */
+    public void put(String key, File file, TestClassVisitor classVisitor) {
+        FileMetadataSnapshot snapshot = FileMetadataSnapshot.of(file);
+        if (!snapshot.isStable()) {
+            return;
+        }
+        current.put(key, new Entry(snapshot.getLength(), snapshot.getLastModified(), classVisitor.getClassName(), classVisitor.getSuperClassName(), classVisitor.isTest(), classVisitor.isAbstract()));
+        changed = true;
+    }
+
+    private File indexFile() {
+        return new File(indexDirFactory.create(), "test-class-detection.bin");
+    }
+
+    private void read(Decoder decoder) throws IOException {
+        int version = decoder.readSmallInt();
+        String storedDetectorId = decoder.readString();
+        if (version != INDEX_VERSION || !storedDetectorId.equals(detectorId)) {
+            changed = true;
+            return;
+        }
+        int count = decoder.readSmallInt();
+        for (int i = 0; i < count; i++) {
+            String key = decoder.readString();
+            long length = decoder.readLong();
+            long lastModified = decoder.readLong();
+            String className = decoder.readString();
+            String superClassName = decoder.readNullableString();
+            boolean test = decoder.readBoolean();
+            boolean isAbstract = decoder.readBoolean();
+            previous.put(key, new Entry(length, lastModified, className, superClassName, test, isAbstract));
+        }
+    }
+
+    private void write(Encoder encoder) throws IOException {
+        encoder.writeSmallInt(INDEX_VERSION);
+        encoder.writeString(detectorId);
+        encoder.writeSmallInt(current.size());
+        for (Map.Entry<String, Entry> mapEntry : current.entrySet()) {
+            Entry entry = mapEntry.getValue();
+            encoder.writeString(mapEntry.getKey());
+            encoder.writeLong(entry.length);
+            encoder.writeLong(entry.lastModified);
+            encoder.writeString(entry.className);
+            encoder.writeNullableString(entry.superClassName);
+            encoder.writeBoolean(entry.test);
+            encoder.writeBoolean(entry.isAbstract);
+        }
+    }
+
+    private static class Entry {
+        final long length;
+        final long lastModified;
+        final String className;
+        final String superClassName;
+        final boolean test;
+        final boolean isAbstract;
+
+        Entry(long length, long lastModified, String className, String superClassName, boolean test, boolean isAbstract) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.className = className;
+            this.superClassName = superClassName;
+            this.test = test;
+            this.isAbstract = isAbstract;
+        }
+    }
+
+    private static class IndexedTestClassVisitor extends TestClassVisitor {
+        private final Entry entry;
+
+        IndexedTestClassVisitor(TestFrameworkDetector detector, Entry entry) {
+            super(detector);
+            this.entry = entry;
+        }
+
+        public String getClassName() {
+            return entry.className;
+        }
+
+        public boolean isTest() {
+            return entry.test;
+        }
+
+        public boolean isAbstract() {
+            return entry.isAbstract;
+        }
+
+        public String getSuperClassName() {
+            return entry.superClassName;
+        }
+    }
+}
@@ -25,6 +25,8 @@ public interface TestFrameworkDetector {
 
     boolean processTestClass(File testClassFile);
 
+    void endDetection();
+
     void setTestClassesDirectory(File testClassesDir);
 
     void setTestClasspath(FileCollection classpath);
@@ -17,26 +17,23 @@ package org.gradle.api.internal.tasks.testing.junit;
 
 import org.gradle.api.internal.tasks.testing.detection.AbstractTestFrameworkDetector;
 import org.gradle.api.internal.tasks.testing.detection.ClassFileExtractionManager;
+import org.gradle.api.internal.tasks.testing.detection.TestClassDetectionIndex;
 import org.gradle.api.internal.tasks.testing.detection.TestClassVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-
 public class JUnitDetector extends AbstractTestFrameworkDetector<JUnitTestClassDetecter> {
     private static final Logger LOGGER = LoggerFactory.getLogger(JUnitDetector.class);
 
-    public JUnitDetector(ClassFileExtractionManager classFileExtractionManager) {
-        super(classFileExtractionManager);
+    public JUnitDetector(ClassFileExtractionManager classFileExtractionManager, TestClassDetectionIndex detectionIndex) {
+        super(classFileExtractionManager, detectionIndex);
     }
 
     protected JUnitTestClassDetecter createClassVisitor() {
         return new JUnitTestClassDetecter(this);
     }
 
-    protected boolean processTestClass(final File testClassFile, boolean superClass) {
-        final TestClassVisitor classVisitor = classVisitor(testClassFile);
-
+    protected boolean processTestClass(final TestClassVisitor classVisitor, boolean superClass) {
         boolean isTest = classVisitor.isTest();
 
         if (!isTest) { // scan parent class
@@ -45,10 +42,10 @@ public class JUnitDetector extends AbstractTestFrameworkDetector<JUnitTestClassD
             if (isKnownTestCaseClassName(superClassName)) {
                 isTest = true;
             } else {
-                final File superClassFile = getSuperTestClassFile(superClassName);
+                final Boolean isSuperTest = processSuperClass(superClassName);
 
-                if (superClassFile != null) {
-                    isTest = processSuperClass(superClassFile);
+                if (isSuperTest != null) {
+                    isTest = isSuperTest;
                 } else {
                     LOGGER.debug("test-class-scan : failed to scan parent class {}, could not find the class file",
                             superClassName);
@@ -17,12 +17,14 @@ package org.gradle.api.internal.tasks.testing.junit.report;
 
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.internal.tasks.testing.junit.result.ParallelTestClassVisitor;
 import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestFailure;
 import org.gradle.api.internal.tasks.testing.junit.result.TestMethodResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestResultsProvider;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.reporting.HtmlReportBuilder;
 import org.gradle.reporting.HtmlReportRenderer;
 import org.gradle.reporting.ReportRenderer;
@@ -30,58 +32,105 @@ import org.gradle.util.Clock;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.gradle.api.tasks.testing.TestResult.ResultType.SKIPPED;
 
 public class DefaultTestReport implements TestReporter {
     private final static Logger LOG = Logging.getLogger(DefaultTestReport.class);
+    private final ParallelTestClassVisitor classVisitor;
+
+    public DefaultTestReport() {
+        this(null, 0);
+    }
+
+    /**
+     * Creates a report which renders the page for each test class concurrently, using the given executor factory.
+     *
+     * @param parallelThreads The number of threads to use, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public DefaultTestReport(ExecutorFactory executorFactory, int parallelThreads) {
+        classVisitor = new ParallelTestClassVisitor(executorFactory, "Generate HTML test report", parallelThreads);
+    }
 
     public void generateReport(TestResultsProvider resultsProvider, File reportDir) {
         LOG.info("Generating HTML test report...");
 
         Clock clock = new Clock();
-        AllTestResults model = loadModelFromProvider(resultsProvider);
-        generateFiles(model, resultsProvider, reportDir);
+        Set<String> duplicateClasses = new HashSet<String>();
+        AllTestResults model = loadModelFromProvider(resultsProvider, duplicateClasses);
+        generateFiles(model, resultsProvider, duplicateClasses, reportDir);
         LOG.info("Finished generating test html results ({}) into: {}", clock.getTime(), reportDir);
     }
 
-    private AllTestResults loadModelFromProvider(TestResultsProvider resultsProvider) {
+    /**
+     * Loads the model for the overview and package pages. Failure details are only needed on the class pages, so they are not
+     * retained here.
+     */
+    private AllTestResults loadModelFromProvider(TestResultsProvider resultsProvider, final Set<String> duplicateClasses) {
         final AllTestResults model = new AllTestResults();
+        final Set<String> classes = new HashSet<String>();
         resultsProvider.visitClasses(new Action<TestClassResult>() {
             public void execute(TestClassResult classResult) {
-                model.addTestClass(classResult.getId(), classResult.getClassName());
-                List<TestMethodResult> collectedResults = classResult.getResults();
-                for (TestMethodResult collectedResult : collectedResults) {
-                    final TestResult testResult = model.addTest(classResult.getId(), classResult.getClassName(), collectedResult.getName(), collectedResult.getDuration());
-                    if (collectedResult.getResultType() == SKIPPED) {
-                        testResult.setIgnored();
-                    } else {
-                        List<TestFailure> failures = collectedResult.getFailures();
-                        for (TestFailure failure : failures) {
-                            testResult.addFailure(failure);
-                        }
-                    }
+                if (!classes.add(classResult.getClassName())) {
+                    duplicateClasses.add(classResult.getClassName());
                 }
+                addClass(model, classResult, false);
             }
         });
         return model;
     }
 
-    private void generateFiles(AllTestResults model, final TestResultsProvider resultsProvider, File reportDir) {
+    private static ClassTestResults addClass(AllTestResults model, TestClassResult classResult, boolean withFailureDetails) {
+        ClassTestResults classTestResults = model.addTestClass(classResult.getId(), classResult.getClassName());
+        List<TestMethodResult> collectedResults = classResult.getResults();
+        for (TestMethodResult collectedResult : collectedResults) {
+            final TestResult testResult = model.addTest(classResult.getId(), classResult.getClassName(), collectedResult.getName(), collectedResult.getDuration());
+            if (collectedResult.getResultType() == SKIPPED) {
+                testResult.setIgnored();
+            } else {
+                List<TestFailure> failures = collectedResult.getFailures();
+                for (TestFailure failure : failures) {
+                    testResult.addFailure(withFailureDetails ? failure : new TestFailure(null, null, failure.getExceptionType()));
+                }
+            }
+        }
+        return classTestResults;
+    }
+
+    private void generateFiles(AllTestResults model, final TestResultsProvider resultsProvider, final Set<String> duplicateClasses, File reportDir) {
         try {
             HtmlReportRenderer htmlRenderer = new HtmlReportRenderer();
             htmlRenderer.render(model, new ReportRenderer<AllTestResults, HtmlReportBuilder>() {
                 @Override
-                public void render(AllTestResults model, HtmlReportBuilder output) throws IOException {
+                public void render(AllTestResults model, final HtmlReportBuilder output) throws IOException {
                     PackagePageRenderer packagePageRenderer = new PackagePageRenderer();
-                    ClassPageRenderer classPageRenderer = new ClassPageRenderer(resultsProvider);
 
                     output.renderHtmlPage("index.html", model, new OverviewPageRenderer());
                     for (PackageTestResults packageResults : model.getPackages()) {
                         output.renderHtmlPage(packageResults.getBaseUrl(), packageResults, packagePageRenderer);
+                    }
+
+                    // Render the class pages concurrently, loading the full results of each class only while rendering it.
+                    // Classes reported more than once are combined and rendered at the end.
+                    final AllTestResults duplicatesModel = new AllTestResults();
+                    classVisitor.visitClasses(resultsProvider, new Action<TestClassResult>() {
+                        public void execute(TestClassResult classResult) {
+                            if (duplicateClasses.contains(classResult.getClassName())) {
+                                synchronized (duplicatesModel) {
+                                    addClass(duplicatesModel, classResult, true);
+                                }
+                                return;
+                            }
+                            ClassTestResults classResults = addClass(new AllTestResults(), classResult, true);
+                            output.renderHtmlPage(classResults.getBaseUrl(), classResults, new ClassPageRenderer(resultsProvider));
+                        }
+                    });
+                    for (PackageTestResults packageResults : duplicatesModel.getPackages()) {
                         for (ClassTestResults classResults : packageResults.getClasses()) {
-                            output.renderHtmlPage(classResults.getBaseUrl(), classResults, classPageRenderer);
+                            output.renderHtmlPage(classResults.getBaseUrl(), classResults, new ClassPageRenderer(resultsProvider));
                         }
                     }
                 }
@@ -23,6 +23,7 @@ import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.util.Clock;
 import org.gradle.internal.FileUtils;
+import org.gradle.internal.concurrent.ExecutorFactory;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -30,40 +31,96 @@ import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class Binary2JUnitXmlReportGenerator {
 
     private final File testResultsDir;
     private final TestResultsProvider testResultsProvider;
+    private final ParallelTestClassVisitor classVisitor;
     JUnitXmlResultWriter saxWriter;
     private final static Logger LOG = Logging.getLogger(Binary2JUnitXmlReportGenerator.class);
 
     public Binary2JUnitXmlReportGenerator(File testResultsDir, TestResultsProvider testResultsProvider, TestOutputAssociation outputAssociation) {
+        this(testResultsDir, testResultsProvider, outputAssociation, null, 0);
+    }
+
+    /**
+     * Creates a generator which writes the XML file for each test class concurrently, using the given executor factory.
+     *
+     * @param parallelThreads The number of threads to use, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public Binary2JUnitXmlReportGenerator(File testResultsDir, TestResultsProvider testResultsProvider, TestOutputAssociation outputAssociation, ExecutorFactory executorFactory,
+                                          int parallelThreads) {
         this.testResultsDir = testResultsDir;
         this.testResultsProvider = testResultsProvider;
+        this.classVisitor = new ParallelTestClassVisitor(executorFactory, "Generate JUnit XML test results", parallelThreads);
         this.saxWriter = new JUnitXmlResultWriter(getHostname(), testResultsProvider, outputAssociation);
     }
 
     public void generate() {
         Clock clock = new Clock();
-        testResultsProvider.visitClasses(new Action<TestClassResult>() {
+        // A class reported more than once, such as by more than one suite, is written once its results have been combined
+        final Set<String> classNames = Collections.synchronizedSet(new HashSet<String>());
+        final Set<String> duplicateClasses = Collections.synchronizedSet(new HashSet<String>());
+        classVisitor.visitClasses(testResultsProvider, new Action<TestClassResult>() {
             public void execute(TestClassResult result) {
-                File file = new File(testResultsDir, getReportFileName(result));
-                OutputStream output = null;
-                try {
-                    output = new BufferedOutputStream(new FileOutputStream(file));
-                    saxWriter.write(result, output);
-                    output.close();
-                } catch (Exception e) {
-                    throw new GradleException(String.format("Could not write XML test results for %s to file %s.", result.getClassName(), file), e);
-                } finally {
-                    IOUtils.closeQuietly(output);
+                if (!classNames.add(result.getClassName())) {
+                    duplicateClasses.add(result.getClassName());
+                    return;
                 }
+                write(result);
             }
         });
+        if (!duplicateClasses.isEmpty()) {
+            writeCombined(duplicateClasses);
+        }
         LOG.info("Finished generating test XML results ({}) into: {}", clock.getTime(), testResultsDir);
     }
 
+    private void writeCombined(final Set<String> duplicateClasses) {
+        final Map<String, TestClassResult> combined = new LinkedHashMap<String, TestClassResult>();
+        testResultsProvider.visitClasses(new Action<TestClassResult>() {
+            public void execute(TestClassResult result) {
+                if (!duplicateClasses.contains(result.getClassName())) {
+                    return;
+                }
+                TestClassResult combinedResult = combined.get(result.getClassName());
+                if (combinedResult == null) {
+                    combined.put(result.getClassName(), result);
+                    return;
+                }
+                if (result.getStartTime() != 0 && (combinedResult.getStartTime() == 0 || result.getStartTime() < combinedResult.getStartTime())) {
+                    combinedResult.setStartTime(result.getStartTime());
+                }
+                for (TestMethodResult methodResult : result.getResults()) {
+                    combinedResult.add(methodResult);
+                }
+            }
+        });
+        for (TestClassResult result : combined.values()) {
+            write(result);
+        }
+    }
+
+    private void write(TestClassResult result) {
+        File file = new File(testResultsDir, getReportFileName(result));
+        OutputStream output = null;
+        try {
+            output = new BufferedOutputStream(new FileOutputStream(file));
+            saxWriter.write(result, output);
+            output.close();
+        } catch (Exception e) {
+            throw new GradleException(String.format("Could not write XML test results for %s to file %s.", result.getClassName(), file), e);
+        } finally {
+            IOUtils.closeQuietly(output);
+        }
+    }
+
     private String getReportFileName(TestClassResult result) {
         return "TEST-" + FileUtils.toSafeFileName(result.getClassName()) + ".xml";
     }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.junit.result;
+
+import org.gradle.api.Action;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ParallelThreads;
+import org.gradle.internal.concurrent.StoppableExecutor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Visits the results of each test class of a {@link TestResultsProvider}. When the build runs in parallel, the given action is
+ * executed for the classes concurrently. The classes are read from the provider on the calling thread, and are only handed to a
+ * worker when one is free, so at most one class per worker is held in memory. The provider must support concurrent reads of the
+ * test output.
+ */
+public class ParallelTestClassVisitor {
+    private final ExecutorFactory executorFactory;
+    private final String displayName;
+    private final int parallelThreads;
+
+    /**
+     * @param parallelThreads The number of threads to use, as for {@link org.gradle.StartParameter#getParallelThreadCount()}.
+     */
+    public ParallelTestClassVisitor(ExecutorFactory executorFactory, String displayName, int parallelThreads) {
+        this.executorFactory = executorFactory;
+        this.displayName = displayName;
+        this.parallelThreads = parallelThreads;
+    }
+
+    public void visitClasses(TestResultsProvider resultsProvider, final Action<? super TestClassResult> action) {
+        int maxThreads = ParallelThreads.getThreadCount(parallelThreads);
+        if (executorFactory == null || maxThreads <= 1) {
+            resultsProvider.visitClasses(action);
+            return;
+        }
+
+        final StoppableExecutor executor = executorFactory.create(displayName);
+        final Semaphore pending = new Semaphore(maxThreads);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        try {
+            resultsProvider.visitClasses(new Action<TestClassResult>() {
+                public void execute(final TestClassResult classResult) {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    pending.acquireUninterruptibly();
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            try {
+                                action.execute(classResult);
+                            } catch (Throwable throwable) {
+                                failure.compareAndSet(null, throwable);
+                            } finally {
+                                pending.release();
+                            }
+                        }
+                    });
+                }
+            });
+        } finally {
+            executor.stop();
+        }
+        if (failure.get() != null) {
+            throw UncheckedException.throwAsUncheckedException(failure.get());
+        }
+    }
+}
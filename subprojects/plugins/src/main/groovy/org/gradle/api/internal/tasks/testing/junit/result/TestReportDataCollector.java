@@ -26,17 +26,27 @@ import java.util.Map;
 
 /**
  * Collects the test results into memory and spools the test output to file during execution (to avoid holding it all in memory).
+ * When given a results writer, the results of each test class are written out and discarded as soon as the class has completed.
+ * Any results received for a class after it has been written are written as a further record for the class, with the same id,
+ * which the HTML and XML report generators combine with the earlier record.
  */
 public class TestReportDataCollector implements TestListener, TestOutputListener {
 
     private final Map<String, TestClassResult> results;
     private final TestOutputStore.Writer outputWriter;
+    private final TestResultSerializer.Writer resultWriter;
     private final Map<TestDescriptor, TestMethodResult> currentTestMethods = new HashMap<TestDescriptor, TestMethodResult>();
+    private final Map<String, Long> writtenClassIds = new HashMap<String, Long>();
     private long internalIdCounter = 1;
 
     public TestReportDataCollector(Map<String, TestClassResult> results, TestOutputStore.Writer outputWriter) {
+        this(results, outputWriter, null);
+    }
+
+    public TestReportDataCollector(Map<String, TestClassResult> results, TestOutputStore.Writer outputWriter, TestResultSerializer.Writer resultWriter) {
         this.results = results;
         this.outputWriter = outputWriter;
+        this.resultWriter = resultWriter;
     }
 
     public void beforeSuite(TestDescriptor suite) {
@@ -51,10 +61,23 @@ public class TestReportDataCollector implements TestListener, TestOutputListener
                 methodResult.addFailure(failureMessage(throwable), stackTrace(throwable), exceptionClassName(throwable));
             }
             methodResult.completed(result);
-            TestClassResult classResult = new TestClassResult(internalIdCounter++, suite.getName(), result.getStartTime());
+            TestClassResult classResult = new TestClassResult(classId(suite.getName()), suite.getName(), result.getStartTime());
             classResult.add(methodResult);
             results.put(suite.getName(), classResult);
         }
+        if (resultWriter != null && suite.getClassName() != null) {
+            //the test class has completed, so no further results will be received for it
+            TestClassResult classResult = results.remove(suite.getClassName());
+            if (classResult != null) {
+                resultWriter.write(classResult);
+                writtenClassIds.put(classResult.getClassName(), classResult.getId());
+            }
+        }
+    }
+
+    private long classId(String className) {
+        Long id = writtenClassIds.get(className);
+        return id != null ? id : internalIdCounter++;
     }
 
     public void beforeTest(TestDescriptor testDescriptor) {
@@ -70,7 +93,7 @@ public class TestReportDataCollector implements TestListener, TestOutputListener
         }
         TestClassResult classResult = results.get(className);
         if (classResult == null) {
-            classResult = new TestClassResult(internalIdCounter++, className, result.getStartTime());
+            classResult = new TestClassResult(classId(className), className, result.getStartTime());
             results.put(className, classResult);
         } else if (classResult.getStartTime() == 0) {
             //class results may be created earlier, where we don't yet have access to the start time
@@ -121,7 +144,7 @@ public class TestReportDataCollector implements TestListener, TestOutputListener
             //it's possible that we receive an output for a suite here
             //in this case we will create the test result for a suite that normally would not be created
             //feels like this scenario should modelled more explicitly
-            classResult = new TestClassResult(internalIdCounter++, className, 0);
+            classResult = new TestClassResult(classId(className), className, 0);
             results.put(className, classResult);
         }
 
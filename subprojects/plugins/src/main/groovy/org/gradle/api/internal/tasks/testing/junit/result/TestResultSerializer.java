@@ -30,7 +30,7 @@ import java.io.*;
 import java.util.Collection;
 
 public class TestResultSerializer {
-    private static final int RESULT_VERSION = 3;
+    private static final int RESULT_VERSION = 4;
 
     private final File resultsFile;
 
@@ -39,27 +39,25 @@ public class TestResultSerializer {
     }
 
     public void write(Collection<TestClassResult> results) {
+        Writer writer = writer();
         try {
-            OutputStream outputStream = new FileOutputStream(resultsFile);
-            try {
-                if (!results.isEmpty()) { // only write if we have results, otherwise truncate
-                    FlushableEncoder encoder = new KryoBackedEncoder(outputStream);
-                    encoder.writeSmallInt(RESULT_VERSION);
-                    write(results, encoder);
-                    encoder.flush();
-                }
-            } finally {
-                outputStream.close();
+            for (TestClassResult result : results) {
+                writer.write(result);
             }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        } finally {
+            writer.close();
         }
     }
 
-    private void write(Collection<TestClassResult> results, Encoder encoder) throws IOException {
-        encoder.writeSmallInt(results.size());
-        for (TestClassResult result : results) {
-            write(result, encoder);
+    /**
+     * Returns a writer which writes each test class result to the results file as soon as it is given, rather than holding
+     * all results in memory. Truncates any existing results.
+     */
+    public Writer writer() {
+        try {
+            return new Writer(new FileOutputStream(resultsFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -113,8 +111,7 @@ public class TestResultSerializer {
     }
 
     private void readResults(Decoder decoder, Action<? super TestClassResult> visitor) throws ClassNotFoundException, IOException {
-        int classCount = decoder.readSmallInt();
-        for (int i = 0; i < classCount; i++) {
+        while (decoder.readBoolean()) {
             TestClassResult classResult = readClassResult(decoder);
             visitor.execute(classResult);
         }
@@ -149,4 +146,41 @@ public class TestResultSerializer {
         }
         return methodResult;
     }
+
+    public class Writer implements Closeable {
+        private final OutputStream outputStream;
+        private FlushableEncoder encoder;
+
+        private Writer(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        public void write(TestClassResult result) {
+            try {
+                if (encoder == null) { // only write if we have results, otherwise leave the file empty
+                    encoder = new KryoBackedEncoder(outputStream);
+                    encoder.writeSmallInt(RESULT_VERSION);
+                }
+                encoder.writeBoolean(true);
+                TestResultSerializer.this.write(result, encoder);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void close() {
+            try {
+                try {
+                    if (encoder != null) {
+                        encoder.writeBoolean(false);
+                        encoder.flush();
+                    }
+                } finally {
+                    outputStream.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
@@ -51,6 +51,7 @@ import org.gradle.api.tasks.util.PatternFilterable;
 import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.CompositeStoppable;
+import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.reflect.Instantiator;
 import org.gradle.listener.ClosureBackedMethodInvocationDispatch;
 import org.gradle.listener.ListenerBroadcast;
@@ -190,6 +191,11 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         throw new UnsupportedOperationException();
     }
 
+    @Inject
+    protected ExecutorFactory getExecutorFactory() {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * ATM. for testing only
      */
@@ -484,7 +490,8 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
         TestOutputStore testOutputStore = new TestOutputStore(binaryResultsDir);
 
         TestOutputStore.Writer outputWriter = testOutputStore.writer();
-        TestReportDataCollector testReportDataCollector = new TestReportDataCollector(results, outputWriter);
+        TestResultSerializer.Writer resultWriter = new TestResultSerializer(binaryResultsDir).writer();
+        TestReportDataCollector testReportDataCollector = new TestReportDataCollector(results, outputWriter, resultWriter);
 
         addTestListener(testReportDataCollector);
         addTestOutputListener(testReportDataCollector);
@@ -506,15 +513,21 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
             testListenerBroadcaster.removeAll();
             testOutputListenerBroadcaster.removeAll();
             outputWriter.close();
+            try {
+                for (TestClassResult result : results.values()) {
+                    resultWriter.write(result);
+                }
+            } finally {
+                results.clear();
+                resultWriter.close();
+            }
         }
 
-        new TestResultSerializer(binaryResultsDir).write(results.values());
-
-        TestResultsProvider testResultsProvider = new InMemoryTestResultsProvider(results.values(), testOutputStore.reader());
+        TestResultsProvider testResultsProvider = new BinaryResultBackedTestResultsProvider(binaryResultsDir);
 
         try {
             if (testReporter == null) {
-                testReporter = new DefaultTestReport();
+                testReporter = new DefaultTestReport(getExecutorFactory(), getProject().getGradle().getStartParameter().getParallelThreadCount());
             }
 
             JUnitXmlReport junitXml = reports.getJunitXml();
@@ -522,7 +535,8 @@ public class Test extends ConventionTask implements JavaForkOptions, PatternFilt
                 TestOutputAssociation outputAssociation = junitXml.isOutputPerTestCase()
                         ? TestOutputAssociation.WITH_TESTCASE
                         : TestOutputAssociation.WITH_SUITE;
-                Binary2JUnitXmlReportGenerator binary2JUnitXmlReportGenerator = new Binary2JUnitXmlReportGenerator(junitXml.getDestination(), testResultsProvider, outputAssociation);
+                Binary2JUnitXmlReportGenerator binary2JUnitXmlReportGenerator = new Binary2JUnitXmlReportGenerator(junitXml.getDestination(), testResultsProvider, outputAssociation, getExecutorFactory(),
+                        getProject().getGradle().getStartParameter().getParallelThreadCount());
                 binary2JUnitXmlReportGenerator.generate();
             }
 
@@ -51,6 +51,8 @@ public class DefaultTestClassScannerTest {
             one(detector).processTestClass(new File('class1.class'))
             one(detector).processTestClass(new File('class2.class'))
             inSequence(sequence)
+            one(detector).endDetection()
+            inSequence(sequence)
         }
         
         scanner.run()
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.detection
+
+import org.gradle.internal.Factory
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class TestClassDetectionIndexTest extends Specification {
+    @Rule TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    final detector = Stub(TestFrameworkDetector)
+    final classFile = tmpDir.createFile("classes/org/gradle/SomeTest.class")
+    final index = new TestClassDetectionIndex({ tmpDir.testDirectory } as Factory)
+
+    def setup() {
+        classFile.text = "class file"
+        classFile.lastModified = System.currentTimeMillis() - 10000
+    }
+
+    def "reuses details of unchanged class file recorded by previous execution"() {
+        given:
+        index.load("detector")
+        index.put("key", classFile, visitor("org/gradle/SomeTest", "org/gradle/Base", true, false))
+        index.store()
+
+        when:
+        def reloaded = new TestClassDetectionIndex({ tmpDir.testDirectory } as Factory)
+        reloaded.load("detector")
+        def classVisitor = reloaded.get("key", classFile, detector)
+
+        then:
+        classVisitor.className == "org/gradle/SomeTest"
+        classVisitor.superClassName == "org/gradle/Base"
+        classVisitor.test
+        !classVisitor.abstract
+    }
+
+    def "does not reuse details of changed class file"() {
+        given:
+        index.load("detector")
+        index.put("key", classFile, visitor("org/gradle/SomeTest", "org/gradle/Base", true, false))
+        index.store()
+
+        when:
+        classFile.text = "changed class file"
+        index.load("detector")
+
+        then:
+        index.get("key", classFile, detector) == null
+    }
+
+    def "does not reuse details recorded by another detector"() {
+        given:
+        index.load("detector")
+        index.put("key", classFile, visitor("org/gradle/SomeTest", "org/gradle/Base", true, false))
+        index.store()
+
+        when:
+        index.load("other")
+
+        then:
+        index.get("key", classFile, detector) == null
+    }
+
+    def "does not record recently modified class file"() {
+        given:
+        classFile.lastModified = System.currentTimeMillis()
+        index.load("detector")
+        index.put("key", classFile, visitor("org/gradle/SomeTest", null, false, true))
+        index.store()
+
+        when:
+        index.load("detector")
+
+        then:
+        index.get("key", classFile, detector) == null
+    }
+
+    def "discards details which were not used by the previous execution"() {
+        given:
+        def otherFile = tmpDir.createFile("classes/org/gradle/Other.class")
+        otherFile.lastModified = System.currentTimeMillis() - 10000
+        index.load("detector")
+        index.put("key", classFile, visitor("org/gradle/SomeTest", null, true, false))
+        index.put("other", otherFile, visitor("org/gradle/Other", null, false, false))
+        index.store()
+        index.load("detector")
+        index.get("key", classFile, detector)
+        index.store()
+
+        when:
+        index.load("detector")
+
+        then:
+        index.get("key", classFile, detector) != null
+        index.get("other", otherFile, detector) == null
+    }
+
+    def "ignores unreadable index"() {
+        given:
+        tmpDir.file("test-class-detection.bin").text = "broken"
+
+        when:
+        index.load("detector")
+
+        then:
+        index.get("key", classFile, detector) == null
+    }
+
+    private TestClassVisitor visitor(String className, String superClassName, boolean test, boolean isAbstract) {
+        return Stub(TestClassVisitor) {
+            getClassName() >> className
+            getSuperClassName() >> superClassName
+            isTest() >> test
+            isAbstract() >> isAbstract
+        }
+    }
+}
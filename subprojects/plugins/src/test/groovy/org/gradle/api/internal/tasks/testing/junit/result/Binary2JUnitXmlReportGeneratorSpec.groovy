@@ -54,6 +54,25 @@ class Binary2JUnitXmlReportGeneratorSpec extends Specification {
         0 * generator.saxWriter._
     }
 
+    def "writes a class reported more than once with its results combined"() {
+        resultsProvider.visitClasses(_) >> { Action action ->
+            action.execute(new TestClassResult(1, 'FooTest', 200).add(new TestMethodResult(1, "foo")))
+            action.execute(new TestClassResult(2, 'BarTest', 100).add(new TestMethodResult(2, "bar")))
+            action.execute(new TestClassResult(1, 'FooTest', 100).add(new TestMethodResult(3, "foo2")))
+        }
+
+        when:
+        generator.generate()
+
+        then:
+        1 * generator.saxWriter.write({ it.className == 'FooTest' && it.results*.name == ['foo'] }, _)
+        1 * generator.saxWriter.write({ it.className == 'BarTest' }, _)
+
+        then:
+        1 * generator.saxWriter.write({ it.className == 'FooTest' && it.results*.name == ['foo', 'foo2'] && it.startTime == 100 }, _)
+        0 * generator.saxWriter._
+    }
+
     def "adds context information to the failure if something goes wrong"() {
         def fooTest = new TestClassResult(1, 'FooTest', 100)
                 .add(new TestMethodResult(1, "foo"))
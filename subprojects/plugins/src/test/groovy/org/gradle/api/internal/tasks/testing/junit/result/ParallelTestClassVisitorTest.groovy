@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.junit.result
+
+import org.gradle.api.Action
+import org.gradle.internal.concurrent.DefaultExecutorFactory
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArraySet
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelTestClassVisitorTest extends Specification {
+    final executorFactory = new DefaultExecutorFactory()
+    final TestResultsProvider provider = Stub() {
+        visitClasses(_) >> { Action action ->
+            (1..50).each { action.execute(new TestClassResult(it, "Class${it}", 0)) }
+        }
+    }
+
+    def cleanup() {
+        executorFactory.stop()
+    }
+
+    def "visits each class exactly once"() {
+        def visitor = new ParallelTestClassVisitor(executorFactory, "test", 4)
+        def visited = new CopyOnWriteArraySet()
+        def threads = new CopyOnWriteArraySet()
+
+        when:
+        visitor.visitClasses(provider, { TestClassResult result ->
+            assert visited.add(result.className)
+            threads.add(Thread.currentThread())
+        } as Action)
+
+        then:
+        visited.size() == 50
+        !threads.contains(Thread.currentThread())
+    }
+
+    def "visits classes on calling thread when no executor is provided"() {
+        def visitor = new ParallelTestClassVisitor(null, "test", 4)
+        def threads = new CopyOnWriteArraySet()
+
+        when:
+        visitor.visitClasses(provider, { threads.add(Thread.currentThread()) } as Action)
+
+        then:
+        threads == [Thread.currentThread()] as Set
+    }
+
+    def "visits classes on calling thread when build does not run in parallel"() {
+        def visitor = new ParallelTestClassVisitor(executorFactory, "test", 0)
+        def threads = new CopyOnWriteArraySet()
+
+        when:
+        visitor.visitClasses(provider, { threads.add(Thread.currentThread()) } as Action)
+
+        then:
+        threads == [Thread.currentThread()] as Set
+    }
+
+    def "visits no more classes concurrently than the number of parallel threads"() {
+        def visitor = new ParallelTestClassVisitor(executorFactory, "test", 3)
+        def active = new AtomicInteger()
+        def maxActive = new AtomicInteger()
+
+        when:
+        visitor.visitClasses(provider, { TestClassResult result ->
+            def current = active.incrementAndGet()
+            synchronized (maxActive) {
+                maxActive.set(Math.max(maxActive.get(), current))
+            }
+            Thread.sleep(5)
+            active.decrementAndGet()
+        } as Action)
+
+        then:
+        maxActive.get() <= 3
+    }
+
+    def "rethrows failure after all in-flight classes have completed"() {
+        def visitor = new ParallelTestClassVisitor(executorFactory, "test", 4)
+        def failure = new RuntimeException("broken")
+
+        when:
+        visitor.visitClasses(provider, { TestClassResult result ->
+            if (result.className == "Class3") {
+                throw failure
+            }
+        } as Action)
+
+        then:
+        def e = thrown(RuntimeException)
+        e.is(failure)
+    }
+}
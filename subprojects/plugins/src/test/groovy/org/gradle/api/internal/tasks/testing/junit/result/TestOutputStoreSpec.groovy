@@ -93,6 +93,34 @@ class TestOutputStoreSpec extends WorkspaceTest {
         new DefaultTestOutputEvent(destination, msg)
     }
 
+    def "reader can be used concurrently"() {
+        given:
+        def writer = output.writer()
+        100.times { classId ->
+            10.times { writer.onOutput(classId + 1, output(StdOut, "[${classId + 1}-${it}]")) }
+        }
+        writer.close()
+        def reader = output.reader()
+        def results = Collections.synchronizedMap([:])
+
+        when:
+        def threads = (1..4).collect { threadNum ->
+            Thread.start {
+                (1..100).each { classId ->
+                    results[classId] = collectAllOutput(reader, classId, StdOut)
+                }
+            }
+        }
+        threads*.join()
+
+        then:
+        results.size() == 100
+        results.every { classId, text -> text == (0..9).collect { "[${classId}-${it}]" }.join("") }
+
+        cleanup:
+        reader?.close()
+    }
+
     def "writes nothing for unknown test class"() {
         when:
         def writer = output.writer()
@@ -18,7 +18,10 @@ package org.gradle.api.internal.tasks.testing.junit.result
 
 import org.gradle.api.internal.tasks.testing.*
 import org.gradle.api.internal.tasks.testing.results.DefaultTestResult
+import org.gradle.api.Action
 import org.gradle.messaging.remote.internal.PlaceholderException
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
 import spock.lang.Issue
 import spock.lang.Specification
 
@@ -29,6 +32,7 @@ import static org.gradle.api.tasks.testing.TestResult.ResultType.FAILURE
 import static org.gradle.api.tasks.testing.TestResult.ResultType.SUCCESS
 
 class TestReportDataCollectorSpec extends Specification {
+    @Rule TestNameTestDirectoryProvider tmp = new TestNameTestDirectoryProvider()
     def Map<String, TestClassResult> results = [:]
     def TestOutputStore.Writer writer = Mock()
     def collector = new TestReportDataCollector(results, writer)
@@ -219,4 +223,81 @@ class TestReportDataCollectorSpec extends Specification {
         then:
         results.get("FooTest").startTime == 100
     }
+
+    def "writes results of test class when class completes"() {
+        def resultWriter = Mock(TestResultSerializer.Writer)
+        def collector = new TestReportDataCollector(results, writer, resultWriter)
+        def root = new DefaultTestSuiteDescriptor("1", "Suite")
+        def clazz = new DecoratingTestDescriptor(new DefaultTestClassDescriptor("1.1", "FooTest"), root)
+        def test = new DecoratingTestDescriptor(new DefaultTestDescriptor("1.1.1", "FooTest", "testMethod"), clazz)
+
+        when:
+        collector.beforeSuite(root)
+        collector.beforeSuite(clazz)
+        collector.beforeTest(test)
+        collector.afterTest(test, new DefaultTestResult(SUCCESS, 100, 200, 1, 1, 0, []))
+
+        then:
+        results.size() == 1
+        0 * resultWriter._
+
+        when:
+        collector.afterSuite(clazz, new DefaultTestResult(SUCCESS, 50, 250, 1, 1, 0, []))
+
+        then:
+        1 * resultWriter.write({ it.className == 'FooTest' && it.results.size() == 1 })
+        results.isEmpty()
+
+        when:
+        collector.afterSuite(root, new DefaultTestResult(SUCCESS, 0, 500, 1, 1, 0, []))
+
+        then:
+        0 * resultWriter._
+    }
+
+    def "writes results for a test class received from more than one suite with the same id"() {
+        def serializer = new TestResultSerializer(tmp.createDir("results"))
+        def resultWriter = serializer.writer()
+        def collector = new TestReportDataCollector(results, writer, resultWriter)
+        def root = new DefaultTestSuiteDescriptor("1", "Suite")
+        def clazz1 = new DecoratingTestDescriptor(new DefaultTestClassDescriptor("1.1", "FooTest"), root)
+        def test1 = new DecoratingTestDescriptor(new DefaultTestDescriptor("1.1.1", "FooTest", "testMethod"), clazz1)
+        def clazz2 = new DecoratingTestDescriptor(new DefaultTestClassDescriptor("1.2", "FooTest"), root)
+        def test2 = new DecoratingTestDescriptor(new DefaultTestDescriptor("1.2.1", "FooTest", "testMethod2"), clazz2)
+        def other = new DecoratingTestDescriptor(new DefaultTestClassDescriptor("1.3", "BarTest"), root)
+        def test3 = new DecoratingTestDescriptor(new DefaultTestDescriptor("1.3.1", "BarTest", "testMethod"), other)
+
+        when:
+        collector.beforeSuite(root)
+        collector.beforeSuite(clazz1)
+        collector.beforeTest(test1)
+        collector.afterTest(test1, new DefaultTestResult(SUCCESS, 100, 200, 1, 1, 0, []))
+        collector.afterSuite(clazz1, new DefaultTestResult(SUCCESS, 100, 200, 1, 1, 0, []))
+        collector.beforeSuite(other)
+        collector.beforeTest(test3)
+        collector.afterTest(test3, new DefaultTestResult(SUCCESS, 200, 300, 1, 1, 0, []))
+        collector.afterSuite(other, new DefaultTestResult(SUCCESS, 200, 300, 1, 1, 0, []))
+        collector.beforeSuite(clazz2)
+        collector.beforeTest(test2)
+        collector.onOutput(test2, new DefaultTestOutputEvent(StdOut, "out"))
+        collector.afterTest(test2, new DefaultTestResult(FAILURE, 300, 400, 1, 0, 1, [new RuntimeException("Boo!")]))
+        collector.afterSuite(clazz2, new DefaultTestResult(FAILURE, 300, 400, 1, 0, 1, []))
+        collector.afterSuite(root, new DefaultTestResult(FAILURE, 0, 500, 3, 2, 1, []))
+        resultWriter.close()
+
+        def read = []
+        serializer.read({ read << it } as Action)
+
+        then:
+        read*.className == ['FooTest', 'BarTest', 'FooTest']
+        read[0].results*.name == ['testMethod']
+        read[2].results*.name == ['testMethod2']
+        read[2].failuresCount == 1
+
+        and:
+        // the later results and output are associated with the id of the class written earlier
+        read[0].id == 2
+        read[2].id == 2
+        1 * writer.onOutput(2, 5, new DefaultTestOutputEvent(StdOut, "out"))
+    }
 }
@@ -67,6 +67,51 @@ class TestResultSerializerTest extends Specification {
         readClass2.results.empty
     }
 
+    def "writes each result as it is received"() {
+        def serializer = new TestResultSerializer(tmp.createDir("results"))
+        def writer = serializer.writer()
+
+        when:
+        writer.write(new TestClassResult(1, 'Class1', 1234))
+        writer.write(new TestClassResult(2, 'Class2', 5678))
+        writer.close()
+        def read = []
+        serializer.read({ read << it } as Action)
+
+        then:
+        serializer.hasResults
+        read*.className == ['Class1', 'Class2']
+    }
+
+    def "visits each class result in the order it was written"() {
+        def serializer = new TestResultSerializer(tmp.createDir("results"))
+        def writer = serializer.writer()
+
+        when:
+        writer.write(new TestClassResult(1, 'Class1', 1234).add(new TestMethodResult(1, "method1", TestResult.ResultType.SUCCESS, 100, 1334)))
+        writer.write(new TestClassResult(2, 'Class2', 5678))
+        writer.write(new TestClassResult(1, 'Class1', 1500).add(new TestMethodResult(3, "method2", TestResult.ResultType.FAILURE, 100, 1600)))
+        writer.close()
+        def read = []
+        serializer.read({ read << it } as Action)
+
+        then:
+        read*.className == ['Class1', 'Class2', 'Class1']
+        read*.id == [1, 2, 1]
+        read[0].results*.name == ['method1']
+        read[2].results*.name == ['method2']
+    }
+
+    def "has no results when nothing written"() {
+        def serializer = new TestResultSerializer(tmp.createDir("results"))
+
+        when:
+        serializer.writer().close()
+
+        then:
+        !serializer.hasResults
+    }
+
     List<TestClassResult> serialize(Collection<TestClassResult> results) {
         def serializer = new TestResultSerializer(tmp.createDir("results"))
         serializer.write(results)
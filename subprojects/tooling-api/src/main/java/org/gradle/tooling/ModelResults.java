@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling;
+
+import org.gradle.api.Incubating;
+
+/**
+ * The models fetched by a single build invocation, as requested using {@link ProjectConnection#models(Class[])}.
+ *
+ * @since 2.2
+ */
+@Incubating
+public interface ModelResults {
+    /**
+     * Returns the model of the given type.
+     *
+     * @param modelType The model type.
+     * @param <T> The model type.
+     * @return The model.
+     * @throws IllegalArgumentException When a model of the given type was not requested.
+     * @since 2.2
+     */
+    <T> T get(Class<T> modelType) throws IllegalArgumentException;
+}
@@ -130,6 +130,20 @@ public interface ProjectConnection {
     @Incubating
     <T> BuildActionExecuter<T> action(BuildAction<T> buildAction);
 
+    /**
+     * Creates an executer which can be used to fetch snapshots of the models of the given types in a single build invocation.
+     * The build is configured once, and the models are built from the same configured build, which is generally faster than fetching each
+     * model separately.
+     *
+     * <p>See {@link #model(Class)} for the model types which may be available.</p>
+     *
+     * @param modelTypes The model types.
+     * @return The executer.
+     * @since 2.2
+     */
+    @Incubating
+    BuildActionExecuter<ModelResults> models(Class<?>... modelTypes);
+
     /**
      * Closes this connection. Blocks until any pending operations are complete. Once this method has returned, no more notifications will be delivered by any threads.
      * @since 1.0-milestone-3
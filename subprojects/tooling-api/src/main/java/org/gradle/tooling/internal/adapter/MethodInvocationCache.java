@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling.internal.adapter;
+
+import com.google.common.base.Optional;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Locates the methods of source objects which implement the methods of view types, and remembers the result for each source class.
+ *
+ * <p>The contents of the cache are not serialized, and are located again when required.</p>
+ */
+class MethodInvocationCache implements Serializable {
+    private transient ConcurrentMap<MethodInvocationKey, Optional<Method>> store = new ConcurrentHashMap<MethodInvocationKey, Optional<Method>>();
+
+    /**
+     * Returns the method of the given class with the given signature, or null if the class has no such method.
+     */
+    public Method get(Class<?> sourceClass, String name, Class<?>[] parameterTypes) {
+        MethodInvocationKey key = new MethodInvocationKey(sourceClass, name, parameterTypes);
+        Optional<Method> cached = store.get(key);
+        if (cached == null) {
+            cached = Optional.fromNullable(locateMethod(sourceClass, name, parameterTypes));
+            store.putIfAbsent(key, cached);
+        }
+        return cached.orNull();
+    }
+
+    private Object readResolve() {
+        return new MethodInvocationCache();
+    }
+
+    private static Method locateMethod(Class<?> sourceClass, String name, Class<?>[] parameterTypes) {
+        Method match;
+        try {
+            match = sourceClass.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        LinkedList<Class<?>> queue = new LinkedList<Class<?>>();
+        queue.add(sourceClass);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.removeFirst();
+            try {
+                match = c.getMethod(name, parameterTypes);
+            } catch (NoSuchMethodException e) {
+                // ignore
+            }
+            for (Class<?> interfaceType : c.getInterfaces()) {
+                queue.addFirst(interfaceType);
+            }
+            if (c.getSuperclass() != null) {
+                queue.addFirst(c.getSuperclass());
+            }
+        }
+        match.setAccessible(true);
+        return match;
+    }
+
+    private static class MethodInvocationKey {
+        private final Class<?> sourceClass;
+        private final String name;
+        private final Class<?>[] parameterTypes;
+        private final int hashCode;
+
+        private MethodInvocationKey(Class<?> sourceClass, String name, Class<?>[] parameterTypes) {
+            this.sourceClass = sourceClass;
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.hashCode = 31 * (31 * sourceClass.hashCode() + name.hashCode()) + Arrays.hashCode(parameterTypes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            MethodInvocationKey other = (MethodInvocationKey) obj;
+            return sourceClass.equals(other.sourceClass) && name.equals(other.name) && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
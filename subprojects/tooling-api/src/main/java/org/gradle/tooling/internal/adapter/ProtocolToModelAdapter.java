@@ -46,6 +46,7 @@ public class ProtocolToModelAdapter implements Serializable {
     private static final Pattern IS_METHOD = Pattern.compile("is(\\w+)");
     private final TargetTypeProvider targetTypeProvider;
     private final CollectionMapper collectionMapper = new CollectionMapper();
+    private final MethodInvocationCache methodInvocationCache = new MethodInvocationCache();
 
     public ProtocolToModelAdapter() {
         this(IDENTITY_TYPE_PROVIDER);
@@ -323,8 +324,7 @@ public class ProtocolToModelAdapter implements Serializable {
 
     private class ReflectionMethodInvoker implements MethodInvoker {
         public void invoke(MethodInvocation invocation) throws Throwable {
-            // TODO - cache method lookup
-            Method targetMethod = locateMethod(invocation);
+            Method targetMethod = methodInvocationCache.get(invocation.getDelegate().getClass(), invocation.getName(), invocation.getParameterTypes());
             if (targetMethod == null) {
                 return;
             }
@@ -338,35 +338,6 @@ public class ProtocolToModelAdapter implements Serializable {
 
             invocation.setResult(returnValue);
         }
-
-        private Method locateMethod(MethodInvocation invocation) {
-            Class<?> sourceClass = invocation.getDelegate().getClass();
-            Method match;
-            try {
-                match = sourceClass.getMethod(invocation.getName(), invocation.getParameterTypes());
-            } catch (NoSuchMethodException e) {
-                return null;
-            }
-
-            LinkedList<Class<?>> queue = new LinkedList<Class<?>>();
-            queue.add(sourceClass);
-            while (!queue.isEmpty()) {
-                Class<?> c = queue.removeFirst();
-                try {
-                    match = c.getMethod(invocation.getName(), invocation.getParameterTypes());
-                } catch (NoSuchMethodException e) {
-                    // ignore
-                }
-                for (Class<?> interfaceType : c.getInterfaces()) {
-                    queue.addFirst(interfaceType);
-                }
-                if (c.getSuperclass() != null) {
-                    queue.addFirst(c.getSuperclass());
-                }
-            }
-            match.setAccessible(true);
-            return match;
-        }
     }
 
     private static class PropertyCachingMethodInvoker implements MethodInvoker {
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling.internal.consumer;
+
+import org.gradle.tooling.ModelResults;
+
+import java.io.Serializable;
+import java.util.Map;
+
+public class DefaultModelResults implements ModelResults, Serializable {
+    private final Map<Class<?>, Object> models;
+
+    public DefaultModelResults(Map<Class<?>, Object> models) {
+        this.models = models;
+    }
+
+    public <T> T get(Class<T> modelType) throws IllegalArgumentException {
+        if (!models.containsKey(modelType)) {
+            throw new IllegalArgumentException(String.format("No model of type '%s' was requested.", modelType.getName()));
+        }
+        return modelType.cast(models.get(modelType));
+    }
+}
@@ -18,6 +18,10 @@ package org.gradle.tooling.internal.consumer;
 import org.gradle.tooling.*;
 import org.gradle.tooling.internal.consumer.async.AsyncConsumerActionExecutor;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
 class DefaultProjectConnection implements ProjectConnection {
     private final AsyncConsumerActionExecutor connection;
     private final ConnectionParameters parameters;
@@ -44,14 +48,27 @@ class DefaultProjectConnection implements ProjectConnection {
     }
 
     public <T> ModelBuilder<T> model(Class<T> modelType) {
-        if (!modelType.isInterface()) {
-            throw new IllegalArgumentException(String.format("Cannot fetch a model of type '%s' as this type is not an interface.", modelType.getName()));
-        }
+        assertModelType(modelType);
         return new DefaultModelBuilder<T>(modelType, connection, parameters);
     }
 
+    public BuildActionExecuter<ModelResults> models(Class<?>... modelTypes) {
+        if (modelTypes.length == 0) {
+            throw new IllegalArgumentException("No model types specified.");
+        }
+        for (Class<?> modelType : modelTypes) {
+            assertModelType(modelType);
+        }
+        return action(new FetchModelsAction(new ArrayList<Class<?>>(new LinkedHashSet<Class<?>>(Arrays.asList(modelTypes)))));
+    }
+
     public <T> BuildActionExecuter<T> action(final BuildAction<T> buildAction) {
         return new DefaultBuildActionExecuter<T>(buildAction, connection, parameters);
     }
 
+    private static void assertModelType(Class<?> modelType) {
+        if (!modelType.isInterface()) {
+            throw new IllegalArgumentException(String.format("Cannot fetch a model of type '%s' as this type is not an interface.", modelType.getName()));
+        }
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling.internal.consumer;
+
+import org.gradle.tooling.BuildAction;
+import org.gradle.tooling.BuildController;
+import org.gradle.tooling.ModelResults;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches several models in a single build invocation, so that the build is configured only once for all of them.
+ */
+public class FetchModelsAction implements BuildAction<ModelResults> {
+    private final List<Class<?>> modelTypes;
+
+    public FetchModelsAction(List<Class<?>> modelTypes) {
+        this.modelTypes = modelTypes;
+    }
+
+    public List<Class<?>> getModelTypes() {
+        return modelTypes;
+    }
+
+    public ModelResults execute(BuildController controller) {
+        Map<Class<?>, Object> models = new LinkedHashMap<Class<?>, Object>();
+        for (Class<?> modelType : modelTypes) {
+            models.put(modelType, controller.getModel(modelType));
+        }
+        return new DefaultModelResults(models);
+    }
+}
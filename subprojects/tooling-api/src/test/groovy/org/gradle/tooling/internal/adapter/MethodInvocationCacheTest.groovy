@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling.internal.adapter
+
+import spock.lang.Specification
+
+class MethodInvocationCacheTest extends Specification {
+    final def cache = new MethodInvocationCache()
+
+    def "locates public method of source class"() {
+        expect:
+        def method = cache.get(ArrayList, "get", [int] as Class[])
+        method.name == "get"
+        method.invoke(["a", "b"], 1) == "b"
+    }
+
+    def "prefers method declared by an interface of the source class"() {
+        expect:
+        cache.get(Collections.unmodifiableList([]).class, "size", [] as Class[]).declaringClass.interface
+    }
+
+    def "reuses located method for the same source class and signature"() {
+        expect:
+        cache.get(ArrayList, "size", [] as Class[]).is(cache.get(ArrayList, "size", [] as Class[]))
+        !cache.get(ArrayList, "size", [] as Class[]).is(cache.get(LinkedList, "size", [] as Class[]))
+    }
+
+    def "returns null for missing method"() {
+        expect:
+        cache.get(ArrayList, "unknown", [] as Class[]) == null
+        cache.get(ArrayList, "get", [String] as Class[]) == null
+        cache.get(ArrayList, "unknown", [] as Class[]) == null
+    }
+}
@@ -15,8 +15,11 @@
  */
 package org.gradle.tooling.internal.consumer
 
+import org.gradle.tooling.BuildController
 import org.gradle.tooling.internal.consumer.async.AsyncConsumerActionExecutor
 import org.gradle.tooling.model.GradleProject
+import org.gradle.tooling.model.eclipse.EclipseProject
+import org.gradle.tooling.model.idea.IdeaProject
 import spock.lang.Specification
 
 class DefaultProjectConnectionTest extends Specification {
@@ -38,6 +41,44 @@ class DefaultProjectConnectionTest extends Specification {
         e.message == "Cannot fetch a model of type 'java.lang.String' as this type is not an interface."
     }
 
+    def canCreateAnExecuterForSeveralModels() {
+        expect:
+        connection.models(GradleProject.class, EclipseProject.class, GradleProject.class) instanceof DefaultBuildActionExecuter
+        connection.models(GradleProject.class, EclipseProject.class).buildAction.modelTypes == [GradleProject.class, EclipseProject.class]
+    }
+
+    def modelTypesMustBeInterfaces() {
+        when:
+        connection.models(GradleProject.class, String.class)
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message == "Cannot fetch a model of type 'java.lang.String' as this type is not an interface."
+    }
+
+    def fetchesEachModelInTheSameBuildAction() {
+        def controller = Mock(BuildController)
+        def gradleProject = Stub(GradleProject)
+        def eclipseProject = Stub(EclipseProject)
+        def action = new FetchModelsAction([GradleProject, EclipseProject])
+
+        when:
+        def results = action.execute(controller)
+
+        then:
+        1 * controller.getModel(GradleProject) >> gradleProject
+        1 * controller.getModel(EclipseProject) >> eclipseProject
+        results.get(GradleProject).is(gradleProject)
+        results.get(EclipseProject).is(eclipseProject)
+
+        when:
+        results.get(IdeaProject)
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.message == "No model of type 'org.gradle.tooling.model.idea.IdeaProject' was requested."
+    }
+
     def canCreateABuildLauncher() {
         expect:
         connection.newBuild() instanceof DefaultBuildLauncher